@@ -0,0 +1,11 @@
+// @ts-nocheck
+window.Vaadin = window.Vaadin || {};
+window.Vaadin.featureFlags = window.Vaadin.featureFlags || {};
+window.Vaadin.featureFlags.exampleFeatureFlag = false;
+window.Vaadin.featureFlags.collaborationEngineBackend = false;
+window.Vaadin.featureFlags.formFillerAddon = false;
+window.Vaadin.featureFlags.hillaI18n = false;
+window.Vaadin.featureFlags.fullstackSignals = false;
+window.Vaadin.featureFlags.copilotExperimentalFeatures = false;
+window.Vaadin.featureFlags.dashboardComponent = false;
+export {};
\ No newline at end of file
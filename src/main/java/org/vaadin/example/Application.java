@@ -6,12 +6,15 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
 import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.env.Environment;
 import org.springframework.web.client.RestTemplate;
 import org.vaadin.example.domain.repository.PersonRepository;
+import org.vaadin.example.infrastructure.VaadinSessionClientIdInterceptor;
 
 import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.theme.Theme;
 
 /**
@@ -20,7 +23,10 @@ import com.vaadin.flow.theme.Theme;
  * Use the @PWA annotation make the application installable on phones, tablets
  * and some desktop browsers.
  *
+ * Use the @Push annotation so that changes made by other sessions can be
+ * pushed to every open UI.
  */
+@Push
 @SpringBootApplication
 @Theme(value = "spring-vaadin-crud")
 public class Application implements AppShellConfigurator {
@@ -29,9 +35,14 @@ public class Application implements AppShellConfigurator {
         SpringApplication.run(Application.class, args);
     }
 
+    /**
+     * Arayüzün REST API çağrıları için RestTemplate. Her çağrıya Vaadin
+     * oturumuna özgü bir istemci kimliği eklenir; rate limit oturum başına
+     * uygulanır.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+        return builder.additionalInterceptors(new VaadinSessionClientIdInterceptor()).build();
     }
 
     public SqlDataSourceScriptDatabaseInitializer dataSourceScriptDatabaseInitializer(
@@ -0,0 +1,169 @@
+package org.vaadin.example.application.admission;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Bir istek sınıfının (okuma veya yazma) bütçesi: istemci başına bir token
+ * bucket ve tüm istemciler için ortak bir eşzamanlılık sınırı.
+ *
+ * Eşzamanlılık sınırı doluysa istek en fazla queueTimeout kadar sırada
+ * bekler; süre dolarsa reddedilir. Reddedilen, sıraya giren ve sırada geçen
+ * süre Micrometer metrikleri olarak yayınlanır.
+ *
+ * Tutulan kova sayısı sınırlıdır. Sınıra ulaşıldığında önce dolu (boşta)
+ * kovalar, yer açılmadıysa en uzun süredir kullanılmayanlar çıkarılır; kova
+ * sayısı sınırın onda dokuzuna iner. Çıkarılan bir istemci sonraki isteğinde
+ * dolu bir kova ile başlar. Temizlik tek thread'de yapılır ve ardından en az
+ * sınırın onda biri kadar yeni istemci gelene kadar tekrarlanmaz.
+ */
+final class AdmissionBudget {
+
+    private final int burst;
+    private final double ratePerSecond;
+    private final int concurrency;
+    private final long queueTimeoutNanos;
+    private final int maxClients;
+    private final Semaphore permits;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ReentrantLock eviction = new ReentrantLock();
+
+    private final Counter rateLimited;
+    private final Counter shed;
+    private final Counter queued;
+    private final Timer queueWait;
+
+    /**
+     * @param name          Metrik etiketi: "read" veya "write".
+     * @param ratePerSecond İstemci başına saniyedeki istek sayısı.
+     * @param burst         İstemci başına anlık izin verilen istek sayısı.
+     * @param concurrency   Aynı anda işlenebilecek toplam istek sayısı.
+     * @param queueTimeout  Eşzamanlılık sınırında en fazla bekleme süresi.
+     * @param maxClients    Kovası tutulan en fazla istemci sayısı.
+     * @param registry      Metriklerin kaydedileceği registry.
+     */
+    AdmissionBudget(String name, double ratePerSecond, int burst, int concurrency, Duration queueTimeout,
+            int maxClients, MeterRegistry registry) {
+        this.burst = burst;
+        this.ratePerSecond = ratePerSecond;
+        this.concurrency = concurrency;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.maxClients = maxClients;
+        this.permits = new Semaphore(concurrency, true);
+
+        this.rateLimited = Counter.builder("personel.api.admission.rejected")
+                .description("Rate limit veya aşırı yük nedeniyle reddedilen istekler")
+                .tag("budget", name).tag("reason", "rate-limit").register(registry);
+        this.shed = Counter.builder("personel.api.admission.rejected")
+                .description("Rate limit veya aşırı yük nedeniyle reddedilen istekler")
+                .tag("budget", name).tag("reason", "overload").register(registry);
+        this.queued = Counter.builder("personel.api.admission.queued")
+                .description("Eşzamanlılık sınırında sıraya giren istekler")
+                .tag("budget", name).register(registry);
+        this.queueWait = Timer.builder("personel.api.admission.queue.wait")
+                .description("Sırada geçen süre")
+                .tag("budget", name).register(registry);
+        Gauge.builder("personel.api.admission.in-flight", permits, p -> this.concurrency - p.availablePermits())
+                .description("İşlenmekte olan istekler")
+                .tag("budget", name).register(registry);
+    }
+
+    /**
+     * İstemcinin kovasından bir token harcar.
+     *
+     * @return Kabul edildiyse 0; aksi halde bir sonraki token için beklenmesi
+     *         gereken süre (nanosaniye).
+     */
+    long reserve(String clientId) {
+        long now = System.nanoTime();
+        if (buckets.size() >= maxClients) {
+            evict(now);
+        }
+        long wait = buckets.computeIfAbsent(clientId, id -> new TokenBucket(burst, ratePerSecond, now))
+                .tryConsume(now);
+        if (wait > 0) {
+            rateLimited.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * reserve ile harcanan tokenı geri verir; istek eşzamanlılık sınırında
+     * reddedilip hiç işlenmediğinde çağrılır. Kova bu arada çıkarıldıysa
+     * istemci zaten dolu bir kovayla başlayacağı için bir şey yapılmaz.
+     */
+    void refund(String clientId) {
+        TokenBucket bucket = buckets.get(clientId);
+        if (bucket != null) {
+            bucket.refund();
+        }
+    }
+
+    /**
+     * Kova sayısını sınırın onda dokuzuna indirir. Başka bir thread zaten
+     * temizlik yapıyorsa beklemeden döner.
+     */
+    private void evict(long now) {
+        if (!eviction.tryLock()) {
+            return;
+        }
+        try {
+            if (buckets.size() < maxClients) {
+                return;
+            }
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+            int excess = buckets.size() - maxClients / 10 * 9;
+            if (excess > 0) {
+                // Son kullanım zamanları sıralamadan önce okunur; sıralama
+                // sırasında değişmezler.
+                buckets.entrySet().stream()
+                        .map(entry -> Map.entry(entry.getKey(), entry.getValue().lastUsed()))
+                        .sorted(Map.Entry.comparingByValue())
+                        .limit(excess)
+                        .forEach(entry -> buckets.remove(entry.getKey()));
+            }
+        } finally {
+            eviction.unlock();
+        }
+    }
+
+    /**
+     * Şu an kovası tutulan istemci sayısı.
+     */
+    int trackedClients() {
+        return buckets.size();
+    }
+
+    /**
+     * Eşzamanlılık sınırından bir izin alır; gerekirse sırada bekler.
+     *
+     * @return İzin alındıysa true; bekleme süresi dolduysa false.
+     */
+    boolean acquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        queued.increment();
+        long start = System.nanoTime();
+        boolean acquired = permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            shed.increment();
+        }
+        return acquired;
+    }
+
+    void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,52 @@
+package org.vaadin.example.application.admission;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * AdmissionControlConfig, AdmissionControlFilter'ı personel REST API'sinin
+ * önüne yerleştirir.
+ *
+ * Okuma ve yazma eşzamanlılık sınırlarının toplamı, bağlantı havuzunun
+ * (spring.datasource.hikari.maximum-pool-size) altında tutulmalıdır; aksi
+ * halde API istekleri arayüz ve arka plan işleri için bağlantı bırakmaz.
+ *
+ * api.admission.enabled=false ile kapatılabilir.
+ */
+@Configuration
+@ConditionalOnProperty(name = "api.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(MeterRegistry registry,
+            @Value("${api.admission.read.rate:50}") double readRate,
+            @Value("${api.admission.read.burst:100}") int readBurst,
+            @Value("${api.admission.read.concurrency:6}") int readConcurrency,
+            @Value("${api.admission.write.rate:10}") double writeRate,
+            @Value("${api.admission.write.burst:20}") int writeBurst,
+            @Value("${api.admission.write.concurrency:3}") int writeConcurrency,
+            @Value("${api.admission.queue-timeout:200ms}") Duration queueTimeout,
+            @Value("${api.admission.max-clients:10000}") int maxClients,
+            @Value("${api.admission.trusted-proxies:}") Set<String> trustedProxies) {
+        AdmissionControlFilter filter = new AdmissionControlFilter(
+                new AdmissionBudget("read", readRate, readBurst, readConcurrency, queueTimeout, maxClients,
+                        registry),
+                new AdmissionBudget("write", writeRate, writeBurst, writeConcurrency, queueTimeout, maxClients,
+                        registry),
+                queueTimeout, trustedProxies);
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/personel/*", "/api/personel");
+        // Diğer filtrelerden önce çalışır; reddedilen istek hiçbir iş yaptırmaz.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,128 @@
+package org.vaadin.example.application.admission;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * AdmissionControlFilter, personel REST API'sine gelen istekleri service
+ * katmanına ulaşmadan önce sınırlar.
+ *
+ * <ul>
+ * <li>Her istemcinin okuma (GET/HEAD) ve yazma istekleri için ayrı token
+ * bucket'ı vardır. Kova boşsa istek 429 Too Many Requests ile
+ * reddedilir.</li>
+ * <li>Okuma ve yazma istekleri için ayrı, tüm istemcilerde ortak bir
+ * eşzamanlılık sınırı vardır. Böylece tek bir istemcinin patlaması bağlantı
+ * havuzunu tüketemez. Sınır doluysa istek kısa bir süre bekler, ardından 503
+ * Service Unavailable ile reddedilir.</li>
+ * </ul>
+ *
+ * Her iki redde de Retry-After başlığı eklenir. 503 ile reddedilen isteğin
+ * harcadığı token istemciye geri verilir. İstemci uzak adresiyle
+ * tanınır. X-Client-Id başlığı yalnızca aynı makineden (uygulamanın kendi
+ * arayüzü) veya güvenilen bir proxy'den gelirse kullanılır; başka
+ * istemcilerin her istekte yeni bir kimlik göndererek sınırı aşmasını
+ * engeller.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private final AdmissionBudget readBudget;
+    private final AdmissionBudget writeBudget;
+    private final long overloadRetryAfterSeconds;
+    private final Set<String> trustedProxies;
+
+    /**
+     * @param readBudget     GET/HEAD istekleri için bütçe.
+     * @param writeBudget    Diğer istekler için bütçe.
+     * @param queueTimeout   Eşzamanlılık sınırında bekleme süresi; 503
+     *                       yanıtlarındaki Retry-After bundan türetilir.
+     * @param trustedProxies X-Client-Id başlığına güvenilen uzak adresler
+     *                       (loopback adresleri her zaman güvenilir).
+     */
+    AdmissionControlFilter(AdmissionBudget readBudget, AdmissionBudget writeBudget, Duration queueTimeout,
+            Set<String> trustedProxies) {
+        this.readBudget = readBudget;
+        this.writeBudget = writeBudget;
+        this.overloadRetryAfterSeconds = Math.max(1, queueTimeout.toSeconds());
+        this.trustedProxies = Set.copyOf(trustedProxies);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdmissionBudget budget = isRead(request) ? readBudget : writeBudget;
+
+        String clientId = clientId(request);
+        long wait = budget.reserve(clientId);
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999L)));
+            return;
+        }
+
+        boolean acquired;
+        try {
+            acquired = budget.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            // İstek işlenmedi; Retry-After'a uyan istemci tekrarında 429 almasın.
+            budget.refund(clientId);
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, overloadRetryAfterSeconds);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            budget.release();
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method);
+    }
+
+    String clientId(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (!trustedProxies.contains(address) && !isLoopback(address)) {
+            return address;
+        }
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        return clientId != null && !clientId.isBlank() ? clientId : address;
+    }
+
+    /**
+     * Uzak adres her zaman bir IP literal'idir; isim çözümlemesi yapılmaz.
+     */
+    private static boolean isLoopback(String address) {
+        try {
+            return InetAddress.getByName(address).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds) {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+    }
+}
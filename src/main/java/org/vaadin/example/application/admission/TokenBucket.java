@@ -0,0 +1,69 @@
+package org.vaadin.example.application.admission;
+
+/**
+ * Tek bir istemcinin token bucket'ı.
+ *
+ * Kova en fazla burst kadar token tutar ve saniyede rate kadar dolar. Her
+ * istek bir token harcar; token yoksa bir sonraki tokena kadar beklenecek
+ * süre döndürülür. Zaman dışarıdan (System.nanoTime) verilir.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+    private long lastUsed;
+
+    TokenBucket(int burst, double tokensPerSecond, long now) {
+        this.capacity = burst;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = burst;
+        this.lastRefill = now;
+        this.lastUsed = now;
+    }
+
+    /**
+     * @return İstek kabul edildiyse 0; aksi halde bir sonraki token için
+     *         beklenmesi gereken süre (nanosaniye).
+     */
+    synchronized long tryConsume(long now) {
+        refill(now);
+        lastUsed = Math.max(lastUsed, now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * tryConsume ile harcanan bir tokenı geri koyar; kova burst'ü aşmaz.
+     */
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    /**
+     * Kova tamamen dolduysa istemcinin durumu tutulmasa da aynıdır.
+     */
+    synchronized boolean isFull(long now) {
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    /**
+     * İstemcinin son istek yaptığı an. Dolum hesabı (ör. isFull) bu anı
+     * değiştirmez.
+     */
+    synchronized long lastUsed() {
+        return lastUsed;
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+}
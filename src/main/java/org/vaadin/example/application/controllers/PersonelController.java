@@ -1,12 +1,17 @@
 package org.vaadin.example.application.controllers;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -14,8 +19,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.vaadin.example.domain.dto.NameSuggestion;
+import org.vaadin.example.domain.dto.PersonChanges;
+import org.vaadin.example.domain.dto.PersonConflict;
+import org.vaadin.example.domain.dto.PersonFacets;
+import org.vaadin.example.domain.dto.PersonPatch;
 import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.DuplicateNationalNumberException;
 import org.vaadin.example.services.IPersonService;
+import org.vaadin.example.services.facet.PersonFacetIndex;
+import org.vaadin.example.services.suggest.PersonNameIndex;
 
 /**
  * Personel verileri için REST API Controller sınıfı.
@@ -26,15 +39,27 @@ import org.vaadin.example.services.IPersonService;
 @RequestMapping("/api/personel")
 public class PersonelController {
 
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_CHANGES = 1000;
+
+    public static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final IPersonService personService;
+    private final PersonNameIndex nameIndex;
+    private final PersonFacetIndex facetIndex;
 
     /**
      * PersonelController sınıfı constructor'ı.
      * 
      * @param personService Person servisi bağımlılığı enjekte edilir.
+     * @param nameIndex     Otomatik tamamlama için ad index'i.
+     * @param facetIndex    Bellekte tutulan dağılım sayıları.
      */
-    public PersonelController(IPersonService personService) {
+    public PersonelController(IPersonService personService, PersonNameIndex nameIndex,
+            PersonFacetIndex facetIndex) {
         this.personService = personService;
+        this.nameIndex = nameIndex;
+        this.facetIndex = facetIndex;
     }
 
     /**
@@ -54,11 +79,16 @@ public class PersonelController {
      * Yeni bir person kaydı oluşturur.
      * 
      * @param person Kaydedilecek person nesnesi.
-     * @return Kaydedilen person nesnesi.
+     * @return Kaydedilen person nesnesi veya kimlik numarası başka bir kayıtta
+     *         varsa DUPLICATE_NATIONAL_NUMBER gövdeli 409 Conflict.
      */
     @PostMapping
-    public ResponseEntity<Person> createPerson(@RequestBody Person person) {
-        return ResponseEntity.ok(personService.save(person));
+    public ResponseEntity<?> createPerson(@RequestBody Person person) {
+        try {
+            return ResponseEntity.ok(personService.save(person));
+        } catch (DuplicateNationalNumberException e) {
+            return conflict(PersonConflict.duplicateNationalNumber());
+        }
     }
 
     /**
@@ -66,17 +96,52 @@ public class PersonelController {
      * 
      * @param id     Güncellenecek kişinin ID'si.
      * @param person Güncellenmiş person bilgileri.
-     * @return Güncellenmiş person nesnesi veya kişi bulunamazsa 404 Not Found.
+     * @return Güncellenmiş person nesnesi, kişi bulunamazsa 404 Not Found veya
+     *         kimlik numarası başka bir kayıtta varsa DUPLICATE_NATIONAL_NUMBER
+     *         gövdeli 409 Conflict.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Person> updatePerson(@PathVariable Long id, @RequestBody Person person) {
+    public ResponseEntity<?> updatePerson(@PathVariable Long id, @RequestBody Person person) {
         try {
             return ResponseEntity.ok(personService.update(id, person));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (DuplicateNationalNumberException e) {
+            return conflict(PersonConflict.duplicateNationalNumber());
         }
     }
 
+    /**
+     * Bir person kaydının yalnızca gövdedeki alanlarını günceller (JSON merge
+     * patch). Gövdede version varsa kayıt yalnızca hâlâ bu version'daysa
+     * güncellenir. Bilinmeyen bir alan 400 Bad Request döndürür.
+     * 
+     * @param id    Güncellenecek kişinin ID'si.
+     * @param patch Değişen alanlar ve beklenen version.
+     * @return Güncellenmiş person nesnesi, kişi bulunamazsa 404 Not Found,
+     *         kimlik numarası başka bir kayıtta varsa DUPLICATE_NATIONAL_NUMBER
+     *         gövdeli 409 Conflict, kayıt bu arada değiştiyse VERSION_CONFLICT
+     *         ve kaydın güncel haliyle 409 Conflict.
+     */
+    @PatchMapping(value = "/{id}", consumes = { MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<?> patchPerson(@PathVariable Long id, @RequestBody PersonPatch patch) {
+        try {
+            return ResponseEntity.ok(personService.patch(id, patch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (DuplicateNationalNumberException e) {
+            return conflict(PersonConflict.duplicateNationalNumber());
+        } catch (OptimisticLockingFailureException e) {
+            return personService.get(id)
+                    .<ResponseEntity<?>>map(current -> conflict(PersonConflict.versionConflict(current)))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        }
+    }
+
+    private static ResponseEntity<PersonConflict> conflict(PersonConflict conflict) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(conflict);
+    }
+
     /**
      * Belirtilen ID'ye sahip person kaydını siler.
      * 
@@ -91,8 +156,11 @@ public class PersonelController {
 
     /**
      * Tüm person kayıtlarını sayfalı şekilde döndürür.
+     * Sıralama için sort parametresi kullanılır, örn.
+     * {@code sort=lastName,desc}. Yalnızca firstName, lastName ve
+     * nationalNumber alanlarına göre sıralanabilir.
      * 
-     * @param pageable Sayfalama bilgileri.
+     * @param pageable Sayfalama ve sıralama bilgileri.
      * @return Sayfalı person listesi.
      */
     @GetMapping("/list")
@@ -115,7 +183,7 @@ public class PersonelController {
      * İsme göre person araması yapar.
      * 
      * @param name     Aranacak isim veya ismin bir kısmı.
-     * @param pageable Sayfalama bilgileri.
+     * @param pageable Sayfalama ve sıralama bilgileri (sort=alan,yön).
      * @return Sayfalı arama sonuçları.
      */
     @GetMapping("/search")
@@ -133,4 +201,50 @@ public class PersonelController {
     public ResponseEntity<Integer> countByName(@RequestParam String name) {
         return ResponseEntity.ok(personService.countByName(name));
     }
+
+    /**
+     * Verilen önekle başlayan ad ve soyadları önerir. Sonuçlar veritabanına
+     * gidilmeden bellek içi index'ten alfabetik sırada döner.
+     * 
+     * @param prefix Aranan önek (büyük/küçük harf duyarsız).
+     * @param field  Yalnızca "firstName" veya "lastName" önerileri için; boşsa
+     *               her ikisi.
+     * @param limit  En fazla öneri sayısı (en çok 50).
+     * @return Öneri listesi.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<NameSuggestion>> suggest(@RequestParam String prefix,
+            @RequestParam(required = false) String field,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(nameIndex.suggest(prefix, field, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    /**
+     * Personel sayılarını soyadın ilk harfine ve kimlik numarasının ilk
+     * hanelerine göre döndürür. Sayılar bellekte güncel tutulur; veritabanına
+     * gidilmez.
+     * 
+     * @return Toplam ve gruplara göre sayılar.
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<PersonFacets> facets() {
+        return ResponseEntity.ok(facetIndex.facets());
+    }
+
+    /**
+     * Değişiklik numarası since'ten büyük olan eklemeleri, güncellemeleri ve
+     * silmeleri döndürür. Yerel kopya tutan istemciler yalnızca değişen
+     * kayıtları indirir: ilk istekte since=0 gönderilir, sonrakilerde önceki
+     * yanıttaki watermark. hasMore true ise hemen tekrar istenmelidir.
+     * 
+     * @param since Son görülen değişiklik numarası.
+     * @param limit En fazla değişiklik sayısı (en çok 1000).
+     * @return Değişiklikler ve yeni watermark.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<PersonChanges> changes(@RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(personService.changesSince(Math.max(since, 0),
+                Math.max(1, Math.min(limit, MAX_CHANGES))));
+    }
 }
@@ -3,8 +3,13 @@ package org.vaadin.example.application.views.personel;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.vaadin.example.domain.dto.PersonConflict;
+import org.vaadin.example.domain.dto.PersonPatch;
 import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.infrastructure.PersonelConflictException;
 import org.vaadin.example.infrastructure.PersonelDataProvider;
+import org.vaadin.example.infrastructure.tracing.Span;
+import org.vaadin.example.infrastructure.tracing.Tracer;
 
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
@@ -24,7 +29,9 @@ import com.vaadin.flow.data.binder.ValidationException;
 public class PersonelEditor extends VerticalLayout {
 
     private final PersonelDataProvider dataProvider;
+    private final Tracer tracer;
     private PersonelGrid personelGrid;
+    // Formun açıldığı andaki kayıt; grid'in satırından bağımsız bir kopyadır.
     private Person personel;
     private final Binder<Person> binder = new Binder<>(Person.class);
 
@@ -37,8 +44,9 @@ public class PersonelEditor extends VerticalLayout {
 
     private final List<EditListener> editListeners = new ArrayList<>();
 
-    public PersonelEditor(PersonelDataProvider dataProvider) {
+    public PersonelEditor(PersonelDataProvider dataProvider, Tracer tracer) {
         this.dataProvider = dataProvider;
+        this.tracer = tracer;
 
         FormLayout formLayout = new FormLayout(firstName, lastName, nationalNumber);
         HorizontalLayout buttonLayout = new HorizontalLayout(save, cancel);
@@ -73,8 +81,9 @@ public class PersonelEditor extends VerticalLayout {
     }
 
     public void editPerson(Person person) {
-        this.personel = person;
-        binder.readBean(person);
+        // Binder grid'in satır nesnesine yazmaz; kaydetme başarısız olursa grid eski değerleri gösterir.
+        this.personel = person.copy();
+        binder.readBean(this.personel);
         save.setText("Düzenle");
     }
 
@@ -83,25 +92,46 @@ public class PersonelEditor extends VerticalLayout {
             return;
         }
 
-        try {
-            binder.writeBean(personel);
-            if (personel.getId() == null) {
-                dataProvider.save(personel);
+        try (Tracer.Scope scope = tracer.start("ui.editor.save", Span.Kind.INTERNAL)) {
+            // Düzenleme öncesi hal korunur; yalnızca değişen alanlar gönderilir.
+            Person edited = personel.copy();
+            binder.writeBean(edited);
+            boolean isNew = edited.getId() == null;
+            scope.tag("new", isNew);
+            Person saved;
+            if (isNew) {
+                saved = dataProvider.save(edited);
                 Notification.show("Yeni çalışan başarıyla kaydedildi!", 3000, Notification.Position.TOP_END)
                         .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
             } else {
-                dataProvider.update(personel.getId(), personel);
+                saved = dataProvider.patch(edited.getId(), PersonPatch.between(personel, edited));
                 Notification.show("Çalışan başarıyla güncellendi!", 3000, Notification.Position.TOP_END)
                         .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
             }
-            dataProvider.refreshAll();
-            personelGrid.refreshGrid();
+            // Sayfa yeniden okunmaz; yalnızca etkilenen satır güncellenir.
+            personelGrid.personSaved(saved, isNew);
             clearForm();
             setVisible(false);
             notifyEditListeners();
         } catch (ValidationException e) {
             Notification.show("Lütfen bilgileri kontrol edin!", 3000, Notification.Position.TOP_END)
                     .addThemeVariants(NotificationVariant.LUMO_ERROR);
+        } catch (PersonelConflictException e) {
+            PersonConflict conflict = e.getConflict();
+            if (conflict.reason() == PersonConflict.Reason.VERSION_CONFLICT && conflict.current() != null) {
+                Person current = conflict.current();
+                // Kayıt form açıkken başka biri tarafından değiştirildi; güncel hali gösterilir.
+                personelGrid.personSaved(current, false);
+                editPerson(current);
+                Notification.show("Çalışan bu arada başka biri tarafından değiştirildi, güncel bilgiler yüklendi.",
+                        3000, Notification.Position.TOP_END).addThemeVariants(NotificationVariant.LUMO_ERROR);
+                return;
+            }
+            // Aynı kimlik numarasıyla kayıtlı başka bir çalışan var; form açık kalır.
+            nationalNumber.setErrorMessage("Bu TC Kimlik No zaten kayıtlı!");
+            nationalNumber.setInvalid(true);
+            Notification.show("Bu TC Kimlik No ile kayıtlı bir çalışan zaten var!", 3000,
+                    Notification.Position.TOP_END).addThemeVariants(NotificationVariant.LUMO_ERROR);
         }
     }
 
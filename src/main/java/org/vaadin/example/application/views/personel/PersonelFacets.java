@@ -0,0 +1,69 @@
+package org.vaadin.example.application.views.personel;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.vaadin.example.domain.dto.PersonFacets;
+import org.vaadin.example.infrastructure.PersonelDataProvider;
+
+import com.vaadin.flow.component.details.Details;
+import com.vaadin.flow.component.details.DetailsVariant;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+/**
+ * PersonelFacets, araç çubuğunda personel sayılarının dağılımını gösteren
+ * açılır bir bölümdür.
+ *
+ * Sayılar sunucuda bellekte tutulduğu için ucuzdur, ama sayfa açılışına ve
+ * diğer eylemlere ek bir REST çağrısı eklememek için yalnızca bölüm
+ * açıldığında getirilir; her açılışta güncel haliyle yeniden okunur.
+ */
+public class PersonelFacets extends Details {
+
+    private final PersonelDataProvider dataProvider;
+    private final Span total = new Span();
+    private final Div lastNameInitials = new Div();
+    private final Div nationalNumberPrefixes = new Div();
+
+    /**
+     * @param dataProvider Dağılım sayılarını getiren veri sağlayıcı.
+     */
+    public PersonelFacets(PersonelDataProvider dataProvider) {
+        this.dataProvider = dataProvider;
+        setSummaryText("Dağılım");
+        addThemeVariants(DetailsVariant.SMALL);
+        setMaxWidth("320px");
+
+        VerticalLayout content = new VerticalLayout(total, new Span("Soyad baş harfi"), lastNameInitials,
+                new Span("TC Kimlik No öneki"), nationalNumberPrefixes);
+        content.setPadding(false);
+        content.setSpacing(false);
+        add(content);
+        addOpenedChangeListener(event -> {
+            if (event.isOpened()) {
+                refresh();
+            }
+        });
+    }
+
+    private void refresh() {
+        PersonFacets facets = dataProvider.fetchFacets();
+        if (facets == null) {
+            return;
+        }
+        total.setText("Toplam: " + facets.total());
+        lastNameInitials.setText(format(facets.lastNameInitials()));
+        nationalNumberPrefixes.setText(format(facets.nationalNumberPrefixes()));
+    }
+
+    private static String format(Map<String, Integer> counts) {
+        if (counts == null || counts.isEmpty()) {
+            return "-";
+        }
+        return counts.entrySet().stream()
+                .map(entry -> entry.getKey() + ": " + entry.getValue())
+                .collect(Collectors.joining("  "));
+    }
+}
@@ -1,20 +1,34 @@
 package org.vaadin.example.application.views.personel;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vaadin.example.domain.dto.PageResponse;
+import org.vaadin.example.domain.event.PersonChangeEvent;
+import org.vaadin.example.domain.model.NameCase;
 import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.infrastructure.PersonChangeBroadcaster;
 import org.vaadin.example.infrastructure.PersonelDataProvider;
+import org.vaadin.example.infrastructure.VaadinSessionClientIdInterceptor;
+import org.vaadin.example.infrastructure.jfr.GridRefreshEvent;
+import org.vaadin.example.infrastructure.tracing.Span;
+import org.vaadin.example.infrastructure.tracing.TraceContext;
+import org.vaadin.example.infrastructure.tracing.Tracer;
 
 import com.vaadin.flow.component.Text;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.grid.GridVariant;
 import com.vaadin.flow.component.html.Div;
-import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
@@ -22,20 +36,45 @@ import com.vaadin.flow.component.orderedlayout.FlexComponent.JustifyContentMode;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.provider.DataProvider;
-import com.vaadin.flow.data.provider.Query;
-import com.vaadin.flow.data.renderer.ComponentRenderer;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.renderer.LitRenderer;
+import com.vaadin.flow.shared.Registration;
 
 public class PersonelGrid extends Div {
+    private static final Logger log = LoggerFactory.getLogger(PersonelGrid.class);
+
     private Dialog confirmDialog = new Dialog();
     private Person personToDelete;
     private final DataProvider<Person, Void> dataProvider;
+    private final PersonChangeBroadcaster changeBroadcaster;
+    private Registration changeRegistration;
     private PersonelEditor personelEditor;
-    private Button activeEditButton = null;
+    // Editörde açık olan kaydın id'si; satırında düzenle yerine kapat simgesi gösterilir.
+    private Long editingId;
     private final List<EditListener> editListeners = new ArrayList<>();
 
     private final Grid<Person> grid;
     private int currentPage = 0;
     private int pageSize = 5;
+    private List<QuerySortOrder> sortOrders = new ArrayList<>();
+    private String nameFilter;
+
+    // Ekranda gösterilen sayfanın satırları ve toplam kayıt sayısı; başka
+    // oturumlardan gelen değişiklikler bunlara yerinde uygulanır.
+    private List<Person> items = new ArrayList<>();
+    private int totalItems;
+    private long loadedSequence;
+    // Bu oturumda yapılıp yerel olarak uygulanan ekleme/silmeler; aynı
+    // değişikliğin yayını geldiğinde ikinci kez sayılmaz.
+    private final Set<Long> locallyInserted = new HashSet<>();
+    private final Set<Long> locallyDeleted = new HashSet<>();
+
+    // Bu UI'a ait sayfa önbelleği ve arka planda okunmakta olan sayfalar.
+    private final PersonelPageCache pageCache = new PersonelPageCache();
+    private final Set<String> inFlight = new HashSet<>();
+    private final Executor taskExecutor;
+    private final Tracer tracer;
+    private long cacheClearedAt;
     private final Button previousButton;
     private final Button nextButton;
     private final ComboBox<Integer> pageSizeSelector;
@@ -43,18 +82,33 @@ public class PersonelGrid extends Div {
 
     private HorizontalLayout pageNumberLayout;
 
-    public PersonelGrid(DataProvider<Person, Void> dataProvider) {
+    public PersonelGrid(DataProvider<Person, Void> dataProvider, PersonChangeBroadcaster changeBroadcaster,
+            Executor taskExecutor, Tracer tracer) {
         this.dataProvider = dataProvider;
+        this.changeBroadcaster = changeBroadcaster;
+        this.taskExecutor = taskExecutor;
+        this.tracer = tracer;
         this.grid = new Grid<>(Person.class, false);
         grid.setClassName("force-focus-outline");
 
         setSizeFull();
         grid.addThemeVariants(GridVariant.LUMO_COLUMN_BORDERS);
-        grid.addColumn(Person::getFirstName).setHeader("First Name").setAutoWidth(true);
-        grid.addColumn(Person::getLastName).setHeader("Last Name").setAutoWidth(true);
-        grid.addColumn(Person::getNationalNumber).setHeader("National Number").setAutoWidth(true);
-        grid.addColumn(new ComponentRenderer<>(this::createActionsLayout)).setHeader("func").setAutoWidth(true);
+        grid.addColumn(Person::getFirstName).setHeader("First Name").setAutoWidth(true)
+                .setSortProperty("firstName");
+        grid.addColumn(Person::getLastName).setHeader("Last Name").setAutoWidth(true)
+                .setSortProperty("lastName");
+        grid.addColumn(Person::getNationalNumber).setHeader("National Number").setAutoWidth(true)
+                .setSortProperty("nationalNumber");
+        grid.addColumn(createActionsRenderer()).setHeader("func").setAutoWidth(true);
         grid.setMaxHeight("322px");
+        // Sıralama sunucu tarafında yapılır; sıralama değişince ilk sayfaya dönülür.
+        grid.addSortListener(event -> {
+            sortOrders = event.getSortOrder().stream()
+                    .flatMap(order -> order.getSorted().getSortOrder(order.getDirection()))
+                    .collect(Collectors.toList());
+            currentPage = 0;
+            refreshGrid();
+        });
 
         setHeight(null);
         setWidthFull();
@@ -95,6 +149,18 @@ public class PersonelGrid extends Div {
         add(grid, paginationControls);
         refreshGrid();
         setupConfirmationDialog();
+
+        addAttachListener(event -> {
+            UI ui = event.getUI();
+            changeRegistration = changeBroadcaster.register(change -> ui.access(() -> applyChange(change)));
+            prefetchNeighbours();
+        });
+        addDetachListener(event -> {
+            if (changeRegistration != null) {
+                changeRegistration.remove();
+                changeRegistration = null;
+            }
+        });
     }
 
     private void goToPreviousPage() {
@@ -106,6 +172,7 @@ public class PersonelGrid extends Div {
 
     public void filterByName(String name) {
         if (dataProvider instanceof PersonelDataProvider) {
+            nameFilter = name;
             ((PersonelDataProvider) dataProvider).setSearchQuery(name);
             refreshGrid();
         }
@@ -116,28 +183,272 @@ public class PersonelGrid extends Div {
         refreshGrid();
     }
 
+    /**
+     * Geçerli sayfayı gösterir. Sayfa önbellekte varsa hemen gösterilir ve
+     * bayatsa arka planda yeniden doğrulanır; yoksa tek bir REST çağrısı ile
+     * (içerik ve toplam birlikte) okunur. Ardından komşu sayfalar arka planda
+     * önceden yüklenir.
+     */
     public void refreshGrid() {
         if (dataProvider instanceof PersonelDataProvider) {
-            PersonelDataProvider personelDataProvider = (PersonelDataProvider) dataProvider;
+            GridRefreshEvent event = new GridRefreshEvent();
+            event.start();
+            int page = currentPage;
+            String cache = null;
+            int rows = 0;
+            try (Tracer.Scope scope = tracer.start("ui.grid.refresh", Span.Kind.INTERNAL)) {
+                scope.tag("page", currentPage).tag("size", pageSize).tag("sorted", !sortOrders.isEmpty())
+                        .tag("filtered", nameFilter != null && !nameFilter.isBlank());
+                String key = pageKey(currentPage);
+                PersonelPageCache.Entry entry = pageCache.get(key);
+                if (entry == null) {
+                    cache = "miss";
+                    entry = loadPage(nameFilter, currentPage, pageSize, sortOrders, null);
+                    pageCache.put(key, entry);
+                } else if (!entry.isFresh(System.currentTimeMillis())) {
+                    cache = "stale";
+                    loadInBackground(currentPage);
+                } else {
+                    cache = "hit";
+                }
+                scope.tag("cache", cache);
+                rows = entry.content.size();
 
-            List<Person> items = personelDataProvider.fetch(new Query<>(currentPage, pageSize, null, null, null))
-                    .collect(Collectors.toList());
+                if (entry.content.isEmpty() && currentPage > 0) {
+                    currentPage--;
+                    refreshGrid();
+                    return;
+                }
+
+                showPage(entry);
+                prefetchNeighbours();
+            } finally {
+                if (event.stop()) {
+                    event.operation = "refreshGrid";
+                    event.page = page;
+                    event.pageSize = pageSize;
+                    event.rows = rows;
+                    event.cache = cache;
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    private void showPage(PersonelPageCache.Entry entry) {
+        // Bu numaraya kadar olan değişiklikler sayfada zaten yer alır.
+        loadedSequence = entry.sequence;
+        items = entry.content.stream().map(Person::copy).collect(Collectors.toList());
+        totalItems = entry.totalItems;
+        grid.setItems(items);
+        updatePaginationControls();
+    }
+
+    private PersonelPageCache.Entry loadPage(String filter, int page, int size, List<QuerySortOrder> sort,
+            String clientId) {
+        long sequence = changeBroadcaster.currentSequence();
+        PageResponse<Person> response = ((PersonelDataProvider) dataProvider).fetchPage(filter, page, size, sort,
+                clientId);
+        return new PersonelPageCache.Entry(response.getContent(), (int) response.getTotalElements(), sequence,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Verilen sayfayı arka planda okuyup önbelleğe koyar; sayfa o sırada
+     * gösteriliyorsa ekranı da günceller. Aynı sayfa için aynı anda tek bir
+     * istek yapılır. Arka plan thread'i oturumu okuyamadığı için istemci
+     * kimliği burada alınıp isteğe verilir; okunamayan sayfalar log'lanır ve
+     * ekrandaki sayfa olduğu gibi kalır.
+     */
+    private void loadInBackground(int page) {
+        UI ui = getUI().orElse(null);
+        String key = pageKey(page);
+        if (ui == null || !inFlight.add(key)) {
+            return;
+        }
+
+        String filter = nameFilter;
+        int size = pageSize;
+        List<QuerySortOrder> sort = List.copyOf(sortOrders);
+        String clientId = VaadinSessionClientIdInterceptor.clientId(ui.getSession());
+        // Arka plan yüklemesi, onu başlatan UI eyleminin trace'ine devam eder.
+        TraceContext trace = tracer.currentContext();
+        taskExecutor.execute(() -> {
+            PersonelPageCache.Entry entry;
+            try (Tracer.Scope scope = tracer.start("ui.grid.prefetch", Span.Kind.INTERNAL, trace)) {
+                scope.tag("page", page).tag("size", size);
+                try {
+                    entry = loadPage(filter, page, size, sort, clientId);
+                } catch (RuntimeException e) {
+                    scope.error(e);
+                    log.warn("Sayfa {} arka planda yüklenemedi: {}", page, e.toString());
+                    ui.access(() -> inFlight.remove(key));
+                    return;
+                }
+            }
+            ui.access(() -> {
+                inFlight.remove(key);
+                if (entry.sequence < cacheClearedAt) {
+                    return; // Okuma sırasında sayfa sınırları değişti.
+                }
+                pageCache.put(key, entry);
+                if (key.equals(pageKey(currentPage))) {
+                    showPage(entry);
+                }
+            });
+        });
+    }
+
+    private void prefetchNeighbours() {
+        for (int page : new int[] { currentPage - 1, currentPage + 1 }) {
+            if (page >= 0 && page * pageSize < totalItems && !pageCache.contains(pageKey(page))) {
+                loadInBackground(page);
+            }
+        }
+    }
+
+    private String pageKey(int page) {
+        String sort = sortOrders.stream()
+                .map(order -> order.getSorted() + ":" + order.getDirection())
+                .collect(Collectors.joining(","));
+        return nameFilter + "|" + sort + "|" + page + "|" + pageSize;
+    }
+
+    private void invalidatePageCache(long sequence) {
+        pageCache.clear();
+        cacheClearedAt = Math.max(cacheClearedAt, sequence);
+    }
+
+    /**
+     * Başka bir oturumda (veya bu oturumda) yapılan değişikliği, sayfayı ve
+     * sayıları yeniden okumadan yüklü satırlara uygular. UI kilidi altında
+     * çağrılmalıdır.
+     *
+     * @param change Uygulanacak değişiklik olayı.
+     */
+    void applyChange(PersonChangeEvent change) {
+        if (change.getType() == PersonChangeEvent.Type.UPDATE) {
+            pageCache.replaceRow(change.getPerson());
+        } else {
+            invalidatePageCache(change.getSequence());
+        }
+        if (change.getSequence() <= loadedSequence) {
+            return; // Son yenilemede zaten okunmuş.
+        }
+
+        switch (change.getType()) {
+            case INSERT -> {
+                // Bu oturumun kendi eklemesi personSaved ile zaten uygulandı.
+                if (!locallyInserted.remove(change.getPersonId())) {
+                    applyInsert(change.getPerson().copy());
+                }
+            }
+            case UPDATE -> applyUpdate(change.getPrevious(), change.getPerson().copy());
+            case DELETE -> {
+                if (!locallyDeleted.remove(change.getPersonId())) {
+                    applyDelete(change.getPrevious());
+                }
+            }
+        }
+        afterPatch();
+    }
+
+    /**
+     * Bu oturumda kaydedilen bir personeli yalnızca ilgili satırı güncelleyerek
+     * grid'e yansıtır; sayfa ve sayılar yeniden okunmaz.
+     *
+     * @param saved Backend'in döndürdüğü kayıt.
+     * @param isNew Yeni kayıt ise true.
+     */
+    public void personSaved(Person saved, boolean isNew) {
+        if (isNew) {
+            invalidatePageCache(changeBroadcaster.currentSequence());
+            locallyInserted.add(saved.getId());
+            applyInsert(saved);
+        } else {
+            // Önceki hali editörde zaten değiştirildi; filtre sayısı düzeltmesi
+            // yayınlanan olayla gelir.
+            pageCache.replaceRow(saved);
+            applyUpdate(null, saved);
+        }
+        afterPatch();
+    }
+
+    /**
+     * Bu oturumda silinen bir personeli grid'den kaldırır ve sayıyı yerel
+     * olarak azaltır.
+     *
+     * @param deleted Silinen kayıt.
+     */
+    public void personDeleted(Person deleted) {
+        invalidatePageCache(changeBroadcaster.currentSequence());
+        locallyDeleted.add(deleted.getId());
+        applyDelete(deleted);
+        afterPatch();
+    }
 
-            if (items.isEmpty() && currentPage > 0) {
-                currentPage--;
-                items = personelDataProvider.fetch(new Query<>(currentPage, pageSize, null, null, null))
-                        .collect(Collectors.toList());
+    private void applyInsert(Person person) {
+        if (matchesFilter(person)) {
+            totalItems++;
+            // Sıralama yoksa yeni kayıt sona eklenir; son sayfa doluysa yalnızca sayı değişir.
+            if (sortOrders.isEmpty() && items.size() < pageSize && (currentPage + 1) * pageSize >= totalItems) {
+                items.add(person);
+                grid.getDataProvider().refreshAll();
             }
+        }
+    }
+
+    private void applyUpdate(Person previous, Person person) {
+        if (previous != null && matchesFilter(previous) != matchesFilter(person)) {
+            totalItems += matchesFilter(person) ? 1 : -1;
+        }
+        replaceRow(person);
+    }
 
-            grid.setItems(items);
-            previousButton.setEnabled(currentPage > 0);
-            nextButton.setEnabled(personelDataProvider.hasNext());
+    private void applyDelete(Person previous) {
+        if (matchesFilter(previous)) {
+            totalItems--;
+        }
+        if (items.removeIf(person -> previous.getId().equals(person.getId()))) {
+            grid.getDataProvider().refreshAll();
+        }
+    }
+
+    private void afterPatch() {
+        if (items.isEmpty() && currentPage > 0) {
+            refreshGrid();
+            return;
+        }
+        updatePaginationControls();
+    }
 
-            int totalItems = personelDataProvider.getTotalItemCount();
-            totalItemsField.setValue(String.valueOf(totalItems));
+    private void replaceRow(Person person) {
+        for (int i = 0; i < items.size(); i++) {
+            if (person.getId().equals(items.get(i).getId())) {
+                items.set(i, person);
+                grid.getDataProvider().refreshItem(person);
+                return;
+            }
+        }
+    }
 
-            updatePageNumberLayout(personelDataProvider.getTotalPages(pageSize));
+    private boolean matchesFilter(Person person) {
+        if (nameFilter == null || nameFilter.isBlank()) {
+            return true;
         }
+        return person != null && person.getFirstName() != null
+                && NameCase.contains(person.getFirstName(), nameFilter);
+    }
+
+    /**
+     * Sayfalama kontrollerini yerel olarak bilinen toplam kayıt sayısına göre
+     * günceller.
+     */
+    private void updatePaginationControls() {
+        previousButton.setEnabled(currentPage > 0);
+        nextButton.setEnabled((currentPage + 1) * pageSize < totalItems);
+        totalItemsField.setValue(String.valueOf(totalItems));
+        updatePageNumberLayout((int) Math.ceil((double) totalItems / pageSize));
     }
 
     private void updatePageNumberLayout(int totalPages) {
@@ -210,8 +521,10 @@ public class PersonelGrid extends Div {
 
         Button confirmButton = new Button("Evet", event -> {
             if (personToDelete != null) {
-                ((PersonelDataProvider) dataProvider).delete(personToDelete.getId());
-                refreshGrid();
+                try (Tracer.Scope scope = tracer.start("ui.grid.delete", Span.Kind.INTERNAL)) {
+                    ((PersonelDataProvider) dataProvider).delete(personToDelete.getId());
+                    personDeleted(personToDelete);
+                }
                 Notification.show("Öğe başarıyla silindi!", 3000, Notification.Position.TOP_END)
                         .addThemeVariants(NotificationVariant.LUMO_WARNING);
             }
@@ -222,43 +535,73 @@ public class PersonelGrid extends Div {
         confirmDialog.add(new HorizontalLayout(confirmButton, cancelButton));
     }
 
-    private HorizontalLayout createActionsLayout(Person person) {
-        Button editButton = new Button(VaadinIcon.EDIT.create());
-        Button deleteButton = new Button(VaadinIcon.TRASH.create(), e -> {
-            personToDelete = person;
-            confirmDialog.open();
-        });
-        deleteButton.getStyle().set("color", "red");
-
-        editButton.addClickListener(e -> {
-            if (personelEditor != null) {
-                if (activeEditButton != null && activeEditButton != editButton) {
-                    activeEditButton.setIcon(VaadinIcon.EDIT.create());
-                }
+    /**
+     * Düzenle ve sil düğmelerini istemci tarafında bir Lit şablonundan
+     * oluşturur. Satır başına sunucuda bileşen tutulmaz; tıklamalar satırın
+     * kaydıyla birlikte edit ve remove fonksiyonlarına gelir.
+     */
+    private LitRenderer<Person> createActionsRenderer() {
+        return LitRenderer.<Person>of("""
+                <vaadin-horizontal-layout theme="spacing">
+                  <vaadin-button theme="icon" title="Düzenle" aria-label="Düzenle" @click="${edit}">
+                    <vaadin-icon icon="${item.editing ? 'vaadin:close' : 'vaadin:edit'}"></vaadin-icon>
+                  </vaadin-button>
+                  <vaadin-button theme="icon" title="Sil" aria-label="Sil" style="color: red" @click="${remove}">
+                    <vaadin-icon icon="vaadin:trash"></vaadin-icon>
+                  </vaadin-button>
+                </vaadin-horizontal-layout>
+                """)
+                .withProperty("editing", person -> person.getId() != null && person.getId().equals(editingId))
+                .withFunction("edit", this::toggleEditor)
+                .withFunction("remove", this::confirmDelete);
+    }
 
-                if (personelEditor.isVisible() && activeEditButton == editButton) {
-                    personelEditor.setVisible(false);
-                    editButton.setIcon(VaadinIcon.EDIT.create());
-                    activeEditButton = null;
-                } else {
-                    personelEditor.clearForm();
-                    personelEditor.editPerson(person);
-                    personelEditor.setVisible(true);
-                    editButton.setIcon(VaadinIcon.CLOSE.create());
-                    activeEditButton = editButton;
-                    notifyEditListeners();
-                }
-            }
-        });
+    /**
+     * Satırın sil düğmesi; onay penceresini açar.
+     */
+    void confirmDelete(Person person) {
+        personToDelete = person;
+        confirmDialog.open();
+    }
 
-        return new HorizontalLayout(editButton, deleteButton);
+    /**
+     * Satırın düzenle düğmesi; editörü kayıtla açar veya aynı kayıt için
+     * açıksa kapatır.
+     */
+    void toggleEditor(Person person) {
+        if (personelEditor == null) {
+            return;
+        }
+        Long previous = editingId;
+        if (personelEditor.isVisible() && person.getId().equals(editingId)) {
+            personelEditor.setVisible(false);
+            editingId = null;
+        } else {
+            personelEditor.clearForm();
+            personelEditor.editPerson(person);
+            personelEditor.setVisible(true);
+            editingId = person.getId();
+            notifyEditListeners();
+        }
+        refreshRow(previous);
+        refreshRow(editingId);
     }
 
     public void resetEditButton() {
-        if (activeEditButton != null) {
-            activeEditButton.setIcon(VaadinIcon.EDIT.create());
-            activeEditButton.setTooltipText("Düzenle");
-            activeEditButton = null;
+        Long previous = editingId;
+        editingId = null;
+        refreshRow(previous);
+    }
+
+    private void refreshRow(Long id) {
+        if (id == null) {
+            return;
+        }
+        for (Person person : items) {
+            if (id.equals(person.getId())) {
+                grid.getDataProvider().refreshItem(person);
+                return;
+            }
         }
     }
 
@@ -0,0 +1,93 @@
+package org.vaadin.example.application.views.personel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.vaadin.example.domain.model.Person;
+
+/**
+ * PersonelPageCache, tek bir UI'a ait küçük bir LRU sayfa önbelleğidir.
+ *
+ * Anahtar; arama metni, sıralama, sayfa numarası ve sayfa boyutundan oluşur.
+ * Yalnızca UI kilidi altında kullanılır, bu yüzden senkronizasyon içermez.
+ */
+class PersonelPageCache {
+
+    /**
+     * Bu süreden daha yeni girdiler arka planda yeniden doğrulanmaz.
+     */
+    static final long FRESH_MILLIS = 5_000;
+
+    private static final int CAPACITY = 8;
+
+    /**
+     * Önbellekteki bir sayfa ve toplam kayıt sayısı.
+     */
+    static final class Entry {
+        final List<Person> content;
+        final int totalItems;
+        final long sequence;
+        final long fetchedAt;
+
+        /**
+         * @param content    Sayfadaki kayıtlar.
+         * @param totalItems Sorguya uyan toplam kayıt sayısı.
+         * @param sequence   Okumadan önceki son değişiklik olayı numarası.
+         * @param fetchedAt  Okuma zamanı (ms).
+         */
+        Entry(List<Person> content, int totalItems, long sequence, long fetchedAt) {
+            this.content = new ArrayList<>(content);
+            this.totalItems = totalItems;
+            this.sequence = sequence;
+            this.fetchedAt = fetchedAt;
+        }
+
+        boolean isFresh(long now) {
+            return now - fetchedAt < FRESH_MILLIS;
+        }
+    }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    Entry get(String key) {
+        return entries.get(key);
+    }
+
+    boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    void put(String key, Entry entry) {
+        entries.put(key, entry);
+    }
+
+    /**
+     * Ekleme ve silmeler sayfa sınırlarını kaydırdığı için tüm önbellek
+     * temizlenir.
+     */
+    void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Güncellenen kaydı önbellekteki tüm sayfalarda yerinde değiştirir.
+     *
+     * @param person Güncel kayıt.
+     */
+    void replaceRow(Person person) {
+        for (Entry entry : entries.values()) {
+            for (int i = 0; i < entry.content.size(); i++) {
+                if (person.getId().equals(entry.content.get(i).getId())) {
+                    entry.content.set(i, person.copy());
+                }
+            }
+        }
+    }
+}
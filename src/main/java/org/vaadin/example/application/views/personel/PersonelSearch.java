@@ -1,9 +1,12 @@
 package org.vaadin.example.application.views.personel;
 
+import org.vaadin.example.domain.model.NameCase;
+import org.vaadin.example.infrastructure.PersonelDataProvider;
+
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
-import com.vaadin.flow.component.textfield.TextField;
 
 /**
  * PersonelSearch sınıfı, personel arama işlevselliğini sunan bir bileşendir.
@@ -11,14 +14,17 @@ import com.vaadin.flow.component.textfield.TextField;
  * sağlar.
  * 
  * Bileşenler:
- * - searchField: Kullanıcıdan arama metnini alır.
+ * - searchField: Kullanıcıdan arama metnini alır; yazarken ad önerileri
+ * gösterir.
  * - searchButton: Arama işlemini başlatır.
  * - addNewButton: Yeni bir personel eklemeyi başlatır.
  * - personelGrid: Personel verilerini gösteren grid bileşeni.
  */
 public class PersonelSearch extends HorizontalLayout {
 
-    private final TextField searchField = new TextField();
+    private static final int SUGGESTION_LIMIT = 10;
+
+    private final ComboBox<String> searchField = new ComboBox<>();
     private final Button searchButton = new Button("Search");
     private final PersonelGrid personelGrid;
     private final Button addNewButton;
@@ -29,8 +35,9 @@ public class PersonelSearch extends HorizontalLayout {
      * Bu metod, arama alanı ve yeni personel ekleme butonunu başlatır.
      * 
      * @param personelGrid Personel verilerini görüntüleyen grid bileşeni.
+     * @param dataProvider Ad önerilerini getiren veri sağlayıcı.
      */
-    public PersonelSearch(PersonelGrid personelGrid) {
+    public PersonelSearch(PersonelGrid personelGrid, PersonelDataProvider dataProvider) {
         this.personelGrid = personelGrid;
         this.addNewButton = new Button("Yeni bir çalışan ekleme", e -> toggleEditor());
         searchField.setPlaceholder("Search by name...");
@@ -38,10 +45,23 @@ public class PersonelSearch extends HorizontalLayout {
         searchButton.addClickListener(e -> filterGrid());
         searchField.setWidth("250px");
 
+        // Öneriler yazıldıkça bellek içi ad index'inden gelir; listede olmayan
+        // bir metin de aranabilir.
+        searchField.setItems(query -> dataProvider
+                .suggestFirstNames(query.getFilter().orElse(""), query.getOffset() + query.getLimit())
+                .stream()
+                .skip(query.getOffset())
+                .limit(query.getLimit()));
+        searchField.setPageSize(SUGGESTION_LIMIT);
+        searchField.setAllowCustomValue(true);
+        searchField.addCustomValueSetListener(event -> searchField.setValue(event.getDetail()));
+
         searchField.addValueChangeListener(event -> {
-            String searchText = event.getValue().trim().toLowerCase();
+            String searchText = event.getValue() == null ? "" : NameCase.fold(event.getValue().trim());
             if (searchText.isEmpty()) {
                 personelGrid.filterByName(null);
+            } else {
+                filterGrid();
             }
         });
 
@@ -87,7 +107,7 @@ public class PersonelSearch extends HorizontalLayout {
      * personel grid'ini bu değere göre filtreler.
      */
     private void filterGrid() {
-        String searchText = searchField.getValue().trim().toLowerCase();
+        String searchText = searchField.getValue() == null ? "" : NameCase.fold(searchField.getValue().trim());
         if (!searchText.isEmpty()) {
             personelGrid.filterByName(searchText);
         } else {
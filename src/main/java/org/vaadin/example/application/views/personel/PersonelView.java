@@ -1,6 +1,9 @@
 package org.vaadin.example.application.views.personel;
 
+import org.springframework.core.task.TaskExecutor;
+import org.vaadin.example.infrastructure.PersonChangeBroadcaster;
 import org.vaadin.example.infrastructure.PersonelDataProvider;
+import org.vaadin.example.infrastructure.tracing.Tracer;
 import org.vaadin.lineawesome.LineAwesomeIconUrl;
 
 import com.vaadin.flow.component.button.Button;
@@ -31,21 +34,29 @@ public class PersonelView extends SplitLayout {
     private final PersonelGrid personelGrid;
     private final PersonelEditor personelEditor;
     private final PersonelSearch personelSearch;
+    private final PersonelFacets personelFacets;
 
     /**
      * PersonelView sınıfının kurucusu.
      * 
      * @param personelDataProvider Personel verilerini sağlayan veri sağlayıcı.
+     * @param changeBroadcaster    Diğer oturumlardaki değişiklikleri ileten
+     *                             yayıncı.
+     * @param taskExecutor         Komşu sayfaları arka planda yükleyen
+     *                             executor.
+     * @param tracer               Grid ve editör eylemleri için span'ler.
      */
-    public PersonelView(PersonelDataProvider personelDataProvider) {
+    public PersonelView(PersonelDataProvider personelDataProvider, PersonChangeBroadcaster changeBroadcaster,
+            TaskExecutor taskExecutor, Tracer tracer) {
         this.personelDataProvider = personelDataProvider;
 
-        this.personelGrid = new PersonelGrid(this.personelDataProvider);
-        this.personelEditor = new PersonelEditor(this.personelDataProvider);
+        this.personelGrid = new PersonelGrid(this.personelDataProvider, changeBroadcaster, taskExecutor, tracer);
+        this.personelEditor = new PersonelEditor(this.personelDataProvider, tracer);
 
         this.personelEditor.setPersonelGrid(personelGrid);
         personelGrid.setPersonelEditor(personelEditor);
-        this.personelSearch = new PersonelSearch(personelGrid);
+        this.personelSearch = new PersonelSearch(personelGrid, personelDataProvider);
+        this.personelFacets = new PersonelFacets(personelDataProvider);
 
         HorizontalLayout toolbar = createToolbar();
         Button refreshButton = createRefreshButton();
@@ -55,8 +66,7 @@ public class PersonelView extends SplitLayout {
 
     private Button createRefreshButton() {
         Button refreshButton = new Button("Yenile", event -> {
-            personelDataProvider.addNewMockPerson();
-            personelGrid.refreshGrid();
+            personelGrid.personSaved(personelDataProvider.addNewMockPerson(), true);
         });
 
         refreshButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
@@ -71,9 +81,11 @@ public class PersonelView extends SplitLayout {
      * @return Oluşturulan HorizontalLayout nesnesi.
      */
     private HorizontalLayout createToolbar() {
-        HorizontalLayout toolbar = new HorizontalLayout(personelSearch);
+        HorizontalLayout toolbar = new HorizontalLayout(personelSearch, personelFacets);
         toolbar.setWidthFull();
         toolbar.setJustifyContentMode(JustifyContentMode.BETWEEN);
+        toolbar.setAlignItems(Alignment.START);
+        toolbar.expand(personelSearch);
         return toolbar;
     }
 
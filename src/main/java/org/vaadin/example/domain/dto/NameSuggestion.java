@@ -0,0 +1,11 @@
+package org.vaadin.example.domain.dto;
+
+/**
+ * Otomatik tamamlama önerisi.
+ *
+ * @param value Önerilen ad veya soyad.
+ * @param field Önerinin geldiği alan: "firstName" veya "lastName".
+ * @param count Bu değere sahip kayıt sayısı.
+ */
+public record NameSuggestion(String value, String field, int count) {
+}
@@ -0,0 +1,26 @@
+package org.vaadin.example.domain.dto;
+
+import org.vaadin.example.domain.model.Person;
+
+/**
+ * Delta eşitlemede tek bir kaydın son durumu.
+ *
+ * @param type      UPSERT: kayıt eklendi veya güncellendi; DELETE: silindi.
+ * @param id        Kaydın id'si.
+ * @param changeSeq Kaydın son değişiklik numarası.
+ * @param person    Kaydın güncel hali; silinen kayıtlar için null.
+ */
+public record PersonChange(Type type, long id, long changeSeq, Person person) {
+
+    public enum Type {
+        UPSERT, DELETE
+    }
+
+    public static PersonChange upsert(Person person) {
+        return new PersonChange(Type.UPSERT, person.getId(), person.getChangeSeq(), person);
+    }
+
+    public static PersonChange delete(long id, long changeSeq) {
+        return new PersonChange(Type.DELETE, id, changeSeq, null);
+    }
+}
@@ -0,0 +1,36 @@
+package org.vaadin.example.domain.dto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * GET /api/personel/changes yanıtı.
+ *
+ * İstemci bir sonraki istekte since olarak watermark'ı gönderir. hasMore
+ * true ise watermark son dönen değişikliğin numarasıdır ve istemci hemen
+ * tekrar sormalıdır.
+ *
+ * @param changes   Değişiklik numarasına göre artan sırada değişiklikler.
+ * @param watermark Bu numaraya kadar olan tüm değişiklikler dönmüştür.
+ * @param hasMore   Limit nedeniyle dönmeyen değişiklikler varsa true.
+ */
+public record PersonChanges(List<PersonChange> changes, long watermark, boolean hasMore) {
+
+    /**
+     * Aday değişikliklerden en küçük numaralı limit kadarını seçer.
+     *
+     * @param candidates Her kaynaktan en az limit + 1 aday (varsa).
+     * @param limit      Dönecek en fazla değişiklik sayısı.
+     * @param watermark  Adaylar bu numaraya kadar okunmuştur.
+     */
+    public static PersonChanges of(List<PersonChange> candidates, int limit, long watermark) {
+        List<PersonChange> sorted = new ArrayList<>(candidates);
+        sorted.sort(Comparator.comparingLong(PersonChange::changeSeq));
+        if (sorted.size() <= limit) {
+            return new PersonChanges(sorted, watermark, false);
+        }
+        List<PersonChange> page = List.copyOf(sorted.subList(0, limit));
+        return new PersonChanges(page, page.get(limit - 1).changeSeq(), true);
+    }
+}
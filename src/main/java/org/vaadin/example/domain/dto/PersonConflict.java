@@ -0,0 +1,29 @@
+package org.vaadin.example.domain.dto;
+
+import org.vaadin.example.domain.model.Person;
+
+/**
+ * 409 Conflict yanıtlarının gövdesi. İstemci çakışmanın nedenini gövdenin
+ * boş olup olmamasından değil reason alanından anlar.
+ *
+ * @param reason  Çakışmanın nedeni.
+ * @param current VERSION_CONFLICT için kaydın güncel hali; diğer nedenlerde
+ *                null.
+ */
+public record PersonConflict(Reason reason, Person current) {
+
+    public enum Reason {
+        /** Kayıt, düzenleme başladıktan sonra başka biri tarafından değiştirildi. */
+        VERSION_CONFLICT,
+        /** Kimlik numarası başka bir kayıtta zaten var. */
+        DUPLICATE_NATIONAL_NUMBER
+    }
+
+    public static PersonConflict versionConflict(Person current) {
+        return new PersonConflict(Reason.VERSION_CONFLICT, current);
+    }
+
+    public static PersonConflict duplicateNationalNumber() {
+        return new PersonConflict(Reason.DUPLICATE_NATIONAL_NUMBER, null);
+    }
+}
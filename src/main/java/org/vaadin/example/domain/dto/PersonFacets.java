@@ -0,0 +1,15 @@
+package org.vaadin.example.domain.dto;
+
+import java.util.Map;
+
+/**
+ * Personel sayılarının dağılımı; her harita değerden kayıt sayısına, değere
+ * göre sıralıdır. Boş alanlar hiçbir gruba sayılmaz.
+ *
+ * @param total                  Toplam kayıt sayısı.
+ * @param lastNameInitials       Soyadın ilk harfine (büyük harf) göre.
+ * @param nationalNumberPrefixes Kimlik numarasının ilk hanelerine göre.
+ */
+public record PersonFacets(int total, Map<String, Integer> lastNameInitials,
+        Map<String, Integer> nationalNumberPrefixes) {
+}
@@ -0,0 +1,123 @@
+package org.vaadin.example.domain.dto;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.vaadin.example.domain.model.Person;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * PATCH /api/personel/{id} gövdesi: JSON merge patch (RFC 7396) ile bir
+ * personelin yalnızca değişen alanları.
+ *
+ * Gövdede bulunan alan yeni değeriyle yazılır (null ise boşaltılır),
+ * bulunmayan alan değişmez. version alanı yazılmaz; verilmişse kaydın
+ * beklenen version'ıdır ve kayıt bu arada değiştiyse güncelleme reddedilir.
+ *
+ * @param version Beklenen version; kontrol istenmiyorsa null.
+ * @param changes Alan adından yeni değere; yalnızca {@link #FIELDS}.
+ */
+public record PersonPatch(Integer version, Map<String, String> changes) {
+
+    public static final String VERSION = "version";
+
+    /**
+     * Patch ile değiştirilebilen alanlar.
+     */
+    public static final List<String> FIELDS = List.of("firstName", "lastName", "nationalNumber");
+
+    private static final Map<String, Function<Person, String>> GETTERS = Map.of(
+            "firstName", Person::getFirstName,
+            "lastName", Person::getLastName,
+            "nationalNumber", Person::getNationalNumber);
+    private static final Map<String, BiConsumer<Person, String>> SETTERS = Map.of(
+            "firstName", Person::setFirstName,
+            "lastName", Person::setLastName,
+            "nationalNumber", Person::setNationalNumber);
+
+    public PersonPatch {
+        for (String field : changes.keySet()) {
+            if (!FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Patch ile değiştirilemeyen alan: " + field);
+            }
+        }
+        // Map.copyOf null değer kabul etmez; merge patch'te null alanı boşaltır.
+        changes = Collections.unmodifiableMap(new LinkedHashMap<>(changes));
+    }
+
+    /**
+     * Merge patch gövdesini okur.
+     *
+     * @throws IllegalArgumentException Bilinmeyen bir alan veya metin olmayan
+     *                                  bir değer varsa.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static PersonPatch fromJson(Map<String, Object> json) {
+        Integer version = null;
+        Map<String, String> changes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : json.entrySet()) {
+            Object value = entry.getValue();
+            if (VERSION.equals(entry.getKey())) {
+                if (!(value instanceof Integer number)) {
+                    throw new IllegalArgumentException("version bir tam sayı olmalıdır");
+                }
+                version = number;
+            } else if (value == null || value instanceof String) {
+                changes.put(entry.getKey(), (String) value);
+            } else {
+                throw new IllegalArgumentException(entry.getKey() + " bir metin veya null olmalıdır");
+            }
+        }
+        return new PersonPatch(version, changes);
+    }
+
+    /**
+     * Düzenlenen kaydın özgün halinden farklı alanlarını, özgün version ile
+     * birlikte bir patch'e çevirir.
+     */
+    public static PersonPatch between(Person original, Person edited) {
+        Map<String, String> changes = new LinkedHashMap<>();
+        for (String field : FIELDS) {
+            Function<Person, String> getter = GETTERS.get(field);
+            if (!Objects.equals(getter.apply(original), getter.apply(edited))) {
+                changes.put(field, getter.apply(edited));
+            }
+        }
+        return new PersonPatch(original.getVersion(), changes);
+    }
+
+    @JsonValue
+    public Map<String, Object> toJson() {
+        Map<String, Object> json = new LinkedHashMap<>(changes);
+        if (version != null) {
+            json.put(VERSION, version);
+        }
+        return json;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public boolean changes(String field) {
+        return changes.containsKey(field);
+    }
+
+    /**
+     * Patch'teki alanları verilen kayda yazar; version ve değişiklik numarası
+     * değiştirilmez.
+     *
+     * @return Aynı kayıt.
+     */
+    public Person applyTo(Person person) {
+        changes.forEach((field, value) -> SETTERS.get(field).accept(person, value));
+        return person;
+    }
+}
@@ -0,0 +1,84 @@
+package org.vaadin.example.domain.event;
+
+import org.vaadin.example.domain.model.Person;
+
+/**
+ * IPersonService üzerinden yapılan her yazma işleminden sonra yayınlanan
+ * değişiklik olayı.
+ *
+ * Olaylar UI'lara dağıtılırken, değişiklik commit edildikten sonra
+ * PersonChangeBroadcaster tarafından artan bir sıra numarası alır; dinleyiciler
+ * bu numara ile zaten gördükleri değişiklikleri ayırt edebilir. Servislerin
+ * yayınladığı olayın numarası henüz verilmediği için 0'dır.
+ */
+public class PersonChangeEvent {
+
+    public enum Type {
+        INSERT, UPDATE, DELETE
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final Long personId;
+    private final Person person;
+    private final Person previous;
+
+    private PersonChangeEvent(long sequence, Type type, Long personId, Person person, Person previous) {
+        this.sequence = sequence;
+        this.type = type;
+        this.personId = personId;
+        this.person = person;
+        this.previous = previous;
+    }
+
+    public static PersonChangeEvent inserted(Person person) {
+        return new PersonChangeEvent(0, Type.INSERT, person.getId(), person.copy(), null);
+    }
+
+    public static PersonChangeEvent updated(Person previous, Person person) {
+        return new PersonChangeEvent(0, Type.UPDATE, person.getId(), person.copy(),
+                previous != null ? previous.copy() : null);
+    }
+
+    public static PersonChangeEvent deleted(Person previous) {
+        return new PersonChangeEvent(0, Type.DELETE, previous.getId(), null, previous.copy());
+    }
+
+    /**
+     * Olayın verilen sıra numarasıyla bir kopyasını döndürür; kayıtlar
+     * paylaşılır.
+     */
+    public PersonChangeEvent withSequence(long sequence) {
+        return new PersonChangeEvent(sequence, type, personId, person, previous);
+    }
+
+    /**
+     * Dağıtım sırasındaki numara; henüz dağıtılmamış olaylarda 0.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    /**
+     * Değişiklik sonrası kayıt; DELETE olaylarında null'dır.
+     */
+    public Person getPerson() {
+        return person;
+    }
+
+    /**
+     * Değişiklik öncesi kayıt; INSERT olaylarında ve önceki hali bilinmeyen
+     * güncellemelerde null'dır.
+     */
+    public Person getPrevious() {
+        return previous;
+    }
+}
@@ -0,0 +1,40 @@
+package org.vaadin.example.domain.model;
+
+import java.util.Locale;
+
+/**
+ * Ad ve soyadların büyük/küçük harf dönüşümü için ortak kurallar.
+ *
+ * Dönüşümler Türkçe kurallarla yapılır (I ↔ ı, İ ↔ i). Varsayılan locale
+ * sunucuya göre değişir; Locale.ROOT ise "İ"yi iki karaktere (i + U+0307),
+ * "I"yı "i"ye çevirir ve Türkçe adlar eşleşmez. Öneriler, sayılar, arama ve
+ * arayüzdeki filtre aynı sonucu versin diye hepsi bu sınıfı kullanır.
+ */
+public final class NameCase {
+
+    public static final Locale LOCALE = Locale.forLanguageTag("tr");
+
+    private NameCase() {
+    }
+
+    /**
+     * @return Karşılaştırma için küçük harfe çevrilmiş değer.
+     */
+    public static String fold(String value) {
+        return value.toLowerCase(LOCALE);
+    }
+
+    /**
+     * @return Büyük harfe çevrilmiş değer.
+     */
+    public static String upper(String value) {
+        return value.toUpperCase(LOCALE);
+    }
+
+    /**
+     * @return name, needle'ı büyük/küçük harf farkı gözetmeden içeriyorsa true.
+     */
+    public static boolean contains(String name, String needle) {
+        return fold(name).contains(fold(needle));
+    }
+}
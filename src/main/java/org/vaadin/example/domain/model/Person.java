@@ -1,12 +1,33 @@
 package org.vaadin.example.domain.model;
 
+import org.vaadin.example.services.sync.PersonChangeSeqListener;
+
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
+// Sıralanabilir alanlar için (alan, id) index'leri; ORDER BY ... LIMIT sorguları
+// tablo taraması ve sort yapmadan index üzerinden okunur.
+@Table(indexes = {
+        @Index(name = "idx_person_first_name", columnList = "firstName, id"),
+        @Index(name = "idx_person_last_name", columnList = "lastName, id"),
+        @Index(name = "idx_person_national_number", columnList = "nationalNumber, id"),
+        // Delta eşitleme: changeSeq > ? sorguları yalnızca değişen satırları okur.
+        @Index(name = "idx_person_change_seq", columnList = "changeSeq")
+}, uniqueConstraints = {
+        // Aynı kimlik numarası iki kez kaydedilemez; eşzamanlı eklemeleri de yakalar.
+        @UniqueConstraint(name = "uk_person_national_number", columnNames = "nationalNumber")
+})
+@EntityListeners(PersonChangeSeqListener.class)
 public class Person extends AbstractEntity {
     private String firstName;
     private String lastName;
     private String nationalNumber;
+    // Her eklemede ve güncellemede artan değişiklik numarası.
+    private Long changeSeq;
 
     public String getFirstName() {
         return firstName;
@@ -31,4 +52,27 @@ public class Person extends AbstractEntity {
     public void setLastName(String lastName) {
         this.lastName = lastName;
     }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    /**
+     * Bu nesnenin bağımsız bir kopyasını döndürür. Aynı Person nesnesinin
+     * farklı oturumlar arasında paylaşılmaması için kullanılır.
+     */
+    public Person copy() {
+        Person copy = new Person();
+        copy.setId(getId());
+        copy.setVersion(getVersion());
+        copy.setFirstName(firstName);
+        copy.setLastName(lastName);
+        copy.setNationalNumber(nationalNumber);
+        copy.setChangeSeq(changeSeq);
+        return copy;
+    }
 }
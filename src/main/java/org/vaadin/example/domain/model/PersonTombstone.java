@@ -0,0 +1,47 @@
+package org.vaadin.example.domain.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Silinen bir Person kaydının izi. Delta eşitleme yapan istemciler silinen
+ * kayıtları bu tablodan öğrenir.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_person_tombstone_change_seq", columnList = "changeSeq"))
+public class PersonTombstone {
+
+    @Id
+    private Long personId;
+
+    @Column(nullable = false)
+    private long changeSeq;
+
+    private Instant deletedAt;
+
+    protected PersonTombstone() {
+    }
+
+    public PersonTombstone(Long personId, long changeSeq, Instant deletedAt) {
+        this.personId = personId;
+        this.changeSeq = changeSeq;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -1,9 +1,19 @@
 package org.vaadin.example.domain.repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.vaadin.example.domain.model.Person;
 
@@ -36,4 +46,66 @@ public interface PersonRepository
      * @return Verilen adı içeren kişilerin toplam sayısı döndürülür.
      */
     int countByFirstNameContainingIgnoreCase(String firstName);
+
+    /**
+     * Verilen kimlik numarasına sahip bir kayıt olup olmadığını kontrol eder.
+     * 
+     * @param nationalNumber Kontrol edilecek kimlik numarası.
+     * @return Kayıt varsa true.
+     */
+    boolean existsByNationalNumber(String nationalNumber);
+
+    /**
+     * Verilen kimlik numarasına sahip başka bir kayıt olup olmadığını kontrol
+     * eder. Güncellemelerde kaydın kendisi hariç tutulur.
+     * 
+     * @param nationalNumber Kontrol edilecek kimlik numarası.
+     * @param id             Hariç tutulacak kaydın id'si.
+     * @return Başka bir kayıt varsa true.
+     */
+    boolean existsByNationalNumberAndIdNot(String nationalNumber, Long id);
+
+    /**
+     * Tüm kimlik numaralarını entity yüklemeden akış olarak döndürür.
+     * Bir transaction içinde çağrılmalı ve akış kapatılmalıdır.
+     * 
+     * @return Kimlik numaraları.
+     */
+    @Query("select p.nationalNumber from Person p")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamNationalNumbers();
+
+    /**
+     * Numarası (since, until] aralığındaki kayıtları numara sırasıyla
+     * döndürür; changeSeq index'i üzerinden okunur ve yalnızca değişen
+     * satırlara dokunur.
+     * 
+     * @param since Bu numaradan sonra değişen kayıtlar.
+     * @param until Bu numaraya kadar (dahil) değişen kayıtlar.
+     * @param limit En fazla kayıt sayısı.
+     * @return Değişen kayıtlar.
+     */
+    @Query("select p from Person p where p.changeSeq > :since and p.changeSeq <= :until order by p.changeSeq")
+    List<Person> findChanged(long since, long until, Limit limit);
+
+    /**
+     * Değişiklik numarası henüz atanmamış (sütun eklenmeden önce yazılmış)
+     * kayıtların id'leri.
+     * 
+     * @param limit En fazla id sayısı.
+     * @return Kayıt id'leri.
+     */
+    @Query("select p.id from Person p where p.changeSeq is null order by p.id")
+    List<Long> findIdsWithoutChangeSeq(Limit limit);
+
+    /**
+     * Kayda, version artırmadan bir değişiklik numarası atar.
+     * 
+     * @param id        Kaydın id'si.
+     * @param changeSeq Atanacak numara.
+     * @return Güncellenen satır sayısı.
+     */
+    @Modifying
+    @Query("update Person p set p.changeSeq = :changeSeq where p.id = :id and p.changeSeq is null")
+    int assignChangeSeq(Long id, long changeSeq);
 }
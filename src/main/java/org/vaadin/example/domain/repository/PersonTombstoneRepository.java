@@ -0,0 +1,29 @@
+package org.vaadin.example.domain.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.vaadin.example.domain.model.PersonTombstone;
+
+/**
+ * Silinen Person kayıtlarının izleri için repository arayüzü.
+ */
+@Repository
+public interface PersonTombstoneRepository extends JpaRepository<PersonTombstone, Long> {
+
+    /**
+     * Numarası (since, until] aralığındaki silmeleri numara sırasıyla
+     * döndürür; changeSeq index'i üzerinden okunur.
+     * 
+     * @param since Bu numaradan sonraki silmeler.
+     * @param until Bu numaraya kadar (dahil) olan silmeler.
+     * @param limit En fazla kayıt sayısı.
+     * @return Silme izleri.
+     */
+    @Query("select t from PersonTombstone t where t.changeSeq > :since and t.changeSeq <= :until"
+            + " order by t.changeSeq")
+    List<PersonTombstone> findChanged(long since, long until, Limit limit);
+}
@@ -0,0 +1,92 @@
+package org.vaadin.example.infrastructure;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.vaadin.example.domain.event.PersonChangeEvent;
+
+import com.vaadin.flow.shared.Registration;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * PersonChangeBroadcaster, IPersonService tarafından yayınlanan değişiklik
+ * olaylarını bağlı tüm UI'lara iletir.
+ *
+ * Olaylar yazma işlemini yapan thread'i bekletmemek için tek bir arka plan
+ * thread'i üzerinden, yayınlanma sırasıyla dağıtılır. Dinleyiciler
+ * UI.access(...) ile kendi oturumlarında çalışmalıdır.
+ *
+ * Sıra numarası olay oluşturulurken değil, transaction commit edildikten
+ * sonra burada verilir. Böylece bir numara {@link #currentSequence()} ile
+ * görüldüğünde, o numaraya kadar olan değişiklikler başka bağlantılardan
+ * okunabilir durumdadır.
+ */
+@Component
+public class PersonChangeBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonChangeBroadcaster.class);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "person-change-broadcaster");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final CopyOnWriteArrayList<Consumer<PersonChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Değişiklik dinleyicisi kaydeder.
+     *
+     * @param listener Her olay için çağrılacak dinleyici.
+     * @return Dinleyiciyi kaldırmak için kullanılan Registration.
+     */
+    public Registration register(Consumer<PersonChangeEvent> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Şimdiye kadar commit edilip dağıtıma verilen son olayın sıra numarası.
+     * Tam bir yenileme öncesinde okunursa, bu numaraya kadar olan olaylar
+     * yüklenen veride zaten yer alır.
+     */
+    public long currentSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Olay bir transaction içinde yayınlandıysa commit sonrasında, aksi halde
+     * hemen numaralanıp dağıtılır. Numara verme ve kuyruğa ekleme birlikte
+     * yapılır; dinleyiciler olayları numara sırasıyla alır.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangeEvent event) {
+        synchronized (sequence) {
+            PersonChangeEvent sequenced = event.withSequence(sequence.incrementAndGet());
+            executor.execute(() -> dispatch(sequenced));
+        }
+    }
+
+    private void dispatch(PersonChangeEvent event) {
+        for (Consumer<PersonChangeEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("Değişiklik olayı dinleyiciye iletilemedi", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
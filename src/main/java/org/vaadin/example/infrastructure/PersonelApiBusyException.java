@@ -0,0 +1,27 @@
+package org.vaadin.example.infrastructure;
+
+import java.time.Duration;
+
+import org.springframework.web.client.HttpStatusCodeException;
+
+/**
+ * Personel REST API'sinin giriş kontrolü çağrıyı reddettiğinde (429 Too Many
+ * Requests veya 503 Service Unavailable) fırlatılır. Arayüzde PersonelApiErrorHandler tarafından kullanıcıya bir
+ * bildirim olarak gösterilir.
+ */
+public class PersonelApiBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public PersonelApiBusyException(HttpStatusCodeException cause, Duration retryAfter) {
+        super("Personel API'si isteği reddetti: " + cause.getStatusCode(), cause);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return API'nin Retry-After ile önerdiği bekleme süresi.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
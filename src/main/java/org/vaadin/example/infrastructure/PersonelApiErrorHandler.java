@@ -0,0 +1,57 @@
+package org.vaadin.example.infrastructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.notification.NotificationVariant;
+import com.vaadin.flow.server.DefaultErrorHandler;
+import com.vaadin.flow.server.ErrorEvent;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+
+/**
+ * PersonelApiErrorHandler, arayüz eylemlerinde API'nin aşırı yük nedeniyle
+ * reddettiği çağrıları (PersonelApiBusyException) hata olarak log'lamak
+ * yerine kullanıcıya "tekrar deneyin" bildirimi olarak gösterir. Diğer
+ * hatalar Vaadin'in varsayılan işleyicisine bırakılır.
+ *
+ * Her yeni Vaadin oturumuna hata işleyicisi olarak atanır.
+ */
+@Component
+public class PersonelApiErrorHandler extends DefaultErrorHandler implements VaadinServiceInitListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonelApiErrorHandler.class);
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.getSource().addSessionInitListener(init -> init.getSession().setErrorHandler(this));
+    }
+
+    @Override
+    public void error(ErrorEvent event) {
+        PersonelApiBusyException busy = busyCause(event.getThrowable());
+        if (busy == null) {
+            super.error(event);
+            return;
+        }
+        log.debug("Arayüz çağrısı aşırı yük nedeniyle reddedildi", event.getThrowable());
+        UI ui = UI.getCurrent();
+        if (ui != null) {
+            long seconds = Math.max(1, busy.getRetryAfter().toSeconds());
+            Notification.show("Sunucu şu anda yoğun, lütfen " + seconds + " saniye sonra tekrar deneyin.", 3000,
+                    Notification.Position.TOP_END).addThemeVariants(NotificationVariant.LUMO_WARNING);
+        }
+    }
+
+    private static PersonelApiBusyException busyCause(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PersonelApiBusyException busy) {
+                return busy;
+            }
+        }
+        return null;
+    }
+}
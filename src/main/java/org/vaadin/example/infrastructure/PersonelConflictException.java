@@ -0,0 +1,23 @@
+package org.vaadin.example.infrastructure;
+
+import org.springframework.web.client.HttpClientErrorException;
+import org.vaadin.example.domain.dto.PersonConflict;
+
+/**
+ * Personel REST API'si bir kaydetme isteğini 409 Conflict ile
+ * reddettiğinde fırlatılır. Çakışmanın nedeni ve sürüm çakışmasında kaydın
+ * güncel hali yanıt gövdesinden okunur.
+ */
+public class PersonelConflictException extends RuntimeException {
+
+    private final transient PersonConflict conflict;
+
+    public PersonelConflictException(PersonConflict conflict, HttpClientErrorException cause) {
+        super("Personel kaydı çakıştı: " + conflict.reason(), cause);
+        this.conflict = conflict;
+    }
+
+    public PersonConflict getConflict() {
+        return conflict;
+    }
+}
@@ -1,39 +1,84 @@
 package org.vaadin.example.infrastructure;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.vaadin.example.application.admission.AdmissionControlFilter;
+import org.vaadin.example.application.controllers.PersonelController;
+import org.vaadin.example.domain.dto.NameSuggestion;
 import org.vaadin.example.domain.dto.PageResponse;
+import org.vaadin.example.domain.dto.PersonChanges;
+import org.vaadin.example.domain.dto.PersonConflict;
+import org.vaadin.example.domain.dto.PersonFacets;
+import org.vaadin.example.domain.dto.PersonPatch;
 import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.infrastructure.jfr.DataProviderEvent;
 
 import com.github.javafaker.Faker;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.data.provider.AbstractBackEndDataProvider;
 import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.spring.annotation.UIScope;
 
 /**
  * PersonelDataProvider, personel verilerini sağlamak için kullanılan veri
  * sağlayıcıdır.
+ *
+ * Arama metni ve sayfa bilgisi kullanıcıya özgü olduğu için sağlayıcı her UI
+ * (tarayıcı sekmesi) için ayrı oluşturulur. Böylece oturumlar birbirinin
+ * aramasını ezmez ve ortak bir kilide ihtiyaç duymadan paralel çalışır; UI'ya
+ * özgü durum, UI erişimleri oturum kilidi altında yapıldığı için ayrıca
+ * senkronize edilmez. Paylaşılan RestTemplate durumsuzdur.
+ *
+ * Her REST çağrısı bir DataProviderEvent (JFR) olarak kaydedilir. API'nin
+ * giriş kontrolü çağrıyı reddederse (429 veya 503, Retry-After ile) hemen
+ * PersonelApiBusyException fırlatılır. Çağrılar oturum kilidi altında
+ * yapıldığı için burada beklenip tekrar denenmez.
  */
 @Component
+@UIScope
 public class PersonelDataProvider extends AbstractBackEndDataProvider<Person, Void> {
     private final RestTemplate restTemplate;
-    private final String baseUrl = "http://localhost:8081/api/personel";
+    private final String baseUrl;
     private Pageable pageable = PageRequest.of(0, 5);
     private String searchQuery = "";
     private boolean hasNext;
 
-    public PersonelDataProvider() {
-        this.restTemplate = new RestTemplate();
+    /**
+     * @param restTemplate Uygulamanın paylaşılan RestTemplate'i; çağrılara
+     *                     oturuma özgü istemci kimliği ekler.
+     * @param baseUrl      Personel REST API'sinin adresi; varsayılan olarak
+     *                     uygulamanın dinlediği port kullanılır.
+     */
+    public PersonelDataProvider(RestTemplate restTemplate,
+            @Value("${api.base-url:http://localhost:${local.server.port:${server.port:8081}}/api/personel}")
+            String baseUrl) {
+        this.restTemplate = restTemplate;
+        this.baseUrl = baseUrl;
     }
 
     public void setPageable(Pageable pageable) {
@@ -53,37 +98,135 @@ public class PersonelDataProvider extends AbstractBackEndDataProvider<Person, Vo
 
     @Override
     protected Stream<Person> fetchFromBackEnd(Query<Person, Void> query) {
-        int offset = query.getOffset();
-        int limit = query.getLimit();
-        this.pageable = PageRequest.of(offset, limit);
+        this.pageable = PageRequest.of(query.getPage(), query.getPageSize());
 
-        // API çağrısı için uygun URL oluşturulur
-        String url;
-        if (searchQuery == null || searchQuery != null && searchQuery.isBlank()) {
-            url = String.format("%s/list?page=%d&size=%d", baseUrl, pageable.getPageNumber(),
-                    pageable.getPageSize());
-        } else {
-            url = String.format("%s/search?page=%d&size=%d&name=%s", baseUrl, pageable.getPageNumber(),
-                    pageable.getPageSize(), this.searchQuery);
+        PageResponse<Person> pageResponse = fetchPage(searchQuery, pageable.getPageNumber(), pageable.getPageSize(),
+                query.getSortOrders());
+        if (pageResponse.getContent() == null) {
+            return Stream.empty();
         }
 
+        // API'den dönen verileri Page objesine çevirerek Stream olarak döndürür
+        Page<Person> result = new PageImpl<>(pageResponse.getContent(), pageable, pageResponse.getTotalElements());
+        hasNext = result.hasNext(); // Sonraki sayfa olup olmadığı kontrol edilir
+        return result.stream();
+    }
+
+    /**
+     * Tek bir REST çağrısı ile bir sayfayı ve toplam kayıt sayısını getirir.
+     * Sağlayıcının durumunu değiştirmez; arka plan thread'lerinden
+     * çağrılabilir.
+     * 
+     * @param searchQuery Aranacak metin, boş ise tüm liste
+     * @param page        0 tabanlı sayfa numarası
+     * @param size        Sayfa boyutu
+     * @param sortOrders  Grid'den gelen sıralama bilgileri
+     * @return Sayfa içeriği ve toplamları; yanıt boşsa boş sayfa
+     */
+    public PageResponse<Person> fetchPage(String searchQuery, int page, int size, List<QuerySortOrder> sortOrders) {
+        return fetchPage(searchQuery, page, size, sortOrders, null);
+    }
+
+    /**
+     * {@link #fetchPage(String, int, int, List)} ile aynıdır; istek verilen
+     * istemci kimliğiyle gönderilir. Oturum kilidi tutulmayan arka plan
+     * thread'leri, kimliği UI thread'inde alıp buraya verir; böylece rate
+     * limit yine oturum başına uygulanır.
+     * 
+     * @param clientId Oturumun istemci kimliği; null ise oturumdan alınır
+     */
+    public PageResponse<Person> fetchPage(String searchQuery, int page, int size, List<QuerySortOrder> sortOrders,
+            String clientId) {
+        // API çağrısı için uygun URL oluşturulur
+        String url = (searchQuery == null || searchQuery.isBlank()
+                ? String.format("%s/list?page=%d&size=%d", baseUrl, page, size)
+                : String.format("%s/search?page=%d&size=%d&name=%s", baseUrl, page, size, searchQuery))
+                + sortParameters(sortOrders);
+
         // REST API çağrısı yapılır ve dönen yanıt işlenir
-        ResponseEntity<PageResponse<Person>> response = restTemplate.exchange(
+        PageResponse<Person> pageResponse = call("fetchPage", () -> restTemplate.exchange(
                 url,
-                org.springframework.http.HttpMethod.GET,
-                null,
+                HttpMethod.GET,
+                clientId != null ? new HttpEntity<>(clientIdHeader(clientId)) : null,
                 new ParameterizedTypeReference<PageResponse<Person>>() {
-                });
+                }).getBody(), response -> response.getContent() != null ? response.getContent().size() : 0);
+        if (pageResponse == null) {
+            pageResponse = new PageResponse<>();
+            pageResponse.setContent(List.of());
+        }
+        return pageResponse;
+    }
 
-        PageResponse<Person> pageResponse = response.getBody();
-        if (pageResponse == null || pageResponse.getContent() == null) {
-            return Stream.empty();
+    private static HttpHeaders clientIdHeader(String clientId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(AdmissionControlFilter.CLIENT_ID_HEADER, clientId);
+        return headers;
+    }
+
+    /**
+     * Grid'in sıralama bilgisini REST API'nin beklediği sort parametrelerine
+     * çevirir, örn. {@code &sort=lastName,desc}.
+     * 
+     * @param sortOrders Grid'den gelen sıralama bilgileri
+     * @return URL'e eklenecek parametreler, sıralama yoksa boş metin
+     */
+    private String sortParameters(List<QuerySortOrder> sortOrders) {
+        StringBuilder parameters = new StringBuilder();
+        if (sortOrders != null) {
+            for (QuerySortOrder order : sortOrders) {
+                parameters.append("&sort=").append(order.getSorted()).append(',')
+                        .append(order.getDirection() == SortDirection.DESCENDING ? "desc" : "asc");
+            }
         }
+        return parameters.toString();
+    }
 
-        // API'den dönen verileri Page objesine çevirerek Stream olarak döndürür
-        Page<Person> result = new PageImpl<>(pageResponse.getContent(), pageable, pageResponse.getTotalElements());
-        hasNext = result.hasNext(); // Sonraki sayfa olup olmadığı kontrol edilir
-        return result.stream();
+    /**
+     * Verilen önekle başlayan adları getirir. Arama kutusunun otomatik
+     * tamamlaması için kullanılır; arama ada göre yapıldığı için yalnızca ad
+     * önerileri istenir.
+     * 
+     * @param prefix Kullanıcının yazdığı önek
+     * @param limit  En fazla öneri sayısı
+     * @return Önerilen adlar, önek boşsa boş liste
+     */
+    public List<String> suggestFirstNames(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        List<NameSuggestion> suggestions = call("suggestFirstNames", () -> restTemplate.exchange(
+                baseUrl + "/suggest?prefix={prefix}&field=firstName&limit={limit}",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<NameSuggestion>>() {
+                },
+                prefix.trim(), limit).getBody(), List::size);
+        return suggestions == null ? List.of() : suggestions.stream().map(NameSuggestion::value).toList();
+    }
+
+    /**
+     * Verilen numaradan sonra değişen kayıtları getirir. Yerel bir kopya
+     * tutan çağıran, sayfaları yeniden indirmek yerine yanıttaki
+     * değişiklikleri uygular ve watermark'ı bir sonraki istek için saklar.
+     * 
+     * @param since Son görülen değişiklik numarası; ilk eşitlemede 0
+     * @param limit En fazla değişiklik sayısı
+     * @return Değişiklikler ve yeni watermark
+     */
+    public PersonChanges fetchChanges(long since, int limit) {
+        return call("fetchChanges", () -> restTemplate.getForObject(baseUrl + "/changes?since={since}&limit={limit}",
+                PersonChanges.class, since, limit), changes -> changes.changes().size());
+    }
+
+    /**
+     * Soyad harfine ve kimlik numarası önekine göre personel sayılarını
+     * getirir.
+     * 
+     * @return Toplam ve gruplara göre sayılar
+     */
+    public PersonFacets fetchFacets() {
+        return call("fetchFacets", () -> restTemplate.getForObject(baseUrl + "/facets", PersonFacets.class),
+                facets -> 0);
     }
 
     @Override
@@ -92,7 +235,7 @@ public class PersonelDataProvider extends AbstractBackEndDataProvider<Person, Vo
         String queryParam = (searchQuery != null && !searchQuery.isBlank()) ? searchQuery : "";
         String url = queryParam.isEmpty() ? baseUrl + "/count" : baseUrl + "/search/count?name=" + queryParam;
 
-        Integer count = restTemplate.getForObject(url, Integer.class);
+        Integer count = call("count", () -> restTemplate.getForObject(url, Integer.class), value -> 0);
         return count != null ? count : 0;
     }
 
@@ -114,43 +257,163 @@ public class PersonelDataProvider extends AbstractBackEndDataProvider<Person, Vo
      * 
      * @param person Kaydedilecek personel
      * @return Kaydedilen personel
+     * @throws PersonelConflictException Kimlik numarası zaten kayıtlıysa.
      */
     public Person save(Person person) {
-        return restTemplate.postForObject(baseUrl, person, Person.class);
+        return call("save", conflictAware(() -> restTemplate.postForObject(baseUrl, person, Person.class)),
+                saved -> 1);
     }
 
     /**
-     * Mevcut bir personeli günceller.
+     * Mevcut bir personeli günceller. PUT yanıtındaki güncel kayıt (yeni
+     * version ile) döndürülür; ek bir okuma yapılmaz.
      * 
      * @param id     Güncellenecek personelin ID'si
      * @param person Güncellenmiş personel bilgileri
      * @return Güncellenmiş personel
+     * @throws PersonelConflictException Kimlik numarası başka bir kayıttaysa.
      */
     public Person update(Long id, Person person) {
         String url = baseUrl + "/" + id;
-        restTemplate.put(url, person);
-        return person;
+        Person updated = call("update", conflictAware(
+                () -> restTemplate.exchange(url, HttpMethod.PUT, new HttpEntity<>(person), Person.class).getBody()),
+                result -> 1);
+        return updated != null ? updated : person;
     }
 
     /**
-     * Belirtilen ID'ye sahip kişiyi siler ve verileri yeniler.
+     * Bir personelin yalnızca değişen alanlarını PATCH ile gönderir.
+     * Patch'teki version kayıtta değiştiyse veya kimlik numarası başka bir
+     * kayıttaysa sunucu 409 Conflict döner.
+     * 
+     * @param id    Güncellenecek personelin ID'si
+     * @param patch Değişen alanlar ve düzenlemenin başladığı version
+     * @return Güncellenmiş personel
+     * @throws PersonelConflictException Sunucu 409 döndüğünde; sürüm
+     *                                   çakışmasında kaydın güncel halini
+     *                                   taşır.
+     */
+    public Person patch(Long id, PersonPatch patch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf(PersonelController.MERGE_PATCH_JSON));
+        return call("patch", conflictAware(() -> restTemplate.exchange(baseUrl + "/" + id, HttpMethod.PATCH,
+                new HttpEntity<>(patch, headers), Person.class).getBody()), result -> 1);
+    }
+
+    /**
+     * Belirtilen ID'ye sahip kişiyi siler. Grid'in yenilenmesi çağırana
+     * bırakılır.
      * 
      * @param personId Silinecek kişinin ID'si
      */
     public void delete(Long personId) {
-        restTemplate.delete(baseUrl + "/" + personId);
-        refreshAll();
+        call("delete", () -> {
+            restTemplate.delete(baseUrl + "/" + personId);
+            return personId;
+        }, id -> 1);
+    }
+
+    /**
+     * 409 Conflict yanıtını, gövdedeki PersonConflict ile
+     * PersonelConflictException'a çevirir. Gövdesi okunamayan 409 olduğu
+     * gibi fırlatılır.
+     */
+    private static <T> Supplier<T> conflictAware(Supplier<T> call) {
+        return () -> {
+            try {
+                return call.get();
+            } catch (HttpClientErrorException.Conflict e) {
+                PersonConflict conflict = e.getResponseBodyAsByteArray().length > 0
+                        ? e.getResponseBodyAs(PersonConflict.class)
+                        : null;
+                if (conflict == null || conflict.reason() == null) {
+                    throw e;
+                }
+                throw new PersonelConflictException(conflict, e);
+            }
+        };
     }
 
-    public void addNewMockPerson() {
+    /**
+     * REST çağrısını bir DataProviderEvent içinde çalıştırır.
+     * 
+     * @param operation Olayın işlem adı
+     * @param call      Çağrı
+     * @param rows      Yanıttaki kayıt sayısı; yanıt null ise 0 yazılır
+     * @return Çağrının sonucu
+     */
+    private static <T> T call(String operation, Supplier<T> call, ToIntFunction<T> rows) {
+        DataProviderEvent event = new DataProviderEvent();
+        event.start();
+        T result = null;
+        boolean failed = true;
+        try {
+            result = rejectIfBusy(call);
+            failed = false;
+            return result;
+        } finally {
+            if (event.stop()) {
+                event.operation = operation;
+                event.rows = result != null ? rows.applyAsInt(result) : 0;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Giriş kontrolünün reddettiği çağrıyı PersonelApiBusyException'a çevirir.
+     * Çağrı beklenip tekrarlanmaz: arayüz çağrıları oturum kilidi altında
+     * çalışır ve bekleme, sunucu zaten yoğunken tüm oturumu (push dahil) ve
+     * bir servlet thread'ini tutardı. Tekrar denemek kullanıcıya kalır.
+     *
+     * @throws PersonelApiBusyException Çağrı giriş kontrolünce reddedilirse.
+     */
+    private static <T> T rejectIfBusy(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (HttpStatusCodeException e) {
+            long retryAfterMillis = retryAfterMillis(e);
+            if (retryAfterMillis < 0) {
+                throw e;
+            }
+            throw new PersonelApiBusyException(e, Duration.ofMillis(retryAfterMillis));
+        }
+    }
+
+    /**
+     * @return Yanıt giriş kontrolünün reddiyse önerilen bekleme süresi
+     *         (milisaniye); değilse -1.
+     */
+    private static long retryAfterMillis(HttpStatusCodeException e) {
+        if (!e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)
+                && !e.getStatusCode().isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE)) {
+            return -1;
+        }
+        String retryAfter = e.getResponseHeaders() != null
+                ? e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER)
+                : null;
+        try {
+            return retryAfter != null ? TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim())) : -1;
+        } catch (NumberFormatException ignored) {
+            return -1;
+        }
+    }
+
+    /**
+     * Rastgele bir personel oluşturup kaydeder.
+     * 
+     * @return Kaydedilen personel
+     */
+    public Person addNewMockPerson() {
         Person entity = new Person();
         Faker faker = new Faker();
         entity.setFirstName(faker.name().firstName());
         entity.setLastName(faker.name().lastName());
         entity.setNationalNumber(faker.number().digits(10));
-        save(entity);
+        Person saved = save(entity);
         Notification.show("Yeni çalışan başarıyla kaydedildi!", 3000, Notification.Position.TOP_END)
                 .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
-        refreshAll();
+        return saved;
     }
 }
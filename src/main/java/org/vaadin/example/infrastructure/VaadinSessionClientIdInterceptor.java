@@ -0,0 +1,53 @@
+package org.vaadin.example.infrastructure;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.vaadin.example.application.admission.AdmissionControlFilter;
+
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * Arayüzün kendi REST API'sine yaptığı çağrılara, çağrıyı yapan Vaadin
+ * oturumuna özgü bir X-Client-Id ekler.
+ *
+ * Bu çağrıların hepsi aynı adresten (localhost) geldiği için, başlık olmadan
+ * tüm kullanıcılar tek bir rate limit kovasını paylaşırdı. Oturum id'si
+ * yerine oturumda saklanan rastgele bir değer kullanılır; böylece oturum id'si
+ * log'lara veya başlıklara sızmaz. Oturum kilidi tutulmadan yapılan arka plan
+ * çağrıları oturumu okuyamaz; bunlar kimliği UI thread'inde
+ * {@link #clientId(VaadinSession)} ile alıp başlığı kendileri ekler. Başlık
+ * zaten varsa değiştirilmez.
+ */
+public class VaadinSessionClientIdInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String ATTRIBUTE = VaadinSessionClientIdInterceptor.class.getName();
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        VaadinSession session = VaadinSession.getCurrent();
+        if (session != null && session.hasLock()
+                && !request.getHeaders().containsKey(AdmissionControlFilter.CLIENT_ID_HEADER)) {
+            request.getHeaders().set(AdmissionControlFilter.CLIENT_ID_HEADER, clientId(session));
+        }
+        return execution.execute(request, body);
+    }
+
+    /**
+     * Oturumun istemci kimliği; yoksa oluşturulur. Oturum kilidi altında
+     * çağrılmalıdır.
+     */
+    public static String clientId(VaadinSession session) {
+        Object clientId = session.getAttribute(ATTRIBUTE);
+        if (clientId == null) {
+            clientId = "ui-" + UUID.randomUUID();
+            session.setAttribute(ATTRIBUTE, clientId);
+        }
+        return clientId.toString();
+    }
+}
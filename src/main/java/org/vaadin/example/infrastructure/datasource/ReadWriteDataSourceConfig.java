@@ -0,0 +1,91 @@
+package org.vaadin.example.infrastructure.datasource;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * ReadWriteDataSourceConfig, salt okunur transaction'ları replica veritabanına
+ * yönlendiren DataSource yapılandırmasıdır.
+ *
+ * Uygulamanın kullandığı DataSource bir LazyConnectionDataSourceProxy'dir.
+ * Fiziksel bağlantı ilk SQL ifadesine kadar alınmaz; bu noktada
+ * {@code @Transactional(readOnly = true)} ile açılan transaction'lar
+ * bağlantıyı salt okunur olarak işaretlemiş olur ve bağlantı ReplicaDataSource
+ * üzerinden, diğerleri primary havuzdan alınır.
+ *
+ * Yalnızca datasource.replica.enabled=true olduğunda etkindir; aksi halde
+ * Spring Boot'un tek DataSource yapılandırması kullanılır.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    /**
+     * spring.datasource.* ayarları. İki DataSourceProperties bean'i olduğu
+     * için Spring Boot bileşenleri bunu kullanır.
+     */
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * spring.datasource.* ile yapılandırılan primary havuz.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(
+            @Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * datasource.replica.* ile yapılandırılan replica havuzu. Havuz boyutu
+     * datasource.replica.hikari.maximum-pool-size ile ayarlanır.
+     */
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * JPA ve diğer tüm bileşenlerin kullandığı DataSource.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+            @Qualifier("replicaDataSource") HikariDataSource replica, ReadYourWritesWindow readYourWrites,
+            @Value("${datasource.replica.retry-interval:30s}") Duration retryInterval) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new ReplicaDataSource(primary, replica, readYourWrites, retryInterval));
+        return proxy;
+    }
+}
@@ -0,0 +1,49 @@
+package org.vaadin.example.infrastructure.datasource;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.vaadin.example.domain.event.PersonChangeEvent;
+
+/**
+ * ReadYourWritesWindow, son commit edilen yazma işleminden sonraki kısa bir
+ * süre boyunca okumaların replica yerine primary'ye gitmesini sağlar.
+ *
+ * Replica'ya aktarım gecikmeli olduğu için, bir yazmanın hemen ardından gelen
+ * okuma (örneğin kayıttan sonra grid'in yenilenmesi) eski veriyi görebilir.
+ * Vaadin UI tüm REST çağrılarını aynı sunucudan yaptığı için pencere istemci
+ * başına değil, uygulama genelinde tutulur.
+ */
+@Component
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReadYourWritesWindow {
+
+    private final long windowNanos;
+    private final AtomicLong lastWriteAt = new AtomicLong(System.nanoTime() - Long.MAX_VALUE / 2);
+
+    /**
+     * @param window Yazmadan sonra okumaların primary'de kalacağı süre.
+     */
+    public ReadYourWritesWindow(@Value("${datasource.replica.sticky-window:1s}") Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Her yazma olayı commit sonrasında pencereyi yeniden başlatır.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangeEvent event) {
+        lastWriteAt.set(System.nanoTime());
+    }
+
+    /**
+     * @return Son yazmadan bu yana pencere süresi dolmadıysa true.
+     */
+    public boolean isOpen() {
+        return System.nanoTime() - lastWriteAt.get() < windowNanos;
+    }
+}
@@ -0,0 +1,68 @@
+package org.vaadin.example.infrastructure.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * ReplicaDataSource, salt okunur transaction'lar için bağlantı sağlar.
+ *
+ * Bağlantı normalde replica havuzundan alınır. Şu durumlarda primary'ye
+ * düşülür:
+ * - Read-your-writes penceresi açıksa (son yazmanın üzerinden kısa süre
+ * geçtiyse).
+ * - Replica'dan bağlantı alınamadıysa; replica retryInterval süresince
+ * devre dışı sayılır ve sonra yeniden denenir.
+ */
+class ReplicaDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReadYourWritesWindow readYourWrites;
+    private final long retryIntervalNanos;
+    private final AtomicLong replicaDownUntil = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param primary        Yazmaların yapıldığı ana havuz.
+     * @param replica        Salt okunur replica havuzu.
+     * @param readYourWrites Yazma sonrası okumaları primary'de tutan pencere.
+     * @param retryInterval  Hata sonrası replica'nın devre dışı kalacağı süre.
+     */
+    ReplicaDataSource(DataSource primary, DataSource replica, ReadYourWritesWindow readYourWrites,
+            Duration retryInterval) {
+        this.primary = primary;
+        this.replica = replica;
+        this.readYourWrites = readYourWrites;
+        this.retryIntervalNanos = retryInterval.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (readYourWrites.isOpen() || System.nanoTime() - replicaDownUntil.get() < 0) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            replicaDownUntil.set(System.nanoTime() + retryIntervalNanos);
+            log.warn("Replica'dan bağlantı alınamadı, okumalar {} ms boyunca primary'ye yönlendirilecek",
+                    retryIntervalNanos / 1_000_000, e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Havuzlar kendi kimlik bilgileriyle yapılandırılır.
+        return getConnection();
+    }
+}
@@ -0,0 +1,27 @@
+package org.vaadin.example.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * PersonelDataProvider'ın REST API'sine yaptığı bir çağrı.
+ */
+@Name("org.vaadin.example.DataProvider")
+@Label("Data Provider Call")
+@Category({ "Personel", "UI" })
+@Description("Arayüzün REST API çağrısı")
+@Threshold("20 ms")
+@StackTrace(false)
+public class DataProviderEvent extends PersonelEvent {
+
+    @Label("Rows")
+    @Description("Dönen veya gönderilen kayıt sayısı")
+    public int rows;
+
+    @Label("Failed")
+    public boolean failed;
+}
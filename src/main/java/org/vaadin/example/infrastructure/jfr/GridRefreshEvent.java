@@ -0,0 +1,33 @@
+package org.vaadin.example.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * PersonelGrid'in bir sayfayı göstermesi.
+ */
+@Name("org.vaadin.example.GridRefresh")
+@Label("Grid Refresh")
+@Category({ "Personel", "UI" })
+@Description("PersonelGrid.refreshGrid çalışması")
+@Threshold("20 ms")
+@StackTrace(false)
+public class GridRefreshEvent extends PersonelEvent {
+
+    @Label("Page")
+    public int page;
+
+    @Label("Page Size")
+    public int pageSize;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Cache")
+    @Description("Sayfa önbellekte miydi: hit, stale veya miss")
+    public String cache;
+}
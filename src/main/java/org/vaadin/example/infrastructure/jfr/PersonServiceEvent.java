@@ -0,0 +1,31 @@
+package org.vaadin.example.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Bir IPersonService çağrısı.
+ */
+@Name("org.vaadin.example.PersonService")
+@Label("Person Service Call")
+@Category({ "Personel", "Service" })
+@Description("IPersonService metodunun çalışması")
+@Threshold("5 ms")
+@StackTrace(false)
+public class PersonServiceEvent extends PersonelEvent {
+
+    @Label("Backend")
+    @Description("Çağrıyı işleyen servis sınıfı")
+    public String backend;
+
+    @Label("Rows")
+    @Description("Dönen veya yazılan kayıt sayısı")
+    public int rows;
+
+    @Label("Failed")
+    public boolean failed;
+}
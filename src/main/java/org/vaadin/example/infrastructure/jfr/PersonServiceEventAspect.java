@@ -0,0 +1,64 @@
+package org.vaadin.example.infrastructure.jfr;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.vaadin.example.domain.dto.PersonChanges;
+import org.vaadin.example.domain.model.Person;
+
+/**
+ * Her IPersonService çağrısı için bir PersonServiceEvent kaydeder.
+ *
+ * Kayıt sayısı dönüş değerinden çıkarılır: sayfa ve listelerde eleman sayısı,
+ * tek kayıtta 1, değişiklik akışında değişiklik sayısı. Sayım metotlarında
+ * 0'dır.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "jfr.events.enabled", havingValue = "true", matchIfMissing = true)
+class PersonServiceEventAspect {
+
+    @Around("execution(* org.vaadin.example.services.IPersonService.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        PersonServiceEvent event = new PersonServiceEvent();
+        event.start();
+        boolean failed = true;
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            if (event.stop()) {
+                event.operation = joinPoint.getSignature().getName();
+                event.backend = ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName();
+                event.rows = rows(result);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private static int rows(Object result) {
+        if (result instanceof Page<?> page) {
+            return page.getNumberOfElements();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof PersonChanges changes) {
+            return changes.changes().size();
+        }
+        return result instanceof Person ? 1 : 0;
+    }
+}
@@ -0,0 +1,70 @@
+package org.vaadin.example.infrastructure.jfr;
+
+import java.lang.management.ManagementFactory;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Uygulamanın JFR olaylarının ortak alanları: işlemin adı ve işlem süresince
+ * thread'in ayırdığı bellek.
+ *
+ * Olaylar {@link #start()} ile başlatılıp {@link #stop()} ile bitirilir;
+ * stop() olayın kaydedilip kaydedilmeyeceğini döndürür. Alanlar yalnızca bu
+ * durumda doldurulur. Olay kayıtta etkin değilse veya eşik süresinin altında
+ * kalırsa maliyeti birkaç nanosaniyedir; bu yüzden olaylar sürekli açık
+ * bırakılabilir.
+ */
+@Category("Personel")
+public abstract class PersonelEvent extends Event {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Allocated")
+    @Description("İşlem süresince thread'in ayırdığı bellek")
+    @DataAmount(DataAmount.BYTES)
+    public long allocated;
+
+    private transient long allocatedAtStart;
+
+    /**
+     * Olayın süresini ve bellek ölçümünü başlatır.
+     */
+    public void start() {
+        if (isEnabled() && THREADS != null) {
+            allocatedAtStart = THREADS.getCurrentThreadAllocatedBytes();
+        }
+        begin();
+    }
+
+    /**
+     * Olayın süresini bitirir.
+     *
+     * @return Olay kaydedilecekse true; çağıran alanları doldurup commit()
+     *         çağırmalıdır.
+     */
+    public boolean stop() {
+        end();
+        if (!shouldCommit()) {
+            return false;
+        }
+        if (THREADS != null && allocatedAtStart > 0) {
+            allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedAtStart;
+        }
+        return true;
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+}
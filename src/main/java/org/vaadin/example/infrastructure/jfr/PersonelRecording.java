@@ -0,0 +1,102 @@
+package org.vaadin.example.infrastructure.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * PersonelRecording, uygulama açıkken sürekli çalışan bir JFR kaydı başlatır.
+ *
+ * Kayıt JDK'nın "default" ayarlarını (üretimde açık bırakılmak üzere
+ * tasarlanmıştır) ve uygulamanın olaylarını eşik süreleriyle içerir. Disk
+ * üzerinde en fazla max-age/max-size kadar geriye tutulur; uygulama
+ * kapanırken jfr.recording.file dosyasına yazılır. Çalışırken almak için:
+ * {@code jcmd <pid> JFR.dump name=personel filename=personel.jfr}. Dosya
+ * JfrSummary ile özetlenebilir.
+ */
+@Component
+@ConditionalOnProperty(name = "jfr.recording.enabled", havingValue = "true")
+public class PersonelRecording {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonelRecording.class);
+
+    static final String NAME = "personel";
+
+    private final Duration serviceThreshold;
+    private final Duration dataProviderThreshold;
+    private final Duration gridThreshold;
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final Path file;
+    private Recording recording;
+
+    /**
+     * @param serviceThreshold      Bundan kısa servis çağrıları kaydedilmez.
+     * @param dataProviderThreshold Bundan kısa REST çağrıları kaydedilmez.
+     * @param gridThreshold         Bundan kısa grid yenilemeleri kaydedilmez.
+     * @param maxAge                Kayıtta tutulan en eski veri.
+     * @param maxSize               Kaydın disk üzerindeki en büyük boyutu.
+     * @param file                  Kapanışta kaydın yazılacağı dosya.
+     */
+    public PersonelRecording(@Value("${jfr.threshold.service:5ms}") Duration serviceThreshold,
+            @Value("${jfr.threshold.data-provider:20ms}") Duration dataProviderThreshold,
+            @Value("${jfr.threshold.grid:20ms}") Duration gridThreshold,
+            @Value("${jfr.recording.max-age:6h}") Duration maxAge,
+            @Value("${jfr.recording.max-size:250MB}") DataSize maxSize,
+            @Value("${jfr.recording.file:personel.jfr}") Path file) {
+        this.serviceThreshold = serviceThreshold;
+        this.dataProviderThreshold = dataProviderThreshold;
+        this.gridThreshold = gridThreshold;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.file = file;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() throws IOException, ParseException {
+        if (recording != null) {
+            return;
+        }
+        Recording started = new Recording(Configuration.getConfiguration("default"));
+        started.setName(NAME);
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(maxSize.toBytes());
+        started.setDestination(file);
+        started.enable(PersonServiceEvent.class).withThreshold(serviceThreshold);
+        started.enable(DataProviderEvent.class).withThreshold(dataProviderThreshold);
+        started.enable(GridRefreshEvent.class).withThreshold(gridThreshold);
+        started.start();
+        recording = started;
+        log.info("JFR kaydı '{}' başladı; kapanışta {} dosyasına yazılacak", NAME, file.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (recording == null) {
+            return;
+        }
+        try {
+            recording.stop();
+        } catch (IllegalStateException e) {
+            log.debug("JFR kaydı zaten durmuş", e);
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+}
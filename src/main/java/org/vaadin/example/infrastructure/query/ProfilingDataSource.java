@@ -0,0 +1,164 @@
+package org.vaadin.example.infrastructure.query;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * ProfilingDataSource, verdiği bağlantılar üzerinden çalışan her SQL
+ * ifadesinin süresini QueryProfiler'a bildirir.
+ *
+ * Connection ve Statement nesneleri JDK proxy'leri ile sarılır; yalnızca
+ * execute* çağrıları ölçülür, diğer çağrılar doğrudan asıl nesneye iletilir.
+ * Ölçülen süre ifadenin çalışma süresidir, ResultSet'in okunması dahil
+ * değildir. JDBC batch'leri tek çalıştırma olarak, batch'teki ifade sayısı ile
+ * birlikte bildirilir.
+ */
+class ProfilingDataSource extends DelegatingDataSource {
+
+    private final Supplier<QueryProfiler> profiler;
+
+    /**
+     * @param target   Sarılan DataSource.
+     * @param profiler Ölçümlerin bildirileceği profiler; ilk ölçümde çözülür.
+     */
+    ProfilingDataSource(DataSource target, Supplier<QueryProfiler> profiler) {
+        super(target);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class,
+                new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[] { type },
+                handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * equals ve hashCode proxy'nin kimliğine göre yanıtlanır; Spring bağlantıyı
+     * transaction'a bağlarken aynı nesneyi karşılaştırır.
+     */
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> null;
+        };
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            Object result = ProfilingDataSource.invoke(connection, method, args);
+            if (!(result instanceof Statement statement)) {
+                return result;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            if (statement instanceof CallableStatement) {
+                return proxy(CallableStatement.class, new StatementHandler(statement, sql));
+            }
+            if (statement instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, new StatementHandler(statement, sql));
+            }
+            return proxy(Statement.class, new StatementHandler(statement, null));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+        private String batchSql;
+        private int batchSize;
+
+        /**
+         * @param statement   Sarılan ifade.
+         * @param preparedSql PreparedStatement'ın SQL'i; düz Statement için
+         *                    null, SQL her çalıştırmada verilir.
+         */
+        StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            String name = method.getName();
+            if (name.equals("addBatch")) {
+                batchSize++;
+                if (batchSql == null && args != null && args.length == 1) {
+                    batchSql = (String) args[0];
+                }
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+                batchSql = null;
+            }
+            if (!name.startsWith("execute")) {
+                return ProfilingDataSource.invoke(statement, method, args);
+            }
+
+            boolean batch = name.equals("executeBatch") || name.equals("executeLargeBatch");
+            String sql;
+            int statements;
+            if (batch) {
+                sql = preparedSql != null ? preparedSql : batchSql;
+                statements = batchSize;
+                batchSize = 0;
+                batchSql = null;
+            } else {
+                sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                statements = 1;
+            }
+
+            long start = System.nanoTime();
+            try {
+                return ProfilingDataSource.invoke(statement, method, args);
+            } finally {
+                profiler.get().record(sql, statements, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.vaadin.example.infrastructure.query;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * /actuator/queries: SQL profiler raporu.
+ *
+ * GET toplam süreye göre en pahalı sorguları, endpoint başına ifade
+ * sayılarını ve (etkinse) Hibernate istatistiklerini döndürür;
+ * {@code ?limit=} ile satır sayısı değiştirilebilir. DELETE tüm toplamları
+ * sıfırlar.
+ */
+@Component
+@Endpoint(id = "queries")
+@ConditionalOnProperty(name = "db.profiler.enabled", havingValue = "true")
+public class QueriesEndpoint {
+
+    private final QueryProfiler profiler;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final int defaultLimit;
+
+    /**
+     * @param profiler             JDBC ölçümleri.
+     * @param entityManagerFactory Hibernate istatistikleri için; JPA yoksa boş.
+     * @param defaultLimit         Varsayılan satır sayısı.
+     */
+    public QueriesEndpoint(QueryProfiler profiler, ObjectProvider<EntityManagerFactory> entityManagerFactory,
+            @Value("${db.profiler.top-queries:20}") int defaultLimit) {
+        this.profiler = profiler;
+        this.entityManagerFactory = entityManagerFactory;
+        this.defaultLimit = defaultLimit;
+    }
+
+    @ReadOperation
+    public QueryReport queries(@Nullable Integer limit) {
+        int rows = limit != null && limit > 0 ? limit : defaultLimit;
+        return new QueryReport(profiler.since(), profiler.statementCount(), profiler.totalMillis(),
+                profiler.topQueries(rows), profiler.endpoints(), hibernate(rows));
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+        Statistics statistics = statistics();
+        if (statistics != null) {
+            statistics.clear();
+        }
+    }
+
+    private QueryReport.Hibernate hibernate(int limit) {
+        Statistics statistics = statistics();
+        if (statistics == null) {
+            return null;
+        }
+        return new QueryReport.Hibernate(statistics.getQueryExecutionCount(),
+                statistics.getPrepareStatementCount(), statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount(), statistics.getEntityInsertCount(),
+                statistics.getEntityUpdateCount(), statistics.getEntityDeleteCount(), statistics.getFlushCount(),
+                statistics.getTransactionCount(),
+                Arrays.stream(statistics.getQueries())
+                        .map(query -> hqlQuery(query, statistics.getQueryStatistics(query)))
+                        .sorted(Comparator.comparingLong(QueryReport.HqlQuery::totalMillis).reversed())
+                        .limit(limit)
+                        .toList());
+    }
+
+    private static QueryReport.HqlQuery hqlQuery(String query, QueryStatistics statistics) {
+        return new QueryReport.HqlQuery(query, statistics.getExecutionCount(), statistics.getExecutionRowCount(),
+                statistics.getExecutionTotalTime(), statistics.getExecutionMaxTime());
+    }
+
+    /**
+     * @return Hibernate istatistikleri; JPA yoksa veya
+     *         hibernate.generate_statistics kapalıysa null.
+     */
+    private Statistics statistics() {
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        if (factory == null) {
+            return null;
+        }
+        Statistics statistics = factory.unwrap(SessionFactory.class).getStatistics();
+        return statistics.isStatisticsEnabled() ? statistics : null;
+    }
+}
@@ -0,0 +1,40 @@
+package org.vaadin.example.infrastructure.query;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * QueryCountFilter, her REST isteği için bir QueryProfiler kapsamı açar;
+ * isteği işleyen thread'de çalışan SQL ifadeleri bu isteğe sayılır.
+ *
+ * Endpoint'ler URL yerine Spring MVC'nin eşleştirdiği kalıpla
+ * ({@code /api/personel/{id}}) gruplanır. Başka thread'lerde çalışan
+ * ifadeler (örn. write-behind) isteğe sayılmaz.
+ */
+class QueryCountFilter extends OncePerRequestFilter {
+
+    private final QueryProfiler profiler;
+
+    QueryCountFilter(QueryProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryProfiler.RequestScope scope = profiler.beginRequest(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            profiler.endRequest(scope, request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN"));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.vaadin.example.infrastructure.query;
+
+/**
+ * QueryProfiler'ın ölçtüğü her SQL ifadesinden haberdar edilen bileşen.
+ * İfadeyi çalıştıran thread'de çağrılır.
+ */
+@FunctionalInterface
+public interface QueryListener {
+
+    /**
+     * @param sql        Normalize edilmiş SQL.
+     * @param statements Batch ise batch'teki ifade sayısı, değilse 1.
+     * @param nanos      Çalışma süresi.
+     */
+    void executed(String sql, int statements, long nanos);
+}
@@ -0,0 +1,302 @@
+package org.vaadin.example.infrastructure.query;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * QueryProfiler, uygulamanın çalıştırdığı SQL ifadelerini normalize edilmiş
+ * halleriyle gruplayıp sayar ve sürelerini toplar.
+ *
+ * <ul>
+ * <li>Literal'ler ve IN listeleri ? ile değiştirilir; böylece aynı sorgunun
+ * farklı parametreli çalıştırmaları tek satırda toplanır ve parametre
+ * değerleri rapora veya log'a girmez.</li>
+ * <li>Eşik süresini aşan ifadeler yavaş sorgu olarak log'lanır.</li>
+ * <li>QueryCountFilter'ın açtığı istek kapsamında çalışan ifadeler isteğe
+ * yazılır; istek bitince endpoint başına toplanır ve
+ * personel.api.db.statements metriğine eklenir. Eşikten fazla ifade çalıştıran
+ * istekler (örn. N+1) log'lanır.</li>
+ * </ul>
+ *
+ * Farklı sorgu sayısı sınırlıdır; sınırdan sonra gelen yeni sorgular tek bir
+ * "(diğer)" satırında toplanır. Her ölçüm ayrıca QueryListener bean'lerine
+ * (örn. tracing) bildirilir.
+ */
+@Component
+@ConditionalOnProperty(name = "db.profiler.enabled", havingValue = "true")
+public class QueryProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryProfiler.class);
+
+    static final String OTHER = "(diğer)";
+
+    private static final int MAX_SQL_LENGTH = 2000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?(?![\\w$])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private final MeterRegistry registry;
+    private final List<QueryListener> listeners;
+    private final long slowNanos;
+    private final int requestWarnStatements;
+    private final int maxQueries;
+
+    private final Map<String, String> normalized = new ConcurrentHashMap<>();
+    private final Map<String, QueryStats> queries = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final ThreadLocal<RequestScope> request = new ThreadLocal<>();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private volatile Instant since = Instant.now();
+
+    /**
+     * @param registry              İstek başına ifade sayısı metriğinin
+     *                              yayınlanacağı registry.
+     * @param listeners             Her ölçümün bildirileceği bileşenler.
+     * @param slowThreshold         Bu süreyi aşan ifadeler log'lanır.
+     * @param requestWarnStatements Bundan fazla ifade çalıştıran istekler
+     *                              log'lanır.
+     * @param maxQueries            Ayrı tutulan en fazla normalize sorgu
+     *                              sayısı.
+     */
+    public QueryProfiler(MeterRegistry registry, ObjectProvider<QueryListener> listeners,
+            @Value("${db.profiler.slow-threshold:200ms}") Duration slowThreshold,
+            @Value("${db.profiler.request-warn-statements:20}") int requestWarnStatements,
+            @Value("${db.profiler.max-queries:500}") int maxQueries) {
+        this.registry = registry;
+        this.listeners = listeners.orderedStream().toList();
+        this.slowNanos = slowThreshold.toNanos();
+        this.requestWarnStatements = requestWarnStatements;
+        this.maxQueries = maxQueries;
+    }
+
+    /**
+     * Bir ifadenin çalıştırılmasını kaydeder.
+     *
+     * @param sql        Çalıştırılan SQL; bilinmiyorsa null.
+     * @param statements Batch ise batch'teki ifade sayısı, değilse 1.
+     * @param nanos      Çalışma süresi.
+     */
+    void record(String sql, int statements, long nanos) {
+        String key = sql != null ? normalized(sql) : "(bilinmiyor)";
+        QueryStats stats = queries.get(key);
+        if (stats == null) {
+            stats = queries.size() < maxQueries ? queries.computeIfAbsent(key, k -> new QueryStats())
+                    : queries.computeIfAbsent(OTHER, k -> new QueryStats());
+        }
+        stats.add(statements, nanos);
+        this.statements.increment();
+        totalNanos.add(nanos);
+
+        RequestScope scope = request.get();
+        if (scope != null) {
+            scope.statements++;
+            scope.nanos += nanos;
+        }
+        if (nanos >= slowNanos) {
+            log.warn("Yavaş sorgu ({} ms{}): {}", nanos / 1_000_000,
+                    scope != null ? ", " + scope.description : "", key);
+        }
+        for (QueryListener listener : listeners) {
+            listener.executed(key, statements, nanos);
+        }
+    }
+
+    /**
+     * Geçerli thread'de bir istek kapsamı açar. Kapsam kapanana kadar
+     * çalışan ifadeler bu isteğe yazılır.
+     *
+     * @param description Log'larda görünecek istek tanımı, örn.
+     *                    {@code GET /api/personel/list}.
+     */
+    RequestScope beginRequest(String description) {
+        RequestScope scope = new RequestScope(description, request.get());
+        request.set(scope);
+        return scope;
+    }
+
+    /**
+     * İstek kapsamını kapatır ve sonucunu endpoint'in toplamına ekler.
+     *
+     * @param scope    beginRequest'in döndürdüğü kapsam.
+     * @param endpoint İsteğin eşleştiği endpoint, örn.
+     *                 {@code GET /api/personel/{id}}.
+     */
+    void endRequest(RequestScope scope, String endpoint) {
+        if (scope.previous != null) {
+            request.set(scope.previous);
+        } else {
+            request.remove();
+        }
+        endpoints.computeIfAbsent(endpoint, this::endpointStats).add(scope);
+        if (scope.statements > requestWarnStatements) {
+            log.warn("{} {} SQL ifadesi çalıştırdı ({} ms)", scope.description, scope.statements,
+                    scope.nanos / 1_000_000);
+        }
+    }
+
+    private EndpointStats endpointStats(String endpoint) {
+        int space = endpoint.indexOf(' ');
+        DistributionSummary summary = DistributionSummary.builder("personel.api.db.statements")
+                .description("İstek başına çalışan SQL ifadesi sayısı")
+                .tag("method", space > 0 ? endpoint.substring(0, space) : "")
+                .tag("uri", space > 0 ? endpoint.substring(space + 1) : endpoint)
+                .register(registry);
+        return new EndpointStats(summary);
+    }
+
+    public Instant since() {
+        return since;
+    }
+
+    public long statementCount() {
+        return statements.sum();
+    }
+
+    public double totalMillis() {
+        return totalNanos.sum() / 1_000_000.0;
+    }
+
+    /**
+     * @param limit En fazla satır sayısı.
+     * @return Toplam süreye göre büyükten küçüğe sorgular.
+     */
+    public List<QueryReport.Query> topQueries(int limit) {
+        return queries.entrySet().stream()
+                .map(entry -> entry.getValue().toReport(entry.getKey()))
+                .sorted(Comparator.comparingDouble(QueryReport.Query::totalMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * @return Toplam veritabanı süresine göre büyükten küçüğe endpoint'ler.
+     */
+    public List<QueryReport.Endpoint> endpoints() {
+        return endpoints.entrySet().stream()
+                .map(entry -> entry.getValue().toReport(entry.getKey()))
+                .sorted(Comparator.comparingDouble(QueryReport.Endpoint::dbMillis).reversed())
+                .toList();
+    }
+
+    /**
+     * Tüm toplamları sıfırlar. Metrikler sıfırlanmaz.
+     */
+    public void reset() {
+        queries.clear();
+        endpoints.values().forEach(EndpointStats::reset);
+        statements.reset();
+        totalNanos.reset();
+        since = Instant.now();
+    }
+
+    private String normalized(String sql) {
+        String key = normalized.get(sql);
+        if (key == null) {
+            key = normalize(sql);
+            // Hibernate ve JdbcTemplate aynı SQL metinlerini tekrar kullanır;
+            // literal içeren metinler için önbellek sınırsız büyümesin.
+            if (normalized.size() >= maxQueries * 4) {
+                normalized.clear();
+            }
+            normalized.put(sql, key);
+        }
+        return key;
+    }
+
+    static String normalize(String sql) {
+        String result = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+        result = STRING_LITERAL.matcher(result).replaceAll("?");
+        result = NUMBER_LITERAL.matcher(result).replaceAll("?");
+        result = IN_LIST.matcher(result).replaceAll("in (?...)");
+        return result.length() > MAX_SQL_LENGTH ? result.substring(0, MAX_SQL_LENGTH) + "..." : result;
+    }
+
+    /**
+     * Tek bir isteğin sayaçları; yalnızca isteği işleyen thread erişir.
+     */
+    static final class RequestScope {
+        private final String description;
+        private final RequestScope previous;
+        private int statements;
+        private long nanos;
+
+        private RequestScope(String description, RequestScope previous) {
+            this.description = description;
+            this.previous = previous;
+        }
+    }
+
+    private static final class QueryStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void add(int statements, long nanos) {
+            count.increment();
+            this.statements.add(statements);
+            this.nanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        QueryReport.Query toReport(String sql) {
+            long executions = count.sum();
+            double total = nanos.sum() / 1_000_000.0;
+            return new QueryReport.Query(sql, executions, statements.sum(), total,
+                    executions > 0 ? total / executions : 0, maxNanos.get() / 1_000_000.0);
+        }
+    }
+
+    private static final class EndpointStats {
+        private final DistributionSummary summary;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+
+        EndpointStats(DistributionSummary summary) {
+            this.summary = summary;
+        }
+
+        void add(RequestScope scope) {
+            requests.increment();
+            statements.add(scope.statements);
+            nanos.add(scope.nanos);
+            maxStatements.accumulate(scope.statements);
+            summary.record(scope.statements);
+        }
+
+        void reset() {
+            requests.reset();
+            statements.reset();
+            nanos.reset();
+            maxStatements.reset();
+        }
+
+        QueryReport.Endpoint toReport(String endpoint) {
+            long count = requests.sum();
+            long total = statements.sum();
+            return new QueryReport.Endpoint(endpoint, count, total, count > 0 ? (double) total / count : 0,
+                    maxStatements.get(), nanos.sum() / 1_000_000.0);
+        }
+    }
+}
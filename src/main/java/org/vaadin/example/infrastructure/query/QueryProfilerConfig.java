@@ -0,0 +1,57 @@
+package org.vaadin.example.infrastructure.query;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * QueryProfilerConfig, uygulamanın DataSource'unu ProfilingDataSource ile
+ * sarar ve QueryCountFilter'ı personel REST API'sinin önüne yerleştirir.
+ *
+ * Yalnızca "dataSource" adlı bean sarılır; JPA, JdbcTemplate ve replica
+ * yönlendirmesi dahil tüm bileşenler bu bean'i kullanır. Replica etkinse
+ * sarılan bean yönlendirici proxy olduğu için her iki havuzun sorguları da
+ * ölçülür.
+ *
+ * Varsayılan olarak kapalıdır; db.profiler.enabled=true ile açılır.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.profiler.enabled", havingValue = "true")
+public class QueryProfilerConfig {
+
+    /**
+     * Profiler DataSource'tan önce oluşturulamayabilir (ilk sorgular
+     * Hibernate'in açılışında çalışır); bu yüzden ilk ölçümde çözülür.
+     */
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(ObjectProvider<QueryProfiler> profiler) {
+        SingletonSupplier<QueryProfiler> supplier = SingletonSupplier.of(profiler::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ProfilingDataSource)) {
+                    return new ProfilingDataSource(dataSource, supplier);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(QueryProfiler profiler) {
+        FilterRegistrationBean<QueryCountFilter> registration = new FilterRegistrationBean<>(
+                new QueryCountFilter(profiler));
+        registration.addUrlPatterns("/api/personel/*", "/api/personel");
+        // Giriş kontrolünden sonra; reddedilen istekler sayılmaz.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,74 @@
+package org.vaadin.example.infrastructure.query;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * SQL profiler raporu.
+ *
+ * Süreler JDBC ifadelerinin çalışma süreleridir; ResultSet'in okunması dahil
+ * değildir.
+ *
+ * @param since        Toplamların başladığı an (başlangıç veya son sıfırlama).
+ * @param statements   Toplam çalıştırma sayısı.
+ * @param totalMillis  Toplam çalışma süresi.
+ * @param topQueries   Toplam süreye göre en pahalı normalize sorgular.
+ * @param endpoints    REST endpoint'leri, toplam veritabanı süresine göre.
+ * @param hibernate    Hibernate istatistikleri; JPA yoksa veya istatistik
+ *                     kapalıysa null.
+ */
+public record QueryReport(Instant since, long statements, double totalMillis, List<Query> topQueries,
+        List<Endpoint> endpoints, Hibernate hibernate) {
+
+    /**
+     * @param sql         Normalize edilmiş SQL.
+     * @param executions  Çalıştırma sayısı; bir JDBC batch'i tek çalıştırmadır.
+     * @param statements  Batch'lerdeki ifadeler dahil toplam ifade sayısı.
+     * @param totalMillis Toplam süre.
+     * @param meanMillis  Ortalama süre.
+     * @param maxMillis   En uzun süre.
+     */
+    public record Query(String sql, long executions, long statements, double totalMillis, double meanMillis,
+            double maxMillis) {
+    }
+
+    /**
+     * @param endpoint       HTTP metodu ve eşleşen URL kalıbı.
+     * @param requests       İstek sayısı.
+     * @param statements     Toplam çalıştırma sayısı.
+     * @param meanStatements İstek başına ortalama çalıştırma.
+     * @param maxStatements  Tek bir istekteki en fazla çalıştırma.
+     * @param dbMillis       Toplam veritabanı süresi.
+     */
+    public record Endpoint(String endpoint, long requests, long statements, double meanStatements,
+            long maxStatements, double dbMillis) {
+    }
+
+    /**
+     * @param queryExecutions    HQL/JPQL ve native sorgu çalıştırmaları.
+     * @param preparedStatements Hibernate'in hazırladığı JDBC ifadeleri.
+     * @param entityLoads        Yüklenen entity sayısı.
+     * @param entityFetches      Ayrı bir sorgu ile getirilen entity sayısı.
+     * @param entityInserts      INSERT edilen entity sayısı.
+     * @param entityUpdates      UPDATE edilen entity sayısı.
+     * @param entityDeletes      DELETE edilen entity sayısı.
+     * @param flushes            Flush sayısı.
+     * @param transactions       Transaction sayısı.
+     * @param topQueries         Toplam süreye göre en pahalı HQL/JPQL sorguları.
+     */
+    public record Hibernate(long queryExecutions, long preparedStatements, long entityLoads, long entityFetches,
+            long entityInserts, long entityUpdates, long entityDeletes, long flushes, long transactions,
+            List<HqlQuery> topQueries) {
+    }
+
+    /**
+     * @param query       HQL/JPQL metni; Spring Data'nın türettiği sorgular
+     *                    dahil.
+     * @param executions  Çalıştırma sayısı.
+     * @param rows        Dönen satır sayısı.
+     * @param totalMillis Toplam süre.
+     * @param maxMillis   En uzun süre.
+     */
+    public record HqlQuery(String query, long executions, long rows, long totalMillis, long maxMillis) {
+    }
+}
@@ -0,0 +1,49 @@
+package org.vaadin.example.infrastructure.session;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Vaadin oturumlarının bellek ölçümü raporu.
+ *
+ * Boyutlar, UI'ların Java serileştirme boyutundan tahmin edilir.
+ * Serileştirilemeyen nesneler ve tüm oturumların paylaştığı Spring singleton
+ * bean'leri hesaba katılmaz; sonuç, oturumun tek başına tuttuğu belleğin bir
+ * yaklaşımıdır.
+ *
+ * @param measuredAt     Ölçümün tamamlandığı an.
+ * @param durationMillis Ölçümün sürdüğü süre.
+ * @param sessionCount   Açık oturum sayısı.
+ * @param skippedCount   Kilidi alınamadığı için bu turda ölçülemeyen oturumlar.
+ * @param totalBytes     Ölçülen oturumların tahmini toplam boyutu.
+ * @param topComponents  Tüm oturumlarda en çok bulunan bileşen tipleri.
+ * @param sessions       Oturumlar, tahmini boyuta göre büyükten küçüğe.
+ */
+public record SessionFootprint(Instant measuredAt, long durationMillis, int sessionCount, int skippedCount,
+        long totalBytes, List<ComponentCount> topComponents, List<Session> sessions) {
+
+    /**
+     * @param id             Oturumun kayıt numarası.
+     * @param estimatedBytes UI'larının tahmini toplam boyutu.
+     * @param uis            Oturumdaki UI'lar.
+     */
+    public record Session(long id, long estimatedBytes, List<Ui> uis) {
+    }
+
+    /**
+     * @param uiId           UI id'si.
+     * @param location       Gösterilen route.
+     * @param stateNodes     UI ağacındaki StateNode sayısı.
+     * @param components     Bağlı bileşen sayısı.
+     * @param estimatedBytes Tahmini boyut.
+     */
+    public record Ui(int uiId, String location, int stateNodes, int components, long estimatedBytes) {
+    }
+
+    /**
+     * @param type  Bileşen sınıfının adı.
+     * @param count Bağlı bileşen sayısı.
+     */
+    public record ComponentCount(String type, long count) {
+    }
+}
@@ -0,0 +1,261 @@
+package org.vaadin.example.infrastructure.session;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * SessionFootprintMonitor, açık Vaadin oturumlarının bellek kullanımını arka
+ * planda periyodik olarak ölçer.
+ *
+ * Her oturum sırayla ve kısa bir süre kilitlenir; kilit alınamazsa (oturum o
+ * an bir isteği işliyorsa) oturum bu turda atlanır. Kilit altında her UI
+ * için StateNode ve bileşen sayıları toplanır ve UI serileştirilerek boyutu
+ * tahmin edilir. Son rapor /actuator/sessions üzerinden okunur; toplamlar
+ * ayrıca metrik olarak yayınlanır. Eşik değerini aşan oturumlar log'lanır.
+ *
+ * Tanılama amaçlıdır ve varsayılan olarak kapalıdır;
+ * session.diagnostics.enabled=true ile açılır.
+ */
+@Component
+@ConditionalOnProperty(name = "session.diagnostics.enabled", havingValue = "true")
+public class SessionFootprintMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionFootprintMonitor.class);
+
+    private static final long LOCK_TIMEOUT_MILLIS = 50;
+
+    private final VaadinSessionRegistry registry;
+    private final ConfigurableListableBeanFactory beanFactory;
+    private final Duration interval;
+    private final long warnBytes;
+    private final int topComponents;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "session-footprint");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile SessionFootprint last;
+
+    /**
+     * @param registry      Açık oturumlar.
+     * @param beanFactory   Paylaşılan singleton'ları ayırt etmek için.
+     * @param meterRegistry Toplamların yayınlanacağı registry.
+     * @param interval      Ölçümler arasındaki süre.
+     * @param warnBytes     Bu boyutu aşan oturumlar için uyarı log'lanır.
+     * @param topComponents Raporda listelenecek bileşen tipi sayısı.
+     */
+    public SessionFootprintMonitor(VaadinSessionRegistry registry, ConfigurableListableBeanFactory beanFactory,
+            MeterRegistry meterRegistry,
+            @Value("${session.diagnostics.interval:60s}") Duration interval,
+            @Value("${session.diagnostics.warn-bytes:5242880}") long warnBytes,
+            @Value("${session.diagnostics.top-components:10}") int topComponents) {
+        this.registry = registry;
+        this.beanFactory = beanFactory;
+        this.interval = interval;
+        this.warnBytes = warnBytes;
+        this.topComponents = topComponents;
+
+        Gauge.builder("vaadin.sessions.active", registry, r -> r.sessions().size())
+                .description("Açık Vaadin oturumları").register(meterRegistry);
+        Gauge.builder("vaadin.sessions.estimated.bytes", this, m -> m.last != null ? m.last.totalBytes() : 0)
+                .description("Son ölçümde oturumların tahmini toplam boyutu").baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                measure();
+            } catch (RuntimeException e) {
+                log.warn("Oturum ölçümü başarısız", e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Son ölçümün raporu; henüz ölçüm yapılmadıysa null.
+     */
+    public SessionFootprint last() {
+        return last;
+    }
+
+    /**
+     * Tüm oturumları şimdi ölçer ve raporu saklar.
+     */
+    public synchronized SessionFootprint measure() {
+        long start = System.nanoTime();
+        Set<Object> shared = sharedSingletons();
+        Map<String, Long> componentTypes = new HashMap<>();
+        List<SessionFootprint.Session> sessions = new ArrayList<>();
+        int skipped = 0;
+        long total = 0;
+
+        for (Map.Entry<VaadinSession, Long> entry : registry.sessions().entrySet()) {
+            SessionFootprint.Session session = measure(entry.getKey(), entry.getValue(), shared, componentTypes);
+            if (session == null) {
+                skipped++;
+                continue;
+            }
+            sessions.add(session);
+            total += session.estimatedBytes();
+            if (session.estimatedBytes() > warnBytes) {
+                log.warn("Oturum {} tahmini {} KB kullanıyor (eşik {} KB)", session.id(),
+                        session.estimatedBytes() / 1024, warnBytes / 1024);
+            }
+        }
+
+        sessions.sort(Comparator.comparingLong(SessionFootprint.Session::estimatedBytes).reversed());
+        List<SessionFootprint.ComponentCount> top = componentTypes.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(topComponents)
+                .map(type -> new SessionFootprint.ComponentCount(type.getKey(), type.getValue()))
+                .toList();
+        last = new SessionFootprint(Instant.now(), (System.nanoTime() - start) / 1_000_000,
+                registry.sessions().size(), skipped, total, top, sessions);
+        return last;
+    }
+
+    /**
+     * @return Oturumun ölçümü; kilit alınamadıysa null.
+     */
+    private SessionFootprint.Session measure(VaadinSession session, long id, Set<Object> shared,
+            Map<String, Long> componentTypes) {
+        try {
+            if (!session.getLockInstance().tryLock(LOCK_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        try {
+            List<SessionFootprint.Ui> uis = new ArrayList<>();
+            long bytes = 0;
+            for (UI ui : session.getUIs()) {
+                SessionFootprint.Ui measured = measure(ui, shared, componentTypes);
+                uis.add(measured);
+                bytes += measured.estimatedBytes();
+            }
+            return new SessionFootprint.Session(id, bytes, uis);
+        } finally {
+            // Kilit altında kuyruğa giren access() görevleri burada çalıştırılır.
+            session.unlock();
+        }
+    }
+
+    private static SessionFootprint.Ui measure(UI ui, Set<Object> shared, Map<String, Long> componentTypes) {
+        int[] nodes = { 0 };
+        ui.getInternals().getStateTree().getRootNode().visitNodeTree(node -> nodes[0]++);
+        int components = countComponents(ui, componentTypes);
+        String location = ui.getInternals().getActiveViewLocation() != null
+                ? ui.getInternals().getActiveViewLocation().getPath()
+                : null;
+        return new SessionFootprint.Ui(ui.getUIId(), location, nodes[0], components, serializedSize(ui, shared));
+    }
+
+    private static int countComponents(com.vaadin.flow.component.Component component,
+            Map<String, Long> componentTypes) {
+        componentTypes.merge(component.getClass().getName(), 1L, Long::sum);
+        int count = 1;
+        for (com.vaadin.flow.component.Component child : component.getChildren().toList()) {
+            count += countComponents(child, componentTypes);
+        }
+        return count;
+    }
+
+    /**
+     * Tüm oturumların paylaştığı singleton bean'ler; bunlar bir oturumun
+     * boyutuna eklenmez.
+     */
+    private Set<Object> sharedSingletons() {
+        Set<Object> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String name : beanFactory.getSingletonNames()) {
+            Object singleton = beanFactory.getSingleton(name);
+            if (singleton != null) {
+                shared.add(singleton);
+            }
+        }
+        return shared;
+    }
+
+    private static long serializedSize(Object root, Set<Object> shared) {
+        CountingStream counter = new CountingStream();
+        try (ObjectOutputStream out = new FootprintOutputStream(counter, shared)) {
+            out.writeObject(root);
+        } catch (IOException | RuntimeException e) {
+            log.debug("UI serileştirilemedi, boyut eksik hesaplandı", e);
+        }
+        return counter.count;
+    }
+
+    /**
+     * Serileştirilemeyen ve paylaşılan nesneleri null olarak yazar.
+     */
+    private static final class FootprintOutputStream extends ObjectOutputStream {
+
+        private final Set<Object> shared;
+
+        FootprintOutputStream(OutputStream out, Set<Object> shared) throws IOException {
+            super(out);
+            this.shared = shared;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object object) {
+            return object instanceof Serializable && !shared.contains(object) ? object : null;
+        }
+    }
+
+    private static final class CountingStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
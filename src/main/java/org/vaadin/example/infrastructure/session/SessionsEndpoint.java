@@ -0,0 +1,36 @@
+package org.vaadin.example.infrastructure.session;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/sessions: Vaadin oturumlarının bellek raporu.
+ *
+ * GET son periyodik ölçümü döndürür (henüz yoksa hemen ölçer); POST yeni bir
+ * ölçüm başlatır ve sonucunu döndürür.
+ */
+@Component
+@Endpoint(id = "sessions")
+@ConditionalOnProperty(name = "session.diagnostics.enabled", havingValue = "true")
+public class SessionsEndpoint {
+
+    private final SessionFootprintMonitor monitor;
+
+    public SessionsEndpoint(SessionFootprintMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @ReadOperation
+    public SessionFootprint sessions() {
+        SessionFootprint last = monitor.last();
+        return last != null ? last : monitor.measure();
+    }
+
+    @WriteOperation
+    public SessionFootprint measure() {
+        return monitor.measure();
+    }
+}
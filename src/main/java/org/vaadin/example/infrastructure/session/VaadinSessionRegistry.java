@@ -0,0 +1,38 @@
+package org.vaadin.example.infrastructure.session;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * VaadinSessionRegistry, açık Vaadin oturumlarını izler.
+ *
+ * Vaadin oturumların listesini sunmadığı için oturumlar oluşturulduklarında
+ * kaydedilir ve sonlandıklarında kaldırılır. Her oturuma artan bir numara
+ * verilir; raporlarda gerçek oturum id'si yerine bu numara gösterilir.
+ */
+@Component
+public class VaadinSessionRegistry implements VaadinServiceInitListener {
+
+    private final Map<VaadinSession, Long> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.getSource().addSessionInitListener(init -> sessions.put(init.getSession(), sequence.incrementAndGet()));
+        event.getSource().addSessionDestroyListener(destroy -> sessions.remove(destroy.getSession()));
+    }
+
+    /**
+     * Açık oturumlar ve numaraları. Dönen görünüm canlıdır.
+     */
+    public Map<VaadinSession, Long> sessions() {
+        return sessions;
+    }
+}
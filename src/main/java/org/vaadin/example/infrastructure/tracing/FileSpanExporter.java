@@ -0,0 +1,72 @@
+package org.vaadin.example.infrastructure.tracing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Span'leri bir dosyaya satır başına bir JSON nesnesi olarak ekler (JSON
+ * Lines). Alan adları OpenTelemetry'ninkilere benzer; dosya jq gibi araçlarla
+ * veya bir trace görüntüleyicisine dönüştürülerek incelenebilir.
+ */
+class FileSpanExporter implements SpanExporter, AutoCloseable {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Writer writer;
+
+    /**
+     * @param file Span'lerin ekleneceği dosya; yoksa oluşturulur.
+     */
+    FileSpanExporter(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void export(List<Span> trace) {
+        try {
+            for (Span span : trace) {
+                writer.write(mapper.writeValueAsString(toJson(span)));
+                writer.write('\n');
+            }
+            writer.flush();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Object> toJson(Span span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.traceId());
+        json.put("spanId", span.spanId());
+        json.put("parentSpanId", span.parentId());
+        json.put("name", span.name());
+        json.put("kind", span.kind().name());
+        json.put("startTime", span.startedAt().toString());
+        json.put("durationMicros", span.durationNanos() / 1_000);
+        json.put("error", span.isError());
+        json.put("attributes", span.attributes());
+        return json;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
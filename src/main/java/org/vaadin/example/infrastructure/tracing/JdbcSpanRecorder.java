@@ -0,0 +1,35 @@
+package org.vaadin.example.infrastructure.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+import org.vaadin.example.infrastructure.query.QueryListener;
+
+/**
+ * SQL profiler'ın ölçtüğü her ifadeyi geçerli span'in altına bir "jdbc"
+ * span'i olarak ekler. SQL normalize edilmiş haliyle yazılır; parametre
+ * değerleri trace'e girmez.
+ */
+@Component
+class JdbcSpanRecorder implements QueryListener {
+
+    private final Tracer tracer;
+
+    JdbcSpanRecorder(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void executed(String sql, int statements, long nanos) {
+        if (tracer.currentContext() == null) {
+            return;
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("sql", sql);
+        if (statements > 1) {
+            attributes.put("batch", statements);
+        }
+        tracer.record("jdbc", Span.Kind.CLIENT, nanos, attributes);
+    }
+}
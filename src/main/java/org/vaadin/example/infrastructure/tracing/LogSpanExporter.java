@@ -0,0 +1,76 @@
+package org.vaadin.example.infrastructure.tracing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Trace'leri span ağacı halinde log'a yazar. Her satırda span'in trace
+ * başından itibaren başlangıcı, süresi, adı, türü ve özellikleri bulunur:
+ *
+ * <pre>
+ * trace 4bf92f3577b34da6a3ce929d0e0e4736 ui.grid.refresh 48.2 ms
+ *   +0.0 ms     48.2 ms  ui.grid.refresh [INTERNAL] page=0 size=5
+ *   +0.4 ms     46.9 ms    http GET /api/personel/list [CLIENT] status=200
+ *   +9.1 ms     30.3 ms      GET /api/personel/list [SERVER] status=200
+ * </pre>
+ */
+class LogSpanExporter implements SpanExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(LogSpanExporter.class);
+
+    @Override
+    public void export(List<Span> trace) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        Map<String, List<Span>> children = new HashMap<>();
+        Set<String> ids = new HashSet<>();
+        for (Span span : trace) {
+            ids.add(span.spanId());
+        }
+        List<Span> roots = new ArrayList<>();
+        for (Span span : trace) {
+            if (span.parentId() != null && ids.contains(span.parentId())) {
+                children.computeIfAbsent(span.parentId(), id -> new ArrayList<>()).add(span);
+            } else {
+                roots.add(span);
+            }
+        }
+
+        Span first = trace.get(0);
+        StringBuilder text = new StringBuilder()
+                .append("trace ").append(first.traceId()).append(' ').append(first.name()).append(' ')
+                .append(millis(first.durationNanos())).append(" ms");
+        for (Span root : roots) {
+            append(text, root, first.startNanos(), 1, children);
+        }
+        log.info(text.toString());
+    }
+
+    private static void append(StringBuilder text, Span span, long traceStart, int depth,
+            Map<String, List<Span>> children) {
+        text.append('\n').append("  ")
+                .append(String.format(Locale.ROOT, "%-10s %9s ms  ", "+" + millis(span.startNanos() - traceStart)
+                        + " ms", millis(span.durationNanos())))
+                .append("  ".repeat(depth - 1)).append(span.name()).append(" [").append(span.kind()).append(']');
+        if (span.isError()) {
+            text.append(" HATA");
+        }
+        span.attributes().forEach((key, value) -> text.append(' ').append(key).append('=').append(value));
+        for (Span child : children.getOrDefault(span.spanId(), List.of())) {
+            append(text, child, traceStart, depth + 1, children);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,114 @@
+package org.vaadin.example.infrastructure.tracing;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bir işin zaman aralığı. Span'ler Tracer ile başlatılır; span'i başlatan
+ * thread kapatana kadar alanlarını değiştirebilir, kapandıktan sonra
+ * değişmez.
+ */
+public final class Span {
+
+    /**
+     * Span'in trace içindeki rolü.
+     */
+    public enum Kind {
+        /** Uygulama içindeki bir iş (UI eylemi, service metodu). */
+        INTERNAL,
+        /** Dışarıya yapılan çağrı (HTTP isteği, SQL ifadesi). */
+        CLIENT,
+        /** Dışarıdan gelen bir isteğin işlenmesi. */
+        SERVER
+    }
+
+    private final TraceContext context;
+    private final String parentId;
+    private final Kind kind;
+    private final Instant startedAt;
+    private final long startNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private String name;
+    private long endNanos;
+    private boolean error;
+
+    Span(TraceContext context, String parentId, String name, Kind kind, long startNanos) {
+        this.context = context;
+        this.parentId = parentId;
+        this.name = name;
+        this.kind = kind;
+        this.startNanos = startNanos;
+        this.startedAt = Instant.now().minusNanos(System.nanoTime() - startNanos);
+    }
+
+    public TraceContext context() {
+        return context;
+    }
+
+    public String traceId() {
+        return context.traceId();
+    }
+
+    public String spanId() {
+        return context.spanId();
+    }
+
+    /**
+     * @return Üst span'in id'si; trace'in kökü ise null.
+     */
+    public String parentId() {
+        return parentId;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    public Instant startedAt() {
+        return startedAt;
+    }
+
+    long startNanos() {
+        return startNanos;
+    }
+
+    /**
+     * @return Süre; span henüz kapanmadıysa 0.
+     */
+    public long durationNanos() {
+        return endNanos == 0 ? 0 : endNanos - startNanos;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public Map<String, Object> attributes() {
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    void rename(String name) {
+        this.name = name;
+    }
+
+    void tag(String key, Object value) {
+        if (value != null) {
+            attributes.put(key, value);
+        }
+    }
+
+    void error(Throwable throwable) {
+        error = true;
+        attributes.put("error", throwable.getClass().getSimpleName());
+    }
+
+    void end(long endNanos) {
+        this.endNanos = endNanos;
+    }
+}
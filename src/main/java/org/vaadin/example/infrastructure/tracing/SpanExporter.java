@@ -0,0 +1,16 @@
+package org.vaadin.example.infrastructure.tracing;
+
+import java.util.List;
+
+/**
+ * Biten trace'leri dışa aktarır.
+ */
+@FunctionalInterface
+public interface SpanExporter {
+
+    /**
+     * @param trace Bir trace'in bu süreçteki span'leri, başlangıç sırasına
+     *              göre; ilk span trace'in bu süreçteki köküdür.
+     */
+    void export(List<Span> trace);
+}
@@ -0,0 +1,40 @@
+package org.vaadin.example.infrastructure.tracing;
+
+import java.util.regex.Pattern;
+
+/**
+ * Bir span'in süreçler arasında taşınan kimliği; W3C Trace Context
+ * traceparent başlığının içeriği.
+ *
+ * @param traceId 32 haneli hex trace id'si.
+ * @param spanId  16 haneli hex span id'si.
+ * @param sampled Trace'in dışa aktarılıp aktarılmayacağı.
+ */
+public record TraceContext(String traceId, String spanId, boolean sampled) {
+
+    public static final String HEADER = "traceparent";
+
+    private static final Pattern TRACEPARENT = Pattern
+            .compile("[0-9a-f]{2}-(?!0{32})[0-9a-f]{32}-(?!0{16})[0-9a-f]{16}-[0-9a-f]{2}");
+
+    /**
+     * @param traceparent Başlık değeri, örn.
+     *                    {@code 00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01}.
+     * @return Geçerli bir başlıksa bağlam, değilse null.
+     */
+    public static TraceContext parse(String traceparent) {
+        if (traceparent == null) {
+            return null;
+        }
+        String value = traceparent.trim().toLowerCase();
+        if (!TRACEPARENT.matcher(value).matches() || value.startsWith("ff")) {
+            return null;
+        }
+        return new TraceContext(value.substring(3, 35), value.substring(36, 52),
+                (Integer.parseInt(value.substring(53, 55), 16) & 1) == 1);
+    }
+
+    public String toTraceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+}
@@ -0,0 +1,262 @@
+package org.vaadin.example.infrastructure.tracing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracer, span'leri başlatır, geçerli span'i thread üzerinde taşır ve biten
+ * trace'leri SpanExporter'a verir.
+ *
+ * Geçerli span thread'e bağlıdır; başka bir thread'de devam eden iş için
+ * {@link #currentContext()} ile alınan bağlam yeni span'e üst olarak verilir.
+ * Bir trace'in bu süreçteki span'leri (UI eylemi, REST çağrısı, aynı
+ * uygulamadaki controller ve SQL ifadeleri) birlikte tutulur ve son açık span
+ * kapandığında tek parça halinde dışa aktarılır. Kökü min-duration'dan kısa
+ * süren trace'ler aktarılmaz.
+ *
+ * Örnekleme kök span'de yapılır ve traceparent başlığı ile çağrılan tarafa
+ * taşınır. Varsayılan olarak kapalıdır; tracing.enabled=true verilmedikçe
+ * hiçbir span oluşturulmaz.
+ */
+@Component
+public class Tracer {
+
+    private static final Logger log = LoggerFactory.getLogger(Tracer.class);
+
+    // Kapanmayan span'ler trace'leri bellekte tutmasın diye üst sınır.
+    private static final int MAX_OPEN_TRACES = 10_000;
+
+    private final SpanExporter exporter;
+    private final boolean enabled;
+    private final double sampleRatio;
+    private final long minDurationNanos;
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final Map<String, Trace> traces = new ConcurrentHashMap<>();
+    private final Scope noop = new Scope(null, null);
+
+    /**
+     * @param exporter    Biten trace'lerin verileceği exporter.
+     * @param enabled     false ise span oluşturulmaz.
+     * @param sampleRatio Yeni trace'lerin dışa aktarılma oranı (0-1).
+     * @param minDuration Kökü bundan kısa süren trace'ler aktarılmaz.
+     */
+    public Tracer(SpanExporter exporter, @Value("${tracing.enabled:false}") boolean enabled,
+            @Value("${tracing.sample-ratio:0.1}") double sampleRatio,
+            @Value("${tracing.min-duration:0ms}") Duration minDuration) {
+        this.exporter = exporter;
+        this.enabled = enabled;
+        this.sampleRatio = sampleRatio;
+        this.minDurationNanos = minDuration.toNanos();
+    }
+
+    /**
+     * Geçerli span'in altında, geçerli span yoksa yeni bir trace'in kökü
+     * olarak bir span başlatır.
+     */
+    public Scope start(String name, Span.Kind kind) {
+        Span parent = current.get();
+        return start(name, kind, parent != null ? parent.context() : null);
+    }
+
+    /**
+     * Verilen bağlamın altında bir span başlatır; başka bir thread'de veya
+     * süreçte başlamış bir trace'e devam etmek için kullanılır.
+     *
+     * @param parent Üst span'in bağlamı; null ise yeni bir trace başlar.
+     */
+    public Scope start(String name, Span.Kind kind, TraceContext parent) {
+        if (!enabled) {
+            return noop;
+        }
+        TraceContext context = parent != null
+                ? new TraceContext(parent.traceId(), randomHex(16), parent.sampled())
+                : new TraceContext(randomHex(32), randomHex(16),
+                        ThreadLocalRandom.current().nextDouble() < sampleRatio);
+        Span span = new Span(context, parent != null ? parent.spanId() : null, name, kind, System.nanoTime());
+        if (context.sampled()) {
+            opened(span);
+        }
+        Span previous = current.get();
+        current.set(span);
+        MDC.put("traceId", context.traceId());
+        MDC.put("spanId", context.spanId());
+        return new Scope(span, previous);
+    }
+
+    /**
+     * Geçerli span'in altına, az önce biten bir işin span'ini ekler; süre
+     * sonradan bilinen işler (SQL ifadeleri) için kullanılır. Geçerli span
+     * yoksa bir şey yapmaz.
+     *
+     * @param durationNanos İşin süresi; şimdi bittiği varsayılır.
+     */
+    public void record(String name, Span.Kind kind, long durationNanos, Map<String, Object> attributes) {
+        Span parent = current.get();
+        if (parent == null || !parent.context().sampled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        Span span = new Span(new TraceContext(parent.traceId(), randomHex(16), true), parent.spanId(), name, kind,
+                now - durationNanos);
+        attributes.forEach(span::tag);
+        span.end(now);
+        traces.computeIfPresent(span.traceId(), (id, trace) -> {
+            trace.spans.add(span);
+            return trace;
+        });
+    }
+
+    /**
+     * @return Geçerli span'in bağlamı; span yoksa null.
+     */
+    public TraceContext currentContext() {
+        Span span = current.get();
+        return span != null ? span.context() : null;
+    }
+
+    private void opened(Span span) {
+        boolean[] full = { false };
+        traces.compute(span.traceId(), (id, trace) -> {
+            if (trace == null) {
+                if (traces.size() >= MAX_OPEN_TRACES) {
+                    full[0] = true;
+                    return null;
+                }
+                trace = new Trace();
+            }
+            trace.open++;
+            return trace;
+        });
+        if (full[0]) {
+            log.warn("{} açık trace var; yeni trace aktarılmayacak", MAX_OPEN_TRACES);
+        }
+    }
+
+    private void closed(Span span) {
+        List<Span> done = new ArrayList<>();
+        traces.computeIfPresent(span.traceId(), (id, trace) -> {
+            trace.spans.add(span);
+            if (--trace.open > 0) {
+                return trace;
+            }
+            done.addAll(trace.spans);
+            return null;
+        });
+        if (!done.isEmpty()) {
+            export(done);
+        }
+    }
+
+    private void export(List<Span> trace) {
+        trace.sort(Comparator.comparingLong(Span::startNanos));
+        if (trace.get(0).durationNanos() < minDurationNanos) {
+            return;
+        }
+        try {
+            exporter.export(List.copyOf(trace));
+        } catch (RuntimeException e) {
+            log.warn("Trace aktarılamadı", e);
+        }
+    }
+
+    private static String randomHex(int length) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder hex = new StringBuilder(length);
+        while (hex.length() < length) {
+            String part = Long.toHexString(random.nextLong());
+            hex.append("0".repeat(16 - part.length())).append(part);
+        }
+        return hex.substring(0, length);
+    }
+
+    /**
+     * Bir trace'in bu süreçte biten span'leri ve açık span sayısı; yalnızca
+     * traces map'inin compute çağrıları içinde değiştirilir.
+     */
+    private static final class Trace {
+        final List<Span> spans = new ArrayList<>();
+        int open;
+    }
+
+    /**
+     * Açık bir span; try-with-resources ile kapatılır. Kapanınca geçerli span
+     * bir öncekine döner. Span'i başlatan thread'de kapatılmalıdır.
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final Span span;
+        private final Span previous;
+        private boolean closed;
+
+        private Scope(Span span, Span previous) {
+            this.span = span;
+            this.previous = previous;
+        }
+
+        /**
+         * Span'e bir özellik ekler; değer null ise eklenmez.
+         */
+        public Scope tag(String key, Object value) {
+            if (span != null) {
+                span.tag(key, value);
+            }
+            return this;
+        }
+
+        public Scope rename(String name) {
+            if (span != null) {
+                span.rename(name);
+            }
+            return this;
+        }
+
+        /**
+         * Span'i hatalı olarak işaretler.
+         */
+        public Scope error(Throwable throwable) {
+            if (span != null) {
+                span.error(throwable);
+            }
+            return this;
+        }
+
+        /**
+         * @return Span'in bağlamı; tracing kapalıysa null.
+         */
+        public TraceContext context() {
+            return span != null ? span.context() : null;
+        }
+
+        @Override
+        public void close() {
+            if (span == null || closed) {
+                return;
+            }
+            closed = true;
+            span.end(System.nanoTime());
+            if (previous != null) {
+                current.set(previous);
+                MDC.put("traceId", previous.traceId());
+                MDC.put("spanId", previous.spanId());
+            } else {
+                current.remove();
+                MDC.remove("traceId");
+                MDC.remove("spanId");
+            }
+            if (span.context().sampled()) {
+                closed(span);
+            }
+        }
+    }
+}
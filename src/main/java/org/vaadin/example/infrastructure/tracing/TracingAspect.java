@@ -0,0 +1,43 @@
+package org.vaadin.example.infrastructure.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Controller ve service metotları için INTERNAL span'ler açar.
+ *
+ * Yalnızca açık bir trace varken (bir REST isteği veya UI eylemi içinde)
+ * span açılır; açılış ve arka plan işleri trace oluşturmaz. Sınıf içi
+ * çağrılar Spring proxy'sinden geçmediği için ayrı span almaz.
+ */
+@Aspect
+@Component
+class TracingAspect {
+
+    private final Tracer tracer;
+
+    TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("execution(public * org.vaadin.example.application.controllers..*(..))"
+            + " || execution(public * org.vaadin.example.services.implementation..*(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (tracer.currentContext() == null) {
+            return joinPoint.proceed();
+        }
+        String name = ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName() + "."
+                + joinPoint.getSignature().getName();
+        try (Tracer.Scope scope = tracer.start(name, Span.Kind.INTERNAL)) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable e) {
+                scope.error(e);
+                throw e;
+            }
+        }
+    }
+}
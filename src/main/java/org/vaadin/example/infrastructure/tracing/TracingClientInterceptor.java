@@ -0,0 +1,42 @@
+package org.vaadin.example.infrastructure.tracing;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * RestTemplate çağrıları için bir CLIENT span'i açar ve traceparent başlığı
+ * ile çağrılan tarafa taşır. Span adına sorgu parametreleri (arama metni
+ * gibi) yazılmaz.
+ */
+class TracingClientInterceptor implements ClientHttpRequestInterceptor {
+
+    private final Tracer tracer;
+
+    TracingClientInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        try (Tracer.Scope scope = tracer.start("http " + request.getMethod() + " " + request.getURI().getPath(),
+                Span.Kind.CLIENT)) {
+            TraceContext context = scope.context();
+            if (context != null) {
+                request.getHeaders().set(TraceContext.HEADER, context.toTraceparent());
+            }
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                scope.tag("status", response.getStatusCode().value());
+                return response;
+            } catch (IOException | RuntimeException e) {
+                scope.error(e);
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.vaadin.example.infrastructure.tracing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * TracingConfig, span exporter'ını seçer ve trace'i UI'dan REST API'sine
+ * taşıyan interceptor ile filtreyi yerleştirir.
+ *
+ * tracing.exporter: "log" trace'leri span ağacı olarak log'a, "file"
+ * tracing.file dosyasına JSON Lines olarak yazar, "none" aktarmaz.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SpanExporter spanExporter(@Value("${tracing.exporter:log}") String exporter,
+            @Value("${tracing.file:traces.jsonl}") Path file) throws IOException {
+        return switch (exporter) {
+            case "log" -> new LogSpanExporter();
+            case "file" -> new FileSpanExporter(file);
+            case "none" -> trace -> {
+            };
+            default -> throw new IllegalArgumentException("Bilinmeyen tracing.exporter: " + exporter);
+        };
+    }
+
+    /**
+     * Uygulamanın RestTemplateBuilder ile oluşturduğu RestTemplate'lere
+     * (arayüzün REST çağrıları) traceparent başlığını ekler.
+     */
+    @Bean
+    public RestTemplateCustomizer tracingRestTemplateCustomizer(Tracer tracer) {
+        return restTemplate -> restTemplate.getInterceptors().add(0, new TracingClientInterceptor(tracer));
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.addUrlPatterns("/api/personel/*", "/api/personel");
+        // Giriş kontrolünden önce; reddedilen istekler de trace'te görünür.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
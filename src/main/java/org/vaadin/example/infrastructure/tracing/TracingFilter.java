@@ -0,0 +1,54 @@
+package org.vaadin.example.infrastructure.tracing;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * TracingFilter, REST isteklerini bir SERVER span'i içinde işler. İstekte
+ * geçerli bir traceparent başlığı varsa çağıranın trace'ine devam edilir.
+ *
+ * Span, Spring MVC'nin eşleştirdiği kalıpla ({@code GET /api/personel/{id}})
+ * adlandırılır. Trace id'si X-Trace-Id yanıt başlığında döndürülür ve istek
+ * süresince log'larda MDC'de bulunur.
+ */
+class TracingFilter extends OncePerRequestFilter {
+
+    static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private final Tracer tracer;
+
+    TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TraceContext parent = TraceContext.parse(request.getHeader(TraceContext.HEADER));
+        try (Tracer.Scope scope = tracer.start(request.getMethod() + " " + request.getRequestURI(),
+                Span.Kind.SERVER, parent)) {
+            if (scope.context() != null) {
+                response.setHeader(TRACE_ID_HEADER, scope.context().traceId());
+            }
+            try {
+                chain.doFilter(request, response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                scope.error(e);
+                throw e;
+            } finally {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (pattern != null) {
+                    scope.rename(request.getMethod() + " " + pattern);
+                }
+                scope.tag("status", response.getStatus());
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.vaadin.example.services;
+
+import org.springframework.dao.DuplicateKeyException;
+
+/**
+ * Kaydedilmek istenen kimlik numarası başka bir personelde zaten kayıtlı
+ * olduğunda fırlatılır.
+ */
+public class DuplicateNationalNumberException extends DuplicateKeyException {
+
+    private final String nationalNumber;
+
+    public DuplicateNationalNumberException(String nationalNumber) {
+        this(nationalNumber, null);
+    }
+
+    public DuplicateNationalNumberException(String nationalNumber, Throwable cause) {
+        super("Bu kimlik numarası zaten kayıtlı: " + nationalNumber, cause);
+        this.nationalNumber = nationalNumber;
+    }
+
+    public String getNationalNumber() {
+        return nationalNumber;
+    }
+}
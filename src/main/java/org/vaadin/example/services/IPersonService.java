@@ -2,8 +2,11 @@ package org.vaadin.example.services;
 
 import java.util.Optional;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.vaadin.example.domain.dto.PersonChanges;
+import org.vaadin.example.domain.dto.PersonPatch;
 import org.vaadin.example.domain.model.Person;
 
 /**
@@ -52,4 +55,24 @@ public interface IPersonService {
      * işlenmesi gerekir. Veritabanı tarafında doğrulama mekanizmaları olmalıdır.
      */
     Person update(Long id, Person entity);
+
+    /**
+     * Personelin yalnızca patch'te bulunan alanlarını günceller. Patch bir
+     * version içeriyorsa kayıt yalnızca hâlâ bu version'daysa güncellenir.
+     * Boş bir patch kaydı değiştirmez.
+     *
+     * @return Güncellenmiş personel.
+     * @throws IllegalArgumentException          Kayıt yoksa.
+     * @throws OptimisticLockingFailureException Kayıt bu arada değiştiyse.
+     * @throws DuplicateNationalNumberException  Yeni kimlik numarası başka bir
+     *                                           kayıtta varsa.
+     */
+    Person patch(Long id, PersonPatch patch);
+
+    /**
+     * Değişiklik numarası since'ten büyük olan eklemeleri, güncellemeleri ve
+     * silmeleri numara sırasıyla döndürür. Maliyet tablonun boyutuna değil,
+     * dönen değişiklik sayısına bağlıdır.
+     */
+    PersonChanges changesSince(long since, int limit);
 }
@@ -0,0 +1,110 @@
+package org.vaadin.example.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.vaadin.example.domain.model.Person;
+
+/**
+ * PersonSorting, Person listeleri için izin verilen sıralama alanlarını ve
+ * bunlara ait comparator'ları tek bir yerde toplar.
+ *
+ * Yalnızca index'i bulunan alanlara göre sıralamaya izin verilir; bilinmeyen
+ * alanlar sessizce düşürülür. Sayfalar arası sıranın kararlı olması için her
+ * sıralamanın sonuna id eklenir.
+ */
+public final class PersonSorting {
+
+    /**
+     * Sıralanabilir alanlar ve değer okuyucuları. Her alan için Person
+     * tablosunda bir index bulunur.
+     */
+    public static final Map<String, Function<Person, String>> SORTABLE_PROPERTIES = Map.of(
+            "firstName", Person::getFirstName,
+            "lastName", Person::getLastName,
+            "nationalNumber", Person::getNationalNumber);
+
+    private static final String ID_PROPERTY = "id";
+
+    private PersonSorting() {
+    }
+
+    /**
+     * Pageable içindeki sıralamayı temizler ve id ile kararlı hale getirir.
+     *
+     * @param pageable İstemciden gelen sayfalama bilgisi.
+     * @return Yalnızca izin verilen alanları içeren Pageable.
+     */
+    public static Pageable sanitize(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sanitize(pageable.getSort()));
+    }
+
+    /**
+     * Sort içindeki bilinmeyen alanları çıkarır ve sona id ekler.
+     *
+     * @param sort İstemciden gelen sıralama.
+     * @return Temizlenmiş sıralama; sıralama yoksa Sort.unsorted().
+     */
+    public static Sort sanitize(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (SORTABLE_PROPERTIES.containsKey(order.getProperty())) {
+                orders.add(order);
+            }
+        }
+        if (orders.isEmpty()) {
+            return Sort.unsorted();
+        }
+        orders.add(new Sort.Order(orders.get(0).getDirection(), ID_PROPERTY));
+        return Sort.by(orders);
+    }
+
+    /**
+     * Verilen alana göre artan sırada, eşitlikte id ile karşılaştıran
+     * comparator döndürür.
+     *
+     * @param property Sıralanabilir alan adı.
+     * @return Person comparator'ı.
+     */
+    public static Comparator<Person> comparator(String property) {
+        Function<Person, String> key = SORTABLE_PROPERTIES.get(property);
+        if (key == null) {
+            throw new IllegalArgumentException("Sıralanamayan alan: " + property);
+        }
+        return Comparator.comparing(key, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                .thenComparing(Person::getId, Comparator.nullsFirst(Comparator.<Long>naturalOrder()));
+    }
+
+    /**
+     * Sort nesnesinin tamamını uygulayan comparator döndürür.
+     *
+     * @param sort Temizlenmiş sıralama.
+     * @return Person comparator'ı.
+     */
+    public static Comparator<Person> comparator(Sort sort) {
+        Comparator<Person> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<Person> next;
+            if (ID_PROPERTY.equals(order.getProperty())) {
+                next = Comparator.comparing(Person::getId, Comparator.nullsFirst(Comparator.<Long>naturalOrder()));
+            } else {
+                Function<Person, String> key = SORTABLE_PROPERTIES.get(order.getProperty());
+                next = Comparator.comparing(key, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+            }
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            result = result == null ? next : result.thenComparing(next);
+        }
+        return result != null ? result : (a, b) -> 0;
+    }
+}
@@ -0,0 +1,118 @@
+package org.vaadin.example.services.batch;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vaadin.example.domain.event.PersonChangeEvent;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.domain.repository.PersonRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * PersonWriteBehind, yeni Person kayıtlarını WriteCoalescer üzerinden toplar ve
+ * her partiyi tek bir transaction içinde kaydeder.
+ *
+ * Hibernate, hibernate.jdbc.batch_size ayarı ile partideki INSERT'leri JDBC
+ * batch olarak gönderir; sequence değerleri allocationSize kadar önceden
+ * ayrıldığı için parti başına en fazla bir sequence çağrısı yapılır. Böylece
+ * N eşzamanlı ekleme, N bağlantı ve N commit yerine tek bağlantı ve tek commit
+ * kullanır.
+ *
+ * max-delay varsayılan olarak 0'dır: parti, önceki commit sürerken biriken
+ * kayıtlardan oluşur ve tek bir çağıran hiç beklemez.
+ *
+ * Yalnızca "sql" ve "jdbc" profile'larında ve person.write-behind.enabled=true olduğunda
+ * etkindir.
+ */
+@Component
+@Profile({ "sql", "jdbc" })
+@ConditionalOnProperty(name = "person.write-behind.enabled", havingValue = "true")
+public class PersonWriteBehind {
+
+    private final PersonRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WriteCoalescer<Person, Person> coalescer;
+
+    /**
+     * @param repository         Person object işlemlerini yöneten repository.
+     * @param transactionManager Parti transaction'larını açan manager.
+     * @param eventPublisher     Değişiklik olaylarını yayınlayan publisher.
+     * @param batchSize          Bir partideki en fazla kayıt sayısı.
+     * @param maxDelay           İlk kayıttan sonra partinin en fazla bekleme
+     *                           süresi.
+     * @param queueCapacity      Bekleyen kayıtlar için kuyruk kapasitesi.
+     */
+    public PersonWriteBehind(PersonRepository repository, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${person.write-behind.batch-size:50}") int batchSize,
+            @Value("${person.write-behind.max-delay:0ms}") Duration maxDelay,
+            @Value("${person.write-behind.queue-capacity:1000}") int queueCapacity) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.coalescer = new WriteCoalescer<>("person-write-behind", batchSize, maxDelay, queueCapacity,
+                this::insertBatch);
+    }
+
+    /**
+     * Yeni kaydı kuyruğa ekler.
+     *
+     * @param person Kaydedilecek, henüz id'si olmayan Person object.
+     * @return Kaydın partisi commit edildiğinde tamamlanan future.
+     */
+    public CompletableFuture<Person> submit(Person person) {
+        return coalescer.submit(person);
+    }
+
+    /**
+     * Yeni kaydı kuyruğa ekler ve partisi commit edilene kadar bekler.
+     *
+     * @param person Kaydedilecek, henüz id'si olmayan Person object.
+     * @return Kaydedilen object.
+     */
+    public Person save(Person person) {
+        try {
+            return submit(person).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private List<Person> insertBatch(List<Person> persons) {
+        try {
+            // Olaylar transaction içinde yayınlanır; dinleyiciler commit sonrası çalışır.
+            return transactionTemplate.execute(status -> {
+                List<Person> saved = repository.saveAll(persons);
+                saved.forEach(person -> eventPublisher.publishEvent(PersonChangeEvent.inserted(person)));
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            // persist sırasında atanan id'ler geri alınır; tekrar denemede kayıtlar
+            // yeniden yeni kayıt olarak eklenir.
+            persons.forEach(person -> {
+                person.setId(null);
+                person.setVersion(0);
+            });
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coalescer.close();
+    }
+}
@@ -0,0 +1,169 @@
+package org.vaadin.example.services.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * WriteCoalescer, farklı thread'lerden gelen tekil yazma isteklerini bir
+ * kuyrukta toplar ve tek bir arka plan thread'i üzerinden toplu olarak yazar.
+ *
+ * Bir toplu yazma; kuyrukta maxBatchSize kadar istek biriktiğinde ya da ilk
+ * istekten sonra maxDelay süresi dolduğunda başlar. Önceki toplu yazma sürerken
+ * biriken istekler beklemeden bir sonraki partiye alınır. Her çağıranın
+ * future'ı, kendi partisi batchWriter'dan başarıyla döndüğünde tamamlanır.
+ *
+ * Bir parti hata verirse istekler tek tek yeniden denenir; böylece hatalı bir
+ * kayıt aynı partideki diğer kayıtları düşürmez.
+ *
+ * @param <T> Yazılacak istek tipi.
+ * @param <R> batchWriter'ın her istek için döndürdüğü sonuç tipi.
+ */
+public final class WriteCoalescer<T, R> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteCoalescer.class);
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final BlockingQueue<Pending<T, R>> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Function<List<T>, List<R>> batchWriter;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private record Pending<T, R>(T item, CompletableFuture<R> future) {
+    }
+
+    /**
+     * @param name          Arka plan thread'inin adı.
+     * @param maxBatchSize  Bir partideki en fazla istek sayısı.
+     * @param maxDelay      İlk istekten sonra partinin en fazla bekleme süresi.
+     * @param queueCapacity Kuyruk kapasitesi; dolduğunda submit bekler.
+     * @param batchWriter   Partiyi yazan ve girdiyle aynı sırada sonuç döndüren
+     *                      fonksiyon.
+     */
+    public WriteCoalescer(String name, int maxBatchSize, Duration maxDelay, int queueCapacity,
+            Function<List<T>, List<R>> batchWriter) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize en az 1 olmalıdır");
+        }
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, maxBatchSize));
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.batchWriter = batchWriter;
+        this.flusher = new Thread(this::run, name);
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * İsteği kuyruğa ekler. Kuyruk doluysa yer açılana kadar bekler.
+     *
+     * @param item Yazılacak istek.
+     * @return İsteğin partisi yazıldığında tamamlanan future.
+     */
+    public CompletableFuture<R> submit(T item) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("WriteCoalescer kapatıldı"));
+        }
+        Pending<T, R> pending = new Pending<>(item, new CompletableFuture<>());
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        // close() kuyruğu boşalttıktan sonra eklenen istek sahipsiz kalmasın.
+        if (!running && queue.remove(pending)) {
+            pending.future().completeExceptionally(new IllegalStateException("WriteCoalescer kapatıldı"));
+        }
+        return pending.future();
+    }
+
+    /**
+     * Kuyruktaki istekleri yazar ve arka plan thread'ini durdurur.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Pending<T, R>> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(p -> p.future().completeExceptionally(new IllegalStateException("WriteCoalescer kapatıldı")));
+    }
+
+    private void run() {
+        List<Pending<T, R>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending<T, R> first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Önceki parti yazılırken biriken istekler beklemeden alınır.
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize && running) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Pending<T, R> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Pending<T, R>> batch) {
+        try {
+            complete(batch, batchWriter.apply(batch.stream().map(Pending::item).toList()));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future().completeExceptionally(e);
+                return;
+            }
+            log.warn("{} kayıtlık toplu yazma başarısız oldu, kayıtlar tek tek yeniden deneniyor", batch.size(), e);
+            for (Pending<T, R> pending : batch) {
+                try {
+                    complete(List.of(pending), batchWriter.apply(List.of(pending.item())));
+                } catch (RuntimeException single) {
+                    pending.future().completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    private void complete(List<Pending<T, R>> batch, List<R> results) {
+        if (results == null || results.size() != batch.size()) {
+            throw new IllegalStateException("batchWriter her istek için bir sonuç döndürmelidir");
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future().complete(results.get(i));
+        }
+    }
+}
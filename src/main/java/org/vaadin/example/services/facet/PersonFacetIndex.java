@@ -0,0 +1,168 @@
+package org.vaadin.example.services.facet;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.vaadin.example.domain.dto.PersonFacets;
+import org.vaadin.example.domain.event.PersonChangeEvent;
+import org.vaadin.example.domain.model.NameCase;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.IPersonService;
+import org.vaadin.example.services.sync.IndexLoadBuffer;
+
+/**
+ * PersonFacetIndex, personel sayılarını soyadın ilk harfine ve kimlik
+ * numarasının ilk hanelerine göre bellekte tutar.
+ *
+ * Sayılar uygulama açılırken PersonNameIndex ile aynı yoldan
+ * (IndexLoadBuffer.load, changesSince ile keyset sayfalama) bir kez yüklenir,
+ * sonra her PersonChangeEvent ile artırılıp azaltılır; yükleme sırasında
+ * gelen olaylar yüklemeden sonra uygulanır. İstek başına GROUP BY
+ * çalıştırılmaz. Okunan PersonFacets değişmez bir kopyadır ve bir sonraki
+ * yazmaya kadar tekrar kullanılır; grup sayısı küçük ve sabit olduğundan bir
+ * istek kayıt sayısından bağımsız sürer.
+ *
+ * Soyadın ilk harfi NameCase ile Türkçe kurallarla büyütülür ("ismail" İ,
+ * "ılgaz" I grubuna girer).
+ *
+ * PersonNameIndex gibi, önceki hali bilinmeyen güncellemelerde eski değer
+ * çıkarılamaz; bu durumda sayılar kayıt silinene kadar bir fazla olabilir.
+ */
+@Component
+public class PersonFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonFacetIndex.class);
+
+    private static final int LOAD_LIMIT = 1_000;
+
+    private final IPersonService personService;
+    private final int prefixLength;
+    private final AtomicInteger total = new AtomicInteger();
+    private final Map<String, Integer> lastNameInitials = new ConcurrentHashMap<>();
+    private final Map<String, Integer> nationalNumberPrefixes = new ConcurrentHashMap<>();
+    private final AtomicLong writes = new AtomicLong();
+    private final IndexLoadBuffer loadBuffer = new IndexLoadBuffer();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Hesaplanmış sayılar ve hesaplandıkları andaki yazma sayısı.
+     */
+    private record Snapshot(long writes, PersonFacets facets) {
+    }
+
+    /**
+     * @param personService Sayıların ilk yüklendiği servis.
+     * @param prefixLength  Kimlik numarası gruplarının hane sayısı (1-4).
+     */
+    public PersonFacetIndex(IPersonService personService,
+            @Value("${facets.national-number-prefix-length:1}") int prefixLength) {
+        if (prefixLength < 1 || prefixLength > 4) {
+            throw new IllegalStateException("facets.national-number-prefix-length 1 ile 4 arasında olmalıdır");
+        }
+        this.personService = personService;
+        this.prefixLength = prefixLength;
+    }
+
+    /**
+     * Uygulama hazır olduğunda tüm kayıtları değişiklik numarası sırasıyla
+     * okuyarak sayıları oluşturur, ardından bu sırada gelen olayları uygular.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        try {
+            loadBuffer.load(personService, LOAD_LIMIT, person -> count(person, 1), this::apply);
+        } finally {
+            writes.incrementAndGet();
+        }
+        log.info("Dağılım sayıları hazır: {} kayıt, {} soyad harfi, {} kimlik no öneki ({} ms)", total.get(),
+                lastNameInitials.size(), nationalNumberPrefixes.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Olay bir transaction içinde yayınlandıysa commit sonrasında işlenir.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangeEvent event) {
+        if (!loadBuffer.offer(event)) {
+            apply(event, true);
+        }
+    }
+
+    private void apply(PersonChangeEvent event, boolean counted) {
+        if (counted && event.getPrevious() != null) {
+            count(event.getPrevious(), -1);
+        } else if (counted && event.getType() == PersonChangeEvent.Type.UPDATE) {
+            total.decrementAndGet(); // Kayıt zaten sayılmıştı; yalnızca grupları bilinmiyor.
+        }
+        if (event.getPerson() != null) {
+            count(event.getPerson(), 1);
+        }
+        writes.incrementAndGet();
+    }
+
+    /**
+     * Güncel sayıları döndürür. Son yazmadan beri hesaplanmışsa aynı nesne
+     * döner.
+     */
+    public PersonFacets facets() {
+        Snapshot current = snapshot;
+        long seen = writes.get();
+        if (current == null || current.writes() != seen) {
+            // Hesaplama sırasında gelen bir yazma sayacı ilerletir; bu kopya bir
+            // sonraki okumada yeniden hesaplanır.
+            current = new Snapshot(seen,
+                    new PersonFacets(total.get(), sorted(lastNameInitials), sorted(nationalNumberPrefixes)));
+            snapshot = current;
+        }
+        return current.facets();
+    }
+
+    private void count(Person person, int delta) {
+        total.addAndGet(delta);
+        increment(lastNameInitials, initial(person.getLastName()), delta);
+        increment(nationalNumberPrefixes, prefix(person.getNationalNumber()), delta);
+    }
+
+    private String initial(String lastName) {
+        if (lastName == null || lastName.isBlank()) {
+            return null;
+        }
+        String trimmed = lastName.trim();
+        // Locale.ROOT "i"yi "I"ya çevirir; "İnce" ile "ince" ayrı gruplara düşerdi.
+        return NameCase.upper(trimmed.substring(0, trimmed.offsetByCodePoints(0, 1)));
+    }
+
+    private String prefix(String nationalNumber) {
+        if (nationalNumber == null || nationalNumber.isBlank()) {
+            return null;
+        }
+        String trimmed = nationalNumber.trim();
+        return trimmed.substring(0, Math.min(prefixLength, trimmed.length()));
+    }
+
+    private static void increment(Map<String, Integer> counts, String key, int delta) {
+        if (key == null) {
+            return;
+        }
+        counts.compute(key, (k, count) -> {
+            int updated = (count != null ? count : 0) + delta;
+            return updated > 0 ? updated : null;
+        });
+    }
+
+    private static Map<String, Integer> sorted(Map<String, Integer> counts) {
+        return Collections.unmodifiableMap(new TreeMap<>(counts));
+    }
+}
@@ -1,122 +1,665 @@
 package org.vaadin.example.services.implementation;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.vaadin.example.domain.dto.PersonChanges;
+import org.vaadin.example.domain.dto.PersonPatch;
+import org.vaadin.example.domain.event.PersonChangeEvent;
 import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.DuplicateNationalNumberException;
 import org.vaadin.example.services.IPersonService;
+import org.vaadin.example.services.memory.PersonColumnStore;
+import org.vaadin.example.services.memory.PersonJournal;
+import org.vaadin.example.services.memory.PersonSnapshot;
+import org.vaadin.example.services.sync.ChangeSequence;
+import org.vaadin.example.services.unique.NationalNumberGuard;
 
 import com.github.javafaker.Faker;
 
+import jakarta.annotation.PreDestroy;
+
 /**
  * Bu dummy class, dummy verilerle çalışan bir service implementasyonudur.
- * Gerçek bir database yerine, bellek içi bir list kullanarak Person object
- * işlemlerini gerçekleştirir.
+ * Gerçek bir database yerine, bellek içi sütunlu bir depo
+ * (PersonColumnStore) kullanarak Person object işlemlerini gerçekleştirir.
+ *
+ * Sıralanabilir her alan için önceden sıralanmış bir ikincil index tutulur;
+ * böylece sıralı sayfalama, sırasız sayfalama ile aynı maliyettedir.
+ * Her yazma işleminden sonra bir PersonChangeEvent yayınlanır.
+ * Kimlik numarası tekrarları yazma kilidi altında reddedilir; numara
+ * NationalNumberGuard'a göre kesinlikle yeniyse index araması atlanır.
+ * Her yazma yazma kilidi altında bir değişiklik numarası alır; numaralar
+ * bellekte başladığı için kendi ChangeSequence örneği kullanılır.
+ *
+ * dummy.snapshot.file verilmişse depo bu dosyaya ikili bir snapshot olarak
+ * kaydedilir: yeni yazma varsa dummy.snapshot.interval aralıkla arka planda ve
+ * kapanışta. Snapshot okuma kilidi altında kopyalanır, dosyaya kilit dışında
+ * yazılır. Başlangıçta dosya varsa veri Faker ile üretilmez, dosyadan
+ * yüklenir; değişiklik numaraları kaldığı yerden devam eder. Dosya var ama
+ * okunamıyorsa (bozuk, yarım veya farklı sürüm) başlangıç
+ * IllegalStateException ile durur; dosyaya ve journal'a dokunulmaz. Kimlik
+ * numarası filtresi arka planda doldurulur, dolana kadar tekrar kontrolü
+ * index'ten yapılır.
+ *
+ * dummy.journal.file verilmemişse son snapshot'tan sonraki yazmalar, uygulama
+ * kapanmadan durursa kaybolur. Verilmişse her yazma yazma kilidi altında
+ * doğrulanır ve PersonJournal'a eklenir; kilit bırakıldıktan sonra
+ * dummy.journal.durability ayarına göre fsync beklenir, eşzamanlı yazmalar
+ * aynı fsync'i paylaşır. Değişiklik depoya ancak diske indikten sonra
+ * uygulanır ve olayı o zaman yayınlanır; böylece okuyanlar ve snapshot'lar
+ * kalıcı olmayan bir yazmayı görmez. Arada bekleyen yazmalar, sonraki
+ * yazmaların kontrollerinde (kayıt var mı, version, kimlik numarası) hesaba
+ * katılır ve journal sırasıyla uygulanır. fsync başarısız olursa yazma hiç
+ * uygulanmaz ve çağırana hata döner; journal bundan sonra yazma kabul etmez
+ * ve sağlık durumu DOWN olur. PERIODIC modunda yazmalar beklemeden uygulanır.
+ * Başlangıçta snapshot'tan sonraki journal kayıtları depoya uygulanır; her
+ * snapshot journal'ı yeni bir segmente geçirir ve eski segmentleri siler.
  */
 @Service
 @Primary
 @Profile("dummy") // Bu service yalnızca "dummy" profile aktif olduğunda çalışır.
 @ConditionalOnProperty(name = "db.enabled", havingValue = "false", matchIfMissing = true)
 // Eğer "db.enabled" true ise veya tanımlanmamışsa bu service etkin olur.
-public class PersonServiceDummy implements IPersonService {
+public class PersonServiceDummy implements IPersonService, HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonServiceDummy.class);
 
-    private final List<Person> dummyData;
+    private final PersonColumnStore store;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ApplicationEventPublisher eventPublisher;
+    private final NationalNumberGuard nationalNumberGuard;
+    private final ChangeSequence changeSequence;
+    private final Path snapshotFile;
+    private final Duration snapshotInterval;
+    private final PersonJournal journal;
+    // Journal'a yazılmış, fsync'i beklenen ve henüz depoya uygulanmamış
+    // yazmalar; journal sırasıyla. Yazma kilidi altında kullanılır.
+    private final Deque<PendingWrite> pending = new ArrayDeque<>();
+    private ScheduledExecutorService snapshotExecutor;
+    // Son yazılan snapshot'ın değişiklik numarası; yalnızca writeSnapshot içinde değişir.
+    private long snapshotSequence = -1;
+
+    /**
+     * @param eventPublisher      Değişiklik olaylarını yayınlayan publisher.
+     * @param nationalNumberGuard Kayıtlı kimlik numaralarının filtresi.
+     * @param initialSize         Snapshot yoksa başlangıçta üretilecek
+     *                            rastgele kişi sayısı.
+     * @param offHeap             true ise sütunlar heap dışında tutulur.
+     * @param snapshotFile        Snapshot dosyası; boşsa veri kalıcı değildir.
+     * @param snapshotInterval    Arka planda snapshot yazma aralığı.
+     * @param journalFile         Journal segmentlerinin ortak adı; boşsa
+     *                            journal tutulmaz.
+     * @param durability          Journal yazmalarının ne zaman kalıcı
+     *                            sayılacağı.
+     * @param batchWindow         BATCH modunda fsync öncesi toplama penceresi.
+     * @param journalInterval     PERIODIC modunda journal yazma aralığı.
+     */
+    public PersonServiceDummy(ApplicationEventPublisher eventPublisher, NationalNumberGuard nationalNumberGuard,
+            @Value("${dummy.initial-size:25}") int initialSize,
+            @Value("${dummy.store.off-heap:false}") boolean offHeap,
+            @Value("${dummy.snapshot.file:}") String snapshotFile,
+            @Value("${dummy.snapshot.interval:30s}") Duration snapshotInterval,
+            @Value("${dummy.journal.file:}") String journalFile,
+            @Value("${dummy.journal.durability:write}") PersonJournal.Durability durability,
+            @Value("${dummy.journal.batch-window:2ms}") Duration batchWindow,
+            @Value("${dummy.journal.interval:1s}") Duration journalInterval) throws IOException {
+        this.eventPublisher = eventPublisher;
+        this.nationalNumberGuard = nationalNumberGuard;
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.snapshotInterval = snapshotInterval;
+        if (!journalFile.isBlank() && this.snapshotFile == null) {
+            throw new IllegalStateException("dummy.journal.file için dummy.snapshot.file da verilmelidir");
+        }
+        this.journal = journalFile.isBlank() ? null
+                : new PersonJournal(Path.of(journalFile), durability,
+                        durability == PersonJournal.Durability.PERIODIC ? journalInterval : batchWindow);
 
-    public PersonServiceDummy() {
+        long start = System.nanoTime();
+        PersonSnapshot snapshot = readSnapshot();
+        if (snapshot != null) {
+            this.store = restore(snapshot, offHeap);
+            this.snapshotSequence = snapshot.lastChangeSeq();
+            // Journal'daki kayıtlar snapshot'tan sonraki değişikliklerdir.
+            long lastChangeSeq = journal != null ? journal.replay(store, snapshot.lastChangeSeq())
+                    : snapshot.lastChangeSeq();
+            this.changeSequence = new ChangeSequence(() -> lastChangeSeq);
+            startJournal();
+            log.info("Bellek içi depo snapshot'tan kuruldu ({} ms): {}", (System.nanoTime() - start) / 1_000_000,
+                    store.memoryReport());
+            // Filtre dolana kadar her numara için index'e bakılır; yükleme
+            // başlangıcı uzatmasın diye arka planda, okuma kilidi altında yapılır.
+            snapshotExecutor().execute(() -> {
+                lock.readLock().lock();
+                try {
+                    nationalNumberGuard.load(store.size(), store.nationalNumbers());
+                } finally {
+                    lock.readLock().unlock();
+                }
+            });
+            return;
+        }
+
+        this.store = new PersonColumnStore(initialSize, offHeap);
+        this.changeSequence = new ChangeSequence(() -> 0);
         Faker faker = new Faker();
-        this.dummyData = IntStream.rangeClosed(1, 25)
+        List<Person> initialData = IntStream.rangeClosed(1, initialSize)
                 .mapToObj(i -> {
                     Person person = new Person();
-                    person.setId(Math.abs(UUID.randomUUID().getMostSignificantBits())); // UUID'den pozitif bir ID
-                                                                                        // üretiliyor.
+                    person.setId(newId()); // UUID'den pozitif bir ID üretiliyor.
                     person.setFirstName(faker.name().firstName());
                     person.setLastName(faker.name().lastName());
                     person.setNationalNumber(faker.number().digits(10)); // Rastgele 10 haneli bir sayı üretiliyor.
+                    person.setChangeSeq(changeSequence.next());
                     return person;
                 })
                 .collect(Collectors.toList()); // Stream, list'e çevriliyor.
+        store.insertAll(initialData);
+        nationalNumberGuard.load(initialSize, initialData.stream().map(Person::getNationalNumber).iterator());
+        // Snapshot olmadan kalan eski segmentler uygulanmaz; ilk snapshot'ta silinir.
+        startJournal();
+        log.info("Bellek içi depo hazır: {}", store.memoryReport());
+    }
+
+    /**
+     * Snapshot dosyası verilmişse periyodik yazmayı başlatır. Faker ile
+     * üretilen ilk veri de ilk turda yazılır.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSnapshots() {
+        if (snapshotFile == null) {
+            return;
+        }
+        snapshotExecutor().scheduleWithFixedDelay(this::writeSnapshot, 0, snapshotInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Periyodik yazmayı durdurur, son değişiklikleri kaydeder ve journal'ı
+     * kapatır.
+     */
+    @PreDestroy
+    public void stopSnapshots() throws InterruptedException, IOException {
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdown();
+            snapshotExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+        if (snapshotFile != null) {
+            writeSnapshot();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void startJournal() throws IOException {
+        if (journal != null) {
+            journal.start();
+            log.info("Journal açıldı ({})", journal.durability());
+        }
+    }
+
+    private synchronized ScheduledExecutorService snapshotExecutor() {
+        if (snapshotExecutor == null) {
+            snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "person-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return snapshotExecutor;
+    }
+
+    private PersonSnapshot readSnapshot() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return null;
+        }
+        long start = System.nanoTime();
+        try {
+            PersonSnapshot snapshot = PersonSnapshot.read(snapshotFile);
+            log.info("Snapshot okundu: {} ({} kişi, {} ms)", snapshotFile, snapshot.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return snapshot;
+        } catch (IOException e) {
+            throw unreadableSnapshot(e);
+        }
+    }
+
+    private PersonColumnStore restore(PersonSnapshot snapshot, boolean offHeap) {
+        try {
+            return PersonColumnStore.restore(snapshot, offHeap);
+        } catch (IllegalArgumentException e) {
+            throw unreadableSnapshot(e);
+        }
+    }
+
+    /**
+     * Var olan bir snapshot okunamıyorsa başlangıç durdurulur. Veri yeniden
+     * üretilseydi ilk snapshot dosyanın ve journal segmentlerinin üzerine
+     * yazardı.
+     */
+    private IllegalStateException unreadableSnapshot(Exception cause) {
+        return new IllegalStateException("Snapshot okunamadı: " + snapshotFile + ". Dosya ve journal segmentleri"
+                + " değiştirilmedi; dosyayı onarın veya bilerek kaldırın.", cause);
+    }
+
+    /**
+     * Son snapshot'tan sonra yazma olduysa depoyu kopyalar ve dosyaya yazar.
+     * Journal kopya ile aynı anda yeni bir segmente geçirilir; eski
+     * segmentlerdeki bekleyen yazmalar bu sırada diske indiği için kopyadan
+     * önce uygulanır. Snapshot yazılınca önceki segmentler silinir. Hata
+     * log'lanır; bir sonraki turda yeniden denenir.
+     */
+    private synchronized void writeSnapshot() {
+        PersonSnapshot snapshot;
+        int segment = -1;
+        lock.writeLock().lock();
+        try {
+            if (appliedWatermark() == snapshotSequence && pending.isEmpty()) {
+                return;
+            }
+            segment = rotateJournal();
+            if (segment > 0) {
+                applyPending(Long.MAX_VALUE);
+            }
+            long sequence = appliedWatermark();
+            if (sequence == snapshotSequence) {
+                return;
+            }
+            snapshot = store.snapshot(sequence);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        try {
+            snapshot.write(snapshotFile);
+            snapshotSequence = snapshot.lastChangeSeq();
+            log.info("Snapshot yazıldı: {} ({} kişi, {} KB, {} ms)", snapshotFile, snapshot.size(),
+                    Files.size(snapshotFile) / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Snapshot yazılamadı: {}", snapshotFile, e);
+            return;
+        }
+        // Snapshot ve dizin girdisi diske indi; eski segmentler artık gerekmez.
+        if (segment > 0) {
+            try {
+                journal.deleteSegmentsBefore(segment);
+            } catch (IOException e) {
+                log.warn("Eski journal segmentleri silinemedi", e);
+            }
+        }
+    }
+
+    /**
+     * Yazma kilidi altında çağrılmalıdır.
+     *
+     * @return Journal'ın geçtiği yeni segment; journal yoksa veya geçilemediyse
+     *         -1.
+     */
+    private int rotateJournal() {
+        if (journal == null) {
+            return -1;
+        }
+        try {
+            return journal.rotate();
+        } catch (IOException e) {
+            log.warn("Journal yeni segmente geçirilemedi, eski segmentler korunacak", e);
+            return -1;
+        }
     }
 
     @Override
     public Optional<Person> get(Long id) {
-        return dummyData.stream().filter(p -> p.getId().equals(id)).findFirst(); // ID'ye göre ilk eşleşen object
-                                                                                 // döndürülüyor.
+        lock.readLock().lock();
+        try {
+            return store.get(id); // ID ile satır numarası eşlemesinden okunuyor.
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
     public Person save(Person entity) {
-        entity.setId(Math.abs(UUID.randomUUID().getMostSignificantBits())); // Yeni bir unique ID atanıyor.
-        dummyData.add(entity);
+        PendingWrite write;
+        lock.writeLock().lock();
+        try {
+            checkNationalNumber(entity.getNationalNumber(), null);
+            entity.setId(newId()); // Yeni bir unique ID atanıyor.
+            entity.setChangeSeq(changeSequence.next());
+            write = write(entity.getId(), entity.getChangeSeq(), entity, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        commit(write);
         return entity;
     }
 
     @Override
     public Person update(Long id, Person entity) {
-        for (int i = 0; i < dummyData.size(); i++) {
-            if (dummyData.get(i).getId().equals(id)) {
-                entity.setId(id); // Güncellenen object'in ID'si korunuyor.
-                dummyData.set(i, entity); // List'teki ilgili object değiştiriliyor.
-                return entity;
+        PendingWrite write;
+        lock.writeLock().lock();
+        try {
+            Person previous = current(id).orElseThrow(() -> new IllegalArgumentException("Person bulunamadı!"));
+            // SQL tarafındaki @Version gibi: eski bir kopyadan gelen yazma reddedilir.
+            if (entity.getVersion() != previous.getVersion()) {
+                throw new OptimisticLockingFailureException("Person " + id + " başka bir işlemde değişti");
+            }
+            checkNationalNumber(entity.getNationalNumber(), id);
+            entity.setId(id); // Güncellenen object'in ID'si korunuyor.
+            entity.setVersion(previous.getVersion() + 1);
+            entity.setChangeSeq(changeSequence.next());
+            write = write(id, entity.getChangeSeq(), entity, previous);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        commit(write);
+        return entity;
+    }
+
+    /**
+     * Okuma, version kontrolü ve journal'a yazma aynı yazma kilidi altında
+     * yapılır; böylece patch araya başka bir yazma girmeden uygulanır.
+     */
+    @Override
+    public Person patch(Long id, PersonPatch patch) {
+        PendingWrite write;
+        Person merged;
+        lock.writeLock().lock();
+        try {
+            Person current = current(id).orElseThrow(() -> new IllegalArgumentException("Person bulunamadı!"));
+            if (patch.version() != null && patch.version() != current.getVersion()) {
+                throw new OptimisticLockingFailureException("Person " + id + " başka bir işlemde değişti");
+            }
+            if (patch.isEmpty()) {
+                return current;
+            }
+            if (patch.changes("nationalNumber")) {
+                checkNationalNumber(patch.changes().get("nationalNumber"), id);
             }
+            merged = patch.applyTo(current.copy());
+            merged.setVersion(current.getVersion() + 1);
+            merged.setChangeSeq(changeSequence.next());
+            write = write(id, merged.getChangeSeq(), merged, current);
+        } finally {
+            lock.writeLock().unlock();
         }
-        throw new IllegalArgumentException("Person bulunamadı!");
+        commit(write);
+        return merged;
     }
 
     @Override
     public void delete(Long id) {
-        dummyData.removeIf(p -> p.getId().equals(id)); // Belirtilen ID'ye sahip object list'ten kaldırılıyor.
+        PendingWrite write;
+        lock.writeLock().lock();
+        try {
+            Optional<Person> previous = current(id);
+            if (previous.isEmpty()) {
+                return;
+            }
+            // Belirtilen ID'ye sahip kayıt depodan kaldırılıyor.
+            write = write(id, changeSequence.next(), null, previous.get());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        commit(write);
     }
 
     @Override
     public Page<Person> list(Pageable pageable) {
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), dummyData.size()); // Pagination için başlangıç ve bitiş
-                                                                                // indeksleri belirleniyor.
-
-        List<Person> pagedList = dummyData.subList(start, end); // Sayfaya uygun kısmı alıyoruz.
-        return new PageImpl<>(pagedList, pageable, dummyData.size());
+        lock.readLock().lock();
+        try {
+            return store.list(pageable);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
     public int count() {
-        return (int) dummyData.size(); // List uzunluğu döndürülüyor.
+        lock.readLock().lock();
+        try {
+            return store.size();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public List<Person> searchByName(String firstName) {
-        return dummyData.stream()
-                .filter(person -> person.getFirstName().toLowerCase().contains(firstName.toLowerCase())) // Name içinde
-                                                                                                         // arama
-                                                                                                         // yapılıyor.
-                .collect(Collectors.toList()); // Sonuçlar list'e çevriliyor.
+        return searchByName(firstName, Pageable.unpaged()).getContent();
     }
 
     @Override
     public Page<Person> searchByName(String firstName, Pageable pageable) {
-        List<Person> filteredList = dummyData.stream()
-                .filter(person -> person.getFirstName().toLowerCase().contains(firstName.toLowerCase()))
-                .collect(Collectors.toList()); // Name'e göre filtreleme yapılıyor.
+        lock.readLock().lock();
+        try {
+            return store.searchByFirstName(firstName, pageable);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
 
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), filteredList.size());
+    @Override
+    public int countByName(String name) {
+        lock.readLock().lock();
+        try {
+            return store.countByFirstName(name);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
 
-        List<Person> pagedList = filteredList.subList(start, end); // Pagination için aralıktaki veriyi seçiyoruz.
-        return new PageImpl<>(pagedList, pageable, filteredList.size());
+    @Override
+    public PersonChanges changesSince(long since, int limit) {
+        lock.readLock().lock();
+        try {
+            // Bekleyen yazmaların numaraları henüz depoda değildir.
+            long watermark = appliedWatermark();
+            return PersonChanges.of(store.changesSince(since, watermark, limit + 1), limit, watermark);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
+    /**
+     * Journal sağlığı: journal yoksa veya yazılabiliyorsa UP; fsync başarısız
+     * olduysa DOWN. Bu durumda yazmalar reddedilir ve uygulamanın yeniden
+     * başlatılması gerekir.
+     */
     @Override
-    public int countByName(String name) {
-        return (int) dummyData.stream()
-                .filter(person -> person.getFirstName().toLowerCase().contains(name.toLowerCase()))
-                .count(); // Name'e göre filtrelenmiş sonuçların sayısı döndürülüyor.
+    public Health health() {
+        if (journal == null) {
+            return Health.up().build();
+        }
+        IOException failure = journal.failure();
+        if (failure != null) {
+            return Health.down(failure).withDetail("journal", "yazılamıyor, yazmalar reddediliyor").build();
+        }
+        return Health.up().withDetail("durability", journal.durability()).withDetail("syncs", journal.syncCount())
+                .build();
+    }
+
+    /**
+     * Değişikliği journal'a yazar. Beklenecek bir fsync yoksa (journal yok
+     * veya PERIODIC) hemen uygular; aksi halde bekleyen yazmalara ekler.
+     * Yazma kilidi altında çağrılmalıdır.
+     *
+     * @param person   Yeni hali; silmede null.
+     * @param previous Önceki hali; eklemede null.
+     * @return {@link #commit(PendingWrite)}'e verilecek yazma.
+     */
+    private PendingWrite write(long id, long changeSeq, Person person, Person previous) {
+        long position = 0;
+        if (journal != null) {
+            position = person == null ? journal.delete(id, changeSeq)
+                    : previous == null ? journal.insert(person) : journal.update(person);
+        }
+        PendingWrite write = new PendingWrite(position, id, changeSeq, person, previous);
+        if (position == 0 || journal.durability() == PersonJournal.Durability.PERIODIC) {
+            apply(write);
+        } else {
+            pending.addLast(write);
+        }
+        return write;
+    }
+
+    /**
+     * Yazmanın fsync'ini bekler, ardından onu ve journal'da ondan önceki
+     * bekleyen yazmaları sırayla uygular. Kilit bırakıldıktan sonra çağrılır;
+     * böylece bekleyen thread'ler yeni yazmaları engellemez ve aynı fsync'i
+     * paylaşır. fsync başarısız olursa yazma bekleyenlerden çıkarılır ve hiç
+     * uygulanmaz.
+     */
+    private void commit(PendingWrite write) {
+        if (write.position() == 0 || journal.durability() == PersonJournal.Durability.PERIODIC) {
+            return;
+        }
+        try {
+            journal.awaitDurable(write.position());
+        } catch (UncheckedIOException e) {
+            lock.writeLock().lock();
+            try {
+                pending.remove(write);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            applyPending(write.position());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Journal konumu verilene kadar olan bekleyen yazmaları uygular. Bu
+     * konuma kadar olan kayıtların diske indiği bilinmelidir. Yazma kilidi
+     * altında çağrılmalıdır.
+     */
+    private void applyPending(long position) {
+        while (!pending.isEmpty() && pending.peekFirst().position() <= position) {
+            apply(pending.pollFirst());
+        }
+    }
+
+    private void apply(PendingWrite write) {
+        if (write.person() == null) {
+            store.delete(write.id(), write.changeSeq());
+            eventPublisher.publishEvent(PersonChangeEvent.deleted(write.previous()));
+        } else if (write.previous() == null) {
+            store.insert(write.person());
+            eventPublisher.publishEvent(PersonChangeEvent.inserted(write.person()));
+        } else {
+            store.update(write.person());
+            eventPublisher.publishEvent(PersonChangeEvent.updated(write.previous(), write.person()));
+        }
+    }
+
+    /**
+     * Depodaki değişikliklerin tamamının yer aldığı en büyük değişiklik
+     * numarası. Yazma kilidi altında çağrılmalıdır.
+     */
+    private long appliedWatermark() {
+        return pending.isEmpty() ? changeSequence.safeWatermark() : pending.peekFirst().changeSeq() - 1;
+    }
+
+    /**
+     * Kaydın bekleyen yazmalar dahil güncel hali. Yazma kilidi altında
+     * çağrılmalıdır.
+     */
+    private Optional<Person> current(long id) {
+        for (Iterator<PendingWrite> writes = pending.descendingIterator(); writes.hasNext();) {
+            PendingWrite write = writes.next();
+            if (write.id() == id) {
+                return Optional.ofNullable(write.person());
+            }
+        }
+        return store.get(id);
+    }
+
+    /**
+     * Yazma kilidi altında çağrılmalıdır. Bekleyen yazmalar filtreye henüz
+     * eklenmediği için, numarayı alan veya bırakan bekleyen bir yazma varsa
+     * filtreye bakılmaz.
+     *
+     * @param nationalNumber Kaydedilecek kimlik numarası.
+     * @param id             Güncellenen kaydın id'si; yeni kayıtta null.
+     */
+    private void checkNationalNumber(String nationalNumber, Long id) {
+        Set<Long> candidates = new LinkedHashSet<>();
+        for (PendingWrite write : pending) {
+            if (write.mentions(nationalNumber)) {
+                candidates.add(write.id());
+            }
+        }
+        if (candidates.isEmpty() && !nationalNumberGuard.mightExist(nationalNumber)) {
+            return;
+        }
+        Long stored = store.findIdByNationalNumber(nationalNumber);
+        if (stored != null) {
+            candidates.add(stored);
+        }
+        for (Long owner : candidates) {
+            if (!owner.equals(id) && current(owner)
+                    .filter(person -> Objects.equals(nationalNumber, person.getNationalNumber())).isPresent()) {
+                throw new DuplicateNationalNumberException(nationalNumber);
+            }
+        }
+    }
+
+    private static long newId() {
+        return Math.abs(UUID.randomUUID().getMostSignificantBits());
+    }
+
+    /**
+     * Journal'a yazılmış bir değişiklik.
+     *
+     * @param position Journal'daki konumu; journal yoksa 0.
+     * @param person   Yeni hali; silmede null.
+     * @param previous Önceki hali; eklemede null.
+     */
+    private record PendingWrite(long position, long id, long changeSeq, Person person, Person previous) {
+
+        boolean mentions(String nationalNumber) {
+            return nationalNumber != null
+                    && (person != null && nationalNumber.equals(person.getNationalNumber())
+                            || previous != null && nationalNumber.equals(previous.getNationalNumber()));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package org.vaadin.example.services.implementation;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.domain.repository.PersonRepository;
+import org.vaadin.example.domain.repository.PersonTombstoneRepository;
+import org.vaadin.example.services.batch.PersonWriteBehind;
+import org.vaadin.example.services.jdbc.PersonJdbcQueries;
+import org.vaadin.example.services.jdbc.PersonRow;
+import org.vaadin.example.services.sync.ChangeSequence;
+import org.vaadin.example.services.unique.NationalNumberGuard;
+
+/**
+ * Bu class, okuma işlemlerini Hibernate yerine doğrudan JDBC ile yapan
+ * PersonServiceSQL varyantıdır.
+ *
+ * list, searchByName, get ve sayım metodları PersonJdbcQueries üzerinden
+ * çalışır; entity yükleme, dirty tracking ve persistence context maliyeti
+ * oluşmaz. Yazma işlemleri (ve PersonChangeEvent yayını) PersonServiceSQL'den
+ * değişmeden devralınır.
+ *
+ * Okumalar, DataSource üzerinde salt okunur bir JDBC transaction'ı içinde
+ * çalışır; replica yapılandırılmışsa bu sorgular da replica'ya yönlendirilir.
+ */
+@Service
+@Profile("jdbc") // Bu service yalnızca "jdbc" profile aktif olduğunda çalışır.
+@ConditionalOnProperty(name = "db.enabled", havingValue = "true", matchIfMissing = true)
+public class PersonServiceJdbc extends PersonServiceSQL {
+
+    private final PersonJdbcQueries queries;
+    private final TransactionTemplate readOnly;
+
+    /**
+     * PersonServiceJdbc constructor.
+     *
+     * @param repository          Yazma işlemleri için kullanılan repository.
+     * @param tombstones          Silinen kayıtların izleri.
+     * @param eventPublisher      Değişiklik olaylarını yayınlayan publisher.
+     * @param writeBehind         Toplu ekleme yolu; kapalıysa bean tanımlı değildir.
+     * @param nationalNumberGuard Kayıtlı kimlik numaralarının filtresi.
+     * @param changeSequence      Değişiklik numaralarının kaynağı.
+     * @param dataSource          Okuma sorgularının ve kısmi güncellemelerin
+     *                            çalışacağı DataSource.
+     * @param fetchSize           Sürücünün bir seferde getireceği satır sayısı.
+     */
+    public PersonServiceJdbc(PersonRepository repository, PersonTombstoneRepository tombstones,
+            ApplicationEventPublisher eventPublisher, ObjectProvider<PersonWriteBehind> writeBehind,
+            NationalNumberGuard nationalNumberGuard, ChangeSequence changeSequence,
+            DataSource dataSource, @Value("${person.jdbc.fetch-size:100}") int fetchSize) {
+        super(repository, tombstones, eventPublisher, writeBehind, nationalNumberGuard, changeSequence, dataSource);
+        this.queries = new PersonJdbcQueries(dataSource, fetchSize);
+        this.readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.readOnly.setReadOnly(true);
+    }
+
+    // Üst sınıftaki @Transactional(readOnly = true) bir JPA transaction'ı (ve
+    // EntityManager) açardı; SUPPORTS ile bu atlanır, çağıranın transaction'ı
+    // varsa ona katılınır.
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<Person> get(Long id) {
+        return readOnly.execute(status -> queries.findById(id).map(PersonRow::toPerson));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Page<Person> list(Pageable pageable) {
+        return readOnly.execute(status -> PageableExecutionUtils.getPage(
+                toPersons(queries.findPage(pageable)), pageable, queries::count));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public int count() {
+        return readOnly.execute(status -> (int) queries.count());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Page<Person> searchByName(String name, Pageable pageable) {
+        return readOnly.execute(status -> PageableExecutionUtils.getPage(
+                toPersons(queries.searchPage(name, pageable)), pageable, () -> queries.countByFirstName(name)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public int countByName(String name) {
+        return readOnly.execute(status -> (int) queries.countByFirstName(name));
+    }
+
+    private static List<Person> toPersons(List<PersonRow> rows) {
+        return rows.stream().map(PersonRow::toPerson).toList();
+    }
+}
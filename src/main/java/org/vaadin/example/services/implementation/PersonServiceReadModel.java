@@ -0,0 +1,309 @@
+package org.vaadin.example.services.implementation;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.vaadin.example.domain.dto.PersonChange;
+import org.vaadin.example.domain.dto.PersonChanges;
+import org.vaadin.example.domain.dto.PersonPatch;
+import org.vaadin.example.domain.event.PersonChangeEvent;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.IPersonService;
+import org.vaadin.example.services.memory.PersonColumnStore;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bu class, sql (veya jdbc) profile'ında okumaları bellekten yapan bir okuma
+ * modelidir (CQRS). sql.read-model.enabled=true ile etkinleşir ve @Primary
+ * olduğu için IPersonService olarak bu bean kullanılır.
+ *
+ * Yazma işlemleri ve changesSince değişmeden PersonServiceSQL'e gider. get,
+ * list, searchByName ve sayımlar PersonServiceDummy'nin kullandığı
+ * PersonColumnStore'dan okunur; veritabanına sorgu gitmez.
+ *
+ * Depo uygulama hazır olduğunda changesSince ile baştan sona okunarak kurulur
+ * ve iki yoldan güncel tutulur:
+ * <ul>
+ * <li>PersonChangeEvent'ler commit sonrasında, yazan thread'de uygulanır;
+ * yazma döndüğünde okuma modeli de güncellenmiştir.</li>
+ * <li>Periyodik olarak watermark'tan (okunan son değişiklik numarası) sonraki
+ * değişiklikler veritabanından çekilir. Olay yayınlamayan yazmalar (numara
+ * ataması, başka bir uygulama örneği) böyle yakalanır. Toplam sayı iki tur
+ * üst üste tutmazsa depo baştan kurulur.</li>
+ * </ul>
+ * Bir kayıt, depodakinden daha eski bir değişiklik numarasıyla gelirse
+ * yazılmaz; silinen bir kaydın silme öncesi hali de geri eklenmez. Depo
+ * kurulana kadar okumalar veritabanına gider.
+ *
+ * Değişiklikler depoya numara sırasıyla gelmeyebileceği için deponun kendi
+ * changesSince'i kullanılmaz.
+ */
+@Service
+@Primary
+@Profile({ "sql", "jdbc" }) // Bu service yalnızca "sql" veya "jdbc" profile aktif olduğunda çalışır.
+@ConditionalOnProperty(name = "sql.read-model.enabled", havingValue = "true")
+public class PersonServiceReadModel implements IPersonService {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonServiceReadModel.class);
+
+    private static final int LOAD_LIMIT = 1_000;
+
+    private final PersonServiceSQL database;
+    private final Duration reconcileInterval;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "person-read-model");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PersonColumnStore store = new PersonColumnStore(0, false);
+    private volatile boolean loaded;
+    private volatile long watermark;
+    private int countMismatches;
+
+    /**
+     * PersonServiceReadModel constructor.
+     *
+     * @param database          Yazmaların ve depo kurulana kadar okumaların
+     *                          gittiği service.
+     * @param reconcileInterval Veritabanından değişiklik çekme turları
+     *                          arasındaki süre.
+     */
+    public PersonServiceReadModel(PersonServiceSQL database,
+            @Value("${sql.read-model.reconcile-interval:5s}") Duration reconcileInterval) {
+        this.database = database;
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    /**
+     * Depoyu kurar ve periyodik eşitlemeyi başlatır. Ad index'i gibi
+     * başlangıçta servisten okuyan bileşenler depodan okusun diye diğer
+     * dinleyicilerden önce çalışır.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        long start = System.nanoTime();
+        rebuild();
+        loaded = true;
+        reconciler.scheduleWithFixedDelay(this::reconcile, reconcileInterval.toMillis(),
+                reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Okuma modeli hazır: {} kayıt, watermark {} ({} ms)", count(), watermark,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        reconciler.shutdown();
+        reconciler.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Olay bir transaction içinde yayınlandıysa commit sonrasında işlenir.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == PersonChangeEvent.Type.DELETE) {
+                // Silme numarası olayda yoktur; silinen halin numarası, o halin
+                // sonradan eşitlemeden gelmesini engellemeye yeter.
+                store.delete(event.getPersonId(), event.getPrevious().getChangeSeq());
+            } else {
+                upsert(event.getPerson());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Okunan son değişiklik numarası; bu numaraya kadar veritabanındaki tüm
+     * değişiklikler depoya uygulanmıştır.
+     */
+    public long watermark() {
+        return watermark;
+    }
+
+    @Override
+    public Optional<Person> get(Long id) {
+        return read(store -> store.get(id), () -> database.get(id));
+    }
+
+    @Override
+    public Page<Person> list(Pageable pageable) {
+        return read(store -> store.list(pageable), () -> database.list(pageable));
+    }
+
+    @Override
+    public Page<Person> searchByName(String name, Pageable pageable) {
+        return read(store -> store.searchByFirstName(name, pageable), () -> database.searchByName(name, pageable));
+    }
+
+    @Override
+    public int countByName(String name) {
+        return read(store -> store.countByFirstName(name), () -> database.countByName(name));
+    }
+
+    @Override
+    public int count() {
+        return read(PersonColumnStore::size, database::count);
+    }
+
+    @Override
+    public Person save(Person entity) {
+        return database.save(entity);
+    }
+
+    @Override
+    public Person update(Long id, Person entity) {
+        return database.update(id, entity);
+    }
+
+    @Override
+    public Person patch(Long id, PersonPatch patch) {
+        return database.patch(id, patch);
+    }
+
+    @Override
+    public void delete(Long id) {
+        database.delete(id);
+    }
+
+    @Override
+    public PersonChanges changesSince(long since, int limit) {
+        return database.changesSince(since, limit);
+    }
+
+    private <T> T read(Function<PersonColumnStore, T> memory, Supplier<T> fallback) {
+        if (!loaded) {
+            return fallback.get();
+        }
+        lock.readLock().lock();
+        try {
+            return memory.apply(store);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tüm kayıtları okuyup yeni bir depo kurar ve eskisinin yerine koyar.
+     * Okuma sırasında gelen olaylar eski depoya uygulandığından ardından
+     * watermark'tan sonrası bir kez daha çekilir.
+     */
+    private synchronized void rebuild() {
+        Map<Long, Person> persons = new LinkedHashMap<>();
+        long since = 0;
+        PersonChanges changes;
+        do {
+            changes = database.changesSince(since, LOAD_LIMIT);
+            for (PersonChange change : changes.changes()) {
+                if (change.type() == PersonChange.Type.UPSERT) {
+                    persons.put(change.id(), change.person());
+                } else {
+                    persons.remove(change.id());
+                }
+            }
+            since = changes.watermark();
+        } while (changes.hasMore());
+
+        // Sıralı index'ler her ekleme yerine bir kez kurulur.
+        PersonColumnStore rebuilt = new PersonColumnStore(persons.size(), false);
+        rebuilt.insertAll(persons.values());
+        lock.writeLock().lock();
+        try {
+            store = rebuilt;
+            watermark = since;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        catchUp();
+    }
+
+    /**
+     * Watermark'tan sonraki değişiklikleri uygular, sonra toplam sayıyı
+     * veritabanıyla karşılaştırır. Araya giren yazmalar tek bir turda farka
+     * yol açabileceği için depo ancak fark iki tur sürerse baştan kurulur.
+     */
+    private synchronized void reconcile() {
+        try {
+            catchUp();
+            int expected = database.count();
+            int actual = count();
+            countMismatches = expected == actual ? 0 : countMismatches + 1;
+            if (countMismatches >= 2) {
+                log.warn("Okuma modeli veritabanından ayrıldı ({} / {} kayıt); yeniden kuruluyor", actual,
+                        expected);
+                countMismatches = 0;
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            // Bir sonraki tur aynı watermark'tan devam eder.
+            log.warn("Okuma modeli eşitlenemedi", e);
+        }
+    }
+
+    private void catchUp() {
+        PersonChanges changes;
+        do {
+            changes = database.changesSince(watermark, LOAD_LIMIT);
+            lock.writeLock().lock();
+            try {
+                for (PersonChange change : changes.changes()) {
+                    if (change.type() == PersonChange.Type.UPSERT) {
+                        upsert(change.person());
+                    } else {
+                        store.delete(change.id(), change.changeSeq());
+                    }
+                }
+                watermark = changes.watermark();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (changes.hasMore());
+    }
+
+    /**
+     * Kaydı, depodakinden yeniyse yazar. Yazma kilidi altında çağrılmalıdır.
+     */
+    private void upsert(Person person) {
+        long changeSeq = person.getChangeSeq() != null ? person.getChangeSeq() : 0;
+        Optional<Person> current = store.get(person.getId());
+        if (current.isPresent()) {
+            if (current.get().getChangeSeq() < changeSeq) {
+                store.update(person);
+            }
+            return;
+        }
+        Long deletedAt = store.deletedAt(person.getId());
+        if (deletedAt == null || deletedAt < changeSeq) {
+            store.insert(person);
+        }
+    }
+}
@@ -1,20 +1,60 @@
 package org.vaadin.example.services.implementation;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.vaadin.example.domain.dto.PersonChange;
+import org.vaadin.example.domain.dto.PersonChanges;
+import org.vaadin.example.domain.dto.PersonPatch;
+import org.vaadin.example.domain.event.PersonChangeEvent;
 import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.domain.model.PersonTombstone;
 import org.vaadin.example.domain.repository.PersonRepository;
+import org.vaadin.example.domain.repository.PersonTombstoneRepository;
+import org.vaadin.example.services.DuplicateNationalNumberException;
 import org.vaadin.example.services.IPersonService;
+import org.vaadin.example.services.PersonSorting;
+import org.vaadin.example.services.batch.PersonWriteBehind;
+import org.vaadin.example.services.jdbc.PersonPatchStatement;
+import org.vaadin.example.services.jdbc.PersonRow;
+import org.vaadin.example.services.sync.ChangeSequence;
+import org.vaadin.example.services.unique.NationalNumberGuard;
 
 /**
  * Bu class, Person object ile ilgili işlemleri yönetir.
  * Verileri database üzerinden getirir, ekler, siler ve arama yapar.
  * Database işlemleri için PersonRepository kullanır.
+ * Her yazma işleminden sonra bir PersonChangeEvent yayınlanır.
+ * PersonWriteBehind etkinse yeni kayıtlar toplu olarak eklenir.
+ * Okuma metodları salt okunur transaction'larda çalışır; replica
+ * yapılandırılmışsa bu sorgular replica'ya yönlendirilir.
+ * Kimlik numarası tekrarları unique constraint ile engellenir; numara
+ * NationalNumberGuard'a göre kesinlikle yeniyse ön kontrol sorgusu atlanır.
+ * Eklenen ve güncellenen kayıtlar PersonChangeSeqListener'dan bir değişiklik
+ * numarası alır; silinen kayıtlar için person_tombstone'a iz yazılır.
+ * patch, entity yüklemeden yalnızca değişen sütunları yazan tek bir UPDATE
+ * çalıştırır (PersonPatchStatement).
  */
 
 @Service
@@ -23,15 +63,64 @@ import org.vaadin.example.services.IPersonService;
 // Eğer "db.enabled" false ise veya tanımlanmamışsa bu service etkin olur.
 public class PersonServiceSQL implements IPersonService {
 
+    private static final int CHANGE_SEQ_BACKFILL_CHUNK = 1000;
+
     private final PersonRepository repository;
+    private final PersonTombstoneRepository tombstones;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PersonWriteBehind writeBehind;
+    private final NationalNumberGuard nationalNumberGuard;
+    private final ChangeSequence changeSequence;
+    private final PersonPatchStatement patchStatement;
 
     /**
      * PersonServiceSQL constructor.
      * 
-     * @param repository Person object işlemlerini yöneten repository.
+     * @param repository          Person object işlemlerini yöneten repository.
+     * @param tombstones          Silinen kayıtların izleri.
+     * @param eventPublisher      Değişiklik olaylarını yayınlayan publisher.
+     * @param writeBehind         Toplu ekleme yolu; kapalıysa bean tanımlı değildir.
+     * @param nationalNumberGuard Kayıtlı kimlik numaralarının filtresi.
+     * @param changeSequence      Değişiklik numaralarının kaynağı.
+     * @param dataSource          Kısmi güncellemelerin çalışacağı DataSource.
      */
-    public PersonServiceSQL(PersonRepository repository) {
+    public PersonServiceSQL(PersonRepository repository, PersonTombstoneRepository tombstones,
+            ApplicationEventPublisher eventPublisher, ObjectProvider<PersonWriteBehind> writeBehind,
+            NationalNumberGuard nationalNumberGuard, ChangeSequence changeSequence, DataSource dataSource) {
         this.repository = repository;
+        this.tombstones = tombstones;
+        this.eventPublisher = eventPublisher;
+        this.writeBehind = writeBehind.getIfAvailable();
+        this.nationalNumberGuard = nationalNumberGuard;
+        this.changeSequence = changeSequence;
+        this.patchStatement = new PersonPatchStatement(dataSource);
+    }
+
+    /**
+     * Uygulama hazır olduğunda kayıtlı kimlik numaralarını entity yüklemeden
+     * okuyarak filtreyi kurar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadNationalNumbers() {
+        try (Stream<String> nationalNumbers = repository.streamNationalNumbers()) {
+            nationalNumberGuard.load(repository.count(), nationalNumbers.iterator());
+        }
+    }
+
+    /**
+     * change_seq sütunu eklenmeden önce yazılmış kayıtlara numara atar; böylece
+     * since=0 ile başlayan bir eşitleme bu kayıtları da alır. Numarası olan
+     * tabloda tek bir index sorgusundan ibarettir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void assignMissingChangeSeqs() {
+        List<Long> ids;
+        do {
+            ids = repository.findIdsWithoutChangeSeq(Limit.of(CHANGE_SEQ_BACKFILL_CHUNK));
+            ids.forEach(id -> repository.assignChangeSeq(id, changeSequence.next()));
+        } while (ids.size() == CHANGE_SEQ_BACKFILL_CHUNK);
     }
 
     /**
@@ -40,6 +129,7 @@ public class PersonServiceSQL implements IPersonService {
      * @param id Aranacak object'in id'si.
      * @return Person object içeren Optional.
      */
+    @Transactional(readOnly = true)
     public Optional<Person> get(Long id) {
         return repository.findById(id);
     }
@@ -47,12 +137,29 @@ public class PersonServiceSQL implements IPersonService {
     /**
      * Yeni bir Person object ekler veya mevcut olanı günceller.
      * Eğer object mevcutsa, güncellenir; yoksa yeni kayıt oluşturulur.
+     * Write-behind etkinse ve çağıran bir transaction içinde değilse, yeni
+     * kayıt bir sonraki partiye eklenir ve parti commit edilene kadar beklenir.
      * 
      * @param entity Kaydedilecek veya güncellenecek Person object.
      * @return Kaydedilen veya güncellenmiş object.
+     * @throws DuplicateNationalNumberException Kimlik numarası başka bir
+     *                                          kayıtta varsa.
      */
     public Person save(Person entity) {
-        return repository.save(entity);
+        boolean isNew = entity.getId() == null;
+        checkNationalNumber(entity.getNationalNumber(), entity.getId());
+        try {
+            if (isNew && writeBehind != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+                return writeBehind.save(entity); // Olay, parti transaction'ı içinde yayınlanır.
+            }
+            Person saved = repository.save(entity);
+            eventPublisher.publishEvent(isNew
+                    ? PersonChangeEvent.inserted(saved)
+                    : PersonChangeEvent.updated(null, saved));
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e, entity.getNationalNumber());
+        }
     }
 
     /**
@@ -61,14 +168,83 @@ public class PersonServiceSQL implements IPersonService {
      * @param id     Güncellenecek object'in id'si.
      * @param entity Güncellenmiş object verisi.
      * @return Güncellenmiş object.
+     * @throws DuplicateNationalNumberException Yeni kimlik numarası başka bir
+     *                                          kayıtta varsa.
      */
+    @Transactional
     public Person update(Long id, Person entity) {
-        if (repository.existsById(id)) {
-            entity.setId(id);
-            return repository.save(entity);
-        } else {
-            throw new IllegalArgumentException("Person bulunamadı!");
+        // existsById yerine findById: aynı SELECT, ama önceki hali olaya eklenebilir.
+        // Aynı transaction içinde save() yüklenen kayıt üzerine merge eder.
+        Person previous = repository.findById(id)
+                .map(Person::copy)
+                .orElseThrow(() -> new IllegalArgumentException("Person bulunamadı!"));
+        if (!Objects.equals(previous.getNationalNumber(), entity.getNationalNumber())) {
+            checkNationalNumber(entity.getNationalNumber(), id);
+        }
+        entity.setId(id);
+        // İstemcinin gönderdiği numara yok sayılır; başka alan değişmediyse
+        // kayıt dirty sayılmaz ve yeni numara almaz.
+        entity.setChangeSeq(previous.getChangeSeq());
+        Person saved;
+        try {
+            // Constraint ihlali commit yerine burada yakalanabilsin diye flush edilir.
+            saved = repository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e, entity.getNationalNumber());
+        }
+        eventPublisher.publishEvent(PersonChangeEvent.updated(previous, saved));
+        return saved;
+    }
+
+    /**
+     * Patch'teki alanları, kaydı okumadan tek bir UPDATE ile yazar. Version
+     * kontrolü aynı ifadenin WHERE'inde yapılır; ifade kaydın önceki halini
+     * döndürdüğü için olay ek bir SELECT olmadan yayınlanır. Yalnızca ifade
+     * hiçbir satırı değiştirmezse, kaydın yok mu yoksa değişmiş mi olduğunu
+     * ayırmak için bir okuma yapılır.
+     *
+     * @param id    Güncellenecek object'in id'si.
+     * @param patch Değişen alanlar ve beklenen version.
+     * @return Güncellenmiş object.
+     */
+    @Override
+    @Transactional
+    public Person patch(Long id, PersonPatch patch) {
+        if (patch.isEmpty()) {
+            return current(id, patch);
+        }
+        if (patch.changes("nationalNumber")) {
+            checkNationalNumber(patch.changes().get("nationalNumber"), id);
+        }
+        long changeSeq = changeSequence.next();
+        Optional<PersonRow> previous;
+        try {
+            previous = patchStatement.apply(id, patch, changeSeq);
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e, patch.changes().get("nationalNumber"));
+        }
+        if (previous.isEmpty()) {
+            current(id, patch); // Kayıt yoksa veya version tutmuyorsa fırlatır.
+            throw new OptimisticLockingFailureException("Person " + id + " başka bir işlemde değişti");
+        }
+        Person before = previous.get().toPerson();
+        Person after = patch.applyTo(before.copy());
+        after.setVersion(before.getVersion() + 1);
+        after.setChangeSeq(changeSeq);
+        eventPublisher.publishEvent(PersonChangeEvent.updated(before, after));
+        return after;
+    }
+
+    /**
+     * Kaydı okur ve patch'teki version ile karşılaştırır.
+     */
+    private Person current(Long id, PersonPatch patch) {
+        Person current = repository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Person bulunamadı!"));
+        if (patch.version() != null && patch.version() != current.getVersion()) {
+            throw new OptimisticLockingFailureException("Person " + id + " başka bir işlemde değişti");
         }
+        return current;
     }
 
     /**
@@ -76,18 +252,27 @@ public class PersonServiceSQL implements IPersonService {
      * 
      * @param id Silinecek object'in id'si.
      */
+    @Transactional
     public void delete(Long id) {
-        repository.deleteById(id);
+        // deleteById da önce kaydı okur; burada okunan kayıt olaya eklenir.
+        repository.findById(id).ifPresent(existing -> {
+            repository.delete(existing);
+            tombstones.save(new PersonTombstone(id, changeSequence.next(), Instant.now()));
+            eventPublisher.publishEvent(PersonChangeEvent.deleted(existing));
+        });
     }
 
     /**
      * Sayfalama kullanarak Person object listesini getirir.
+     * Sıralama yalnızca index'li alanlara izin verilir ve id ile kararlı hale
+     * getirilir.
      * 
-     * @param pageable Sayfalama bilgisi.
+     * @param pageable Sayfalama ve sıralama bilgisi.
      * @return Sayfalı object listesi.
      */
+    @Transactional(readOnly = true)
     public Page<Person> list(Pageable pageable) {
-        return repository.findAll(pageable);
+        return repository.findAll(PersonSorting.sanitize(pageable));
     }
 
     /**
@@ -95,6 +280,7 @@ public class PersonServiceSQL implements IPersonService {
      * 
      * @return Toplam object sayısı.
      */
+    @Transactional(readOnly = true)
     public int count() {
         return (int) repository.count();
     }
@@ -102,12 +288,14 @@ public class PersonServiceSQL implements IPersonService {
     /**
      * Belirtilen isme göre Person object arar.
      * 
-     * @param name Aranacak object'in adı.
+     * @param name     Aranacak object'in adı.
+     * @param pageable Sayfalama ve sıralama bilgisi.
      * @return İsme göre filtrelenmiş object listesi.
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<Person> searchByName(String name, Pageable pageable) {
-        return (Page<Person>) repository.findByFirstNameContainingIgnoreCase(name, pageable);
+        return (Page<Person>) repository.findByFirstNameContainingIgnoreCase(name, PersonSorting.sanitize(pageable));
     }
 
     /**
@@ -117,7 +305,64 @@ public class PersonServiceSQL implements IPersonService {
      * @return İsme göre bulunan object sayısı.
      */
     @Override
+    @Transactional(readOnly = true)
     public int countByName(String name) {
         return (int) repository.countByFirstNameContainingIgnoreCase(name);
     }
-}
\ No newline at end of file
+
+    /**
+     * Değişiklik numarası since'ten büyük olan kayıtları ve silme izlerini
+     * changeSeq index'leri üzerinden okur.
+     * 
+     * Replica geride kalabileceği için sorgular primary'de çalışır. Üst sınır
+     * sorgulardan önce alınır; altında açık transaction kalmadığı için bu
+     * aralığa sonradan kayıt eklenmez.
+     * 
+     * @param since Bu numaradan sonraki değişiklikler.
+     * @param limit En fazla değişiklik sayısı.
+     * @return Değişiklikler ve bir sonraki istekte kullanılacak numara.
+     */
+    @Override
+    @Transactional
+    public PersonChanges changesSince(long since, int limit) {
+        long watermark = changeSequence.safeWatermark();
+        List<PersonChange> candidates = new ArrayList<>();
+        repository.findChanged(since, watermark, Limit.of(limit + 1))
+                .forEach(person -> candidates.add(PersonChange.upsert(person)));
+        tombstones.findChanged(since, watermark, Limit.of(limit + 1))
+                .forEach(tombstone -> candidates.add(
+                        PersonChange.delete(tombstone.getPersonId(), tombstone.getChangeSeq())));
+        return PersonChanges.of(candidates, limit, watermark);
+    }
+
+    /**
+     * Kimlik numarası filtrede "olabilir" görünüyorsa veritabanına sorar;
+     * kesinlikle yeni numaralar için sorgu yapılmaz.
+     * 
+     * @param nationalNumber Kaydedilecek kimlik numarası.
+     * @param id             Güncellenen kaydın id'si; yeni kayıtta null.
+     */
+    private void checkNationalNumber(String nationalNumber, Long id) {
+        if (!nationalNumberGuard.mightExist(nationalNumber)) {
+            return;
+        }
+        boolean taken = id == null
+                ? repository.existsByNationalNumber(nationalNumber)
+                : repository.existsByNationalNumberAndIdNot(nationalNumber, id);
+        if (taken) {
+            throw new DuplicateNationalNumberException(nationalNumber);
+        }
+    }
+
+    /**
+     * Ön kontrol ile commit arasındaki eşzamanlı eklemeler unique constraint'e
+     * takılır; bu ihlal DuplicateNationalNumberException'a çevrilir.
+     */
+    private static RuntimeException translate(DataIntegrityViolationException e, String nationalNumber) {
+        String message = e.getMostSpecificCause().getMessage();
+        if (message != null && message.toLowerCase(Locale.ROOT).contains("uk_person_national_number")) {
+            return new DuplicateNationalNumberException(nationalNumber, e);
+        }
+        return e;
+    }
+}
@@ -0,0 +1,483 @@
+package org.vaadin.example.services.implementation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.vaadin.example.domain.dto.PersonChange;
+import org.vaadin.example.domain.dto.PersonChanges;
+import org.vaadin.example.domain.dto.PersonPatch;
+import org.vaadin.example.domain.event.PersonChangeEvent;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.DuplicateNationalNumberException;
+import org.vaadin.example.services.IPersonService;
+import org.vaadin.example.services.PersonSorting;
+import org.vaadin.example.services.jdbc.PersonRow;
+import org.vaadin.example.services.shard.PersonShard;
+import org.vaadin.example.services.sync.ChangeSequence;
+import org.vaadin.example.services.unique.NationalNumberGuard;
+
+import com.github.javafaker.Faker;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bu class, kişileri id hash'ine göre birden fazla veritabanına (shard)
+ * dağıtan IPersonService implementasyonudur.
+ *
+ * get, update ve delete yalnızca kaydın shard'ına gider. list, searchByName
+ * ve sayımlar tüm shard'larda paralel çalışır: her shard istenen sayfanın
+ * sonuna kadar olan kayıtları kendi index'inden sıralı döndürür, sonuçlar
+ * k-yollu birleştirme ile tek bir sayfaya indirilir. Bu yüzden derin
+ * sayfalar her shard'dan offset + size satır okur. Birleştirme
+ * PersonSorting.comparator'ı, yani String.compareTo sırasını kullanır;
+ * shard veritabanları metinleri ikili karşılaştırmalıdır (H2'nin varsayılanı,
+ * PostgreSQL'de LC_COLLATE 'C' ile oluşturulan veritabanı).
+ *
+ * Kimlik numarası tekrarları shard'lar arasında tek bir constraint ile
+ * engellenemez; aynı numaraya yapılan yazmalar bu uygulama içinde kilitlenir
+ * ve numara NationalNumberGuard'a göre "olabilir" ise tüm shard'lara
+ * sorulur. Shard sayısı değişirse kayıtların yeniden dağıtılması gerekir.
+ */
+@Service
+@Profile("sharded") // Bu service yalnızca "sharded" profile aktif olduğunda çalışır.
+@ConditionalOnProperty(name = "db.enabled", havingValue = "true", matchIfMissing = true)
+public class PersonServiceSharded implements IPersonService {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonServiceSharded.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final List<PersonShard> shards;
+    private final ExecutorService executor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NationalNumberGuard nationalNumberGuard;
+    private final ChangeSequence changeSequence;
+    private final ReentrantLock[] nationalNumberLocks = new ReentrantLock[LOCK_STRIPES];
+
+    /**
+     * @param eventPublisher      Değişiklik olaylarını yayınlayan publisher.
+     * @param nationalNumberGuard Kayıtlı kimlik numaralarının filtresi.
+     * @param urls                Shard veritabanlarının JDBC adresleri.
+     * @param username            Shard'ların kullanıcı adı.
+     * @param password            Shard'ların parolası.
+     * @param poolSize            Shard başına bağlantı sayısı.
+     * @param fetchSize           Sürücünün bir seferde getireceği satır sayısı.
+     * @param initialSize         Shard'lar boşsa eklenecek rastgele kişi sayısı.
+     */
+    public PersonServiceSharded(ApplicationEventPublisher eventPublisher, NationalNumberGuard nationalNumberGuard,
+            @Value("${person.shards.urls}") List<String> urls,
+            @Value("${person.shards.username:}") String username,
+            @Value("${person.shards.password:}") String password,
+            @Value("${person.shards.pool-size:5}") int poolSize,
+            @Value("${person.jdbc.fetch-size:100}") int fetchSize,
+            @Value("${person.shards.initial-size:100}") int initialSize) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("person.shards.urls en az bir veritabanı içermelidir");
+        }
+        this.eventPublisher = eventPublisher;
+        this.nationalNumberGuard = nationalNumberGuard;
+        this.shards = IntStream.range(0, urls.size())
+                .mapToObj(i -> new PersonShard("shard-" + i, urls.get(i), username, password, poolSize, fetchSize))
+                .toList();
+        // Her görev en fazla bir bağlantı tutar; havuzlar kadar thread yeterlidir.
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(shards.size() * poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "person-shard-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            nationalNumberLocks[i] = new ReentrantLock();
+        }
+        this.changeSequence = new ChangeSequence(() -> scatter(shard -> shard.queries().maxChangeSeq()).stream()
+                .mapToLong(Long::longValue).max().orElse(0));
+
+        if (count() == 0 && initialSize > 0) {
+            insertSampleData(initialSize);
+        }
+        log.info("{} shard hazır, kayıt sayıları: {}", shards.size(),
+                scatter(shard -> shard.queries().count()));
+    }
+
+    /**
+     * Uygulama hazır olduğunda tüm shard'lardaki kimlik numaralarını okuyarak
+     * filtreyi kurar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadNationalNumbers() {
+        // flatMap her shard'ın akışını okunduktan sonra kapatır.
+        try (Stream<String> nationalNumbers = shards.stream()
+                .flatMap(shard -> shard.queries().streamNationalNumbers())) {
+            nationalNumberGuard.load(count(), nationalNumbers.iterator());
+        }
+    }
+
+    @Override
+    public Optional<Person> get(Long id) {
+        return shardOf(id).find(id);
+    }
+
+    /**
+     * Yeni bir kişiyi id'sinin shard'ına ekler; id'si olan kayıtlar
+     * güncellenir.
+     *
+     * @throws DuplicateNationalNumberException Kimlik numarası herhangi bir
+     *                                          shard'da varsa.
+     */
+    @Override
+    public Person save(Person entity) {
+        if (entity.getId() != null) {
+            return update(entity.getId(), entity);
+        }
+        return withNationalNumberLock(entity.getNationalNumber(), () -> {
+            checkNationalNumber(entity.getNationalNumber(), null);
+            entity.setId(newId());
+            entity.setVersion(0);
+            PersonShard shard = shardOf(entity.getId());
+            return shard.inTransaction(status -> {
+                entity.setChangeSeq(changeSequence.next());
+                insert(shard, entity);
+                eventPublisher.publishEvent(PersonChangeEvent.inserted(entity));
+                return entity;
+            });
+        });
+    }
+
+    /**
+     * Kaydı kendi shard'ında, version'ı değişmediyse günceller. Hiçbir alanı
+     * değişmeyen kayıt yeni version ve değişiklik numarası almaz.
+     *
+     * @throws IllegalArgumentException          Kayıt yoksa.
+     * @throws OptimisticLockingFailureException Kayıt bu arada değiştiyse.
+     * @throws DuplicateNationalNumberException  Yeni kimlik numarası başka bir
+     *                                           kayıtta varsa.
+     */
+    @Override
+    public Person update(Long id, Person entity) {
+        PersonShard shard = shardOf(id);
+        return withNationalNumberLock(entity.getNationalNumber(), () -> {
+            Person current = shard.find(id).orElseThrow(() -> new IllegalArgumentException("Person bulunamadı!"));
+            if (!Objects.equals(current.getNationalNumber(), entity.getNationalNumber())) {
+                checkNationalNumber(entity.getNationalNumber(), id);
+            }
+            return shard.inTransaction(status -> {
+                Person previous = shard.find(id)
+                        .orElseThrow(() -> new IllegalArgumentException("Person bulunamadı!"));
+                if (previous.getVersion() != entity.getVersion()) {
+                    throw new OptimisticLockingFailureException("Person " + id + " başka bir işlemde değişti");
+                }
+                if (sameContent(previous, entity)) {
+                    return previous;
+                }
+                Person updated = entity.copy();
+                updated.setId(id);
+                updated.setVersion(previous.getVersion() + 1);
+                updated.setChangeSeq(changeSequence.next());
+                int rows;
+                try {
+                    rows = shard.update(updated, previous.getVersion());
+                } catch (DataIntegrityViolationException e) {
+                    throw translate(e, entity.getNationalNumber());
+                }
+                if (rows == 0) {
+                    throw new OptimisticLockingFailureException("Person " + id + " başka bir işlemde değişti");
+                }
+                eventPublisher.publishEvent(PersonChangeEvent.updated(previous, updated));
+                return updated;
+            });
+        });
+    }
+
+    /**
+     * Patch okunan kayda uygulanır ve update'e verilir; update kaydın okunan
+     * version'da kaldığını shard'daki UPDATE'in WHERE'inde kontrol ettiğinden
+     * araya giren bir yazma, patch version içermese de kaybolmaz.
+     */
+    @Override
+    public Person patch(Long id, PersonPatch patch) {
+        Person current = shardOf(id).find(id).orElseThrow(() -> new IllegalArgumentException("Person bulunamadı!"));
+        if (patch.version() != null && patch.version() != current.getVersion()) {
+            throw new OptimisticLockingFailureException("Person " + id + " başka bir işlemde değişti");
+        }
+        return patch.isEmpty() ? current : update(id, patch.applyTo(current.copy()));
+    }
+
+    @Override
+    public void delete(Long id) {
+        PersonShard shard = shardOf(id);
+        shard.inTransaction(status -> {
+            shard.find(id).ifPresent(existing -> {
+                shard.delete(id, changeSequence.next());
+                eventPublisher.publishEvent(PersonChangeEvent.deleted(existing));
+            });
+            return null;
+        });
+    }
+
+    @Override
+    public Page<Person> list(Pageable pageable) {
+        return page(null, pageable);
+    }
+
+    @Override
+    public Page<Person> searchByName(String name, Pageable pageable) {
+        return page(name, pageable);
+    }
+
+    @Override
+    public int count() {
+        return (int) scatter(shard -> shard.queries().count()).stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public int countByName(String name) {
+        return (int) scatter(shard -> shard.queries().countByFirstName(name)).stream()
+                .mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Her shard'dan değişiklik numarası since'ten büyük en fazla limit + 1
+     * kayıt ve silme okunur; numara sırasıyla ilk limit kadarı döner.
+     */
+    @Override
+    public PersonChanges changesSince(long since, int limit) {
+        long watermark = changeSequence.safeWatermark();
+        List<PersonChange> candidates = new ArrayList<>();
+        scatter(shard -> {
+            List<PersonChange> changes = new ArrayList<>();
+            shard.queries().findChanged(since, watermark, limit + 1)
+                    .forEach(row -> changes.add(PersonChange.upsert(row.toPerson())));
+            changes.addAll(shard.queries().findDeleted(since, watermark, limit + 1));
+            return changes;
+        }).forEach(candidates::addAll);
+        return PersonChanges.of(candidates, limit, watermark);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        shards.forEach(PersonShard::close);
+    }
+
+    /**
+     * Her shard'dan sayfanın sonuna kadar olan kayıtları ve eşleşen kayıt
+     * sayısını paralel okur, sıralı listeleri birleştirir.
+     */
+    private Page<Person> page(String firstName, Pageable pageable) {
+        Sort sort = PersonSorting.sanitize(pageable.getSort());
+        // Sıralama yoksa shard'lar id'ye göre döndürür.
+        Comparator<Person> order = PersonSorting.comparator(sort.isSorted() ? sort : Sort.by("id"));
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        Pageable shardPageable = pageable.isPaged()
+                ? PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE, offset + pageable.getPageSize()), sort)
+                : Pageable.unpaged(sort);
+
+        List<ShardPage> pages = scatter(shard -> {
+            List<PersonRow> rows = firstName == null
+                    ? shard.queries().findPage(shardPageable)
+                    : shard.queries().searchPage(firstName, shardPageable);
+            long total = firstName == null ? shard.queries().count() : shard.queries().countByFirstName(firstName);
+            return new ShardPage(rows.stream().map(PersonRow::toPerson).toList(), total);
+        });
+
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        List<Person> content = merge(pages, order, offset, limit);
+        long total = pages.stream().mapToLong(ShardPage::total).sum();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Shard'lardan gelen sıralı listelerin birleşiminden [offset, offset +
+     * limit) aralığını döndürür.
+     */
+    private static List<Person> merge(List<ShardPage> pages, Comparator<Person> order, long offset, int limit) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>((a, b) -> order.compare(a.current(), b.current()));
+        for (ShardPage page : pages) {
+            if (!page.rows().isEmpty()) {
+                heads.add(new Cursor(page.rows()));
+            }
+        }
+        List<Person> content = new ArrayList<>();
+        long position = 0;
+        while (!heads.isEmpty() && content.size() < limit) {
+            Cursor head = heads.poll();
+            if (position++ >= offset) {
+                content.add(head.current());
+            }
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Görevi tüm shard'larda paralel çalıştırır ve sonuçları shard sırasıyla
+     * döndürür.
+     */
+    private <T> List<T> scatter(Function<PersonShard, T> task) {
+        List<CompletableFuture<T>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> task.apply(shard), executor))
+                .toList();
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private PersonShard shardOf(long id) {
+        return shards.get(shardIndex(id));
+    }
+
+    private int shardIndex(long id) {
+        return Math.floorMod(mix(id), shards.size());
+    }
+
+    /**
+     * id'nin bitlerini karıştırır; ardışık id'ler de shard'lara eşit dağılır.
+     */
+    private static long mix(long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Aynı kimlik numarasına yapılan yazmaları sıraya sokar; kontrol ile
+     * commit arasında başka bir shard'a aynı numara yazılamaz.
+     */
+    private <T> T withNationalNumberLock(String nationalNumber, Supplier<T> action) {
+        if (nationalNumber == null) {
+            return action.get();
+        }
+        ReentrantLock lock = nationalNumberLocks[Math.floorMod(nationalNumber.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Kimlik numarası filtrede "olabilir" görünüyorsa tüm shard'lara sorar.
+     *
+     * @param nationalNumber Kaydedilecek kimlik numarası.
+     * @param id             Güncellenen kaydın id'si; yeni kayıtta null.
+     */
+    private void checkNationalNumber(String nationalNumber, Long id) {
+        if (!nationalNumberGuard.mightExist(nationalNumber)) {
+            return;
+        }
+        boolean taken = scatter(shard -> shard.queries().findIdByNationalNumber(nationalNumber)).stream()
+                .flatMap(Optional::stream)
+                .anyMatch(owner -> !owner.equals(id));
+        if (taken) {
+            throw new DuplicateNationalNumberException(nationalNumber);
+        }
+    }
+
+    private static void insert(PersonShard shard, Person person) {
+        try {
+            shard.insert(person);
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e, person.getNationalNumber());
+        }
+    }
+
+    private static RuntimeException translate(DataIntegrityViolationException e, String nationalNumber) {
+        String message = e.getMostSpecificCause().getMessage();
+        if (message != null && message.toLowerCase(Locale.ROOT).contains("uk_person_national_number")) {
+            return new DuplicateNationalNumberException(nationalNumber, e);
+        }
+        return e;
+    }
+
+    private static boolean sameContent(Person a, Person b) {
+        return Objects.equals(a.getFirstName(), b.getFirstName())
+                && Objects.equals(a.getLastName(), b.getLastName())
+                && Objects.equals(a.getNationalNumber(), b.getNationalNumber());
+    }
+
+    private void insertSampleData(int size) {
+        Faker faker = new Faker();
+        List<List<Person>> byShard = new ArrayList<>();
+        shards.forEach(shard -> byShard.add(new ArrayList<>()));
+        for (int i = 0; i < size; i++) {
+            Person person = new Person();
+            person.setId(newId());
+            person.setFirstName(faker.name().firstName());
+            person.setLastName(faker.name().lastName());
+            person.setNationalNumber(faker.number().digits(10));
+            person.setChangeSeq(changeSequence.next());
+            byShard.get(shardIndex(person.getId())).add(person);
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            shards.get(i).insertAll(byShard.get(i));
+        }
+    }
+
+    private static long newId() {
+        return Math.abs(UUID.randomUUID().getMostSignificantBits());
+    }
+
+    private record ShardPage(List<Person> rows, long total) {
+    }
+
+    private static final class Cursor {
+        private final List<Person> rows;
+        private int index;
+
+        Cursor(List<Person> rows) {
+            this.rows = rows;
+        }
+
+        Person current() {
+            return rows.get(index);
+        }
+
+        boolean advance() {
+            return ++index < rows.size();
+        }
+    }
+}
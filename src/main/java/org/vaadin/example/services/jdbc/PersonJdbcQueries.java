@@ -0,0 +1,213 @@
+package org.vaadin.example.services.jdbc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.vaadin.example.domain.dto.PersonChange;
+import org.vaadin.example.services.PersonSorting;
+
+/**
+ * PersonJdbcQueries, person tablosu üzerindeki okuma sorgularını Hibernate
+ * kullanmadan, doğrudan JDBC ile çalıştırır.
+ *
+ * Her sıralama için SQL metni bir kez oluşturulur ve saklanır; sayfa, limit ve
+ * arama değerleri parametre olarak bağlanır. Böylece aynı sorgu her seferinde
+ * aynı metinle gönderilir ve sürücünün prepared statement önbelleğinden
+ * (PostgreSQL'de sunucu tarafı hazırlanmış ifadeler) yararlanır.
+ *
+ * Spring bean'i değildir; her DataSource için ayrı bir örnek oluşturulur.
+ */
+public class PersonJdbcQueries {
+
+    /**
+     * PersonRow.MAPPER'ın beklediği sütun sırası.
+     */
+    static final String COLUMNS = "id, version, first_name, last_name, national_number, change_seq";
+
+    /**
+     * Sıralanabilir alanların sütun karşılıkları. PersonSorting ile aynı
+     * alanları içerir; id, sıralamayı kararlı hale getirmek için eklenir.
+     */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "nationalNumber", "national_number",
+            "id", "id");
+
+    private static final String NAME_FILTER = " WHERE UPPER(first_name) LIKE UPPER(?) ESCAPE '\\'";
+
+    private final JdbcClient jdbc;
+    private final boolean comparatorNullOrder;
+    private final Map<String, String> pageSql = new ConcurrentHashMap<>();
+
+    /**
+     * @param dataSource Sorguların çalışacağı DataSource.
+     * @param fetchSize  Sürücünün bir seferde getireceği satır sayısı.
+     */
+    public PersonJdbcQueries(DataSource dataSource, int fetchSize) {
+        this(dataSource, fetchSize, false);
+    }
+
+    /**
+     * @param dataSource          Sorguların çalışacağı DataSource.
+     * @param fetchSize           Sürücünün bir seferde getireceği satır sayısı.
+     * @param comparatorNullOrder true ise metin sütunlarındaki boş değerler,
+     *                            PersonSorting.comparator'daki gibi artan
+     *                            sırada başa, azalan sırada sona konur.
+     *                            Sayfaları bellekte birleştirilen shard'lar
+     *                            için gereklidir; veritabanının varsayılanı
+     *                            (PostgreSQL'de artan sırada sona) farklı
+     *                            olabilir.
+     */
+    public PersonJdbcQueries(DataSource dataSource, int fetchSize, boolean comparatorNullOrder) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        this.jdbc = JdbcClient.create(template);
+        this.comparatorNullOrder = comparatorNullOrder;
+    }
+
+    public Optional<PersonRow> findById(long id) {
+        return jdbc.sql("SELECT " + COLUMNS + " FROM person WHERE id = ?")
+                .param(id)
+                .query(PersonRow.MAPPER)
+                .optional();
+    }
+
+    /**
+     * Bir sayfayı getirir. Sıralama PersonSorting ile temizlenir; sıralama
+     * yoksa id'ye göre sıralanır.
+     */
+    public List<PersonRow> findPage(Pageable pageable) {
+        return page(null, pageable);
+    }
+
+    /**
+     * Adında verilen metni (büyük/küçük harf duyarsız) içeren kayıtlardan bir
+     * sayfa getirir.
+     */
+    public List<PersonRow> searchPage(String firstName, Pageable pageable) {
+        return page(firstName, pageable);
+    }
+
+    public long count() {
+        return jdbc.sql("SELECT COUNT(*) FROM person").query(Long.class).single();
+    }
+
+    public long countByFirstName(String firstName) {
+        return jdbc.sql("SELECT COUNT(*) FROM person" + NAME_FILTER)
+                .param(likePattern(firstName))
+                .query(Long.class)
+                .single();
+    }
+
+    /**
+     * Numarası (since, until] aralığındaki kayıtları numara sırasıyla
+     * döndürür; change_seq index'i üzerinden okunur.
+     */
+    public List<PersonRow> findChanged(long since, long until, int limit) {
+        return jdbc.sql("SELECT " + COLUMNS + " FROM person WHERE change_seq > ? AND change_seq <= ?"
+                + " ORDER BY change_seq LIMIT ?")
+                .param(since).param(until).param(limit)
+                .query(PersonRow.MAPPER)
+                .list();
+    }
+
+    /**
+     * Numarası (since, until] aralığındaki silmeleri numara sırasıyla
+     * döndürür.
+     */
+    public List<PersonChange> findDeleted(long since, long until, int limit) {
+        return jdbc.sql("SELECT person_id, change_seq FROM person_tombstone"
+                + " WHERE change_seq > ? AND change_seq <= ? ORDER BY change_seq LIMIT ?")
+                .param(since).param(until).param(limit)
+                .query((rs, rowNum) -> PersonChange.delete(rs.getLong(1), rs.getLong(2)))
+                .list();
+    }
+
+    /**
+     * Kayıtlar ve silmeler arasındaki en büyük değişiklik numarası; hiç yoksa 0.
+     */
+    public long maxChangeSeq() {
+        Long max = jdbc.sql("SELECT GREATEST(COALESCE((SELECT MAX(change_seq) FROM person), 0),"
+                + " COALESCE((SELECT MAX(change_seq) FROM person_tombstone), 0))")
+                .query(Long.class)
+                .single();
+        return max != null ? max : 0;
+    }
+
+    /**
+     * Verilen kimlik numarasına sahip bir kaydın id'si.
+     */
+    public Optional<Long> findIdByNationalNumber(String nationalNumber) {
+        return jdbc.sql("SELECT id FROM person WHERE national_number = ?")
+                .param(nationalNumber)
+                .query(Long.class)
+                .optional();
+    }
+
+    /**
+     * Tüm kimlik numaralarını akış olarak döndürür; akış kapatılana kadar
+     * bağlantı açık kalır.
+     */
+    public Stream<String> streamNationalNumbers() {
+        return jdbc.sql("SELECT national_number FROM person").query(String.class).stream();
+    }
+
+    private List<PersonRow> page(String firstName, Pageable pageable) {
+        boolean filtered = firstName != null;
+        Sort sort = PersonSorting.sanitize(pageable.getSort());
+        String sql = pageSql.computeIfAbsent(filtered + "|" + pageable.isPaged() + "|" + sort,
+                key -> buildPageSql(filtered, pageable.isPaged(), sort, comparatorNullOrder));
+        JdbcClient.StatementSpec statement = jdbc.sql(sql);
+        if (filtered) {
+            statement = statement.param(likePattern(firstName));
+        }
+        if (pageable.isPaged()) {
+            statement = statement.param(pageable.getPageSize()).param(pageable.getOffset());
+        }
+        return statement.query(PersonRow.MAPPER).list();
+    }
+
+    private static String buildPageSql(boolean filtered, boolean paged, Sort sort, boolean comparatorNullOrder) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM person");
+        if (filtered) {
+            sql.append(NAME_FILTER);
+        }
+        sql.append(" ORDER BY ");
+        if (sort.isUnsorted()) {
+            sql.append("id");
+        } else {
+            String separator = "";
+            for (Sort.Order order : sort) {
+                // Alan adları PersonSorting tarafından süzüldüğü için her zaman eşlemede bulunur.
+                sql.append(separator).append(SORT_COLUMNS.get(order.getProperty()))
+                        .append(order.isDescending() ? " DESC" : " ASC");
+                if (comparatorNullOrder && !"id".equals(order.getProperty())) {
+                    sql.append(order.isDescending() ? " NULLS LAST" : " NULLS FIRST");
+                }
+                separator = ", ";
+            }
+        }
+        if (paged) {
+            sql.append(" LIMIT ? OFFSET ?");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * LIKE özel karakterlerini kaçışlayarak "içerir" kalıbı oluşturur.
+     */
+    private static String likePattern(String value) {
+        String escaped = value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,130 @@
+package org.vaadin.example.services.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.vaadin.example.domain.dto.PersonPatch;
+
+/**
+ * PersonPatchStatement, bir PersonPatch'i tek bir UPDATE ifadesiyle uygular.
+ *
+ * Yalnızca patch'teki sütunlar yazılır; version bir artırılır ve yeni
+ * değişiklik numarası atanır. Beklenen version verilmişse koşul aynı ifadenin
+ * WHERE'ine eklenir. İfade satırın güncelleme öncesi halini döndürür; böylece
+ * değişiklik olayı için ayrı bir SELECT gerekmez:
+ *
+ * <ul>
+ * <li>PostgreSQL: satır alt sorguda FOR UPDATE ile kilitlenip okunur,
+ * {@code UPDATE ... FROM (...) previous RETURNING previous.*}.</li>
+ * <li>H2: {@code SELECT ... FROM OLD TABLE (UPDATE ...)}.</li>
+ * <li>Diğer veritabanları: SELECT ... FOR UPDATE ve ardından UPDATE.</li>
+ * </ul>
+ *
+ * Spring bean'i değildir; çağıranın transaction'ına katılır.
+ */
+public class PersonPatchStatement {
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "nationalNumber", "national_number");
+
+    enum Dialect {
+        POSTGRESQL, H2, OTHER
+    }
+
+    private final JdbcTemplate jdbc;
+    private volatile Dialect dialect;
+
+    public PersonPatchStatement(DataSource dataSource) {
+        this(new JdbcTemplate(dataSource), null);
+    }
+
+    /**
+     * @param dialect Kullanılacak ifade biçimi; null ise bağlantıdan okunur.
+     */
+    PersonPatchStatement(JdbcTemplate jdbc, Dialect dialect) {
+        this.jdbc = jdbc;
+        this.dialect = dialect;
+    }
+
+    /**
+     * Patch'i uygular. Patch boş olmamalıdır.
+     *
+     * @param changeSeq Güncellemenin değişiklik numarası.
+     * @return Satırın güncelleme öncesi hali; satır yoksa veya version
+     *         tutmadıysa boş.
+     */
+    public Optional<PersonRow> apply(long id, PersonPatch patch, long changeSeq) {
+        List<Object> params = new ArrayList<>(patch.changes().values());
+        params.add(changeSeq);
+        List<Object> whereParams = patch.version() != null ? List.of(id, patch.version()) : List.of(id);
+        String where = patch.version() != null ? " WHERE id = ? AND version = ?" : " WHERE id = ?";
+
+        return switch (dialect()) {
+            case POSTGRESQL -> {
+                params.addAll(whereParams);
+                // FROM'daki alt sorgu da version içerdiği için SET ifadesi tabloyu belirtir.
+                yield first(jdbc.query("UPDATE person p SET " + assignments(patch, "p.") + " FROM (SELECT "
+                        + PersonJdbcQueries.COLUMNS + " FROM person" + where + " FOR UPDATE) previous"
+                        + " WHERE p.id = previous.id RETURNING " + qualified("previous"),
+                        PersonRow.MAPPER, params.toArray()));
+            }
+            case H2 -> {
+                params.addAll(whereParams);
+                yield first(jdbc.query("SELECT " + PersonJdbcQueries.COLUMNS + " FROM OLD TABLE (UPDATE person SET "
+                        + assignments(patch, "") + where + ")", PersonRow.MAPPER, params.toArray()));
+            }
+            case OTHER -> {
+                Optional<PersonRow> previous = first(jdbc.query("SELECT " + PersonJdbcQueries.COLUMNS
+                        + " FROM person" + where + " FOR UPDATE", PersonRow.MAPPER, whereParams.toArray()));
+                if (previous.isPresent()) {
+                    params.addAll(whereParams);
+                    jdbc.update("UPDATE person SET " + assignments(patch, "") + where, params.toArray());
+                }
+                yield previous;
+            }
+        };
+    }
+
+    /**
+     * Patch'teki sütunlar, version ve change_seq atamaları; değerler
+     * patch.changes() sırasıyla, ardından değişiklik numarası bağlanır.
+     */
+    private static String assignments(PersonPatch patch, String table) {
+        StringBuilder set = new StringBuilder();
+        for (String field : patch.changes().keySet()) {
+            set.append(COLUMNS.get(field)).append(" = ?, ");
+        }
+        return set.append("version = ").append(table).append("version + 1, change_seq = ?").toString();
+    }
+
+    private Dialect dialect() {
+        Dialect current = dialect;
+        if (current == null) {
+            String product = jdbc.execute((ConnectionCallback<String>) connection -> connection.getMetaData()
+                    .getDatabaseProductName());
+            current = switch (product == null ? "" : product) {
+                case "PostgreSQL" -> Dialect.POSTGRESQL;
+                case "H2" -> Dialect.H2;
+                default -> Dialect.OTHER;
+            };
+            dialect = current;
+        }
+        return current;
+    }
+
+    private static String qualified(String alias) {
+        return alias + "." + PersonJdbcQueries.COLUMNS.replace(", ", ", " + alias + ".");
+    }
+
+    private static Optional<PersonRow> first(List<PersonRow> rows) {
+        return rows.stream().findFirst();
+    }
+}
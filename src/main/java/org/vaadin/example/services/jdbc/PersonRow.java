@@ -0,0 +1,32 @@
+package org.vaadin.example.services.jdbc;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.vaadin.example.domain.model.Person;
+
+/**
+ * Person tablosundaki bir satırın değiştirilemez karşılığı.
+ *
+ * Sütunlar isim yerine sıra numarası ile okunur; sorgular her zaman
+ * PersonJdbcQueries.COLUMNS sırasıyla seçim yapar.
+ */
+public record PersonRow(long id, int version, String firstName, String lastName, String nationalNumber,
+        Long changeSeq) {
+
+    public static final RowMapper<PersonRow> MAPPER = (rs, rowNum) -> new PersonRow(
+            rs.getLong(1), rs.getInt(2), rs.getString(3), rs.getString(4), rs.getString(5),
+            rs.getObject(6, Long.class));
+
+    /**
+     * REST API ve IPersonService'in kullandığı Person object'ine çevirir.
+     */
+    public Person toPerson() {
+        Person person = new Person();
+        person.setId(id);
+        person.setVersion(version);
+        person.setFirstName(firstName);
+        person.setLastName(lastName);
+        person.setNationalNumber(nationalNumber);
+        person.setChangeSeq(changeSeq);
+        return person;
+    }
+}
@@ -0,0 +1,81 @@
+package org.vaadin.example.services.memory;
+
+import java.util.Arrays;
+
+/**
+ * Değişiklik numarası sırasıyla eklenen (numara, id) çiftleri.
+ *
+ * Numaralar artan sırada geldiği için log her zaman sıralıdır ve "since'ten
+ * sonraki değişiklikler" ikili arama ile bulunur. Bir kayıt yeniden
+ * değiştiğinde eski girdisi silinmez, geçersiz hale gelir; geçerli girdiler
+ * azaldığında log sıkıştırılır.
+ */
+final class ChangeLog {
+
+    private long[] sequences = new long[16];
+    private long[] ids = new long[16];
+    private int size;
+
+    void append(long sequence, long id) {
+        if (size == sequences.length) {
+            sequences = Arrays.copyOf(sequences, size + (size >> 1));
+            ids = Arrays.copyOf(ids, sequences.length);
+        }
+        sequences[size] = sequence;
+        ids[size] = id;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long sequence(int position) {
+        return sequences[position];
+    }
+
+    long id(int position) {
+        return ids[position];
+    }
+
+    /**
+     * Numarası since'ten büyük ilk girdinin konumu; yoksa size().
+     */
+    int firstAfter(long since) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sequences[mid] <= since) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Yalnızca hâlâ geçerli olan girdileri tutar.
+     */
+    void compact(EntryFilter current) {
+        int target = 0;
+        for (int position = 0; position < size; position++) {
+            if (current.test(ids[position], sequences[position])) {
+                sequences[target] = sequences[position];
+                ids[target] = ids[position];
+                target++;
+            }
+        }
+        size = target;
+    }
+
+    long estimatedBytes() {
+        return 32L + 16L * sequences.length;
+    }
+
+    @FunctionalInterface
+    interface EntryFilter {
+        boolean test(long id, long sequence);
+    }
+}
@@ -0,0 +1,34 @@
+package org.vaadin.example.services.memory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bir dizine yapılan dosya ekleme, taşıma ve silmeleri diske zorlar.
+ *
+ * Bir dosyanın içeriğini fsync etmek, onu dizine bağlayan girdiyi kalıcı
+ * kılmaz; çökmede yeni oluşturulan veya taşınan dosya dizinde görünmeyebilir.
+ * POSIX sistemlerde dizinin kendisi fsync edilir. Windows dizinleri bu şekilde
+ * açamaz; orada NTFS meta veri günlüğüne güvenilir ve işlem atlanır.
+ */
+final class DirectorySync {
+
+    private static final boolean WINDOWS = System.getProperty("os.name", "").startsWith("Windows");
+
+    private DirectorySync() {
+    }
+
+    /**
+     * @param directory Girdileri diske zorlanacak dizin.
+     */
+    static void force(Path directory) throws IOException {
+        if (WINDOWS) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+}
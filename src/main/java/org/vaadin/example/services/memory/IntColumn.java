@@ -0,0 +1,81 @@
+package org.vaadin.example.services.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Satır numarası ile adreslenen int sütunu. Veri ya bir int[] dizisinde ya da
+ * heap dışı (direct) bir buffer'da tutulur.
+ */
+final class IntColumn {
+
+    private final boolean offHeap;
+    private int[] heap;
+    private IntBuffer direct;
+    private int capacity;
+
+    IntColumn(int capacity, boolean offHeap) {
+        this.offHeap = offHeap;
+        this.capacity = Math.max(capacity, 16);
+        if (offHeap) {
+            direct = allocate(this.capacity);
+        } else {
+            heap = new int[this.capacity];
+        }
+    }
+
+    int get(int row) {
+        return heap != null ? heap[row] : direct.get(row);
+    }
+
+    void set(int row, int value) {
+        if (heap != null) {
+            heap[row] = value;
+        } else {
+            direct.put(row, value);
+        }
+    }
+
+    void ensureCapacity(int minCapacity) {
+        if (minCapacity <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(minCapacity, capacity + (capacity >> 1));
+        if (offHeap) {
+            IntBuffer grown = allocate(newCapacity);
+            grown.put(0, direct, 0, capacity);
+            direct = grown;
+        } else {
+            heap = Arrays.copyOf(heap, newCapacity);
+        }
+        capacity = newCapacity;
+    }
+
+    /**
+     * Sütunun içeriğini snapshot'tan okunan değerlerle değiştirir. Heap'teki
+     * sütun diziyi kopyalamadan kullanır; dizi sonradan değiştirilmemelidir.
+     */
+    void load(int[] values) {
+        if (offHeap) {
+            ensureCapacity(values.length);
+            direct.put(0, values);
+        } else {
+            heap = values.length >= 16 ? values : Arrays.copyOf(values, 16);
+            capacity = heap.length;
+        }
+    }
+
+    long heapBytes() {
+        return heap != null ? 16L + 4L * capacity : 0;
+    }
+
+    long offHeapBytes() {
+        return direct != null ? 4L * capacity : 0;
+    }
+
+    private static IntBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+}
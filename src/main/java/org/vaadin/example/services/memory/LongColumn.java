@@ -0,0 +1,81 @@
+package org.vaadin.example.services.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Satır numarası ile adreslenen long sütunu. Veri ya bir long[] dizisinde ya da
+ * heap dışı (direct) bir buffer'da tutulur.
+ */
+final class LongColumn {
+
+    private final boolean offHeap;
+    private long[] heap;
+    private LongBuffer direct;
+    private int capacity;
+
+    LongColumn(int capacity, boolean offHeap) {
+        this.offHeap = offHeap;
+        this.capacity = Math.max(capacity, 16);
+        if (offHeap) {
+            direct = allocate(this.capacity);
+        } else {
+            heap = new long[this.capacity];
+        }
+    }
+
+    long get(int row) {
+        return heap != null ? heap[row] : direct.get(row);
+    }
+
+    void set(int row, long value) {
+        if (heap != null) {
+            heap[row] = value;
+        } else {
+            direct.put(row, value);
+        }
+    }
+
+    void ensureCapacity(int minCapacity) {
+        if (minCapacity <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(minCapacity, capacity + (capacity >> 1));
+        if (offHeap) {
+            LongBuffer grown = allocate(newCapacity);
+            grown.put(0, direct, 0, capacity);
+            direct = grown;
+        } else {
+            heap = Arrays.copyOf(heap, newCapacity);
+        }
+        capacity = newCapacity;
+    }
+
+    /**
+     * Sütunun içeriğini snapshot'tan okunan değerlerle değiştirir. Heap'teki
+     * sütun diziyi kopyalamadan kullanır; dizi sonradan değiştirilmemelidir.
+     */
+    void load(long[] values) {
+        if (offHeap) {
+            ensureCapacity(values.length);
+            direct.put(0, values);
+        } else {
+            heap = values.length >= 16 ? values : Arrays.copyOf(values, 16);
+            capacity = heap.length;
+        }
+    }
+
+    long heapBytes() {
+        return heap != null ? 16L + 8L * capacity : 0;
+    }
+
+    long offHeapBytes() {
+        return direct != null ? 8L * capacity : 0;
+    }
+
+    private static LongBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+}
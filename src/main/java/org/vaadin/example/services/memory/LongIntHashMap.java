@@ -0,0 +1,150 @@
+package org.vaadin.example.services.memory;
+
+import java.util.Arrays;
+
+/**
+ * Kutulama yapmayan long -> int eşlemesi (açık adresleme, doğrusal yoklama).
+ * Kişi id'sinden satır numarasına gitmek için kullanılır; HashMap&lt;Long,
+ * Integer&gt;'a göre girdi başına çok daha az bellek harcar.
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    private static final long FREE = 0L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2) - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    int get(long key) {
+        if (key == FREE) {
+            return hasFreeKey ? freeKeyValue : MISSING;
+        }
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    void put(long key, int value) {
+        if (key == FREE) {
+            if (!hasFreeKey) {
+                size++;
+            }
+            hasFreeKey = true;
+            freeKeyValue = value;
+            return;
+        }
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    void remove(long key) {
+        if (key == FREE) {
+            if (hasFreeKey) {
+                size--;
+            }
+            hasFreeKey = false;
+            return;
+        }
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                size--;
+                shiftBack(slot);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Tabloyu beklenen girdi sayısı için bir kerede büyütür; çok sayıda put
+     * öncesinde ara rehash'leri önler.
+     */
+    void ensureCapacity(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2) - 1) << 1;
+        if (capacity > keys.length) {
+            rehash(capacity);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+        hasFreeKey = false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long estimatedBytes() {
+        return 32L + 8L * keys.length + 4L * values.length;
+    }
+
+    /**
+     * Silinen girdiden sonra gelen zinciri geri kaydırır; böylece mezar taşı
+     * gerekmez.
+     */
+    private void shiftBack(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != FREE) {
+            int ideal = slot(keys[next]);
+            boolean movable = gap <= next ? (ideal <= gap || ideal > next) : (ideal <= gap && ideal > next);
+            if (movable) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = FREE;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = hasFreeKey ? 1 : 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
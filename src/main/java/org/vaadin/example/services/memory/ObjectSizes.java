@@ -0,0 +1,38 @@
+package org.vaadin.example.services.memory;
+
+/**
+ * Compressed oops kullanan 64 bit bir JVM için yaklaşık nesne boyutları.
+ * Yalnızca bellek raporlarında kullanılır.
+ */
+final class ObjectSizes {
+
+    /**
+     * Person nesnesi: başlık (12) + id referansı (4) + version (4) + üç String
+     * referansı (12).
+     */
+    static final long PERSON = 32;
+
+    /**
+     * Kutulanmış Long id.
+     */
+    static final long BOXED_LONG = 16;
+
+    private ObjectSizes() {
+    }
+
+    /**
+     * Bir String ve byte[] dizisinin toplam boyutu. Latin-1 dışında karakter
+     * içeren metinler karakter başına iki byte tutar (ş, ğ, ı gibi).
+     */
+    static long stringBytes(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int bytesPerChar = value.chars().allMatch(c -> c <= 0xFF) ? 1 : 2;
+        return 24 + align(16 + (long) bytesPerChar * value.length());
+    }
+
+    static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
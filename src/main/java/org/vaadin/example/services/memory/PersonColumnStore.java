@@ -0,0 +1,838 @@
+package org.vaadin.example.services.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.vaadin.example.domain.dto.PersonChange;
+import org.vaadin.example.domain.model.NameCase;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.PersonSorting;
+
+/**
+ * PersonColumnStore, Person kayıtlarını nesne yerine sütunlar halinde tutan,
+ * okuma için optimize edilmiş bellek içi depodur.
+ *
+ * <ul>
+ * <li>id'ler long[], version'lar int[] sütununda tutulur.</li>
+ * <li>Ad ve soyad sözlük ile int koda çevrilir; aynı isim bir kez
+ * saklanır.</li>
+ * <li>Rakamlardan oluşan kimlik numaraları tek bir long'a paketlenir.</li>
+ * <li>Silinen satırlar işaretlenir ve belirli bir orandan sonra depo
+ * sıkıştırılır.</li>
+ * <li>Her kaydın değişiklik numarası bir sütunda, numara sırasındaki
+ * değişiklikler bir ChangeLog'da tutulur; silinen kayıtların numaraları
+ * ayrıca saklanır.</li>
+ * </ul>
+ *
+ * İsim araması önce sözlük üzerinde bir kez değerlendirilir, ardından yalnızca
+ * int sütunu taranır. {@link #PARALLEL_THRESHOLD} satırın üzerinde taramalar
+ * fork/join havuzunda parçalara bölünerek paralel yapılır. Sütunlar istenirse
+ * heap dışında (direct buffer) tutulabilir.
+ *
+ * Depo bir PersonSnapshot olarak kopyalanabilir ve snapshot'tan, sıralı
+ * index'leri yeniden sıralamadan kurulabilir.
+ *
+ * Thread-safe değildir; okuma ve yazmalar dışarıdan kilitlenmelidir.
+ */
+public class PersonColumnStore {
+
+    /**
+     * Bu satır sayısının üzerinde taramalar paralel yapılır.
+     */
+    public static final int PARALLEL_THRESHOLD = 100_000;
+
+    private static final int CHUNK_SIZE = 16_384;
+    private static final int MIN_DELETED_FOR_COMPACTION = 1_024;
+
+    // Kimlik numarası kodlaması: 0 = null, pozitif = (uzunluk << 57) | sayı,
+    // negatif = -(sözlük kodu + 1).
+    private static final long NULL_NATIONAL_NUMBER = 0L;
+    private static final int DIGITS_SHIFT = 57;
+    private static final long DIGITS_MASK = (1L << DIGITS_SHIFT) - 1;
+    private static final int MAX_PACKED_DIGITS = 17;
+    private static final long[] POWERS_OF_TEN = new long[MAX_PACKED_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final boolean offHeap;
+    private final LongColumn ids;
+    private final IntColumn versions;
+    private final IntColumn firstNames;
+    private final IntColumn lastNames;
+    private final LongColumn nationalNumbers;
+    private final LongColumn changeSeqs;
+    private final ChangeLog changeLog = new ChangeLog();
+    private final Map<Long, Long> tombstones = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private final StringDictionary firstNameDictionary = new StringDictionary();
+    private final StringDictionary lastNameDictionary = new StringDictionary();
+    private final StringDictionary otherNationalNumbers = new StringDictionary();
+    private final LongIntHashMap rowById;
+    private final Map<String, RowSortIndex> sortIndexes = new HashMap<>();
+
+    private int rowCount;
+    private int liveCount;
+    // true iken yazmalar sıralı index'leri güncellemez; bkz. deferSortIndexes.
+    private boolean sortIndexesDeferred;
+
+    /**
+     * @param initialCapacity Başlangıçta ayrılacak satır sayısı.
+     * @param offHeap         true ise sütunlar heap dışında tutulur.
+     */
+    public PersonColumnStore(int initialCapacity, boolean offHeap) {
+        this.offHeap = offHeap;
+        this.ids = new LongColumn(initialCapacity, offHeap);
+        this.versions = new IntColumn(initialCapacity, offHeap);
+        this.firstNames = new IntColumn(initialCapacity, offHeap);
+        this.lastNames = new IntColumn(initialCapacity, offHeap);
+        this.nationalNumbers = new LongColumn(initialCapacity, offHeap);
+        this.changeSeqs = new LongColumn(initialCapacity, offHeap);
+        this.rowById = new LongIntHashMap(initialCapacity);
+        for (String property : PersonSorting.SORTABLE_PROPERTIES.keySet()) {
+            sortIndexes.put(property, new RowSortIndex(rowComparator(property)));
+        }
+    }
+
+    public int size() {
+        return liveCount;
+    }
+
+    /**
+     * Snapshot'tan bir depo kurar. Sütunlar ve sıralı index'ler snapshot'taki
+     * dizilerle kullanılır; yalnızca id eşlemesi ve sözlükler yeniden kurulur.
+     *
+     * @param offHeap true ise sütunlar heap dışına kopyalanır.
+     */
+    public static PersonColumnStore restore(PersonSnapshot snapshot, boolean offHeap) {
+        PersonColumnStore store = new PersonColumnStore(0, offHeap);
+        store.load(snapshot);
+        return store;
+    }
+
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    public Optional<Person> get(long id) {
+        int row = rowById.get(id);
+        return row == LongIntHashMap.MISSING ? Optional.empty() : Optional.of(materialize(row));
+    }
+
+    public boolean contains(long id) {
+        return rowById.get(id) != LongIntHashMap.MISSING;
+    }
+
+    /**
+     * @return Silinen kaydın silme numarası; kayıt hiç silinmediyse null.
+     */
+    public Long deletedAt(long id) {
+        return tombstones.get(id);
+    }
+
+    /**
+     * Verilen kimlik numarasına sahip bir kaydın id'sini, kimlik numarası
+     * sıralı index'inde ikili arama ile O(log n) sürede bulur.
+     *
+     * @return Kaydın id'si; böyle bir kayıt yoksa null.
+     */
+    public Long findIdByNationalNumber(String nationalNumber) {
+        RowSortIndex index = sortIndexes.get("nationalNumber");
+        long packed = nationalNumber != null ? packDigits(nationalNumber) : NULL_NATIONAL_NUMBER;
+        int low = 0;
+        int high = index.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareNationalNumber(index.get(mid, false), nationalNumber, packed) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low < index.size()) {
+            int row = index.get(low, false);
+            if (compareNationalNumber(row, nationalNumber, packed) == 0) {
+                return ids.get(row);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Yeni bir kayıt ekler. Kaydın id'si ve değişiklik numarası atanmış
+     * olmalıdır; numaralar artan sırada gelmelidir.
+     */
+    public void insert(Person person) {
+        int row = appendRow(person);
+        if (!sortIndexesDeferred) {
+            sortIndexes.values().forEach(index -> index.insert(row));
+        }
+        changeLog.append(person.getChangeSeq(), person.getId());
+    }
+
+    /**
+     * Çok sayıda kaydı ekler; sıralı index'ler her ekleme yerine sonda bir
+     * kez kurulur.
+     */
+    public void insertAll(Collection<Person> persons) {
+        for (Person person : persons) {
+            appendRow(person);
+            changeLog.append(person.getChangeSeq(), person.getId());
+        }
+        rebuildSortIndexes();
+    }
+
+    /**
+     * Bundan sonraki yazmalarda sıralı index'ler güncellenmez;
+     * {@link #rebuildDeferredSortIndexes()} çağrılana kadar sıralı okuma
+     * yapılmamalıdır. Journal replay'i gibi çok sayıda tekil yazmada her
+     * yazmanın index dizisini kaydırmasını önler.
+     */
+    void deferSortIndexes() {
+        sortIndexesDeferred = true;
+    }
+
+    /**
+     * Ertelenen sıralı index'leri canlı satırlardan bir kez kurar.
+     */
+    void rebuildDeferredSortIndexes() {
+        if (sortIndexesDeferred) {
+            sortIndexesDeferred = false;
+            rebuildSortIndexes();
+        }
+    }
+
+    /**
+     * Var olan bir kaydı günceller.
+     *
+     * @return Kaydın önceki hali; kayıt yoksa null.
+     */
+    public Person update(Person person) {
+        int row = rowById.get(person.getId());
+        if (row == LongIntHashMap.MISSING) {
+            return null;
+        }
+        Person previous = materialize(row);
+        if (sortIndexesDeferred) {
+            write(row, person);
+        } else {
+            sortIndexes.values().forEach(index -> index.remove(row));
+            write(row, person);
+            sortIndexes.values().forEach(index -> index.insert(row));
+        }
+        changeLog.append(person.getChangeSeq(), person.getId());
+        compactChangeLogIfNeeded();
+        return previous;
+    }
+
+    /**
+     * Kaydı siler ve silme numarasını saklar.
+     *
+     * @param changeSeq Silmenin değişiklik numarası.
+     * @return Silinen kayıt; kayıt yoksa null.
+     */
+    public Person delete(long id, long changeSeq) {
+        int row = rowById.get(id);
+        if (row == LongIntHashMap.MISSING) {
+            return null;
+        }
+        Person previous = materialize(row);
+        if (!sortIndexesDeferred) {
+            sortIndexes.values().forEach(index -> index.remove(row));
+        }
+        rowById.remove(id);
+        deleted.set(row);
+        liveCount--;
+        tombstones.put(id, changeSeq);
+        changeLog.append(changeSeq, id);
+        compactIfNeeded();
+        compactChangeLogIfNeeded();
+        return previous;
+    }
+
+    /**
+     * Numarası (since, until] aralığındaki değişiklikleri numara sırasıyla
+     * döndürür. Başlangıç noktası log üzerinde ikili arama ile bulunur;
+     * yalnızca aralıktaki girdiler okunur.
+     *
+     * @param limit En fazla değişiklik sayısı.
+     */
+    public List<PersonChange> changesSince(long since, long until, int limit) {
+        List<PersonChange> changes = new ArrayList<>();
+        for (int position = changeLog.firstAfter(since); position < changeLog.size() && changes.size() < limit;
+                position++) {
+            long sequence = changeLog.sequence(position);
+            if (sequence > until) {
+                break;
+            }
+            long id = changeLog.id(position);
+            int row = rowById.get(id);
+            if (row != LongIntHashMap.MISSING && changeSeqs.get(row) == sequence) {
+                changes.add(PersonChange.upsert(materialize(row)));
+            } else if (row == LongIntHashMap.MISSING && Long.valueOf(sequence).equals(tombstones.get(id))) {
+                changes.add(PersonChange.delete(id, sequence));
+            }
+        }
+        return changes;
+    }
+
+    public Page<Person> list(Pageable pageable) {
+        return page(null, pageable);
+    }
+
+    /**
+     * Adında verilen metni (büyük/küçük harf duyarsız) içeren kayıtları
+     * sayfalı döndürür.
+     */
+    public Page<Person> searchByFirstName(String name, Pageable pageable) {
+        return page(firstNameMatches(name), pageable);
+    }
+
+    public int countByFirstName(String name) {
+        boolean[] matches = firstNameMatches(name);
+        return (int) count(row -> matchesFirstName(matches, row));
+    }
+
+    /**
+     * Canlı tüm kayıtları satır sırasıyla gezer.
+     */
+    public void forEach(Consumer<Person> action) {
+        for (int row = deleted.nextClearBit(0); row < rowCount; row = deleted.nextClearBit(row + 1)) {
+            action.accept(materialize(row));
+        }
+    }
+
+    /**
+     * Canlı kayıtların kimlik numaralarını satır sırasıyla gezer; Person
+     * nesnesi oluşturulmaz.
+     */
+    public Iterator<String> nationalNumbers() {
+        return IntStream.range(0, rowCount)
+                .filter(row -> !deleted.get(row))
+                .mapToObj(row -> decodeNationalNumber(nationalNumbers.get(row)))
+                .iterator();
+    }
+
+    /**
+     * Canlı kayıtların bir kopyasını alır. Satırlar silinenler atlanarak
+     * yeniden numaralanır ve index'ler yeni numaralara çevrilir; değişiklik
+     * log'undan yalnızca geçerli girdiler alınır. Kopya depodan bağımsızdır;
+     * okuma kilidi altında alınıp kilit dışında yazılabilir.
+     *
+     * @param lastChangeSeq Snapshot anında atanmış son değişiklik numarası.
+     */
+    public PersonSnapshot snapshot(long lastChangeSeq) {
+        int[] oldToNew = new int[rowCount];
+        long[] snapshotIds = new long[liveCount];
+        int[] snapshotVersions = new int[liveCount];
+        int[] snapshotFirstNames = new int[liveCount];
+        int[] snapshotLastNames = new int[liveCount];
+        long[] snapshotNationalNumbers = new long[liveCount];
+        long[] snapshotChangeSeqs = new long[liveCount];
+        int target = 0;
+        for (int row = deleted.nextClearBit(0); row < rowCount; row = deleted.nextClearBit(row + 1)) {
+            oldToNew[row] = target;
+            snapshotIds[target] = ids.get(row);
+            snapshotVersions[target] = versions.get(row);
+            snapshotFirstNames[target] = firstNames.get(row);
+            snapshotLastNames[target] = lastNames.get(row);
+            snapshotNationalNumbers[target] = nationalNumbers.get(row);
+            snapshotChangeSeqs[target] = changeSeqs.get(row);
+            target++;
+        }
+
+        Map<String, int[]> indexes = new TreeMap<>();
+        sortIndexes.forEach((property, index) -> indexes.put(property, index.remapped(oldToNew)));
+
+        long[] tombstoneIds = new long[tombstones.size()];
+        long[] tombstoneSeqs = new long[tombstones.size()];
+        int tombstone = 0;
+        for (Map.Entry<Long, Long> entry : tombstones.entrySet()) {
+            tombstoneIds[tombstone] = entry.getKey();
+            tombstoneSeqs[tombstone++] = entry.getValue();
+        }
+
+        long[] logSequences = new long[changeLog.size()];
+        long[] logIds = new long[changeLog.size()];
+        int changes = 0;
+        for (int position = 0; position < changeLog.size(); position++) {
+            if (isCurrentChange(changeLog.id(position), changeLog.sequence(position))) {
+                logSequences[changes] = changeLog.sequence(position);
+                logIds[changes++] = changeLog.id(position);
+            }
+        }
+
+        return new PersonSnapshot(lastChangeSeq, snapshotIds, snapshotVersions, snapshotFirstNames,
+                snapshotLastNames, snapshotNationalNumbers, snapshotChangeSeqs, firstNameDictionary.values(),
+                lastNameDictionary.values(), otherNationalNumbers.values(), indexes, tombstoneIds, tombstoneSeqs,
+                Arrays.copyOf(logSequences, changes), Arrays.copyOf(logIds, changes));
+    }
+
+    /**
+     * Sütunlar, sözlükler, id eşlemesi ve index'lerin yaklaşık heap
+     * kullanımı.
+     */
+    public long heapBytes() {
+        long bytes = ids.heapBytes() + versions.heapBytes() + firstNames.heapBytes() + lastNames.heapBytes()
+                + nationalNumbers.heapBytes() + changeSeqs.heapBytes();
+        bytes += changeLog.estimatedBytes() + tombstones.size() * (16L + 2 * ObjectSizes.BOXED_LONG);
+        bytes += firstNameDictionary.estimatedBytes() + lastNameDictionary.estimatedBytes()
+                + otherNationalNumbers.estimatedBytes();
+        bytes += rowById.estimatedBytes() + deleted.size() / 8;
+        for (RowSortIndex index : sortIndexes.values()) {
+            bytes += index.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    public long offHeapBytes() {
+        return ids.offHeapBytes() + versions.offHeapBytes() + firstNames.offHeapBytes() + lastNames.offHeapBytes()
+                + nationalNumbers.offHeapBytes() + changeSeqs.offHeapBytes();
+    }
+
+    /**
+     * Aynı kayıtlar ArrayList içinde Person nesneleri olarak (ve Person
+     * listeleri üzerinde üç sıralı index ile) tutulsaydı harcanacak yaklaşık
+     * heap. Her metnin ayrı bir String nesnesi olduğu varsayılır.
+     */
+    public long objectModelBytes() {
+        long bytes = 0;
+        for (int row = deleted.nextClearBit(0); row < rowCount; row = deleted.nextClearBit(row + 1)) {
+            bytes += ObjectSizes.PERSON + ObjectSizes.BOXED_LONG
+                    + ObjectSizes.stringBytes(firstNameDictionary.decode(firstNames.get(row)))
+                    + ObjectSizes.stringBytes(lastNameDictionary.decode(lastNames.get(row)))
+                    + ObjectSizes.stringBytes(decodeNationalNumber(nationalNumbers.get(row)))
+                    + 4 + 4L * sortIndexes.size();
+        }
+        return bytes;
+    }
+
+    /**
+     * Kişi başına bellek kullanımını önceki nesne tabanlı model ile
+     * karşılaştıran kısa rapor.
+     */
+    public String memoryReport() {
+        long people = Math.max(1, liveCount);
+        long columnar = heapBytes() + offHeapBytes();
+        return String.format(
+                "%d kişi: sütunlu depo ~%d B/kişi (heap %d B, heap dışı %d B), Person nesneleri ~%d B/kişi",
+                liveCount, columnar / people, heapBytes(), offHeapBytes(), objectModelBytes() / people);
+    }
+
+    private void load(PersonSnapshot snapshot) {
+        int rows = snapshot.size();
+        ids.load(snapshot.ids);
+        versions.load(snapshot.versions);
+        firstNames.load(snapshot.firstNames);
+        lastNames.load(snapshot.lastNames);
+        nationalNumbers.load(snapshot.nationalNumbers);
+        changeSeqs.load(snapshot.changeSeqs);
+        rowById.ensureCapacity(rows);
+        for (int row = 0; row < rows; row++) {
+            rowById.put(snapshot.ids[row], row);
+        }
+        rowCount = rows;
+        liveCount = rows;
+        if (rowById.size() != rows) {
+            throw new IllegalArgumentException("Snapshot'ta tekrarlanan id var");
+        }
+
+        firstNameDictionary.load(snapshot.firstNameValues);
+        lastNameDictionary.load(snapshot.lastNameValues);
+        otherNationalNumbers.load(snapshot.otherNationalNumberValues);
+        for (int i = 0; i < snapshot.tombstoneIds.length; i++) {
+            tombstones.put(snapshot.tombstoneIds[i], snapshot.tombstoneSeqs[i]);
+        }
+        for (int i = 0; i < snapshot.logSequences.length; i++) {
+            changeLog.append(snapshot.logSequences[i], snapshot.logIds[i]);
+        }
+
+        if (snapshot.sortIndexes.keySet().equals(sortIndexes.keySet())
+                && snapshot.sortIndexes.values().stream().allMatch(rowsOfIndex -> rowsOfIndex.length == rows)) {
+            sortIndexes.forEach((property, index) -> index.restore(snapshot.sortIndexes.get(property)));
+        } else {
+            // Sıralanabilir alanlar değişmişse index'ler baştan kurulur.
+            rebuildSortIndexes();
+        }
+    }
+
+    private int appendRow(Person person) {
+        if (rowById.get(person.getId()) != LongIntHashMap.MISSING) {
+            throw new IllegalArgumentException("Aynı id ile kayıt zaten var: " + person.getId());
+        }
+        int row = rowCount;
+        ensureCapacity(row + 1);
+        write(row, person);
+        rowById.put(person.getId(), row);
+        rowCount++;
+        liveCount++;
+        return row;
+    }
+
+    private void write(int row, Person person) {
+        ids.set(row, person.getId());
+        versions.set(row, person.getVersion());
+        firstNames.set(row, firstNameDictionary.encode(person.getFirstName()));
+        lastNames.set(row, lastNameDictionary.encode(person.getLastName()));
+        nationalNumbers.set(row, encodeNationalNumber(person.getNationalNumber()));
+        changeSeqs.set(row, person.getChangeSeq());
+    }
+
+    private Person materialize(int row) {
+        Person person = new Person();
+        person.setId(ids.get(row));
+        person.setVersion(versions.get(row));
+        person.setFirstName(firstNameDictionary.decode(firstNames.get(row)));
+        person.setLastName(lastNameDictionary.decode(lastNames.get(row)));
+        person.setNationalNumber(decodeNationalNumber(nationalNumbers.get(row)));
+        person.setChangeSeq(changeSeqs.get(row));
+        return person;
+    }
+
+    private void ensureCapacity(int capacity) {
+        ids.ensureCapacity(capacity);
+        versions.ensureCapacity(capacity);
+        firstNames.ensureCapacity(capacity);
+        lastNames.ensureCapacity(capacity);
+        nationalNumbers.ensureCapacity(capacity);
+        changeSeqs.ensureCapacity(capacity);
+    }
+
+    private Page<Person> page(boolean[] firstNameMatches, Pageable pageable) {
+        Sort sort = PersonSorting.sanitize(pageable.getSort());
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        IntPredicate filter = firstNameMatches == null ? row -> true : row -> matchesFirstName(firstNameMatches, row);
+
+        // Sanitize edilmiş sıralamada son eleman her zaman id'dir; birden fazla
+        // alan istenirse index kullanılamaz.
+        if (sort.toList().size() > 2) {
+            List<Person> matched = new ArrayList<>();
+            for (int row = deleted.nextClearBit(0); row < rowCount; row = deleted.nextClearBit(row + 1)) {
+                if (filter.test(row)) {
+                    matched.add(materialize(row));
+                }
+            }
+            matched.sort(PersonSorting.comparator(sort));
+            int from = (int) Math.min(offset, matched.size());
+            int to = (int) Math.min(offset + Math.min(limit, matched.size()), matched.size());
+            return new PageImpl<>(new ArrayList<>(matched.subList(from, to)), pageable, matched.size());
+        }
+
+        List<Person> content = new ArrayList<>(Math.min(limit, Math.max(liveCount, 0)));
+        long total;
+        if (sort.isSorted()) {
+            Sort.Order primary = sort.iterator().next();
+            RowSortIndex index = sortIndexes.get(primary.getProperty());
+            boolean descending = primary.isDescending();
+            if (firstNameMatches == null) {
+                // Filtre yoksa sayfa doğrudan index aralığından okunur.
+                for (long position = offset; position < index.size() && content.size() < limit; position++) {
+                    content.add(materialize(index.get((int) position, descending)));
+                }
+                total = liveCount;
+            } else {
+                long matched = 0;
+                for (int position = 0; position < index.size(); position++) {
+                    int row = index.get(position, descending);
+                    if (filter.test(row)) {
+                        if (matched >= offset && content.size() < limit) {
+                            content.add(materialize(row));
+                        }
+                        matched++;
+                    }
+                }
+                total = matched;
+            }
+        } else {
+            total = scan(filter, offset, limit, content);
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Satırları fiziksel sırayla tarar ve [offset, offset + limit) aralığını
+     * toplar. Büyük depolarda eşleşme sayıları önce parçalar halinde paralel
+     * hesaplanır; ardından yalnızca sayfanın bulunduğu parçadan itibaren
+     * okunur.
+     *
+     * @return Eşleşen toplam satır sayısı.
+     */
+    private long scan(IntPredicate filter, long offset, int limit, List<Person> content) {
+        if (rowCount < PARALLEL_THRESHOLD) {
+            long matched = 0;
+            for (int row = deleted.nextClearBit(0); row < rowCount; row = deleted.nextClearBit(row + 1)) {
+                if (filter.test(row)) {
+                    if (matched >= offset && content.size() < limit) {
+                        content.add(materialize(row));
+                    }
+                    matched++;
+                }
+            }
+            return matched;
+        }
+
+        int[] chunkCounts = chunkCounts(filter);
+        long total = 0;
+        for (int chunkCount : chunkCounts) {
+            total += chunkCount;
+        }
+
+        long skipped = 0;
+        int chunk = 0;
+        while (chunk < chunkCounts.length && skipped + chunkCounts[chunk] <= offset) {
+            skipped += chunkCounts[chunk++];
+        }
+        long matched = skipped;
+        for (int row = chunk * CHUNK_SIZE; row < rowCount && content.size() < limit; row++) {
+            if (!deleted.get(row) && filter.test(row)) {
+                if (matched >= offset) {
+                    content.add(materialize(row));
+                }
+                matched++;
+            }
+        }
+        return total;
+    }
+
+    private long count(IntPredicate filter) {
+        if (rowCount < PARALLEL_THRESHOLD) {
+            long matched = 0;
+            for (int row = deleted.nextClearBit(0); row < rowCount; row = deleted.nextClearBit(row + 1)) {
+                if (filter.test(row)) {
+                    matched++;
+                }
+            }
+            return matched;
+        }
+        return IntStream.of(chunkCounts(filter)).asLongStream().sum();
+    }
+
+    private int[] chunkCounts(IntPredicate filter) {
+        int chunks = (rowCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, chunks).parallel().map(chunk -> {
+            int end = Math.min(rowCount, (chunk + 1) * CHUNK_SIZE);
+            int matched = 0;
+            for (int row = chunk * CHUNK_SIZE; row < end; row++) {
+                if (!deleted.get(row) && filter.test(row)) {
+                    matched++;
+                }
+            }
+            return matched;
+        }).toArray();
+    }
+
+    private boolean[] firstNameMatches(String name) {
+        String needle = NameCase.fold(name);
+        return firstNameDictionary.matching(value -> NameCase.fold(value).contains(needle));
+    }
+
+    private boolean matchesFirstName(boolean[] matches, int row) {
+        int code = firstNames.get(row);
+        return code >= 0 && code < matches.length && matches[code];
+    }
+
+    /**
+     * Silinen satır sayısı yeterince büyüdüğünde canlı satırları başa taşır ve
+     * id eşlemesi ile index'lerdeki satır numaralarını günceller.
+     */
+    private void compactIfNeeded() {
+        int deletedCount = rowCount - liveCount;
+        if (deletedCount < MIN_DELETED_FOR_COMPACTION || deletedCount < rowCount / 4) {
+            return;
+        }
+        int[] oldToNew = new int[rowCount];
+        int target = 0;
+        for (int row = deleted.nextClearBit(0); row < rowCount; row = deleted.nextClearBit(row + 1)) {
+            if (row != target) {
+                ids.set(target, ids.get(row));
+                versions.set(target, versions.get(row));
+                firstNames.set(target, firstNames.get(row));
+                lastNames.set(target, lastNames.get(row));
+                nationalNumbers.set(target, nationalNumbers.get(row));
+                changeSeqs.set(target, changeSeqs.get(row));
+            }
+            oldToNew[row] = target;
+            rowById.put(ids.get(target), target);
+            target++;
+        }
+        rowCount = target;
+        deleted.clear();
+        if (!sortIndexesDeferred) {
+            sortIndexes.values().forEach(index -> index.remap(oldToNew));
+        }
+    }
+
+    /**
+     * Geçersiz girdiler geçerli olanların sayısını aştığında log'u sıkıştırır.
+     */
+    private void compactChangeLogIfNeeded() {
+        int current = liveCount + tombstones.size();
+        if (changeLog.size() < MIN_DELETED_FOR_COMPACTION || changeLog.size() <= 2 * current) {
+            return;
+        }
+        changeLog.compact(this::isCurrentChange);
+    }
+
+    /**
+     * Log girdisi kaydın son değişikliği (veya silinmesi) ise true.
+     */
+    private boolean isCurrentChange(long id, long sequence) {
+        int row = rowById.get(id);
+        return row != LongIntHashMap.MISSING
+                ? changeSeqs.get(row) == sequence
+                : Long.valueOf(sequence).equals(tombstones.get(id));
+    }
+
+    private void rebuildSortIndexes() {
+        int[] liveRows = new int[liveCount];
+        int i = 0;
+        for (int row = deleted.nextClearBit(0); row < rowCount; row = deleted.nextClearBit(row + 1)) {
+            liveRows[i++] = row;
+        }
+        sortIndexes.values().forEach(index -> index.rebuild(liveRows, liveRows.length));
+    }
+
+    /**
+     * Satırları PersonSorting.comparator ile aynı sırada (boş değerler önce,
+     * eşitlikte id) karşılaştırır. Adlar sözlükteki String'lerle, kimlik
+     * numaraları paketlenmiş halleriyle karşılaştırılır; karşılaştırma başına
+     * nesne oluşturulmaz.
+     */
+    private RowSortIndex.RowComparator rowComparator(String property) {
+        return switch (property) {
+            case "firstName" -> (row, other) -> compareCodes(firstNameDictionary, firstNames.get(row),
+                    firstNames.get(other), row, other);
+            case "lastName" -> (row, other) -> compareCodes(lastNameDictionary, lastNames.get(row),
+                    lastNames.get(other), row, other);
+            case "nationalNumber" -> (row, other) -> {
+                int byValue = compareNationalNumbers(nationalNumbers.get(row), nationalNumbers.get(other));
+                return byValue != 0 ? byValue : Long.compare(ids.get(row), ids.get(other));
+            };
+            default -> throw new IllegalArgumentException("Sıralanamayan alan: " + property);
+        };
+    }
+
+    private int compareCodes(StringDictionary dictionary, int code, int otherCode, int row, int other) {
+        if (code != otherCode) {
+            if (code == StringDictionary.NULL_CODE) {
+                return -1;
+            }
+            if (otherCode == StringDictionary.NULL_CODE) {
+                return 1;
+            }
+            int byValue = dictionary.decode(code).compareTo(dictionary.decode(otherCode));
+            if (byValue != 0) {
+                return byValue;
+            }
+        }
+        return Long.compare(ids.get(row), ids.get(other));
+    }
+
+    /**
+     * Kodlanmış iki kimlik numarasını, metin hallerinin String.compareTo
+     * sırasıyla karşılaştırır. İkisi de rakamlardan oluşuyorsa metne
+     * çevrilmez: eşit uzunluktaki rakam dizileri sayı gibi sıralanır, farklı
+     * uzunluktakilerde uzun olanın aynı uzunluktaki öneki karşılaştırılır.
+     */
+    private int compareNationalNumbers(long encoded, long other) {
+        if (encoded == other) {
+            return 0;
+        }
+        if (encoded == NULL_NATIONAL_NUMBER || other == NULL_NATIONAL_NUMBER) {
+            return encoded == NULL_NATIONAL_NUMBER ? -1 : 1;
+        }
+        if (encoded < 0 || other < 0) {
+            return decodeNationalNumber(encoded).compareTo(decodeNationalNumber(other));
+        }
+        int length = (int) (encoded >>> DIGITS_SHIFT);
+        int otherLength = (int) (other >>> DIGITS_SHIFT);
+        long number = encoded & DIGITS_MASK;
+        long otherNumber = other & DIGITS_MASK;
+        if (length < otherLength) {
+            otherNumber /= POWERS_OF_TEN[otherLength - length];
+        } else if (length > otherLength) {
+            number /= POWERS_OF_TEN[length - otherLength];
+        }
+        int byPrefix = Long.compare(number, otherNumber);
+        return byPrefix != 0 ? byPrefix : Integer.compare(length, otherLength);
+    }
+
+    /**
+     * Satırın kimlik numarasını aranan numarayla karşılaştırır; aranan
+     * paketlenebiliyorsa satırın numarası metne çevrilmez.
+     */
+    private int compareNationalNumber(int row, String nationalNumber, long packed) {
+        long encoded = nationalNumbers.get(row);
+        if (packed >= 0) {
+            return compareNationalNumbers(encoded, packed);
+        }
+        String value = decodeNationalNumber(encoded);
+        return value == null ? -1 : value.compareTo(nationalNumber);
+    }
+
+    private long encodeNationalNumber(String value) {
+        if (value == null) {
+            return NULL_NATIONAL_NUMBER;
+        }
+        long packed = packDigits(value);
+        return packed > 0 ? packed : -(otherNationalNumbers.encode(value) + 1L);
+    }
+
+    /**
+     * @return Yalnızca rakamlardan oluşan en fazla MAX_PACKED_DIGITS uzunluktaki
+     *         metnin paketlenmiş hali; aksi halde -1.
+     */
+    private static long packDigits(String value) {
+        int length = value.length();
+        if (length == 0 || length > MAX_PACKED_DIGITS) {
+            return -1;
+        }
+        long number = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return ((long) length << DIGITS_SHIFT) | number;
+    }
+
+    private String decodeNationalNumber(long encoded) {
+        if (encoded == NULL_NATIONAL_NUMBER) {
+            return null;
+        }
+        if (encoded < 0) {
+            return otherNationalNumbers.decode((int) (-encoded - 1));
+        }
+        int length = (int) (encoded >>> DIGITS_SHIFT);
+        long number = encoded & DIGITS_MASK;
+        char[] chars = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            chars[i] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,624 @@
+package org.vaadin.example.services.memory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vaadin.example.domain.model.Person;
+
+/**
+ * PersonJournal, bellek içi depoya yapılan ekleme, güncelleme ve silmeleri
+ * sırayla bir dosyanın sonuna ekleyen bir write-ahead log'dur.
+ *
+ * Kayıtlar çağıranın thread'inde bellekteki bir buffer'a eklenir; tek bir
+ * arka plan thread'i buffer'ı FileChannel'a yazar ve fsync yapar. Bir fsync
+ * sürerken eklenen kayıtlar bir sonraki fsync'i paylaşır (group commit);
+ * böylece fsync sayısı yazma sayısına değil, disk gecikmesine bağlıdır ve
+ * eşzamanlı yazmalarda verim disk bant genişliğiyle sınırlanır.
+ *
+ * Dosya segmentlere bölünür ({@code <dosya>.000001}, ...). Snapshot
+ * alınırken {@link #rotate()} yeni bir segmente geçer; snapshot yazıldıktan
+ * sonra önceki segmentler {@link #deleteSegmentsBefore(int)} ile silinir.
+ * Her kayıt uzunluğu ve CRC32'si ile başlar; {@link #replay} yarım yazılmış
+ * kayıtları atar ve segmenti son sağlam kayıttan keser.
+ *
+ * Yazma veya fsync başarısız olursa journal kalıcı olarak hata durumuna
+ * geçer: arka plan thread'i durur, bekleyenlere ve yeni eklemelere hata
+ * döner ve hata {@link #failure()} ile okunur. Diske inip inmediği bilinmeyen
+ * kayıtlar başka bir segmente yeniden yazılmaz; journal ancak uygulama
+ * yeniden başlatılıp segmentler replay edilerek açılır.
+ */
+public final class PersonJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonJournal.class);
+
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int FIXED_BYTES = 1 + 2 * Long.BYTES + Integer.BYTES;
+    private static final int BUFFER_SIZE = 1 << 20;
+    // Bir kaydın en fazla boyutu; replay kayıtları bu boyutta bir buffer ile okur.
+    private static final int MAX_RECORD_BYTES = BUFFER_SIZE;
+    // BATCH modunda bu kadar bayt biriktiğinde pencere dolmadan yazılır.
+    private static final int MAX_BATCH_BYTES = BUFFER_SIZE;
+
+    /**
+     * Yazmaların ne zaman kalıcı sayılacağı.
+     */
+    public enum Durability {
+        /**
+         * Her yazma kendi kaydını içeren fsync'i bekler; eşzamanlı yazmalar
+         * aynı fsync'i paylaşır.
+         */
+        WRITE,
+        /**
+         * WRITE gibi beklenir, ama arka plan thread'i fsync'ten önce batch
+         * penceresi kadar kayıt toplar; daha az fsync, biraz daha uzun bekleme.
+         */
+        BATCH,
+        /**
+         * Yazmalar beklemez; buffer belirli aralıkla yazılır ve fsync yapılır.
+         * Çökmede son aralıktaki yazmalar kaybolabilir.
+         */
+        PERIODIC
+    }
+
+    private enum Operation {
+        INSERT, UPDATE, DELETE
+    }
+
+    private final Path file;
+    private final Durability durability;
+    private final long delayNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition work = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private ByteBuffer pending = newBuffer(BUFFER_SIZE);
+    private ByteBuffer spare = newBuffer(BUFFER_SIZE);
+    // Journal açıldığından beri eklenen ve fsync'i tamamlanan bayt sayısı.
+    private long appended;
+    private long durable;
+    private long syncs;
+    private boolean flushRequested;
+    private boolean closed;
+    private IOException failure;
+    private FileChannel channel;
+    private int segment;
+    private Thread flusher;
+
+    /**
+     * @param file       Segment dosyalarının ortak adı.
+     * @param durability Yazmaların ne zaman kalıcı sayılacağı.
+     * @param delay      BATCH modunda fsync öncesi toplama penceresi,
+     *                   PERIODIC modunda yazma aralığı; WRITE modunda
+     *                   kullanılmaz.
+     */
+    public PersonJournal(Path file, Durability durability, Duration delay) {
+        this.file = file.toAbsolutePath();
+        this.durability = durability;
+        this.delayNanos = delay.toNanos();
+    }
+
+    public Durability durability() {
+        return durability;
+    }
+
+    /**
+     * Var olan segmentlerdeki kayıtları depoya uygular. {@link #start()}
+     * öncesinde çağrılmalıdır.
+     *
+     * @param store    Kayıtların uygulanacağı depo.
+     * @param afterSeq Depoda zaten bulunan son değişiklik numarası; bu numaraya
+     *                 kadar olan kayıtlar atlanır.
+     * @return Depodaki son değişiklik numarası.
+     */
+    public long replay(PersonColumnStore store, long afterSeq) throws IOException {
+        // Sıralı index'ler kayıt başına güncellenmez, sonda bir kez kurulur.
+        store.deferSortIndexes();
+        try {
+            return replaySegments(store, afterSeq);
+        } finally {
+            store.rebuildDeferredSortIndexes();
+        }
+    }
+
+    private long replaySegments(PersonColumnStore store, long afterSeq) throws IOException {
+        long last = afterSeq;
+        int applied = 0;
+        for (Path path : segments().values()) {
+            try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                SegmentReader reader = new SegmentReader(in);
+                ByteBuffer record;
+                while ((record = reader.next()) != null) {
+                    long sequence = record.getLong(1);
+                    if (sequence > last) {
+                        apply(store, record);
+                        last = sequence;
+                        applied++;
+                    }
+                }
+                if (reader.valid < in.size()) {
+                    log.warn("Journal segmenti {} yarım kalmış, {} bayt atıldı", path, in.size() - reader.valid);
+                    in.truncate(reader.valid);
+                }
+            }
+        }
+        if (applied > 0) {
+            log.info("Journal'dan {} değişiklik uygulandı, son numara {}", applied, last);
+        }
+        return last;
+    }
+
+    /**
+     * Yeni bir segment açar ve arka plan thread'ini başlatır.
+     */
+    public void start() throws IOException {
+        lock.lock();
+        try {
+            TreeMap<Integer, Path> existing = segments();
+            segment = existing.isEmpty() ? 1 : existing.lastKey() + 1;
+            channel = openSegment(segment);
+            flusher = new Thread(this::run, "person-journal");
+            flusher.setDaemon(true);
+            flusher.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Eklemeyi journal'a yazar. Yazma kilidi altında, değişiklik numarası
+     * sırasıyla çağrılmalıdır.
+     *
+     * @return {@link #awaitDurable(long)}'a verilecek konum.
+     */
+    public long insert(Person person) {
+        return append(Operation.INSERT, person.getChangeSeq(), person.getId(), person.getVersion(),
+                person.getFirstName(), person.getLastName(), person.getNationalNumber());
+    }
+
+    /**
+     * Güncellemeyi journal'a yazar.
+     *
+     * @see #insert(Person)
+     */
+    public long update(Person person) {
+        return append(Operation.UPDATE, person.getChangeSeq(), person.getId(), person.getVersion(),
+                person.getFirstName(), person.getLastName(), person.getNationalNumber());
+    }
+
+    /**
+     * Silmeyi journal'a yazar.
+     *
+     * @see #insert(Person)
+     */
+    public long delete(long id, long changeSeq) {
+        return append(Operation.DELETE, changeSeq, id, 0);
+    }
+
+    /**
+     * Verilen konuma kadar yazılan kayıtlar diske inene kadar bekler.
+     * PERIODIC modunda beklemez. Yazarlar kilidi bıraktıktan sonra
+     * çağırmalıdır; aksi halde fsync'i başka yazmalarla paylaşamazlar.
+     *
+     * @throws UncheckedIOException Journal yazılamadıysa.
+     */
+    public void awaitDurable(long position) {
+        if (durability == Durability.PERIODIC) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (durable < position) {
+                checkFailure();
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bekleyen kayıtları yazar ve yeni bir segmente geçer. Önceki segmentler
+     * yalnızca bu çağrıdan önceki değişiklikleri içerir; yazmalar bu sırada
+     * durdurulmuş olmalıdır.
+     *
+     * @return Yeni segmentin numarası.
+     */
+    public int rotate() throws IOException {
+        lock.lock();
+        try {
+            requestFlush();
+            while (durable < appended && failure == null) {
+                synced.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            // Bekleyen kayıt kalmadığı için arka plan thread'i eski kanalı kullanmıyor.
+            FileChannel previous = channel;
+            channel = openSegment(segment + 1);
+            segment++;
+            previous.close();
+            return segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Numarası verilenden küçük segmentleri siler.
+     *
+     * @return Silinen segment sayısı.
+     */
+    public int deleteSegmentsBefore(int segment) throws IOException {
+        int deleted = 0;
+        for (Path path : segments().headMap(segment).values()) {
+            Files.delete(path);
+            deleted++;
+        }
+        return deleted;
+    }
+
+    /**
+     * @return Journal'ı hata durumuna geçiren yazma hatası; hata yoksa null.
+     */
+    public IOException failure() {
+        lock.lock();
+        try {
+            return failure;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Journal açıldığından beri yapılan fsync sayısı.
+     */
+    public long syncCount() {
+        lock.lock();
+        try {
+            return syncs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Journal açıldığından beri diske yazılan bayt sayısı.
+     */
+    public long bytesWritten() {
+        lock.lock();
+        try {
+            return durable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bekleyen kayıtları yazar ve dosyayı kapatır. Boş kalan son segment
+     * silinir.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed || channel == null) {
+                closed = true;
+                return;
+            }
+            closed = true;
+            work.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            long size = channel.size();
+            channel.close();
+            if (size == 0) {
+                Files.deleteIfExists(segmentPath(segment));
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long append(Operation operation, long changeSeq, long id, int version, String... fields) {
+        byte[][] values = new byte[fields.length][];
+        int size = HEADER_BYTES + FIXED_BYTES;
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = fields[i] != null ? fields[i].getBytes(StandardCharsets.UTF_8) : null;
+            size += Integer.BYTES + (values[i] != null ? values[i].length : 0);
+        }
+        if (size > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Journal kaydı çok büyük: " + size + " bayt");
+        }
+
+        lock.lock();
+        try {
+            checkFailure();
+            if (closed || channel == null) {
+                throw new IllegalStateException("Journal açık değil");
+            }
+            ensureCapacity(size);
+            int start = pending.position();
+            pending.putInt(size - HEADER_BYTES).putInt(0);
+            pending.put((byte) operation.ordinal()).putLong(changeSeq).putLong(id).putInt(version);
+            for (byte[] value : values) {
+                if (value == null) {
+                    pending.putInt(-1);
+                } else {
+                    pending.putInt(value.length).put(value);
+                }
+            }
+            CRC32 crc = new CRC32();
+            crc.update(pending.array(), start + HEADER_BYTES, size - HEADER_BYTES);
+            pending.putInt(start + Integer.BYTES, (int) crc.getValue());
+            appended += size;
+            if (durability != Durability.PERIODIC) {
+                work.signal();
+            }
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            ByteBuffer batch;
+            FileChannel target;
+            long position;
+            lock.lock();
+            try {
+                awaitBatch();
+                if (durable == appended) {
+                    if (closed) {
+                        return;
+                    }
+                    flushRequested = false;
+                    synced.signalAll();
+                    continue;
+                }
+                batch = pending;
+                pending = spare;
+                spare = batch;
+                position = appended;
+                target = channel;
+                flushRequested = false;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    target.write(batch);
+                }
+                target.force(false);
+                batch.clear();
+            } catch (IOException e) {
+                log.error("Journal yazılamadı: {}", file, e);
+                lock.lock();
+                try {
+                    failure = e;
+                    synced.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+
+            lock.lock();
+            try {
+                durable = position;
+                syncs++;
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Yazılacak kayıtlar birikene kadar bekler. Kilit altında çağrılır.
+     */
+    private void awaitBatch() {
+        try {
+            if (durability == Durability.PERIODIC) {
+                long remaining = delayNanos;
+                while (remaining > 0 && !closed && !flushRequested) {
+                    remaining = work.awaitNanos(remaining);
+                }
+                return;
+            }
+            while (durable == appended && !closed && !flushRequested) {
+                work.await();
+            }
+            if (durability == Durability.BATCH) {
+                long remaining = delayNanos;
+                while (remaining > 0 && !closed && !flushRequested && pending.position() < MAX_BATCH_BYTES) {
+                    remaining = work.awaitNanos(remaining);
+                }
+            }
+        } catch (InterruptedException e) {
+            closed = true;
+        }
+    }
+
+    private void requestFlush() {
+        flushRequested = true;
+        work.signal();
+    }
+
+    private void ensureCapacity(int size) {
+        if (pending.remaining() < size) {
+            ByteBuffer grown = newBuffer(Math.max(pending.capacity() * 2, pending.position() + size));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException("Journal yazılamadı", failure);
+        }
+    }
+
+    /**
+     * Yeni segmenti oluşturur; dizin girdisi diske zorlanır, aksi halde
+     * çökmede segment dosyası içindeki kayıtlarla birlikte kaybolabilir.
+     */
+    private FileChannel openSegment(int number) throws IOException {
+        FileChannel segmentChannel = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        try {
+            DirectorySync.force(file.getParent());
+        } catch (IOException e) {
+            segmentChannel.close();
+            throw e;
+        }
+        return segmentChannel;
+    }
+
+    private Path segmentPath(int number) {
+        return file.resolveSibling(String.format("%s.%06d", file.getFileName(), number));
+    }
+
+    /**
+     * @return Var olan segmentler, numara sırasıyla.
+     */
+    private TreeMap<Integer, Path> segments() throws IOException {
+        TreeMap<Integer, Path> segments = new TreeMap<>();
+        String prefix = file.getFileName() + ".";
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(prefix) && name.length() > prefix.length()
+                        && name.substring(prefix.length()).chars().allMatch(Character::isDigit)) {
+                    segments.put(Integer.parseInt(name.substring(prefix.length())), path);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static void apply(PersonColumnStore store, ByteBuffer record) {
+        Operation operation = Operation.values()[record.get()];
+        long changeSeq = record.getLong();
+        long id = record.getLong();
+        int version = record.getInt();
+        if (operation == Operation.DELETE) {
+            store.delete(id, changeSeq);
+            return;
+        }
+        Person person = new Person();
+        person.setId(id);
+        person.setVersion(version);
+        person.setChangeSeq(changeSeq);
+        person.setFirstName(getString(record));
+        person.setLastName(getString(record));
+        person.setNationalNumber(getString(record));
+        if (operation == Operation.INSERT) {
+            store.insert(person);
+        } else {
+            store.update(person);
+        }
+    }
+
+    private static String getString(ByteBuffer record) {
+        int length = record.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer newBuffer(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Bir segmenti kayıt kayıt okur; uzunluğu veya sağlama toplamı tutmayan
+     * ilk kayıtta durur.
+     */
+    private static final class SegmentReader {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = newBuffer(BUFFER_SIZE + HEADER_BYTES);
+        // Sağlam okunan son kaydın bittiği dosya konumu.
+        private long valid;
+        private boolean eof;
+
+        SegmentReader(FileChannel channel) {
+            this.channel = channel;
+            buffer.flip();
+        }
+
+        /**
+         * @return Sıradaki kaydın içeriği (başlık hariç); kayıt kalmadıysa
+         *         veya kayıt bozuksa null.
+         */
+        ByteBuffer next() throws IOException {
+            if (!fill(HEADER_BYTES)) {
+                return null;
+            }
+            int length = buffer.getInt(buffer.position());
+            int checksum = buffer.getInt(buffer.position() + Integer.BYTES);
+            if (length < FIXED_BYTES || length > MAX_RECORD_BYTES || !fill(HEADER_BYTES + length)) {
+                return null;
+            }
+            ByteBuffer record = buffer.slice(buffer.position() + HEADER_BYTES, length).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32 crc = new CRC32();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != checksum || record.get(0) >= Operation.values().length) {
+                return null;
+            }
+            // Kayıt bir sonraki fill'de üzerine yazılmadan önce kopyalanır.
+            ByteBuffer copy = newBuffer(length).put(record).flip();
+            buffer.position(buffer.position() + HEADER_BYTES + length);
+            valid += HEADER_BYTES + length;
+            return copy;
+        }
+
+        private boolean fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return true;
+            }
+            buffer.compact();
+            while (!eof && buffer.position() < bytes) {
+                eof = channel.read(buffer) < 0;
+            }
+            buffer.flip();
+            return buffer.remaining() >= bytes;
+        }
+    }
+}
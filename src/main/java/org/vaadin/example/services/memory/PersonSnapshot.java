@@ -0,0 +1,313 @@
+package org.vaadin.example.services.memory;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * PersonSnapshot, PersonColumnStore'un canlı kayıtlarının sütunlar halinde
+ * alınmış bir kopyasıdır ve ikili bir dosyaya yazılıp okunabilir.
+ *
+ * Dosya, deponun bellekteki düzenini izler: sütunlar, sözlüklerin metinleri,
+ * sıralı index'lerin satır numaraları, silinen kayıtların numaraları ve
+ * değişiklik log'u sırayla yazılır; sonda tüm içeriğin CRC32'si bulunur.
+ * Sayılar little-endian yazılır. Okuma dosyayı belleğe map eder ve sütunları
+ * toplu olarak dizilere kopyalar; metin ayrıştırma veya yeniden sıralama
+ * yapılmaz, yalnızca sözlük metinleri ve id eşlemesi yeniden kurulur.
+ *
+ * Yazma önce yanına geçici bir dosyaya yapılır, diske zorlanır ve ardından
+ * atomik olarak asıl dosyanın yerine taşınır; yarım kalan bir yazma önceki
+ * snapshot'ı bozmaz. Taşımadan sonra dizin de diske zorlanır; yazma
+ * döndüğünde yeni snapshot çökmeden sonra da yerindedir.
+ */
+public final class PersonSnapshot {
+
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    private static final int FORMAT_VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    final long lastChangeSeq;
+    final long[] ids;
+    final int[] versions;
+    final int[] firstNames;
+    final int[] lastNames;
+    final long[] nationalNumbers;
+    final long[] changeSeqs;
+    final String[] firstNameValues;
+    final String[] lastNameValues;
+    final String[] otherNationalNumberValues;
+    final Map<String, int[]> sortIndexes;
+    final long[] tombstoneIds;
+    final long[] tombstoneSeqs;
+    final long[] logSequences;
+    final long[] logIds;
+
+    PersonSnapshot(long lastChangeSeq, long[] ids, int[] versions, int[] firstNames, int[] lastNames,
+            long[] nationalNumbers, long[] changeSeqs, String[] firstNameValues, String[] lastNameValues,
+            String[] otherNationalNumberValues, Map<String, int[]> sortIndexes, long[] tombstoneIds,
+            long[] tombstoneSeqs, long[] logSequences, long[] logIds) {
+        this.lastChangeSeq = lastChangeSeq;
+        this.ids = ids;
+        this.versions = versions;
+        this.firstNames = firstNames;
+        this.lastNames = lastNames;
+        this.nationalNumbers = nationalNumbers;
+        this.changeSeqs = changeSeqs;
+        this.firstNameValues = firstNameValues;
+        this.lastNameValues = lastNameValues;
+        this.otherNationalNumberValues = otherNationalNumberValues;
+        this.sortIndexes = new TreeMap<>(sortIndexes);
+        this.tombstoneIds = tombstoneIds;
+        this.tombstoneSeqs = tombstoneSeqs;
+        this.logSequences = logSequences;
+        this.logIds = logIds;
+    }
+
+    /**
+     * @return Snapshot'taki kayıt sayısı.
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @return Snapshot alınırken atanmış son değişiklik numarası.
+     */
+    public long lastChangeSeq() {
+        return lastChangeSeq;
+    }
+
+    /**
+     * Snapshot'ı dosyaya atomik olarak yazar. Döndüğünde dosya ve dizin
+     * girdisi diske inmiştir; bu snapshot'tan önceki journal segmentleri
+     * silinebilir.
+     *
+     * @param file Hedef dosya; varsa yerine yazılır.
+     */
+    public void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer out = new Writer(channel);
+            out.putInt(MAGIC);
+            out.putInt(FORMAT_VERSION);
+            out.putLong(lastChangeSeq);
+            out.putInt(ids.length);
+            out.putInt(tombstoneIds.length);
+            out.putInt(logSequences.length);
+            out.putInt(sortIndexes.size());
+            out.putStrings(firstNameValues);
+            out.putStrings(lastNameValues);
+            out.putStrings(otherNationalNumberValues);
+            out.putLongs(ids);
+            out.putInts(versions);
+            out.putInts(firstNames);
+            out.putInts(lastNames);
+            out.putLongs(nationalNumbers);
+            out.putLongs(changeSeqs);
+            for (Map.Entry<String, int[]> index : sortIndexes.entrySet()) {
+                out.putString(index.getKey());
+                out.putInts(index.getValue());
+            }
+            out.putLongs(tombstoneIds);
+            out.putLongs(tombstoneSeqs);
+            out.putLongs(logSequences);
+            out.putLongs(logIds);
+            out.finish();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        DirectorySync.force(file.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Dosyayı belleğe map ederek okur.
+     *
+     * @throws IOException Dosya okunamazsa, sağlama toplamı tutmazsa veya
+     *                     biçimi tanınmazsa.
+     */
+    public static PersonSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Long.BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Geçersiz snapshot boyutu: " + size);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer in = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            int contentSize = (int) size - Long.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(in.slice(0, contentSize));
+            if (crc.getValue() != in.getLong(contentSize)) {
+                throw new IOException("Snapshot sağlama toplamı tutmuyor: " + file);
+            }
+            in.limit(contentSize);
+            return read(in);
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Snapshot okunamadı: " + file, e);
+        }
+    }
+
+    private static PersonSnapshot read(ByteBuffer in) throws IOException {
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Snapshot dosyası değil");
+        }
+        int version = in.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Desteklenmeyen snapshot sürümü: " + version);
+        }
+        long lastChangeSeq = in.getLong();
+        int rows = in.getInt();
+        int tombstones = in.getInt();
+        int changes = in.getInt();
+        int indexes = in.getInt();
+        String[] firstNameValues = getStrings(in);
+        String[] lastNameValues = getStrings(in);
+        String[] otherNationalNumberValues = getStrings(in);
+        long[] ids = getLongs(in, rows);
+        int[] versions = getInts(in, rows);
+        int[] firstNames = getInts(in, rows);
+        int[] lastNames = getInts(in, rows);
+        long[] nationalNumbers = getLongs(in, rows);
+        long[] changeSeqs = getLongs(in, rows);
+        Map<String, int[]> sortIndexes = new TreeMap<>();
+        for (int i = 0; i < indexes; i++) {
+            sortIndexes.put(getString(in), getInts(in, rows));
+        }
+        long[] tombstoneIds = getLongs(in, tombstones);
+        long[] tombstoneSeqs = getLongs(in, tombstones);
+        long[] logSequences = getLongs(in, changes);
+        long[] logIds = getLongs(in, changes);
+        return new PersonSnapshot(lastChangeSeq, ids, versions, firstNames, lastNames, nationalNumbers, changeSeqs,
+                firstNameValues, lastNameValues, otherNationalNumberValues, sortIndexes, tombstoneIds,
+                tombstoneSeqs, logSequences, logIds);
+    }
+
+    private static long[] getLongs(ByteBuffer in, int count) {
+        long[] values = new long[count];
+        in.asLongBuffer().get(values);
+        in.position(in.position() + count * Long.BYTES);
+        return values;
+    }
+
+    private static int[] getInts(ByteBuffer in, int count) {
+        int[] values = new int[count];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static String[] getStrings(ByteBuffer in) {
+        String[] values = new String[in.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getString(in);
+        }
+        return values;
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Dosyaya sabit boyutlu bir direct buffer üzerinden yazar ve yazılan
+     * baytların CRC32'sini hesaplar.
+     */
+    private static final class Writer {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32 crc = new CRC32();
+
+        Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            reserve(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            reserve(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putLongs(long[] values) throws IOException {
+            for (int offset = 0; offset < values.length;) {
+                reserve(Long.BYTES);
+                int count = Math.min(values.length - offset, buffer.remaining() / Long.BYTES);
+                buffer.asLongBuffer().put(values, offset, count);
+                buffer.position(buffer.position() + count * Long.BYTES);
+                offset += count;
+            }
+        }
+
+        void putInts(int[] values) throws IOException {
+            for (int offset = 0; offset < values.length;) {
+                reserve(Integer.BYTES);
+                int count = Math.min(values.length - offset, buffer.remaining() / Integer.BYTES);
+                buffer.asIntBuffer().put(values, offset, count);
+                buffer.position(buffer.position() + count * Integer.BYTES);
+                offset += count;
+            }
+        }
+
+        void putStrings(String[] values) throws IOException {
+            putInt(values.length);
+            for (String value : values) {
+                putString(value);
+            }
+        }
+
+        void putString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            for (int offset = 0; offset < bytes.length;) {
+                reserve(1);
+                int count = Math.min(bytes.length - offset, buffer.remaining());
+                buffer.put(bytes, offset, count);
+                offset += count;
+            }
+        }
+
+        /**
+         * Kalan içeriği ve sağlama toplamını yazar.
+         */
+        void finish() throws IOException {
+            flush();
+            ByteBuffer checksum = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            checksum.putLong(crc.getValue()).flip();
+            while (checksum.hasRemaining()) {
+                channel.write(checksum);
+            }
+        }
+
+        private void reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
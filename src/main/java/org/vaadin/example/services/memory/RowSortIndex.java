@@ -0,0 +1,163 @@
+package org.vaadin.example.services.memory;
+
+import java.util.Arrays;
+
+/**
+ * Satır numaralarını bir sütuna göre (eşitlikte id ile) sıralı tutan ikincil
+ * index. Ekleme ve silme binary search ile yapılır; sıralı bir sayfa okumak
+ * yalnızca dizinin ilgili aralığını gezmektir.
+ *
+ * Satırlar int olarak karşılaştırılır; sıralama ve arama sırasında Integer
+ * kutulanmaz.
+ */
+final class RowSortIndex {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * İki satır numarasını sütun değerine, eşitlikte id'ye göre karşılaştırır.
+     */
+    @FunctionalInterface
+    interface RowComparator {
+        int compare(int row, int other);
+    }
+
+    private final RowComparator comparator;
+    private int[] rows = new int[16];
+    private int size;
+
+    /**
+     * @param comparator Satır numaralarını karşılaştıran, (değer, id) sırası
+     *                   veren comparator.
+     */
+    RowSortIndex(RowComparator comparator) {
+        this.comparator = comparator;
+    }
+
+    void rebuild(int[] liveRows, int count) {
+        rows = Arrays.copyOf(liveRows, Math.max(count, 16));
+        size = count;
+        sort(rows, Arrays.copyOf(rows, count), 0, count);
+    }
+
+    /**
+     * Snapshot'tan okunan, zaten sıralı satır numaralarını yeniden
+     * sıralamadan kullanır.
+     */
+    void restore(int[] sortedRows) {
+        rows = sortedRows.length >= 16 ? sortedRows : Arrays.copyOf(sortedRows, 16);
+        size = sortedRows.length;
+    }
+
+    /**
+     * Index'in sırasıyla, satır numaraları yenileriyle değiştirilmiş bir
+     * kopyası.
+     */
+    int[] remapped(int[] oldToNew) {
+        int[] remapped = new int[size];
+        for (int i = 0; i < size; i++) {
+            remapped[i] = oldToNew[rows[i]];
+        }
+        return remapped;
+    }
+
+    /**
+     * Satırı sıralı konumuna ekler. Satırın sütun değerleri önceden yazılmış
+     * olmalıdır.
+     */
+    void insert(int row) {
+        int position = search(row);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size + (size >> 1));
+        }
+        System.arraycopy(rows, position, rows, position + 1, size - position);
+        rows[position] = row;
+        size++;
+    }
+
+    /**
+     * Satırı index'ten çıkarır. Satırın sütun değerleri henüz
+     * değiştirilmemiş olmalıdır.
+     */
+    void remove(int row) {
+        int position = search(row);
+        if (position >= 0) {
+            System.arraycopy(rows, position + 1, rows, position, size - position - 1);
+            size--;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int position, boolean descending) {
+        return rows[descending ? size - 1 - position : position];
+    }
+
+    /**
+     * Sıkıştırma sonrasında satır numaralarını yenileriyle değiştirir; sıra
+     * değişmez.
+     */
+    void remap(int[] oldToNew) {
+        for (int i = 0; i < size; i++) {
+            rows[i] = oldToNew[rows[i]];
+        }
+    }
+
+    long estimatedBytes() {
+        return 16L + 4L * rows.length;
+    }
+
+    /**
+     * rows[from, to) aralığını merge sort ile sıralar; buffer aynı aralıkta
+     * aynı değerleri içerir ve sonuç rows'a yazılır.
+     */
+    private void sort(int[] rows, int[] buffer, int from, int to) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int row = rows[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(rows[j], row) > 0) {
+                    rows[j + 1] = rows[j];
+                    j--;
+                }
+                rows[j + 1] = row;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        // Yarılar buffer'da sıralanır, rows'a birleştirilir.
+        sort(buffer, rows, from, mid);
+        sort(buffer, rows, mid, to);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                rows[i] = buffer[left++];
+            } else {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+
+    private int search(int row) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparator.compare(rows[mid], row);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,92 @@
+package org.vaadin.example.services.memory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Tekrarlayan metinleri (ad, soyad) int kodlara çeviren sözlük. Kodlar
+ * eklenme sırasıyla verilir ve hiçbir zaman geri alınmaz; null değer -1 ile
+ * temsil edilir.
+ */
+final class StringDictionary {
+
+    static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[64];
+    private int size;
+
+    int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        codes.put(value, size);
+        return size++;
+    }
+
+    String decode(int code) {
+        return code == NULL_CODE ? null : values[code];
+    }
+
+    /**
+     * Boş sözlüğe snapshot'taki metinleri aynı kodlarla ekler.
+     *
+     * @param snapshotValues Kod sırasıyla metinler.
+     */
+    void load(String[] snapshotValues) {
+        for (String value : snapshotValues) {
+            encode(value);
+        }
+        if (size != snapshotValues.length) {
+            throw new IllegalArgumentException("Snapshot sözlüğünde tekrarlanan metin var");
+        }
+    }
+
+    /**
+     * @return Kod sırasıyla metinlerin bir kopyası.
+     */
+    String[] values() {
+        return Arrays.copyOf(values, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Koşulu sağlayan kodları işaretler. Koşul sözlükteki her metin için bir
+     * kez değerlendirilir; tarama sırasında yalnızca dizi okunur.
+     *
+     * @param predicate Metin koşulu.
+     * @return Kod ile adreslenen eşleşme tablosu.
+     */
+    boolean[] matching(Predicate<String> predicate) {
+        boolean[] matches = new boolean[size];
+        for (int code = 0; code < size; code++) {
+            matches[code] = predicate.test(values[code]);
+        }
+        return matches;
+    }
+
+    /**
+     * Sözlüğün yaklaşık heap kullanımı: dizi, HashMap girdileri ve metinler.
+     */
+    long estimatedBytes() {
+        long bytes = 16L + 4L * values.length;
+        for (int code = 0; code < size; code++) {
+            // HashMap.Node (32) + tablo girişi (4) + Integer (16) + String
+            bytes += 52 + ObjectSizes.stringBytes(values[code]);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,128 @@
+package org.vaadin.example.services.shard;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.jdbc.PersonJdbcQueries;
+import org.vaadin.example.services.jdbc.PersonRow;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * PersonShard, parçalı depolamadaki veritabanlarından birini temsil eder.
+ *
+ * Okumalar PersonJdbcQueries ile yapılır; yazmalar aynı tablolar üzerinde
+ * doğrudan JDBC ile ve shard'ın kendi transaction manager'ı altında çalışır.
+ * Bir transaction yalnızca tek bir shard'a yazar.
+ *
+ * Spring bean'i değildir; PersonServiceSharded yapılandırılmış her
+ * veritabanı için bir örnek oluşturur ve kapatır.
+ */
+public class PersonShard implements AutoCloseable {
+
+    private static final String SCHEMA = "db/person-shard-schema.sql";
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private final PersonJdbcQueries queries;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Bağlantı havuzunu açar ve tablolar yoksa oluşturur.
+     *
+     * @param name       Havuz ve log'larda kullanılan ad.
+     * @param url        JDBC adresi.
+     * @param username   Kullanıcı adı.
+     * @param password   Parola.
+     * @param poolSize   Havuzdaki en fazla bağlantı sayısı.
+     * @param fetchSize  Sürücünün bir seferde getireceği satır sayısı.
+     */
+    public PersonShard(String name, String url, String username, String password, int poolSize, int fetchSize) {
+        this.name = name;
+        this.dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(poolSize);
+        new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)).execute(dataSource);
+
+        // Sayfalar PersonSorting.comparator ile birleştirilir; boş değerler aynı yerde olmalıdır.
+        this.queries = new PersonJdbcQueries(dataSource, fetchSize, true);
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PersonJdbcQueries queries() {
+        return queries;
+    }
+
+    public Optional<Person> find(long id) {
+        return queries.findById(id).map(PersonRow::toPerson);
+    }
+
+    /**
+     * Verilen işi bu shard üzerinde bir transaction içinde çalıştırır.
+     */
+    public <T> T inTransaction(TransactionCallback<T> action) {
+        return transactionTemplate.execute(action);
+    }
+
+    public void insert(Person person) {
+        jdbc.update("INSERT INTO person (id, version, first_name, last_name, national_number, change_seq)"
+                + " VALUES (?, ?, ?, ?, ?, ?)",
+                person.getId(), person.getVersion(), person.getFirstName(), person.getLastName(),
+                person.getNationalNumber(), person.getChangeSeq());
+    }
+
+    /**
+     * Kayıtları tek bir JDBC batch ile ekler.
+     */
+    public void insertAll(List<Person> persons) {
+        jdbc.batchUpdate("INSERT INTO person (id, version, first_name, last_name, national_number, change_seq)"
+                + " VALUES (?, ?, ?, ?, ?, ?)",
+                persons.stream().map(person -> new Object[] { person.getId(), person.getVersion(),
+                        person.getFirstName(), person.getLastName(), person.getNationalNumber(),
+                        person.getChangeSeq() }).toList());
+    }
+
+    /**
+     * Kaydı, version'ı hâlâ expectedVersion ise günceller.
+     *
+     * @return Güncellenen satır sayısı; version değiştiyse 0.
+     */
+    public int update(Person person, int expectedVersion) {
+        return jdbc.update("UPDATE person SET version = ?, first_name = ?, last_name = ?, national_number = ?,"
+                + " change_seq = ? WHERE id = ? AND version = ?",
+                person.getVersion(), person.getFirstName(), person.getLastName(), person.getNationalNumber(),
+                person.getChangeSeq(), person.getId(), expectedVersion);
+    }
+
+    /**
+     * Kaydı siler ve silme izini yazar.
+     */
+    public void delete(long id, long changeSeq) {
+        jdbc.update("DELETE FROM person WHERE id = ?", id);
+        jdbc.update("INSERT INTO person_tombstone (person_id, change_seq, deleted_at) VALUES (?, ?, ?)",
+                id, changeSeq, OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,177 @@
+package org.vaadin.example.services.suggest;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.vaadin.example.domain.dto.NameSuggestion;
+import org.vaadin.example.domain.event.PersonChangeEvent;
+import org.vaadin.example.domain.model.NameCase;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.IPersonService;
+import org.vaadin.example.services.sync.IndexLoadBuffer;
+
+/**
+ * PersonNameIndex, ad ve soyadlar için bellek içi bir önek (prefix) index'idir.
+ *
+ * Her alan için küçük harfe çevrilmiş değerleri sıralı tutan bir
+ * ConcurrentSkipListMap kullanılır. Bir önekle başlayan değerler sıralı
+ * aralığın başından okunur; ilk k öneri O(log n + k) sürede ve kilitsiz
+ * olarak döner. Her değer için kaç kayıtta geçtiği tutulur, sayı sıfıra
+ * düştüğünde değer index'ten çıkarılır.
+ *
+ * Anahtarlar NameCase ile Türkçe kurallarla küçük harfe çevrilir (I → ı, İ → i);
+ * "i" öneki "İpek"i, "ı" öneki "Işık"ı bulur.
+ *
+ * Index uygulama açılırken servisin changesSince'i ile keyset sayfalamayla
+ * yüklenir ve PersonChangeEvent'ler ile güncel tutulur; yükleme sırasında
+ * gelen olaylar IndexLoadBuffer ile yüklemeden sonra uygulanır. Önceki hali bilinmeyen güncellemelerde eski
+ * değer çıkarılamaz; bu durumda index, silinene kadar fazladan bir öneri
+ * içerebilir.
+ */
+@Component
+public class PersonNameIndex {
+
+    public static final String FIRST_NAME = "firstName";
+    public static final String LAST_NAME = "lastName";
+
+    private static final Logger log = LoggerFactory.getLogger(PersonNameIndex.class);
+
+    private static final int LOAD_LIMIT = 1_000;
+
+    private final IPersonService personService;
+    private final IndexLoadBuffer loadBuffer = new IndexLoadBuffer();
+    private final NavigableMap<String, Entry> firstNames = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, Entry> lastNames = new ConcurrentSkipListMap<>();
+
+    /**
+     * Bir değerin ilk görülen yazımı ve kaç kayıtta geçtiği.
+     */
+    private record Entry(String display, int count) {
+    }
+
+    public PersonNameIndex(IPersonService personService) {
+        this.personService = personService;
+    }
+
+    /**
+     * Uygulama hazır olduğunda tüm kayıtları değişiklik numarası sırasıyla
+     * okuyarak index'i oluşturur, ardından bu sırada gelen olayları uygular.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        int loaded = loadBuffer.load(personService, LOAD_LIMIT, this::add, this::apply);
+        log.info("Ad index'i hazır: {} kayıt, {} ad, {} soyad ({} ms)", loaded, firstNames.size(), lastNames.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Olay bir transaction içinde yayınlandıysa commit sonrasında işlenir.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangeEvent event) {
+        if (!loadBuffer.offer(event)) {
+            apply(event, true);
+        }
+    }
+
+    private void apply(PersonChangeEvent event, boolean counted) {
+        if (counted && event.getPrevious() != null) {
+            remove(event.getPrevious());
+        }
+        if (event.getPerson() != null) {
+            add(event.getPerson());
+        }
+    }
+
+    /**
+     * Verilen önekle başlayan değerleri alfabetik sırada döndürür.
+     *
+     * @param prefix Aranan önek (büyük/küçük harf duyarsız).
+     * @param field  FIRST_NAME, LAST_NAME veya her iki alan için null.
+     * @param limit  En fazla öneri sayısı.
+     * @return Öneriler; önek boşsa boş liste.
+     */
+    public List<NameSuggestion> suggest(String prefix, String field, int limit) {
+        String key = normalize(prefix);
+        if (key == null || limit <= 0) {
+            return List.of();
+        }
+        if (FIRST_NAME.equals(field)) {
+            return collect(firstNames, FIRST_NAME, key, limit);
+        }
+        if (LAST_NAME.equals(field)) {
+            return collect(lastNames, LAST_NAME, key, limit);
+        }
+        return merge(collect(firstNames, FIRST_NAME, key, limit), collect(lastNames, LAST_NAME, key, limit), limit);
+    }
+
+    private static List<NameSuggestion> collect(NavigableMap<String, Entry> index, String field, String prefix,
+            int limit) {
+        List<NameSuggestion> result = new ArrayList<>(Math.min(limit, 16));
+        // prefix ile başlayan tüm anahtarlar [prefix, prefix + U+FFFF) aralığındadır.
+        Iterator<Entry> entries = index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()
+                .iterator();
+        while (result.size() < limit && entries.hasNext()) {
+            Entry entry = entries.next();
+            result.add(new NameSuggestion(entry.display(), field, entry.count()));
+        }
+        return result;
+    }
+
+    private static List<NameSuggestion> merge(List<NameSuggestion> first, List<NameSuggestion> second, int limit) {
+        List<NameSuggestion> result = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+        while (result.size() < limit && (i < first.size() || j < second.size())) {
+            if (j >= second.size() || (i < first.size()
+                    && normalize(first.get(i).value()).compareTo(normalize(second.get(j).value())) <= 0)) {
+                result.add(first.get(i++));
+            } else {
+                result.add(second.get(j++));
+            }
+        }
+        return result;
+    }
+
+    private void add(Person person) {
+        increment(firstNames, person.getFirstName(), 1);
+        increment(lastNames, person.getLastName(), 1);
+    }
+
+    private void remove(Person person) {
+        increment(firstNames, person.getFirstName(), -1);
+        increment(lastNames, person.getLastName(), -1);
+    }
+
+    private static void increment(Map<String, Entry> index, String value, int delta) {
+        String key = normalize(value);
+        if (key == null) {
+            return;
+        }
+        index.compute(key, (k, entry) -> {
+            int count = (entry != null ? entry.count() : 0) + delta;
+            if (count <= 0) {
+                return null;
+            }
+            return new Entry(entry != null ? entry.display() : value.trim(), count);
+        });
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return NameCase.fold(value.trim());
+    }
+}
@@ -0,0 +1,79 @@
+package org.vaadin.example.services.sync;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * ChangeSequence, Person kayıtlarına değişiklik numarası (changeSeq) dağıtır.
+ *
+ * Her ekleme, güncelleme ve silme bir öncekinden büyük bir numara alır;
+ * istemciler son gördükleri numaradan sonraki değişiklikleri isteyerek
+ * eşitlenir. Numaralar JVM içinde sayılır ve ilk kullanımda verilen
+ * kaynaktaki en büyük numaradan devam eder; bu yüzden kayıtlara tek bir
+ * uygulama örneği yazmalıdır.
+ *
+ * Numara transaction içinde alınır, ama commit sırası numara sırasından
+ * farklı olabilir: 5'i alan transaction 6'yı alandan sonra commit edebilir ve
+ * 6'yı gören bir istemci 5'i hiç görmez. Bu yüzden commit edilmemiş numaralar
+ * izlenir; {@link #safeWatermark()} altında açık transaction kalmamış en
+ * büyük numarayı döndürür.
+ */
+public class ChangeSequence {
+
+    private final LongSupplier lastAssigned;
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+    private long last;
+    private boolean initialized;
+
+    /**
+     * @param lastAssigned Daha önce atanmış en büyük numara; ilk kullanımda
+     *                     bir kez okunur.
+     */
+    public ChangeSequence(LongSupplier lastAssigned) {
+        this.lastAssigned = lastAssigned;
+    }
+
+    /**
+     * Yeni bir numara ayırır. Çağıran bir transaction içindeyse numara,
+     * transaction commit edilene veya geri alınana kadar açık sayılır.
+     */
+    public synchronized long next() {
+        initialize();
+        long sequence = ++last;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            inFlight.add(sequence);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    complete(sequence);
+                }
+            });
+        }
+        return sequence;
+    }
+
+    /**
+     * Bu numaraya kadar (dahil) ayrılan tüm numaraların transaction'ları
+     * tamamlanmıştır; bu numaraya kadar okunan değişiklikler sonradan
+     * eksik çıkmaz.
+     */
+    public synchronized long safeWatermark() {
+        initialize();
+        return inFlight.isEmpty() ? last : inFlight.first() - 1;
+    }
+
+    private synchronized void complete(long sequence) {
+        inFlight.remove(sequence);
+    }
+
+    private void initialize() {
+        if (!initialized) {
+            last = Math.max(last, lastAssigned.getAsLong());
+            initialized = true;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.vaadin.example.services.sync;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.vaadin.example.domain.dto.PersonChange;
+import org.vaadin.example.domain.dto.PersonChanges;
+import org.vaadin.example.domain.event.PersonChangeEvent;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.IPersonService;
+
+/**
+ * IndexLoadBuffer, servisten sayfa sayfa yüklenen bellek içi index'lerin
+ * yükleme sırasında gelen PersonChangeEvent'leri iki kez veya hiç saymamasını
+ * sağlar.
+ *
+ * Kayıtlar load(...) ile servisin changesSince'i üzerinden değişiklik
+ * numarası sırasında (keyset) okunur. Okuma sırasında değişen bir kayıt daha
+ * büyük bir numarayla sonraki sayfalarda tekrar gelir, silinen bir kayıt
+ * silme olarak gelir; OFFSET sayfalamanın aksine yazmalar sayfaları kaydırıp
+ * bir kaydı atlatamaz. Kayıtlar son halleriyle birleştirildikten sonra
+ * index'e eklenir.
+ *
+ * Yükleme bitene kadar olaylar uygulanmaz, sıralarıyla saklanır. Yükleme her
+ * okuduğu kaydın değişiklik numarasını bildirir. Bitişte saklanan olaylar
+ * sırayla yeniden oynanır: kaydın okunan hali olaydan yeni veya aynıysa olay
+ * zaten sayılmıştır ve atlanır; okunmamış bir kaydın silinmesi de atlanır.
+ * Yüklemeden önce gelen olaylar (ör. açılışta eklenen örnek veriler) da
+ * aynı şekilde saklanır.
+ *
+ * Yükleme bittikten sonra olaylar doğrudan uygulanır. Commit'ten hemen sonra
+ * çalışan dinleyiciden önce yüklemenin o kaydı okuyup bitmesi halinde olay
+ * bir kez fazla sayılabilir; bu aralık dinleyicinin commit eden thread'de
+ * çalışması kadar kısadır.
+ */
+public class IndexLoadBuffer {
+
+    /**
+     * Olayı index'e uygular.
+     */
+    @FunctionalInterface
+    public interface Applier {
+
+        /**
+         * @param event   Uygulanacak olay.
+         * @param counted Kaydın olaydan önceki hali index'te sayılıysa true;
+         *                false ise olayın önceki hali çıkarılmamalıdır.
+         */
+        void apply(PersonChangeEvent event, boolean counted);
+    }
+
+    // Yalnızca yüklemeyi yapan thread kullanır.
+    private final Map<Long, Long> loaded = new HashMap<>();
+    // Yükleme bittiğinde null olur.
+    private List<PersonChangeEvent> pending = new ArrayList<>();
+
+    /**
+     * Tüm kayıtları okur ve add ile index'e ekler; ardından (hata olsa da)
+     * saklanan olayları applier ile uygular.
+     *
+     * @param personService Kayıtların okunduğu servis.
+     * @param limit         changesSince başına en fazla kayıt sayısı.
+     * @param add           Okunan kaydı index'e ekler.
+     * @param applier       Saklanan olayları uygular.
+     * @return Index'e eklenen kayıt sayısı.
+     */
+    public int load(IPersonService personService, int limit, Consumer<Person> add, Applier applier) {
+        try {
+            Map<Long, Person> persons = new LinkedHashMap<>();
+            long since = 0;
+            PersonChanges changes;
+            do {
+                changes = personService.changesSince(since, limit);
+                for (PersonChange change : changes.changes()) {
+                    if (change.type() == PersonChange.Type.UPSERT) {
+                        persons.put(change.id(), change.person());
+                    } else {
+                        persons.remove(change.id());
+                    }
+                }
+                since = changes.watermark();
+            } while (changes.hasMore());
+            for (Person person : persons.values()) {
+                add.accept(person);
+                loaded(person);
+            }
+            return persons.size();
+        } finally {
+            finish(applier);
+        }
+    }
+
+    /**
+     * Yükleme sürüyorsa olayı saklar.
+     *
+     * @return Olay saklandıysa true; false ise çağıran olayı hemen uygulamalıdır.
+     */
+    public synchronized boolean offer(PersonChangeEvent event) {
+        if (pending == null) {
+            return false;
+        }
+        pending.add(event);
+        return true;
+    }
+
+    /**
+     * Yüklemenin index'e eklediği kaydı bildirir.
+     */
+    public void loaded(Person person) {
+        if (person.getId() != null) {
+            loaded.put(person.getId(), changeSeq(person));
+        }
+    }
+
+    /**
+     * Saklanan olayları yüklenen kayıtlara göre süzerek uygular ve doğrudan
+     * uygulamaya geçer.
+     */
+    public synchronized void finish(Applier applier) {
+        if (pending == null) {
+            return;
+        }
+        for (PersonChangeEvent event : pending) {
+            Long id = event.getPersonId();
+            Long seen = loaded.get(id);
+            Person person = event.getPerson();
+            if (person == null) {
+                if (seen != null) {
+                    applier.apply(event, true);
+                    loaded.remove(id);
+                }
+            } else if (seen == null || person.getChangeSeq() == null || seen < person.getChangeSeq()) {
+                applier.apply(event, seen != null);
+                loaded.put(id, changeSeq(person));
+            }
+        }
+        pending = null;
+        loaded.clear();
+    }
+
+    private static long changeSeq(Person person) {
+        return person.getChangeSeq() != null ? person.getChangeSeq() : Long.MIN_VALUE;
+    }
+}
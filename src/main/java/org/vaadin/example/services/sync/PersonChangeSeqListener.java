@@ -0,0 +1,28 @@
+package org.vaadin.example.services.sync;
+
+import org.vaadin.example.domain.model.Person;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Person kayıtları eklenirken ve güncellenirken yeni bir değişiklik numarası
+ * atayan JPA entity listener'ı.
+ *
+ * Hibernate bu sınıfı Spring üzerinden oluşturur; böylece servis, write-behind
+ * partileri ve başlangıç verisi dahil her JPA yazma yolu numara alır.
+ */
+public class PersonChangeSeqListener {
+
+    private final ChangeSequence sequence;
+
+    public PersonChangeSeqListener(ChangeSequence sequence) {
+        this.sequence = sequence;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void assignChangeSeq(Person person) {
+        person.setChangeSeq(sequence.next());
+    }
+}
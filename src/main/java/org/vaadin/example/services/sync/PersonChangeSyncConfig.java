@@ -0,0 +1,32 @@
+package org.vaadin.example.services.sync;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Veritabanındaki Person kayıtlarının değişiklik numaralarını dağıtan
+ * ChangeSequence'ı tanımlar. Numaralar, person ve person_tombstone
+ * tablolarındaki en büyük change_seq değerinden devam eder.
+ *
+ * Bellek içi servis kendi ChangeSequence örneğini kullanır.
+ */
+@Configuration
+public class PersonChangeSyncConfig {
+
+    @Bean
+    public ChangeSequence personChangeSequence(DataSource dataSource) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        // İlk numara bir yazma sırasında istenir; o transaction'ın bağlantısı
+        // kullanılır ve EntityManager flush edilmez.
+        return new ChangeSequence(() -> Math.max(maxChangeSeq(jdbc, "person"),
+                maxChangeSeq(jdbc, "person_tombstone")));
+    }
+
+    private static long maxChangeSeq(JdbcTemplate jdbc, String table) {
+        Long max = jdbc.queryForObject("SELECT MAX(change_seq) FROM " + table, Long.class);
+        return max != null ? max : 0;
+    }
+}
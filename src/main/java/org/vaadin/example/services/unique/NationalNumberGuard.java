@@ -0,0 +1,98 @@
+package org.vaadin.example.services.unique;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.vaadin.example.domain.event.PersonChangeEvent;
+
+/**
+ * NationalNumberGuard, kayıtlı kimlik numaralarının bir Bloom filter'ını
+ * tutar ve yazma işlemlerinde gereksiz "bu numara var mı?" sorgularını önler.
+ *
+ * Filtre "yok" diyorsa numara kesinlikle yenidir ve servis veritabanına
+ * sormadan kaydeder. "Olabilir" diyorsa servis asıl kaynağa sorar. Silinen
+ * numaralar filtreden çıkarılamaz; bu yalnızca fazladan bir sorguya yol açar.
+ *
+ * Filtre, servis tüm numaraları load(...) ile yükleyene kadar her numara için
+ * "olabilir" der. Yükleme sırasında commit edilen bir numara kaçırılabilir;
+ * SQL tarafında unique constraint bu durumu yakalar.
+ */
+@Component
+public class NationalNumberGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(NationalNumberGuard.class);
+
+    private volatile ScalableBloomFilter filter;
+    private final LongAdder skippedProbes = new LongAdder();
+    private final LongAdder probes = new LongAdder();
+
+    /**
+     * Filtreyi verilen numaralardan yeniden kurar.
+     *
+     * @param expectedCount  Beklenen numara sayısı.
+     * @param nationalNumbers Kayıtlı tüm numaralar.
+     */
+    public void load(long expectedCount, Iterator<String> nationalNumbers) {
+        long start = System.nanoTime();
+        // Büyüme payı bırakılır; dolduğunda filtre yeni bir aşama ekler.
+        ScalableBloomFilter next = new ScalableBloomFilter(expectedCount * 2);
+        while (nationalNumbers.hasNext()) {
+            String value = nationalNumbers.next();
+            if (value != null) {
+                next.add(value);
+            }
+        }
+        filter = next;
+        log.info("Kimlik numarası filtresi hazır: {} numara, {} KB ({} ms)", next.size(), next.bitBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @param nationalNumber Kaydedilecek numara.
+     * @return Numara kesinlikle kayıtlı değilse false; aksi halde true ve
+     *         çağıran asıl kaynağa sormalıdır.
+     */
+    public boolean mightExist(String nationalNumber) {
+        ScalableBloomFilter current = filter;
+        if (nationalNumber == null) {
+            return false;
+        }
+        if (current != null && !current.mightContain(nationalNumber)) {
+            skippedProbes.increment();
+            return false;
+        }
+        probes.increment();
+        return true;
+    }
+
+    /**
+     * Olay bir transaction içinde yayınlandıysa commit sonrasında, aksi halde
+     * hemen işlenir. PersonServiceDummy olayları yazma kilidi altında
+     * yayınladığı için bellek içi depoda filtre her zaman günceldir.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangeEvent event) {
+        ScalableBloomFilter current = filter;
+        if (current != null && event.getPerson() != null && event.getPerson().getNationalNumber() != null) {
+            current.add(event.getPerson().getNationalNumber());
+        }
+    }
+
+    /**
+     * Filtre sayesinde atlanan veritabanı sorgusu sayısı.
+     */
+    public long getSkippedProbes() {
+        return skippedProbes.sum();
+    }
+
+    /**
+     * Asıl kaynağa sorulması gereken kontrol sayısı.
+     */
+    public long getProbes() {
+        return probes.sum();
+    }
+}
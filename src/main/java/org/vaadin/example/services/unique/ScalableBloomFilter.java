@@ -0,0 +1,136 @@
+package org.vaadin.example.services.unique;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Metinler için büyüyebilen bir Bloom filter.
+ *
+ * Filtre "kesinlikle yok" veya "olabilir" cevabı verir; yanlış negatif
+ * yoktur. Kapasite dolduğunda mevcut bitler yeniden hesaplanmaz, iki kat
+ * kapasiteli ve daha düşük hata oranlı yeni bir aşama eklenir; toplam yanlış
+ * pozitif oranı ilk aşamanın oranının iki katını geçmez.
+ *
+ * Okumalar kilitsizdir; eklemeler tek bir kilit altında yapılır.
+ */
+final class ScalableBloomFilter {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final int MIN_CAPACITY = 1_024;
+
+    private final List<Stage> stages = new CopyOnWriteArrayList<>();
+    private long size;
+
+    /**
+     * @param expectedInsertions İlk aşamanın kapasitesi.
+     */
+    ScalableBloomFilter(long expectedInsertions) {
+        stages.add(new Stage(Math.max(expectedInsertions, MIN_CAPACITY), FALSE_POSITIVE_RATE));
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized void add(String value) {
+        long hash = hash(value);
+        Stage last = stages.get(stages.size() - 1);
+        if (last.mightContain(hash)) {
+            return;
+        }
+        if (last.count >= last.capacity) {
+            last = new Stage(last.capacity * 2, last.falsePositiveRate * TIGHTENING_RATIO);
+            stages.add(last);
+        }
+        last.put(hash);
+        size++;
+    }
+
+    /**
+     * Eklenen (ve eklenirken zaten var görünmeyen) değer sayısı.
+     */
+    synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Bit dizilerinin toplam boyutu (byte).
+     */
+    long bitBytes() {
+        return stages.stream().mapToLong(stage -> stage.bits.length() * 8L).sum();
+    }
+
+    /**
+     * 64 bit FNV-1a ve ardından MurmurHash3 fmix64 karıştırması.
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Tek bir bit dizisi. k index, hash'in iki yarısından
+     * (h1 + i * h2) şeklinde türetilir.
+     */
+    private static final class Stage {
+        final long capacity;
+        final double falsePositiveRate;
+        final AtomicLongArray bits;
+        final long bitCount;
+        final int hashCount;
+        long count;
+
+        Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((optimalBits + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1 + (long) i * h2);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1 + (long) i * h2);
+                long mask = 1L << bit;
+                bits.getAndAccumulate((int) (bit >>> 6), mask, (current, m) -> current | m);
+            }
+            count++;
+        }
+
+        private long index(long combined) {
+            return (combined < 0 ? ~combined : combined) % bitCount;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+-- "sharded" profile'ındaki her veritabanında çalıştırılır. Tablolar, JPA'nın
+-- person ve person_tombstone için ürettiği şema ile aynıdır.
+CREATE TABLE IF NOT EXISTS person (
+    id BIGINT NOT NULL PRIMARY KEY,
+    version INTEGER NOT NULL,
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    national_number VARCHAR(255),
+    change_seq BIGINT,
+    CONSTRAINT uk_person_national_number UNIQUE (national_number)
+);
+-- Sayfa sorguları boş değerleri başa koyar (ORDER BY ... NULLS FIRST); index'ler
+-- aynı sırada kurulur ki PostgreSQL sıralamayı index'ten okuyabilsin.
+CREATE INDEX IF NOT EXISTS idx_person_first_name ON person (first_name NULLS FIRST, id);
+CREATE INDEX IF NOT EXISTS idx_person_last_name ON person (last_name NULLS FIRST, id);
+CREATE INDEX IF NOT EXISTS idx_person_national_number ON person (national_number NULLS FIRST, id);
+CREATE INDEX IF NOT EXISTS idx_person_change_seq ON person (change_seq);
+
+CREATE TABLE IF NOT EXISTS person_tombstone (
+    person_id BIGINT NOT NULL PRIMARY KEY,
+    change_seq BIGINT NOT NULL,
+    deleted_at TIMESTAMP WITH TIME ZONE
+);
+CREATE INDEX IF NOT EXISTS idx_person_tombstone_change_seq ON person_tombstone (change_seq);
@@ -0,0 +1,87 @@
+package org.vaadin.example.application.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Kova sayısı sınırında önce dolu kovaların, sonra en uzun süredir
+ * kullanılmayanların çıkarıldığını ve eşzamanlılık sınırının sırada
+ * bekleyen isteği reddettiğini doğrular.
+ */
+class AdmissionBudgetTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void fullBucketsAreEvictedFirst() {
+        // Kovalar hemen dolar; sınırda hepsi çıkarılabilir.
+        AdmissionBudget budget = budget(1_000_000_000, 10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, budget.reserve("istemci-" + i));
+        }
+        assertEquals(10, budget.trackedClients());
+
+        budget.reserve("yeni");
+
+        assertEquals(1, budget.trackedClients());
+    }
+
+    @Test
+    void leastRecentlyUsedBucketsAreEvictedWhenNoneIsFull() {
+        // Kovalar pratikte hiç dolmaz; her istemcinin tek tokenı harcanır.
+        AdmissionBudget budget = budget(0.001, 10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, budget.reserve("istemci-" + i));
+        }
+        assertTrue(budget.reserve("istemci-9") > 0);
+
+        assertEquals(0, budget.reserve("yeni"));
+
+        assertEquals(10, budget.trackedClients());
+        // En eski istemci çıkarıldı ve dolu bir kova ile yeniden başlar.
+        assertEquals(0, budget.reserve("istemci-0"));
+        assertTrue(budget.reserve("istemci-9") > 0);
+        assertEquals(2, registry.get("personel.api.admission.rejected").tag("reason", "rate-limit").counter()
+                .count());
+    }
+
+    @Test
+    void requestWaitingPastTheQueueTimeoutIsShed() throws InterruptedException {
+        AdmissionBudget budget = budget(1, 10);
+        assertTrue(budget.acquire());
+
+        assertFalse(budget.acquire());
+        budget.release();
+        assertTrue(budget.acquire());
+
+        assertEquals(1, registry.get("personel.api.admission.rejected").tag("reason", "overload").counter()
+                .count());
+        assertEquals(1, registry.get("personel.api.admission.queued").counter().count());
+    }
+
+    @Test
+    void shedRequestGetsItsTokenBack() throws InterruptedException {
+        AdmissionBudget budget = budget(0.001, 10);
+        assertEquals(0, budget.reserve("istemci"));
+        assertTrue(budget.acquire());
+        assertEquals(0, budget.reserve("istemci-2"));
+        assertFalse(budget.acquire());
+        budget.refund("istemci-2");
+        budget.release();
+
+        // Retry-After sonrası tekrar, kovası boşalmadığı için kabul edilir.
+        assertEquals(0, budget.reserve("istemci-2"));
+        assertTrue(budget.reserve("istemci") > 0);
+    }
+
+    private AdmissionBudget budget(double ratePerSecond, int maxClients) {
+        return new AdmissionBudget("read", ratePerSecond, 1, 1, Duration.ofMillis(20), maxClients, registry);
+    }
+}
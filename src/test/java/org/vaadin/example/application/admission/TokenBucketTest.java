@@ -0,0 +1,73 @@
+package org.vaadin.example.application.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Kovanın burst kadar isteği kabul ettiğini, ardından bir sonraki tokena
+ * kalan süreyi döndürdüğünü ve zamanla en fazla burst kadar dolduğunu
+ * doğrular.
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void acceptsTheBurstAndThenReportsTheWait() {
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertWait(SECOND / 2, bucket.tryConsume(0));
+        assertWait(SECOND / 4, bucket.tryConsume(SECOND / 4));
+        assertEquals(0, bucket.tryConsume(SECOND / 2));
+    }
+
+    @Test
+    void refillsUpToTheBurst() {
+        TokenBucket bucket = new TokenBucket(2, 10, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+        assertFalse(bucket.isFull(0));
+
+        assertTrue(bucket.isFull(10 * SECOND));
+        // Dolum hesabı son kullanım anını değiştirmez.
+        assertEquals(0, bucket.lastUsed());
+        assertEquals(0, bucket.tryConsume(10 * SECOND));
+        assertEquals(10 * SECOND, bucket.lastUsed());
+        assertEquals(0, bucket.tryConsume(10 * SECOND));
+        assertTrue(bucket.tryConsume(10 * SECOND) > 0);
+    }
+
+    @Test
+    void refundReturnsTheTokenUpToTheBurst() {
+        TokenBucket bucket = new TokenBucket(1, 1, 0);
+        assertEquals(0, bucket.tryConsume(0));
+        bucket.refund();
+        bucket.refund();
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertTrue(bucket.tryConsume(0) > 0);
+    }
+
+    @Test
+    void timeGoingBackwardsDoesNotAddTokens() {
+        TokenBucket bucket = new TokenBucket(1, 1, SECOND);
+        assertEquals(0, bucket.tryConsume(SECOND));
+
+        assertWait(SECOND, bucket.tryConsume(0));
+        assertEquals(SECOND, bucket.lastUsed());
+    }
+
+    /**
+     * Bekleme süresi yukarı yuvarlanır; kayan nokta hatası bir nanosaniye
+     * fark yaratabilir.
+     */
+    private static void assertWait(long expected, long actual) {
+        assertTrue(Math.abs(expected - actual) <= 1, expected + " beklenirken " + actual);
+    }
+}
@@ -0,0 +1,135 @@
+package org.vaadin.example.application.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+import org.vaadin.example.domain.dto.PersonConflict;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.IPersonService;
+
+/**
+ * PATCH /api/personel/{id} yanıtlarının durum kodlarını ve 409 gövdelerini
+ * gerçek servis ve gömülü H2 üzerinden doğrular.
+ *
+ * Özellikler PersonelRoundTripTest ile aynıdır; iki test aynı uygulama
+ * bağlamını paylaşır.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+        "SPRING_PROFILE=sql,local",
+        "vaadin.launch-browser=false",
+        "api.admission.enabled=false",
+        "tracing.exporter=none",
+        "jfr.recording.enabled=false",
+        "db.profiler.enabled=true" })
+class PersonelControllerTest {
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+    @Autowired
+    private IPersonService personService;
+
+    private RestTemplate rest;
+
+    @BeforeEach
+    void setUp() {
+        rest = restTemplateBuilder.rootUri("http://localhost:" + port + "/api/personel")
+                .errorHandler(new DefaultResponseErrorHandler() {
+                    @Override
+                    public boolean hasError(ClientHttpResponse response) {
+                        return false;
+                    }
+                }).build();
+    }
+
+    @Test
+    void matchingVersionUpdatesTheRecord() {
+        Person person = newPerson();
+
+        ResponseEntity<Person> response = patch(person.getId(),
+                Map.of("lastName", "Kaya", "version", person.getVersion()), Person.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Kaya", response.getBody().getLastName());
+        assertEquals(person.getVersion() + 1, response.getBody().getVersion());
+    }
+
+    @Test
+    void staleVersionReturnsTheCurrentRecord() {
+        Person person = newPerson();
+        patch(person.getId(), Map.of("lastName", "Başkası", "version", person.getVersion()), Person.class);
+
+        ResponseEntity<PersonConflict> response = patch(person.getId(),
+                Map.of("firstName", "Formdaki", "version", person.getVersion()), PersonConflict.class);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(PersonConflict.Reason.VERSION_CONFLICT, response.getBody().reason());
+        Person current = response.getBody().current();
+        assertEquals("Başkası", current.getLastName());
+        assertEquals(person.getFirstName(), current.getFirstName());
+        assertEquals(person.getVersion() + 1, current.getVersion());
+    }
+
+    @Test
+    void duplicateNationalNumberIsAConflictWithoutARecord() {
+        Person person = newPerson();
+        Person other = newPerson();
+
+        ResponseEntity<PersonConflict> response = patch(person.getId(),
+                Map.of("nationalNumber", other.getNationalNumber(), "version", person.getVersion()),
+                PersonConflict.class);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(PersonConflict.Reason.DUPLICATE_NATIONAL_NUMBER, response.getBody().reason());
+        assertNull(response.getBody().current());
+    }
+
+    @Test
+    void missingRecordIsNotFound() {
+        assertEquals(HttpStatus.NOT_FOUND,
+                patch(Long.MAX_VALUE, Map.of("lastName", "Kaya"), String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND,
+                patch(Long.MAX_VALUE, Map.of("lastName", "Kaya", "version", 0), String.class).getStatusCode());
+    }
+
+    @Test
+    void unknownFieldIsABadRequest() {
+        Person person = newPerson();
+
+        assertEquals(HttpStatus.BAD_REQUEST,
+                patch(person.getId(), Map.of("changeSeq", 1), String.class).getStatusCode());
+    }
+
+    private <T> ResponseEntity<T> patch(long id, Map<String, Object> body, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf(PersonelController.MERGE_PATCH_JSON));
+        return rest.exchange("/" + id, HttpMethod.PATCH, new HttpEntity<>(body, headers), type);
+    }
+
+    private Person newPerson() {
+        Person person = new Person();
+        person.setFirstName("Ayşe");
+        person.setLastName("Yılmaz");
+        person.setNationalNumber(String.valueOf(System.nanoTime() % 100_000_000_000L));
+        return personService.save(person);
+    }
+}
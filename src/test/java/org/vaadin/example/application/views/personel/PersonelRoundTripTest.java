@@ -0,0 +1,433 @@
+package org.vaadin.example.application.views.personel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vaadin.example.application.admission.AdmissionControlFilter;
+import org.vaadin.example.domain.dto.PersonPatch;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.infrastructure.PersonChangeBroadcaster;
+import org.vaadin.example.infrastructure.PersonelDataProvider;
+import org.vaadin.example.infrastructure.query.QueryProfiler;
+import org.vaadin.example.infrastructure.tracing.Tracer;
+import org.vaadin.example.services.IPersonService;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridSortOrder;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Personel ekranındaki kullanıcı eylemlerinin backend'e kaç REST çağrısı ve
+ * kaç SQL ifadesi olarak gittiğini ölçer; bir değişiklik bir eylemin
+ * bütçesini aşarsa build kırılır.
+ *
+ * Uygulama sql ve local profile'larıyla (gömülü H2) rastgele bir portta
+ * çalışır.
+ * Ekran, PersonelGridFootprint'teki gibi sunucu bağlantısı olmayan bir UI'a
+ * eklenir ve bileşenler sunucu tarafında sürülür. REST çağrıları
+ * RestTemplate'e eklenen bir interceptor ile, SQL ifadeleri QueryProfiler
+ * ile sayılır. UI.access ile gelen işler (komşu sayfa yüklemeleri ve
+ * değişiklik yayınları) tarayıcı isteğinde olduğu gibi test thread'inde
+ * çalıştırılır; arka plan yüklemeleri eylemin kendisinden ayrı ölçülür.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+        "SPRING_PROFILE=sql,local",
+        "vaadin.launch-browser=false",
+        "api.admission.enabled=false",
+        "tracing.exporter=none",
+        "jfr.recording.enabled=false",
+        "db.profiler.enabled=true" })
+class PersonelRoundTripTest {
+
+    private static final String LIST = "GET /api/personel/list";
+    private static final String SEARCH = "GET /api/personel/search";
+    private static final String SAVE = "POST /api/personel";
+    private static final String UPDATE = "PATCH /api/personel/{id}";
+    private static final String DELETE = "DELETE /api/personel/{id}";
+
+    // SQL bütçeleri bugünkü değerlerdir; bir eylemi ucuzlatan değişiklik
+    // bütçesini de düşürmelidir.
+    // Bir sayfa: içerik ve toplam sayı.
+    private static final int PAGE_STATEMENTS = 2;
+    private static final int SAVE_STATEMENTS = 2;
+    private static final int UPDATE_STATEMENTS = 1;
+    private static final int DELETE_STATEMENTS = 4;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+    @Autowired
+    private PersonChangeBroadcaster changeBroadcaster;
+    @Autowired
+    private Tracer tracer;
+    @Autowired
+    private QueryProfiler profiler;
+    @Autowired
+    private IPersonService personService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private final List<String> clientIds = new CopyOnWriteArrayList<>();
+    private final Queue<Command> uiAccess = new ConcurrentLinkedQueue<>();
+    private final Queue<Runnable> background = new ConcurrentLinkedQueue<>();
+    private final AtomicLong broadcastSequence = new AtomicLong();
+
+    private UI ui;
+    private PersonelDataProvider dataProvider;
+    private PersonelView view;
+    private Registration broadcastRegistration;
+
+    @BeforeEach
+    void setUp() {
+        ui = new UI();
+        VaadinSession session = Mockito.mock(VaadinSession.class);
+        Mockito.when(session.hasLock()).thenReturn(true);
+        Mockito.when(session.access(any())).thenAnswer(invocation -> {
+            uiAccess.add(invocation.getArgument(0));
+            return null;
+        });
+        ui.getInternals().setSession(session);
+        UI.setCurrent(ui);
+
+        dataProvider = new PersonelDataProvider(restTemplateBuilder.additionalInterceptors((request, body,
+                execution) -> {
+            calls.add(request.getMethod() + " " + request.getURI().getPath().replaceAll("/\\d+$", "/{id}"));
+            clientIds.add(String.valueOf(request.getHeaders().getFirst(AdmissionControlFilter.CLIENT_ID_HEADER)));
+            return execution.execute(request, body);
+        }).build(), "http://localhost:" + port + "/api/personel");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (broadcastRegistration != null) {
+            broadcastRegistration.remove();
+        }
+        ui.removeAll();
+        UI.setCurrent(null);
+    }
+
+    @Test
+    void openingTheViewLoadsOnePage() {
+        RoundTrips open = measure(this::open);
+        assertCalls(List.of(LIST), open);
+        assertStatements(PAGE_STATEMENTS, open);
+
+        // Yalnızca sonraki sayfa önceden yüklenir; oturum kilidi olmadan
+        // çalışsa da oturumun istemci kimliğiyle gider.
+        clientIds.clear();
+        assertCalls(List.of(LIST), measure(this::runBackground));
+        assertTrue(clientIds.get(0).startsWith("ui-"), "Arka plan isteğinin istemci kimliği: " + clientIds);
+    }
+
+    @Test
+    void nextPageIsServedFromThePrefetchedPage() {
+        open();
+        runBackground();
+
+        RoundTrips next = measure(() -> button("Next").click());
+        assertCalls(List.of(), next);
+        assertStatements(0, next);
+        assertCalls(List.of(LIST), measure(this::runBackground));
+    }
+
+    @Test
+    void changingThePageSizeLoadsOnePage() {
+        open();
+        runBackground();
+
+        RoundTrips resize = measure(() -> itemsPerPage().setValue(20));
+        assertCalls(List.of(LIST), resize);
+        assertStatements(PAGE_STATEMENTS, resize);
+    }
+
+    @Test
+    void sortingLoadsOnePage() {
+        open();
+        runBackground();
+
+        Grid<Person> grid = grid();
+        RoundTrips sort = measure(() -> grid.sort(GridSortOrder.desc(grid.getColumns().get(1)).build()));
+        assertCalls(List.of(LIST), sort);
+        assertStatements(PAGE_STATEMENTS, sort);
+    }
+
+    @Test
+    void searchingLoadsOnePageAndClearingUsesTheCache() {
+        open();
+        runBackground();
+
+        ComboBox<String> searchField = searchField();
+        RoundTrips search = measure(() -> searchField.setValue("a"));
+        assertCalls(List.of(SEARCH), search);
+        assertStatements(PAGE_STATEMENTS, search);
+
+        assertCalls(List.of(), measure(() -> searchField.setValue(null)));
+    }
+
+    @Test
+    void savingANewPersonOnlyPostsIt() {
+        open();
+        runBackground();
+
+        button("Yeni bir çalışan ekleme").click();
+        textField("Ad").setValue("Deneme");
+        textField("Soyad").setValue("Kişi");
+        textField("TC Kimlik No").setValue(String.valueOf(System.nanoTime() % 100_000_000_000L));
+        RoundTrips save = measure(() -> button("Kaydet").click());
+        assertCalls(List.of(SAVE), save);
+        assertStatements(SAVE_STATEMENTS, save);
+
+        // Kendi eklemesinin yayını grid'i yeniden okutmaz.
+        assertCalls(List.of(), measure(this::awaitBroadcasts));
+    }
+
+    @Test
+    void editingAPersonOnlyPatchesIt() {
+        open();
+        runBackground();
+
+        PersonelGrid personelGrid = find(ui, PersonelGrid.class, component -> true);
+        personelGrid.toggleEditor(firstRow());
+        textField("Soyad").setValue("Güncel");
+        RoundTrips update = measure(() -> button("Düzenle").click());
+        assertCalls(List.of(UPDATE), update);
+        assertStatements(UPDATE_STATEMENTS, update);
+
+        assertCalls(List.of(), measure(this::awaitBroadcasts));
+    }
+
+    @Test
+    void aDuplicateNationalNumberLeavesTheRowUntouched() {
+        open();
+        runBackground();
+
+        PersonelGrid personelGrid = find(ui, PersonelGrid.class, component -> true);
+        Person row = firstRow();
+        String otherNationalNumber = grid().getGenericDataView().getItems().skip(1).findFirst().orElseThrow()
+                .getNationalNumber();
+        personelGrid.toggleEditor(row);
+        textField("TC Kimlik No").setValue(otherNationalNumber);
+        assertCalls(List.of(UPDATE), measure(() -> button("Düzenle").click()));
+
+        // Form açık kalır; başarısız kaydetme grid'deki satırı değiştirmez.
+        assertTrue(textField("TC Kimlik No").isInvalid());
+        assertNotEquals(otherNationalNumber, row(row.getId()).getNationalNumber());
+    }
+
+    @Test
+    void aVersionConflictLoadsTheCurrentRecord() {
+        open();
+        runBackground();
+
+        PersonelGrid personelGrid = find(ui, PersonelGrid.class, component -> true);
+        Person row = firstRow();
+        personelGrid.toggleEditor(row);
+        personService.patch(row.getId(), new PersonPatch(row.getVersion(), Map.of("lastName", "Başkası")));
+        awaitBroadcasts();
+        flush();
+
+        textField("Ad").setValue("Formdaki");
+        assertCalls(List.of(UPDATE), measure(() -> button("Düzenle").click()));
+
+        // Form kaydın güncel haliyle yeniden açılır; kullanıcının değişikliği gönderilmemiştir.
+        assertEquals("Başkası", textField("Soyad").getValue());
+        assertEquals(row.getFirstName(), textField("Ad").getValue());
+        assertFalse(textField("TC Kimlik No").isInvalid());
+        assertEquals("Başkası", row(row.getId()).getLastName());
+        assertEquals(row.getFirstName(), row(row.getId()).getFirstName());
+    }
+
+    @Test
+    void deletingAPersonOnlyDeletesIt() {
+        open();
+        runBackground();
+
+        PersonelGrid personelGrid = find(ui, PersonelGrid.class, component -> true);
+        personelGrid.confirmDelete(firstRow());
+        flush();
+        RoundTrips delete = measure(() -> button("Evet").click());
+        assertCalls(List.of(DELETE), delete);
+        assertStatements(DELETE_STATEMENTS, delete);
+
+        // Sayfa ve sayı yerel olarak düzeltilir; yeniden okunmaz.
+        assertCalls(List.of(), measure(this::awaitBroadcasts));
+    }
+
+    @Test
+    void anUpdateCommittedAfterAPageLoadIsStillApplied() {
+        open();
+        runBackground();
+
+        Person row = firstRow();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            personService.patch(row.getId(), new PersonPatch(row.getVersion(), Map.of("lastName", "Eşzamanlı")));
+            // Güncelleme henüz commit edilmedi; yeni sayfa eski satırı okur.
+            assertCalls(List.of(LIST), measure(() -> itemsPerPage().setValue(10)));
+            assertEquals(row.getLastName(), row(row.getId()).getLastName());
+        });
+
+        // Yayın, commit'ten önce okunan sayfaya yine uygulanır.
+        awaitBroadcasts();
+        flush();
+        assertEquals("Eşzamanlı", row(row.getId()).getLastName());
+    }
+
+    @Test
+    void refreshButtonOnlyPostsTheMockPerson() {
+        open();
+        runBackground();
+
+        RoundTrips refresh = measure(() -> button("Yenile").click());
+        assertCalls(List.of(SAVE), refresh);
+        assertStatements(SAVE_STATEMENTS, refresh);
+    }
+
+    private void open() {
+        TaskExecutor executor = background::add;
+        view = new PersonelView(dataProvider, changeBroadcaster, executor, tracer);
+        ui.add(view);
+        // Ekranın dinleyicisinden sonra eklenir; bir olayı burada görmek,
+        // ekranın da aldığı anlamına gelir.
+        broadcastRegistration = changeBroadcaster.register(change -> broadcastSequence
+                .accumulateAndGet(change.getSequence(), Math::max));
+        flush();
+    }
+
+    /**
+     * Eylemi çalıştırır, ardından tarayıcıya yanıt hazırlanırken olduğu gibi
+     * bekleyen UI işlerini ve beforeClientResponse çağrılarını çalıştırır.
+     */
+    private RoundTrips measure(Runnable action) {
+        calls.clear();
+        long statements = profiler.statementCount();
+        action.run();
+        flush();
+        return new RoundTrips(List.copyOf(calls), profiler.statementCount() - statements);
+    }
+
+    private void flush() {
+        Command command;
+        while ((command = uiAccess.poll()) != null) {
+            command.execute();
+        }
+        StateTree tree = ui.getInternals().getStateTree();
+        tree.runExecutionsBeforeClientResponse();
+        tree.collectChanges(change -> {
+        });
+    }
+
+    private void runBackground() {
+        Runnable task;
+        while ((task = background.poll()) != null) {
+            task.run();
+            flush();
+        }
+    }
+
+    /**
+     * Şimdiye kadar yayınlanan değişiklik olayları ekrana ulaşana kadar
+     * bekler.
+     */
+    private void awaitBroadcasts() {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (broadcastSequence.get() < changeBroadcaster.currentSequence()) {
+            assertTrue(System.nanoTime() < deadline, "Değişiklik yayını ekrana ulaşmadı");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void assertCalls(List<String> expected, RoundTrips roundTrips) {
+        assertEquals(expected, roundTrips.calls(), "REST çağrıları");
+    }
+
+    private static void assertStatements(int budget, RoundTrips roundTrips) {
+        assertTrue(roundTrips.statements() <= budget,
+                "SQL ifadesi bütçesi " + budget + ", çalışan " + roundTrips.statements());
+    }
+
+    private Person firstRow() {
+        return grid().getGenericDataView().getItems().findFirst().orElseThrow();
+    }
+
+    private Person row(Long id) {
+        return grid().getGenericDataView().getItems().filter(person -> id.equals(person.getId())).findFirst()
+                .orElseThrow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Grid<Person> grid() {
+        return find(ui, Grid.class, component -> true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ComboBox<Integer> itemsPerPage() {
+        return find(ui, ComboBox.class, component -> "Items per page".equals(component.getLabel()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ComboBox<String> searchField() {
+        return find(ui, ComboBox.class, component -> "Search by name...".equals(component.getPlaceholder()));
+    }
+
+    private TextField textField(String label) {
+        return find(ui, TextField.class, component -> label.equals(component.getLabel()));
+    }
+
+    private Button button(String text) {
+        return find(ui, Button.class, component -> text.equals(component.getText()));
+    }
+
+    private static <T extends Component> T find(Component root, Class<T> type, Predicate<T> matches) {
+        List<Component> queue = new ArrayList<>(List.of(root));
+        while (!queue.isEmpty()) {
+            Component component = queue.remove(0);
+            if (type.isInstance(component) && matches.test(type.cast(component))) {
+                return type.cast(component);
+            }
+            component.getChildren().forEach(queue::add);
+        }
+        throw new IllegalStateException(type.getSimpleName() + " bulunamadı");
+    }
+
+    /**
+     * Bir eylemin yaptığı REST çağrıları (yöntem ve yol) ve çalışan SQL
+     * ifadesi sayısı.
+     */
+    private record RoundTrips(List<String> calls, long statements) {
+    }
+}
@@ -0,0 +1,133 @@
+package org.vaadin.example.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Bir JFR kaydındaki uygulama olaylarını (servis çağrıları, arayüzün REST
+ * çağrıları, grid yenilemeleri) işlem başına özetler.
+ *
+ * İki tablo yazdırılır: süre dağılımı (p50/p95/p99/max) ve işlem başına
+ * ayrılan bellek. Olaylar eşik süresini aşanlar olduğu için tablolar yavaş
+ * çağrıları gösterir; tüm çağrılar için eşikler 0 yapılarak kayıt alınabilir.
+ *
+ * Çalıştırmak için: mvn test-compile exec:java
+ * -Dexec.mainClass=org.vaadin.example.benchmark.JfrSummary
+ * -Dexec.classpathScope=test -Dexec.args=personel.jfr
+ */
+public class JfrSummary {
+
+    private static final String PREFIX = "org.vaadin.example.";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Kullanım: JfrSummary <kayıt.jfr>");
+            System.exit(2);
+        }
+
+        Map<String, Group> groups = new TreeMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(Path.of(args[0]))) {
+            String type = event.getEventType().getName();
+            if (type.startsWith(PREFIX)) {
+                groups.computeIfAbsent(key(type.substring(PREFIX.length()), event), Group::new).add(event);
+            }
+        }
+        if (groups.isEmpty()) {
+            System.out.println("Kayıtta uygulama olayı yok.");
+            return;
+        }
+
+        List<Group> sorted = new ArrayList<>(groups.values());
+        sorted.sort(Comparator.comparingLong(Group::totalNanos).reversed());
+
+        System.out.printf("%-58s %7s %9s %9s %9s %9s %11s %7s%n", "Süre (ms)", "count", "p50", "p95", "p99", "max",
+                "total", "failed");
+        for (Group group : sorted) {
+            long[] durations = group.sortedDurations();
+            System.out.printf("%-58s %7d %9.2f %9.2f %9.2f %9.2f %11.1f %7d%n", group.key, durations.length,
+                    millis(percentile(durations, 0.50)), millis(percentile(durations, 0.95)),
+                    millis(percentile(durations, 0.99)), millis(durations[durations.length - 1]),
+                    millis(group.totalNanos()), group.failed);
+        }
+
+        System.out.println();
+        System.out.printf("%-58s %7s %10s %10s %10s %11s %10s%n", "Bellek (KB)", "count", "mean", "p95", "max",
+                "total MB", "per row");
+        for (Group group : sorted) {
+            long[] allocated = group.sortedAllocations();
+            long total = Arrays.stream(allocated).sum();
+            System.out.printf("%-58s %7d %10.1f %10.1f %10.1f %11.2f %10s%n", group.key, allocated.length,
+                    total / 1024.0 / allocated.length, percentile(allocated, 0.95) / 1024.0,
+                    allocated[allocated.length - 1] / 1024.0, total / 1024.0 / 1024.0,
+                    group.rows > 0 ? String.format("%.1f", total / 1024.0 / group.rows) : "-");
+        }
+    }
+
+    /**
+     * Olay türü ve işlem; servis çağrılarında backend, grid yenilemelerinde
+     * önbellek durumu da eklenir.
+     */
+    private static String key(String type, RecordedEvent event) {
+        StringBuilder key = new StringBuilder(type).append(' ').append(event.getString("operation"));
+        if (event.hasField("backend")) {
+            key.append(" [").append(event.getString("backend")).append(']');
+        }
+        if (event.hasField("cache") && event.getString("cache") != null) {
+            key.append(" (").append(event.getString("cache")).append(')');
+        }
+        return key.toString();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Group {
+        private final String key;
+        private final List<Long> durations = new ArrayList<>();
+        private final List<Long> allocations = new ArrayList<>();
+        private long rows;
+        private int failed;
+
+        Group(String key) {
+            this.key = key;
+        }
+
+        void add(RecordedEvent event) {
+            durations.add(event.getDuration().toNanos());
+            allocations.add(event.getLong("allocated"));
+            if (event.hasField("rows")) {
+                rows += event.getInt("rows");
+            }
+            if (event.hasField("failed") && event.getBoolean("failed")) {
+                failed++;
+            }
+        }
+
+        long totalNanos() {
+            return durations.stream().mapToLong(Long::longValue).sum();
+        }
+
+        long[] sortedDurations() {
+            return durations.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+
+        long[] sortedAllocations() {
+            return allocations.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+    }
+}
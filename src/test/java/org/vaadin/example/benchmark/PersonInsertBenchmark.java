@@ -0,0 +1,198 @@
+package org.vaadin.example.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.batch.WriteCoalescer;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Tekil eklemeler ile WriteCoalescer üzerinden toplu eklemelerin saniyedeki
+ * kayıt sayısını farklı eşzamanlılık seviyelerinde karşılaştırır.
+ *
+ * Dosya tabanlı bir H2 veritabanı ve uygulamadaki gibi 10 bağlantılık bir
+ * Hikari havuzu kullanılır. Id'ler, Hibernate'in pooled optimizer'ı gibi her
+ * 50 kayıtta bir sequence'tan ayrılır.
+ *
+ * İlk argüman, uzak bir veritabanını taklit etmek için her sunucu gidiş
+ * dönüşüne (execute, executeBatch, commit) eklenen gecikmedir (ms, varsayılan
+ * 0).
+ *
+ * Çalıştırmak için: mvn test-compile exec:java
+ * -Dexec.mainClass=org.vaadin.example.benchmark.PersonInsertBenchmark
+ * -Dexec.classpathScope=test -Dexec.args=1
+ */
+public class PersonInsertBenchmark {
+
+    private static final int POOL_SIZE = 10;
+    private static final int INSERTS_PER_RUN = 5_000;
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int[] CONCURRENCY = { 1, 8, 32, 128 };
+
+    private static final String INSERT = "INSERT INTO person (id, version, first_name, last_name, national_number)"
+            + " VALUES (?, 0, ?, ?, ?)";
+
+    private static long roundTripMillis;
+
+    public static void main(String[] args) throws Exception {
+        roundTripMillis = args.length > 0 ? Long.parseLong(args[0]) : 0;
+        Path dir = Files.createTempDirectory("person-insert-benchmark");
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:file:" + dir.resolve("bench") + ";DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(POOL_SIZE);
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            createSchema(dataSource);
+            IdAllocator ids = new IdAllocator();
+
+            System.out.printf("round trip: %d ms%n%-12s %8s %14s%n", roundTripMillis, "mode", "threads",
+                    "inserts/s");
+            for (int threads : CONCURRENCY) {
+                // İlk tur ısınma içindir ve raporlanmaz.
+                run(threads, person -> insertOne(dataSource, ids, person));
+                double direct = run(threads, person -> insertOne(dataSource, ids, person));
+                System.out.printf("%-12s %8d %14.0f%n", "direct", threads, direct);
+
+                try (WriteCoalescer<Person, Person> coalescer = new WriteCoalescer<>("benchmark", 50,
+                        Duration.ZERO, 1000, batch -> insertBatch(dataSource, ids, batch))) {
+                    run(threads, person -> coalescer.submit(person).join());
+                    double coalesced = run(threads, person -> coalescer.submit(person).join());
+                    System.out.printf("%-12s %8d %14.0f%n", "coalesced", threads, coalesced);
+                }
+            }
+        }
+    }
+
+    private interface Insert {
+        void insert(Person person) throws Exception;
+    }
+
+    /**
+     * INSERTS_PER_RUN eklemeyi verilen sayıda thread'e dağıtır.
+     *
+     * @return Saniyedeki ekleme sayısı.
+     */
+    private static double run(int threads, Insert insert) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int perThread = INSERTS_PER_RUN / threads;
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    insert.insert(newPerson(i));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        return perThread * threads / (elapsed / 1e9);
+    }
+
+    private static Person insertOne(DataSource dataSource, IdAllocator ids, Person person) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                bind(statement, ids.next(connection), person);
+                statement.executeUpdate();
+                roundTrip();
+            }
+            connection.commit();
+            roundTrip();
+        }
+        return person;
+    }
+
+    private static List<Person> insertBatch(DataSource dataSource, IdAllocator ids, List<Person> persons) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                for (Person person : persons) {
+                    bind(statement, ids.next(connection), person);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                roundTrip();
+            }
+            connection.commit();
+            roundTrip();
+            return persons;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void roundTrip() {
+        if (roundTripMillis > 0) {
+            try {
+                Thread.sleep(roundTripMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement statement, long id, Person person) throws SQLException {
+        person.setId(id);
+        statement.setLong(1, id);
+        statement.setString(2, person.getFirstName());
+        statement.setString(3, person.getLastName());
+        statement.setString(4, person.getNationalNumber());
+    }
+
+    private static Person newPerson(int i) {
+        Person person = new Person();
+        person.setFirstName("Ad" + i);
+        person.setLastName("Soyad" + i);
+        person.setNationalNumber(String.format("%010d", i));
+        return person;
+    }
+
+    private static void createSchema(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SEQUENCE idgenerator START WITH 1000 INCREMENT BY " + ALLOCATION_SIZE);
+            statement.execute("CREATE TABLE person (id BIGINT PRIMARY KEY, version INT NOT NULL,"
+                    + " first_name VARCHAR(255), last_name VARCHAR(255), national_number VARCHAR(255))");
+        }
+    }
+
+    /**
+     * Hibernate'in pooled optimizer'ı gibi her ALLOCATION_SIZE id için bir
+     * sequence çağrısı yapar. Sequence, çağıranın bağlantısı üzerinden okunur.
+     */
+    private static final class IdAllocator {
+        private long next;
+        private long limit;
+
+        synchronized long next(Connection connection) throws SQLException {
+            if (next == limit) {
+                try (Statement statement = connection.createStatement();
+                        ResultSet rs = statement.executeQuery("SELECT NEXT VALUE FOR idgenerator")) {
+                    rs.next();
+                    next = rs.getLong(1);
+                    limit = next + ALLOCATION_SIZE;
+                }
+            }
+            return next++;
+        }
+    }
+}
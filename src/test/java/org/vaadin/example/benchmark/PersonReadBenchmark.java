@@ -0,0 +1,115 @@
+package org.vaadin.example.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.vaadin.example.Application;
+import org.vaadin.example.domain.repository.PersonRepository;
+import org.vaadin.example.domain.repository.PersonTombstoneRepository;
+import org.vaadin.example.services.IPersonService;
+import org.vaadin.example.services.batch.PersonWriteBehind;
+import org.vaadin.example.services.implementation.PersonServiceJdbc;
+import org.vaadin.example.services.implementation.PersonServiceSQL;
+import org.vaadin.example.services.sync.ChangeSequence;
+import org.vaadin.example.services.unique.NationalNumberGuard;
+
+/**
+ * PersonServiceSQL (Hibernate) ile PersonServiceJdbc'nin okuma metodlarını
+ * aynı veri üzerinde karşılaştırır.
+ *
+ * Uygulama "sql,local" profile'ları ile rastgele bir portta başlatılır,
+ * gömülü H2 veritabanına ROWS kayıt eklenir ve her iki servis aynı
+ * DataSource üzerinden ölçülür.
+ *
+ * Çalıştırmak için: mvn test-compile exec:java
+ * -Dexec.mainClass=org.vaadin.example.benchmark.PersonReadBenchmark
+ * -Dexec.classpathScope=test
+ */
+public class PersonReadBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int WARMUP_MILLIS = 3_000;
+    private static final int MEASURE_MILLIS = 5_000;
+
+    public static void main(String[] args) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles("sql", "local")
+                .run("--server.port=0", "--datasource.replica.enabled=false", "--vaadin.launch-browser=false")) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            insertRows(new JdbcTemplate(dataSource));
+
+            PersonServiceSQL hibernate = context.getBean(PersonServiceSQL.class);
+            PersonServiceJdbc jdbc = new PersonServiceJdbc(context.getBean(PersonRepository.class),
+                    context.getBean(PersonTombstoneRepository.class), context,
+                    context.getBeanProvider(PersonWriteBehind.class), context.getBean(NationalNumberGuard.class),
+                    context.getBean(ChangeSequence.class), dataSource, 100);
+
+            System.out.printf("%-28s %14s %14s%n", "operation", "hibernate op/s", "jdbc op/s");
+            compare("list page (lastName)", hibernate, jdbc, (service, i) -> service.list(
+                    PageRequest.of(i % 200, PAGE_SIZE, Sort.by("lastName"))));
+            compare("list page (unsorted)", hibernate, jdbc, (service, i) -> service.list(
+                    PageRequest.of(i % 200, PAGE_SIZE)));
+            compare("searchByName page", hibernate, jdbc, (service, i) -> service.searchByName(
+                    "an", PageRequest.of(i % 20, PAGE_SIZE, Sort.by("firstName"))));
+            compare("get by id", hibernate, jdbc, (service, i) -> service.get(1000L + i % ROWS));
+            compare("count", hibernate, jdbc, (service, i) -> service.count());
+            compare("countByName", hibernate, jdbc, (service, i) -> service.countByName("an"));
+        }
+    }
+
+    private interface Operation {
+        void run(IPersonService service, int iteration);
+    }
+
+    private static void compare(String name, IPersonService hibernate, IPersonService jdbc, Operation operation) {
+        measure(i -> operation.run(hibernate, i), WARMUP_MILLIS);
+        measure(i -> operation.run(jdbc, i), WARMUP_MILLIS);
+        double hibernateRate = measure(i -> operation.run(hibernate, i), MEASURE_MILLIS);
+        double jdbcRate = measure(i -> operation.run(jdbc, i), MEASURE_MILLIS);
+        System.out.printf("%-28s %14.0f %14.0f%n", name, hibernateRate, jdbcRate);
+    }
+
+    /**
+     * İşlemi verilen süre boyunca tekrarlar.
+     *
+     * @return Saniyedeki işlem sayısı.
+     */
+    private static double measure(IntConsumer operation, long millis) {
+        long start = System.nanoTime();
+        long end = start + millis * 1_000_000;
+        int iterations = 0;
+        long now;
+        do {
+            operation.accept(iterations++);
+            now = System.nanoTime();
+        } while (now < end);
+        return iterations / ((now - start) / 1e9);
+    }
+
+    private static void insertRows(JdbcTemplate jdbc) {
+        String[] firstNames = { "Ahmet", "Ayşe", "Mehmet", "Fatma", "Can", "Elif", "Hannah", "Daniel", "Ana", "Ivan" };
+        String[] lastNames = { "Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Smith", "Jordan", "Novak", "Brown" };
+        jdbc.update("DELETE FROM person");
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[] { 1000L + i, firstNames[random.nextInt(firstNames.length)] + i % 500,
+                    lastNames[random.nextInt(lastNames.length)] + i % 700, String.format("%010d", i) });
+            if (batch.size() == 1_000) {
+                jdbc.batchUpdate("INSERT INTO person (id, version, first_name, last_name, national_number)"
+                        + " VALUES (?, 0, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.vaadin.example.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.memory.PersonColumnStore;
+import org.vaadin.example.services.memory.PersonSnapshot;
+import org.vaadin.example.services.unique.NationalNumberGuard;
+
+/**
+ * PersonColumnStore snapshot'ının yazma ve yeniden yükleme sürelerini ölçer.
+ *
+ * ROWS kişilik (varsayılan 2 milyon) bir depo kurulur, geçici bir dosyaya
+ * yazılır ve birkaç tur boyunca dosyadan okunup depo yeniden kurulur. Her
+ * turda okuma (map + kopyalama), deponun kurulması ve kimlik numarası
+ * filtresinin yüklenmesi ayrı ayrı yazdırılır; sonunda yüklenen deponun
+ * sıralı bir sayfası ilk depo ile karşılaştırılır.
+ *
+ * Çalıştırmak için: mvn test-compile exec:java
+ * -Dexec.mainClass=org.vaadin.example.benchmark.PersonSnapshotBenchmark
+ * -Dexec.classpathScope=test -Dexec.args=2000000
+ */
+public class PersonSnapshotBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Path file = Files.createTempFile("person", ".snapshot");
+        try {
+            long start = System.nanoTime();
+            PersonColumnStore store = createStore(rows);
+            System.out.printf("depo kuruldu: %d kişi (%d ms)%n", store.size(), millis(start));
+
+            start = System.nanoTime();
+            PersonSnapshot snapshot = store.snapshot(rows);
+            long copyMillis = millis(start);
+            start = System.nanoTime();
+            snapshot.write(file);
+            System.out.printf("snapshot: kopya %d ms, yazma %d ms, %d MB%n", copyMillis, millis(start),
+                    Files.size(file) / (1024 * 1024));
+
+            PersonColumnStore restored = null;
+            System.out.printf("%5s %10s %10s %10s %10s%n", "tur", "okuma", "kurma", "filtre", "toplam");
+            for (int round = 1; round <= ROUNDS; round++) {
+                long roundStart = System.nanoTime();
+                PersonSnapshot read = PersonSnapshot.read(file);
+                long readMillis = millis(roundStart);
+                start = System.nanoTime();
+                restored = PersonColumnStore.restore(read, false);
+                long restoreMillis = millis(start);
+                start = System.nanoTime();
+                new NationalNumberGuard().load(restored.size(), restored.nationalNumbers());
+                long guardMillis = millis(start);
+                System.out.printf("%5d %8d ms %8d ms %8d ms %8d ms%n", round, readMillis, restoreMillis,
+                        guardMillis, millis(roundStart));
+            }
+
+            PageRequest page = PageRequest.of(rows / 200, 50, Sort.by("lastName"));
+            boolean same = ids(store.list(page).getContent()).equals(ids(restored.list(page).getContent()));
+            System.out.println("sıralı sayfa aynı: " + same);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static PersonColumnStore createStore(int rows) {
+        String[] firstNames = { "Ahmet", "Ayşe", "Mehmet", "Fatma", "Can", "Elif", "Hannah", "Daniel", "Ana", "Ivan" };
+        String[] lastNames = { "Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Smith", "Jordan", "Novak", "Brown" };
+        Random random = new Random(42);
+        List<Person> persons = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Person person = new Person();
+            person.setId(1000L + i);
+            person.setFirstName(firstNames[random.nextInt(firstNames.length)] + i % 500);
+            person.setLastName(lastNames[random.nextInt(lastNames.length)] + i % 700);
+            person.setNationalNumber(String.format("%011d", random.nextLong(100_000_000_000L)));
+            person.setChangeSeq(i + 1L);
+            persons.add(person);
+        }
+        PersonColumnStore store = new PersonColumnStore(rows, false);
+        store.insertAll(persons);
+        return store;
+    }
+
+    private static List<Long> ids(List<Person> persons) {
+        return persons.stream().map(Person::getId).toList();
+    }
+
+    private static long millis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,174 @@
+package org.vaadin.example.benchmark;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.mockito.Mockito;
+import org.springframework.web.client.RestTemplate;
+import org.vaadin.example.application.views.personel.PersonelGrid;
+import org.vaadin.example.domain.dto.PageResponse;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.infrastructure.PersonChangeBroadcaster;
+import org.vaadin.example.infrastructure.PersonelDataProvider;
+import org.vaadin.example.infrastructure.tracing.Tracer;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.server.VaadinSession;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+
+/**
+ * PersonelGrid'in bir sayfa için sunucuda tuttuğu durumu ve istemciye
+ * gönderdiği değişiklikleri ölçer.
+ *
+ * Grid, REST yerine sabit veri döndüren bir sağlayıcı ile sunucu bağlantısı
+ * olmayan bir UI'a eklenir; sayfa boyutu 50 seçilir ve sonraki sayfaya
+ * geçilir. Arka plandaki komşu sayfa yüklemeleri çalıştırılmaz. Her adımda şunlar yazdırılır:
+ * <ul>
+ * <li>UI ağacındaki StateNode sayısı (sunucu tarafı bileşen/element
+ * sayısı),</li>
+ * <li>UI'ın Java serileştirme boyutu (oturum boyutu yaklaşımı;
+ * serileştirilemeyen alanlar atlanır),</li>
+ * <li>istemciye gidecek UIDL değişikliklerinin JSON boyutu.</li>
+ * </ul>
+ *
+ * Çalıştırmak için: mvn test-compile exec:java
+ * -Dexec.mainClass=org.vaadin.example.benchmark.PersonelGridFootprint
+ * -Dexec.classpathScope=test
+ */
+public class PersonelGridFootprint {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int TOTAL = 10_000;
+
+    public static void main(String[] args) throws IOException {
+        UI ui = new UI();
+        VaadinSession session = Mockito.mock(VaadinSession.class);
+        Mockito.when(session.hasLock()).thenReturn(true);
+        ui.getInternals().setSession(session);
+        UI.setCurrent(ui);
+        PersonelGrid grid = new PersonelGrid(new FixedDataProvider(), new PersonChangeBroadcaster(), task -> {
+        }, new Tracer(trace -> {
+        }, false, 0, Duration.ZERO));
+        ui.add(grid);
+        report("initial (5 rows)", ui);
+
+        find(grid, ComboBox.class).setValue(PAGE_SIZE);
+        report("page size " + PAGE_SIZE, ui);
+
+        find(grid, Button.class, "Next").click();
+        report("next page", ui);
+    }
+
+    private static void report(String step, UI ui) throws IOException {
+        StateTree tree = ui.getInternals().getStateTree();
+        tree.runExecutionsBeforeClientResponse();
+        JsonArray changes = Json.createArray();
+        ConstantPool constantPool = ui.getInternals().getConstantPool();
+        tree.collectChanges(change -> changes.set(changes.length(), change.toJson(constantPool)));
+        long invocationBytes = ui.getInternals().dumpPendingJavaScriptInvocations().stream()
+                .mapToLong(invocation -> invocation.getInvocation().getExpression().length()
+                        + invocation.getInvocation().getParameters().toString().length())
+                .sum();
+        int[] nodes = { 0 };
+        tree.getRootNode().visitNodeTree(node -> nodes[0]++);
+        System.out.printf("%-18s nodes=%5d  serialized UI=%8d bytes  UIDL=%8d bytes%n", step, nodes[0],
+                serializedSize(ui), changes.toJson().length() + constantPool.dumpConstants().toJson().length()
+                        + invocationBytes);
+    }
+
+    private static long serializedSize(Object object) throws IOException {
+        CountingStream counter = new CountingStream();
+        try (ObjectOutputStream out = new SkippingObjectOutputStream(counter)) {
+            out.writeObject(object);
+        }
+        return counter.count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Component> T find(Component root, Class<T> type, String... text) {
+        List<Component> queue = new ArrayList<>(List.of(root));
+        while (!queue.isEmpty()) {
+            Component component = queue.remove(0);
+            if (type.isInstance(component)
+                    && (text.length == 0 || text[0].equals(component.getElement().getText()))) {
+                return (T) component;
+            }
+            component.getChildren().forEach(queue::add);
+        }
+        throw new IllegalStateException(type.getSimpleName() + " bulunamadı");
+    }
+
+    /**
+     * REST çağrısı yapmadan sabit kayıtlar döndüren sağlayıcı.
+     */
+    private static final class FixedDataProvider extends PersonelDataProvider {
+
+        FixedDataProvider() {
+            super(new RestTemplate(), "http://localhost:8081/api/personel");
+        }
+
+        @Override
+        public PageResponse<Person> fetchPage(String searchQuery, int page, int size,
+                List<QuerySortOrder> sortOrders) {
+            PageResponse<Person> response = new PageResponse<>();
+            response.setContent(IntStream.range(page * size, Math.min(TOTAL, (page + 1) * size))
+                    .mapToObj(PersonelGridFootprint::person).toList());
+            response.setTotalElements(TOTAL);
+            return response;
+        }
+    }
+
+    private static Person person(int i) {
+        Person person = new Person();
+        person.setId(1_000_000L + i);
+        person.setFirstName("Ad" + i);
+        person.setLastName("Soyad" + i);
+        person.setNationalNumber(String.valueOf(10_000_000_000L + i));
+        return person;
+    }
+
+    /**
+     * Serileştirilemeyen nesneleri (RestTemplate, executor vb.) null olarak
+     * yazar; ölçüm yalnızca oturumda gerçekten taşınabilecek durumu kapsar.
+     */
+    private static final class SkippingObjectOutputStream extends ObjectOutputStream {
+
+        SkippingObjectOutputStream(OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object object) {
+            return object instanceof Serializable ? object : null;
+        }
+    }
+
+    private static final class CountingStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
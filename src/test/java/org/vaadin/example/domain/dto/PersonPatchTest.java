@@ -0,0 +1,97 @@
+package org.vaadin.example.domain.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.vaadin.example.domain.model.Person;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.ValueInstantiationException;
+
+/**
+ * PATCH gövdesinin okunmasını ve düzenlenen kayıttan patch üretilmesini
+ * doğrular.
+ */
+class PersonPatchTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void readsChangedFieldsNullsAndVersion() throws Exception {
+        PersonPatch patch = mapper.readValue("{\"lastName\":\"Kaya\",\"firstName\":null,\"version\":3}",
+                PersonPatch.class);
+
+        assertEquals(3, patch.version());
+        assertEquals("Kaya", patch.changes().get("lastName"));
+        assertTrue(patch.changes("firstName"));
+        assertNull(patch.changes().get("firstName"));
+        assertEquals(2, patch.changes().size());
+    }
+
+    @Test
+    void versionIsOptional() throws Exception {
+        PersonPatch patch = mapper.readValue("{\"lastName\":\"Kaya\"}", PersonPatch.class);
+
+        assertNull(patch.version());
+        assertEquals(Map.of("lastName", "Kaya"), patch.changes());
+    }
+
+    @Test
+    void rejectsUnknownField() {
+        assertRejected("{\"id\":5}");
+        assertRejected("{\"changeSeq\":5}");
+    }
+
+    @Test
+    void rejectsNonStringValue() {
+        assertRejected("{\"lastName\":5}");
+        assertRejected("{\"firstName\":{\"value\":\"Ayşe\"}}");
+    }
+
+    @Test
+    void rejectsNonIntegerVersion() {
+        assertRejected("{\"version\":\"3\"}");
+        assertRejected("{\"version\":3.5}");
+        assertRejected("{\"version\":null}");
+    }
+
+    @Test
+    void writesTheSameBodyItReads() throws Exception {
+        Map<String, String> changes = new LinkedHashMap<>();
+        changes.put("firstName", null);
+        changes.put("nationalNumber", "10000000146");
+        PersonPatch patch = new PersonPatch(7, changes);
+
+        assertEquals(patch, mapper.readValue(mapper.writeValueAsString(patch), PersonPatch.class));
+    }
+
+    @Test
+    void betweenContainsOnlyChangedFieldsAndTheOriginalVersion() {
+        Person original = new Person();
+        original.setVersion(4);
+        original.setFirstName("Ayşe");
+        original.setLastName("Yılmaz");
+        original.setNationalNumber("10000000146");
+        Person edited = original.copy();
+        edited.setLastName("Kaya");
+        edited.setVersion(9);
+
+        PersonPatch patch = PersonPatch.between(original, edited);
+
+        assertEquals(new PersonPatch(4, Map.of("lastName", "Kaya")), patch);
+        assertEquals("Kaya", patch.applyTo(original.copy()).getLastName());
+    }
+
+    private void assertRejected(String json) {
+        ValueInstantiationException e = assertThrows(ValueInstantiationException.class,
+                () -> mapper.readValue(json, PersonPatch.class), json);
+        assertInstanceOf(IllegalArgumentException.class, e.getCause(), json);
+    }
+}
@@ -0,0 +1,42 @@
+package org.vaadin.example.domain.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Dönüşümlerin sunucunun varsayılan locale'inden bağımsız olarak Türkçe
+ * kurallara uyduğunu doğrular.
+ */
+class NameCaseTest {
+
+    private final Locale defaultLocale = Locale.getDefault();
+
+    @AfterEach
+    void restoreDefaultLocale() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    void followsTurkishRulesWhateverTheDefaultLocale() {
+        Locale.setDefault(Locale.ENGLISH);
+
+        assertEquals("ismail", NameCase.fold("İsmail"));
+        assertEquals("ışık", NameCase.fold("IŞIK"));
+        assertEquals("İNCE", NameCase.upper("ince"));
+        assertEquals("IRMAK", NameCase.upper("ırmak"));
+    }
+
+    @Test
+    void containsIgnoresTurkishCase() {
+        assertTrue(NameCase.contains("İsmail", "ismail"));
+        assertTrue(NameCase.contains("ismail", "İSM"));
+        assertTrue(NameCase.contains("Işık", "ışı"));
+        assertFalse(NameCase.contains("Işık", "işi"));
+    }
+}
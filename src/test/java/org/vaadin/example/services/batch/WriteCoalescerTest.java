@@ -0,0 +1,97 @@
+package org.vaadin.example.services.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * İsteklerin partilere toplandığını, sonuçların sırayla dağıtıldığını,
+ * hatalı partinin tek tek yeniden denendiğini ve kapatmanın bekleyen
+ * istekleri yazdığını doğrular.
+ */
+class WriteCoalescerTest {
+
+    @Test
+    void coalescesRequestsIntoBatchesAndCompletesEachWithItsResult() throws Exception {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        try (WriteCoalescer<Integer, String> coalescer = new WriteCoalescer<>("coalescer-test", 4,
+                Duration.ofMillis(200), 100, items -> {
+                    batches.add(items);
+                    return items.stream().map(item -> "#" + item).toList();
+                })) {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(coalescer.submit(i));
+            }
+            for (int i = 0; i < 10; i++) {
+                assertEquals("#" + i, futures.get(i).get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(10, batches.stream().mapToInt(List::size).sum());
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 4), batches.toString());
+        assertTrue(batches.size() < 10, batches.toString());
+    }
+
+    @Test
+    void failedBatchIsRetriedOneByOne() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        try (WriteCoalescer<String, String> coalescer = new WriteCoalescer<>("coalescer-test", 8,
+                Duration.ofMillis(200), 100, items -> {
+                    batchSizes.add(items.size());
+                    if (items.contains("hatalı")) {
+                        throw new IllegalArgumentException("hatalı kayıt");
+                    }
+                    return items;
+                })) {
+            CompletableFuture<String> first = coalescer.submit("ilk");
+            CompletableFuture<String> bad = coalescer.submit("hatalı");
+            CompletableFuture<String> last = coalescer.submit("son");
+
+            assertEquals("ilk", first.get(5, TimeUnit.SECONDS));
+            assertEquals("son", last.get(5, TimeUnit.SECONDS));
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        }
+        assertEquals(List.of(3, 1, 1, 1), batchSizes);
+    }
+
+    @Test
+    void resultCountMismatchFailsTheRequests() {
+        try (WriteCoalescer<Integer, Integer> coalescer = new WriteCoalescer<>("coalescer-test", 1,
+                Duration.ZERO, 10, items -> List.of())) {
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> coalescer.submit(1).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+        }
+    }
+
+    @Test
+    void closeWritesQueuedRequestsAndRejectsNewOnes() throws Exception {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        WriteCoalescer<Integer, Integer> coalescer = new WriteCoalescer<>("coalescer-test", 100,
+                Duration.ofSeconds(30), 100, items -> items);
+        for (int i = 0; i < 5; i++) {
+            futures.add(coalescer.submit(i));
+        }
+        coalescer.close();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, futures.get(i).getNow(null));
+        }
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> coalescer.submit(5).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
+}
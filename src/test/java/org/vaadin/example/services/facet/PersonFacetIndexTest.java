@@ -0,0 +1,112 @@
+package org.vaadin.example.services.facet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.vaadin.example.domain.dto.PersonChange;
+import org.vaadin.example.domain.dto.PersonChanges;
+import org.vaadin.example.domain.dto.PersonFacets;
+import org.vaadin.example.domain.event.PersonChangeEvent;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.IPersonService;
+
+/**
+ * Yükleme sırasında gelen değişikliklerin bir kez sayıldığını ve soyad
+ * harflerinin Türkçe kurallarla gruplandığını doğrular.
+ */
+class PersonFacetIndexTest {
+
+    private final IPersonService personService = Mockito.mock(IPersonService.class);
+    private final PersonFacetIndex index = new PersonFacetIndex(personService, 1);
+
+    @Test
+    void changeAlreadyInTheLoadedPageIsNotCountedTwice() {
+        Person before = person(1, 1, "Yılmaz", "10000000146");
+        Person after = person(1, 2, "Kaya", "20000000146");
+        loadReturning(List.of(after), () -> index.onPersonChanged(PersonChangeEvent.updated(before, after)));
+
+        assertEquals(new PersonFacets(1, Map.of("K", 1), Map.of("2", 1)), index.facets());
+    }
+
+    @Test
+    void changeCommittedAfterThePageWasReadIsApplied() {
+        Person before = person(1, 1, "Yılmaz", "10000000146");
+        Person after = person(1, 2, "Kaya", "20000000146");
+        loadReturning(List.of(before), () -> {
+        });
+        index.onPersonChanged(PersonChangeEvent.updated(before, after));
+
+        assertEquals(new PersonFacets(1, Map.of("K", 1), Map.of("2", 1)), index.facets());
+    }
+
+    @Test
+    void eventsBeforeAndDuringTheLoadAreReplayedOnce() {
+        Person loaded = person(1, 1, "Yılmaz", "10000000146");
+        Person insertedBefore = person(2, 2, "Kaya", "20000000146");
+        Person insertedAndDeleted = person(3, 3, "Demir", "30000000146");
+        Person deletedBeforeRead = person(4, 1, "Çelik", "40000000146");
+        Person updatedUnknownPrevious = person(1, 4, "Yıldız", "10000000146");
+        index.onPersonChanged(PersonChangeEvent.inserted(insertedBefore));
+        loadReturning(List.of(loaded, insertedBefore), () -> {
+            index.onPersonChanged(PersonChangeEvent.deleted(deletedBeforeRead));
+            index.onPersonChanged(PersonChangeEvent.inserted(insertedAndDeleted));
+            index.onPersonChanged(PersonChangeEvent.deleted(insertedAndDeleted));
+        });
+        assertEquals(new PersonFacets(2, Map.of("K", 1, "Y", 1), Map.of("1", 1, "2", 1)), index.facets());
+
+        // Önceki hali bilinmeyen güncelleme toplamı değiştirmez.
+        index.onPersonChanged(PersonChangeEvent.updated(null, updatedUnknownPrevious));
+        assertEquals(2, index.facets().total());
+    }
+
+    @Test
+    void rowsChangedOrDeletedDuringTheLoadAreCountedOnce() {
+        Person kept = person(1, 1, "Yılmaz", "10000000146");
+        Person movedBefore = person(2, 2, "Kaya", "20000000146");
+        Person deleted = person(3, 3, "Demir", "30000000146");
+        Person movedAfter = person(2, 5, "Çelik", "40000000146");
+        Mockito.when(personService.changesSince(0, 1_000)).thenReturn(new PersonChanges(
+                List.of(PersonChange.upsert(kept), PersonChange.upsert(movedBefore), PersonChange.upsert(deleted)),
+                3, true));
+        Mockito.when(personService.changesSince(3, 1_000)).thenReturn(new PersonChanges(
+                List.of(PersonChange.delete(3, 4), PersonChange.upsert(movedAfter)), 5, false));
+        index.load();
+
+        assertEquals(new PersonFacets(2, Map.of("Y", 1, "Ç", 1), Map.of("1", 1, "4", 1)), index.facets());
+    }
+
+    @Test
+    void initialsFollowTurkishCaseRules() {
+        loadReturning(List.of(person(1, 1, "İnce", "1"), person(2, 2, "ince", "1"), person(3, 3, "ışık", "1"),
+                person(4, 4, "Işıklı", "1"), person(5, 5, "çelik", "1")), () -> {
+                });
+
+        assertEquals(Map.of("İ", 2, "I", 2, "Ç", 1), index.facets().lastNameInitials());
+    }
+
+    private void loadReturning(List<Person> people, Runnable duringLoad) {
+        long watermark = people.stream().mapToLong(Person::getChangeSeq).max().orElse(0);
+        List<PersonChange> changes = people.stream().map(PersonChange::upsert).toList();
+        Mockito.when(personService.changesSince(anyLong(), anyInt())).thenAnswer(invocation -> {
+            duringLoad.run();
+            return new PersonChanges(changes, watermark, false);
+        });
+        index.load();
+    }
+
+    private static Person person(long id, long changeSeq, String lastName, String nationalNumber) {
+        Person person = new Person();
+        person.setId(id);
+        person.setChangeSeq(changeSeq);
+        person.setFirstName("Ayşe");
+        person.setLastName(lastName);
+        person.setNationalNumber(nationalNumber);
+        return person;
+    }
+}
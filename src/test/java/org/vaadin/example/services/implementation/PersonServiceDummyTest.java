@@ -0,0 +1,118 @@
+package org.vaadin.example.services.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.vaadin.example.domain.dto.PersonPatch;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.memory.PersonJournal;
+import org.vaadin.example.services.unique.NationalNumberGuard;
+
+/**
+ * Bellek içi servisin snapshot ve journal ile yeniden başlatılmasını ve
+ * güncellemelerin version kontrolünü doğrular.
+ */
+class PersonServiceDummyTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restartRestoresTheSnapshot() throws Exception {
+        PersonServiceDummy first = start();
+        Person saved = first.save(person("10000000146"));
+        first.stopSnapshots();
+
+        PersonServiceDummy second = start();
+        try {
+            assertEquals(4, second.count());
+            assertEquals("10000000146", second.get(saved.getId()).orElseThrow().getNationalNumber());
+        } finally {
+            second.stopSnapshots();
+        }
+    }
+
+    @Test
+    void unreadableSnapshotStopsStartupAndKeepsTheFiles() throws Exception {
+        PersonServiceDummy first = start();
+        first.save(person("10000000146"));
+        first.stopSnapshots();
+        Path snapshot = directory.resolve("person.snapshot");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(snapshot, bytes);
+        Map<Path, byte[]> before = files();
+
+        assertThrows(IllegalStateException.class, this::start);
+
+        Map<Path, byte[]> after = files();
+        assertEquals(before.keySet(), after.keySet());
+        before.forEach((path, content) -> assertArrayEquals(content, after.get(path), path.toString()));
+    }
+
+    @Test
+    void putChecksAndIncrementsTheVersionSoAStalePatchIsRejected() throws Exception {
+        PersonServiceDummy service = start();
+        try {
+            Person saved = service.save(person("10000000146"));
+            Person edited = service.get(saved.getId()).orElseThrow().copy();
+            int readVersion = edited.getVersion();
+            edited.setLastName("Kaya");
+
+            assertEquals(readVersion + 1, service.update(saved.getId(), edited).getVersion());
+
+            PersonPatch stalePatch = new PersonPatch(readVersion, Map.of("lastName", "Demir"));
+            assertThrows(OptimisticLockingFailureException.class, () -> service.patch(saved.getId(), stalePatch));
+            Person stalePut = person("10000000146");
+            stalePut.setVersion(readVersion);
+            assertThrows(OptimisticLockingFailureException.class, () -> service.update(saved.getId(), stalePut));
+            Person current = service.get(saved.getId()).orElseThrow();
+            assertEquals("Kaya", current.getLastName());
+            assertEquals(readVersion + 1, current.getVersion());
+        } finally {
+            service.stopSnapshots();
+        }
+    }
+
+    private PersonServiceDummy start() throws IOException {
+        return new PersonServiceDummy(event -> {
+        }, new NationalNumberGuard(), 3, false, directory.resolve("person.snapshot").toString(),
+                Duration.ofHours(1), directory.resolve("person.journal").toString(),
+                PersonJournal.Durability.WRITE, Duration.ofMillis(2), Duration.ofSeconds(1));
+    }
+
+    private Map<Path, byte[]> files() throws IOException {
+        Map<Path, byte[]> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.forEach(path -> {
+                try {
+                    files.put(path, Files.readAllBytes(path));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return files;
+    }
+
+    private static Person person(String nationalNumber) {
+        Person person = new Person();
+        person.setFirstName("Ayşe");
+        person.setLastName("Yılmaz");
+        person.setNationalNumber(nationalNumber);
+        return person;
+    }
+}
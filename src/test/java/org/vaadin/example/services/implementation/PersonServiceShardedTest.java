@@ -0,0 +1,144 @@
+package org.vaadin.example.services.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.PersonSorting;
+import org.vaadin.example.services.jdbc.PersonJdbcQueries;
+import org.vaadin.example.services.jdbc.PersonRow;
+import org.vaadin.example.services.unique.NationalNumberGuard;
+
+/**
+ * Üç H2 shard'ından birleştirilen sayfaların, aynı kayıtları tek bir
+ * veritabanında tutan PersonJdbcQueries'in sayfalarıyla ve
+ * PersonSorting.comparator sırasıyla aynı olduğunu doğrular.
+ *
+ * Adlar Türkçe harfleri (Ç, Ğ, İ, I, ı, Ö, Ş, Ü) büyük ve küçük halleriyle,
+ * tekrarlarla ve boş değerlerle içerir; sayfalar baştan, ortadan ve sondan
+ * okunur.
+ */
+class PersonServiceShardedTest {
+
+    private static final String[] FIRST_NAMES = { "Çağla", "çiğdem", "Ceren", "cem", "İpek", "ipek", "Işık",
+            "ısmail", "Ömer", "öykü", "Oğuz", "Şule", "şeyma", "Selin", "Ümit", "uğur", "Zeynep", "Ayşe", "ayla" };
+    private static final String[] LAST_NAMES = { "Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Öztürk", "Işıklı",
+            "İnce", "Ünal", "Güneş", "ağaoğlu", "özdemir" };
+    private static final int PEOPLE = 240;
+    private static final int PAGE_SIZE = 7;
+
+    private static PersonServiceSharded sharded;
+    private static PersonJdbcQueries single;
+
+    @BeforeAll
+    static void setUp() {
+        String run = Long.toString(System.nanoTime());
+        List<String> urls = IntStream.range(0, 3)
+                .mapToObj(i -> "jdbc:h2:mem:sharded-test-" + run + "-" + i + ";DB_CLOSE_DELAY=-1")
+                .toList();
+        sharded = new PersonServiceSharded(event -> {
+        }, new NationalNumberGuard(), urls, "sa", "", 2, 100, 0);
+        for (int i = 0; i < PEOPLE; i++) {
+            Person person = new Person();
+            person.setFirstName(i % 23 == 0 ? null : FIRST_NAMES[i % FIRST_NAMES.length]);
+            person.setLastName(i % 29 == 0 ? null : LAST_NAMES[i % LAST_NAMES.length]);
+            person.setNationalNumber(String.valueOf(10_000_000_000L + (i * 7919L) % 100_000));
+            sharded.save(person);
+        }
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:sharded-test-" + run + "-single;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/person-shard-schema.sql")).execute(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        for (Person person : sharded.list(Pageable.unpaged()).getContent()) {
+            jdbc.update("INSERT INTO person (id, version, first_name, last_name, national_number, change_seq)"
+                    + " VALUES (?, ?, ?, ?, ?, ?)", person.getId(), person.getVersion(), person.getFirstName(),
+                    person.getLastName(), person.getNationalNumber(), person.getChangeSeq());
+        }
+        single = new PersonJdbcQueries(dataSource, 100);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        sharded.shutdown();
+    }
+
+    @Test
+    void listMatchesASingleDatabaseForEverySortAndPage() {
+        for (Sort sort : sorts()) {
+            for (int page : pages(PEOPLE)) {
+                Pageable pageable = PageRequest.of(page, PAGE_SIZE, sort);
+                Page<Person> merged = sharded.list(pageable);
+                assertEquals(ids(single.findPage(pageable)), idsOf(merged.getContent()), pageable.toString());
+                assertEquals(PEOPLE, merged.getTotalElements());
+            }
+        }
+    }
+
+    @Test
+    void listFollowsPersonSortingComparator() {
+        for (Sort sort : sorts()) {
+            List<Person> all = new ArrayList<>(sharded.list(Pageable.unpaged()).getContent());
+            Sort sanitized = PersonSorting.sanitize(sort);
+            all.sort(PersonSorting.comparator(sanitized.isSorted() ? sanitized : Sort.by("id")));
+            assertEquals(idsOf(all), idsOf(sharded.list(Pageable.unpaged(sort)).getContent()), sort.toString());
+        }
+    }
+
+    @Test
+    void searchMatchesASingleDatabaseForEverySortAndPage() {
+        for (String name : List.of("a", "İ", "ı", "i", "ç", "Ş", "ü", "yok")) {
+            long total = single.countByFirstName(name);
+            for (Sort sort : sorts()) {
+                for (int page : pages(total)) {
+                    Pageable pageable = PageRequest.of(page, PAGE_SIZE, sort);
+                    Page<Person> merged = sharded.searchByName(name, pageable);
+                    String message = name + " " + pageable;
+                    assertEquals(ids(single.searchPage(name, pageable)), idsOf(merged.getContent()), message);
+                    assertEquals(total, merged.getTotalElements(), message);
+                }
+            }
+        }
+    }
+
+    private static List<Sort> sorts() {
+        return List.of(Sort.unsorted(),
+                Sort.by("firstName"), Sort.by(Sort.Direction.DESC, "firstName"),
+                Sort.by("lastName"), Sort.by(Sort.Direction.DESC, "lastName"),
+                Sort.by("nationalNumber"), Sort.by(Sort.Direction.DESC, "nationalNumber"));
+    }
+
+    /**
+     * İlk sayfalar, ortadaki ve son sayfalar ile sonun ötesindeki bir sayfa.
+     */
+    private static List<Integer> pages(long total) {
+        int last = (int) (total / PAGE_SIZE);
+        return IntStream.of(0, 1, last / 2, last - 1, last, last + 1)
+                .filter(page -> page >= 0)
+                .distinct()
+                .boxed()
+                .toList();
+    }
+
+    private static List<Long> ids(List<PersonRow> rows) {
+        return rows.stream().map(PersonRow::id).toList();
+    }
+
+    private static List<Long> idsOf(List<Person> people) {
+        return people.stream().map(Person::getId).toList();
+    }
+}
@@ -0,0 +1,154 @@
+package org.vaadin.example.services.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.vaadin.example.domain.dto.PersonPatch;
+import org.vaadin.example.services.jdbc.PersonPatchStatement.Dialect;
+
+/**
+ * PersonPatchStatement'ın her ifade biçimini gömülü H2'de çalıştırır.
+ *
+ * PostgreSQL biçimi H2'nin PostgreSQL modunda denenir. H2 RETURNING
+ * desteklemediği için {@code RETURNING previous.*} yerine aynı satırları
+ * döndüren {@code SELECT ... FROM OLD TABLE (UPDATE ... FROM ...)} çalıştırılır;
+ * UPDATE ... FROM, alt sorgudaki kilit, SET ve parametre sırası değişmeden
+ * veritabanına gider.
+ */
+class PersonPatchStatementTest {
+
+    private static final String RETURNING = " RETURNING ";
+
+    @ParameterizedTest
+    @EnumSource(Dialect.class)
+    void matchingVersionUpdatesTheRowAndReturnsThePreviousOne(Dialect dialect) {
+        Database db = new Database(dialect);
+        db.insert(1, 3, "Ayşe", "Yılmaz", "10000000146");
+
+        Optional<PersonRow> previous = db.statement.apply(1,
+                new PersonPatch(3, Map.of("lastName", "Kaya", "nationalNumber", "10000000078")), 42);
+
+        assertEquals(new PersonRow(1, 3, "Ayşe", "Yılmaz", "10000000146", 1L), previous.orElseThrow());
+        assertEquals(new PersonRow(1, 4, "Ayşe", "Kaya", "10000000078", 42L), db.row(1));
+        db.assertReturnsPreviousRow();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Dialect.class)
+    void staleVersionLeavesTheRowUnchanged(Dialect dialect) {
+        Database db = new Database(dialect);
+        db.insert(1, 3, "Ayşe", "Yılmaz", "10000000146");
+
+        assertTrue(db.statement.apply(1, new PersonPatch(2, Map.of("lastName", "Kaya")), 42).isEmpty());
+        assertEquals(new PersonRow(1, 3, "Ayşe", "Yılmaz", "10000000146", 1L), db.row(1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Dialect.class)
+    void missingRowReturnsEmpty(Dialect dialect) {
+        Database db = new Database(dialect);
+        db.insert(1, 0, "Ayşe", "Yılmaz", "10000000146");
+
+        assertTrue(db.statement.apply(2, new PersonPatch(null, Map.of("lastName", "Kaya")), 42).isEmpty());
+        assertEquals(new PersonRow(1, 0, "Ayşe", "Yılmaz", "10000000146", 1L), db.row(1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Dialect.class)
+    void patchWithoutVersionAppliesAndNullClearsTheField(Dialect dialect) {
+        Database db = new Database(dialect);
+        db.insert(1, 5, "Ayşe", "Yılmaz", "10000000146");
+        Map<String, String> changes = new HashMap<>();
+        changes.put("firstName", null);
+
+        assertTrue(db.statement.apply(1, new PersonPatch(null, changes), 42).isPresent());
+        PersonRow row = db.row(1);
+        assertNull(row.firstName());
+        assertEquals(6, row.version());
+        assertEquals(42L, row.changeSeq());
+    }
+
+    /**
+     * Biçime uygun modda açılmış, her test için ayrı bir H2 veritabanı.
+     */
+    private static final class Database {
+
+        private final JdbcTemplate jdbc;
+        private final ReturningAsOldTable statementJdbc;
+        private final PersonPatchStatement statement;
+        private final Dialect dialect;
+
+        Database(Dialect dialect) {
+            this.dialect = dialect;
+            String mode = dialect == Dialect.POSTGRESQL ? ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE" : "";
+            DataSource dataSource = new DriverManagerDataSource(
+                    "jdbc:h2:mem:patch-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1" + mode, "sa", "");
+            new ResourceDatabasePopulator(new ClassPathResource("db/person-shard-schema.sql")).execute(dataSource);
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.statementJdbc = new ReturningAsOldTable(dataSource);
+            this.statement = new PersonPatchStatement(statementJdbc, dialect);
+        }
+
+        void insert(long id, int version, String firstName, String lastName, String nationalNumber) {
+            jdbc.update("INSERT INTO person (" + PersonJdbcQueries.COLUMNS + ") VALUES (?, ?, ?, ?, ?, 1)",
+                    id, version, firstName, lastName, nationalNumber);
+        }
+
+        PersonRow row(long id) {
+            return jdbc.queryForObject("SELECT " + PersonJdbcQueries.COLUMNS + " FROM person WHERE id = ?",
+                    PersonRow.MAPPER, id);
+        }
+
+        /**
+         * PostgreSQL ifadesi satırın güncelleme öncesi halini COLUMNS sırasıyla
+         * döndürmelidir; PersonRow.MAPPER sütunları sıra numarasıyla okur.
+         */
+        void assertReturnsPreviousRow() {
+            if (dialect != Dialect.POSTGRESQL) {
+                return;
+            }
+            String expected = "previous." + PersonJdbcQueries.COLUMNS.replace(", ", ", previous.");
+            assertEquals(List.of(expected), statementJdbc.returning);
+        }
+    }
+
+    /**
+     * PostgreSQL ifadesindeki RETURNING'i, H2'de aynı satırları döndüren OLD
+     * TABLE sorgusuyla değiştirir.
+     */
+    private static final class ReturningAsOldTable extends JdbcTemplate {
+
+        private final List<String> returning = new ArrayList<>();
+
+        ReturningAsOldTable(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            int index = sql.lastIndexOf(RETURNING);
+            if (index < 0) {
+                return super.query(sql, rowMapper, args);
+            }
+            returning.add(sql.substring(index + RETURNING.length()));
+            return super.query("SELECT " + PersonJdbcQueries.COLUMNS + " FROM OLD TABLE ("
+                    + sql.substring(0, index) + ")", rowMapper, args);
+        }
+    }
+}
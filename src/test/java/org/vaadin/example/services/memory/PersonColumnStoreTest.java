@@ -0,0 +1,136 @@
+package org.vaadin.example.services.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.PersonSorting;
+
+/**
+ * Sütun deposunun sıralı index'lerinin PersonSorting.comparator ile aynı
+ * sırayı verdiğini ve kimlik numarası aramasını doğrular. Kimlik numaraları
+ * paketlenen (rakam, farklı uzunluk, baştaki sıfırlar) ve sözlüğe giden
+ * (harf içeren, boş, çok uzun) değerleri birlikte içerir.
+ */
+class PersonColumnStoreTest {
+
+    private static final String[] NAMES = { "Ayşe", "ayla", "Çağla", "İpek", "ılgın", "Zeynep", "Ömer", "Ali" };
+    private static final String[] NATIONAL_NUMBERS = { "10000000146", "9", "09", "0", "00", "123", "12345",
+            "1234", "99999999999999999", "999999999999999999", "A123", "12a", "", "1200", "12" };
+
+    @Test
+    void sortIndexesFollowPersonSortingWhenBuiltOneByOne() {
+        List<Person> people = people();
+        PersonColumnStore store = new PersonColumnStore(4, false);
+        people.forEach(store::insert);
+
+        assertSortedLikePersonSorting(store, people);
+    }
+
+    @Test
+    void sortIndexesFollowPersonSortingWhenRebuilt() {
+        List<Person> people = people();
+        PersonColumnStore store = new PersonColumnStore(4, false);
+        store.deferSortIndexes();
+        people.forEach(store::insert);
+        store.rebuildDeferredSortIndexes();
+
+        assertSortedLikePersonSorting(store, people);
+    }
+
+    @Test
+    void findsEveryNationalNumber() {
+        List<Person> people = people();
+        PersonColumnStore store = new PersonColumnStore(4, false);
+        people.forEach(store::insert);
+
+        for (Person person : people) {
+            if (person.getNationalNumber() != null) {
+                assertEquals(person.getId(), store.findIdByNationalNumber(person.getNationalNumber()),
+                        person.getNationalNumber());
+            }
+        }
+        assertNull(store.findIdByNationalNumber("1"));
+        assertNull(store.findIdByNationalNumber("B"));
+        assertNull(store.findIdByNationalNumber("1000000014"));
+    }
+
+    @Test
+    void firstNameSearchFoldsTurkishCase() {
+        PersonColumnStore store = new PersonColumnStore(4, false);
+        String[] names = { "İsmail", "ismail", "Işık", "ılgın", "Irmak", "Ayşe" };
+        for (int i = 0; i < names.length; i++) {
+            Person person = new Person();
+            person.setId(i + 1L);
+            person.setChangeSeq(i + 1L);
+            person.setFirstName(names[i]);
+            store.insert(person);
+        }
+
+        assertEquals(2, store.countByFirstName("İSMAİL"));
+        assertEquals(2, store.countByFirstName("ism"));
+        assertEquals(3, store.countByFirstName("ı"));
+        assertEquals(List.of(3L, 4L, 5L), ids(store.searchByFirstName("I", PageRequest.of(0, 10, Sort.by("id")))
+                .getContent()));
+    }
+
+    private static void assertSortedLikePersonSorting(PersonColumnStore store, List<Person> people) {
+        for (String property : PersonSorting.SORTABLE_PROPERTIES.keySet()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                Sort sort = PersonSorting.sanitize(Sort.by(direction, property));
+                List<Person> expected = new ArrayList<>(people);
+                expected.sort(PersonSorting.comparator(sort));
+                Pageable pageable = PageRequest.of(0, people.size(), sort);
+                assertEquals(ids(expected), ids(store.list(pageable).getContent()), sort.toString());
+            }
+        }
+    }
+
+    /**
+     * Tekrarlanan ve boş değerli adlar, her örnek numaradan bir kayıt, rastgele
+     * uzunlukta benzersiz numaralar ve numarası olmayan kayıtlar; id'ler
+     * karışık sırada. Kayıt sayısı yeniden kurulan index'in merge sort yoluna
+     * girecek kadar büyüktür.
+     */
+    private static List<Person> people() {
+        Random random = new Random(42);
+        Set<String> nationalNumbers = new LinkedHashSet<>(List.of(NATIONAL_NUMBERS));
+        while (nationalNumbers.size() < 200) {
+            nationalNumbers.add(Long.toString(random.nextLong(1_000_000_000L)).substring(random.nextInt(3)));
+        }
+        List<String> values = new ArrayList<>(nationalNumbers);
+        values.add(null);
+        values.add(null);
+        Set<Long> ids = new HashSet<>();
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < values.size(); i++) {
+            Person person = new Person();
+            long id;
+            do {
+                id = 1_000L + random.nextInt(1_000_000);
+            } while (!ids.add(id));
+            person.setId(id);
+            person.setChangeSeq(i + 1L);
+            person.setFirstName(i % 5 == 0 ? null : NAMES[random.nextInt(NAMES.length)]);
+            person.setLastName(NAMES[random.nextInt(NAMES.length)]);
+            person.setNationalNumber(values.get(i));
+            people.add(person);
+        }
+        return people;
+    }
+
+    private static List<Long> ids(List<Person> people) {
+        return people.stream().map(Person::getId).toList();
+    }
+}
@@ -0,0 +1,225 @@
+package org.vaadin.example.services.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.vaadin.example.domain.model.Person;
+
+/**
+ * PersonJournal'ın diske yazdığı kayıtların replay ile aynı depoyu kurduğunu,
+ * yarım kalan veya bozuk son kaydın atılıp segmentin kesildiğini, segment
+ * geçişini ve group commit'i doğrular.
+ */
+class PersonJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayRebuildsInsertsUpdatesAndDeletes() throws Exception {
+        try (PersonJournal journal = start(PersonJournal.Durability.WRITE)) {
+            await(journal, journal.insert(person(1, 1, "Ayşe")));
+            await(journal, journal.insert(person(2, 2, "Ömer")));
+            Person updated = person(1, 3, "İpek");
+            updated.setVersion(1);
+            await(journal, journal.update(updated));
+            await(journal, journal.delete(2, 4));
+        }
+
+        PersonColumnStore store = new PersonColumnStore(4, false);
+        assertEquals(4, journal(PersonJournal.Durability.WRITE).replay(store, 0));
+        assertEquals(1, store.size());
+        Person restored = store.get(1).orElseThrow();
+        assertEquals("İpek", restored.getFirstName());
+        assertEquals(1, restored.getVersion());
+        assertEquals(3, restored.getChangeSeq());
+        assertFalse(store.contains(2));
+        assertEquals(4L, store.deletedAt(2));
+    }
+
+    @Test
+    void replaySkipsRecordsAlreadyInTheSnapshot() throws Exception {
+        try (PersonJournal journal = start(PersonJournal.Durability.WRITE)) {
+            for (int id = 1; id <= 3; id++) {
+                await(journal, journal.insert(person(id, id, "Ad" + id)));
+            }
+        }
+
+        // Depo ilk iki kaydı snapshot'tan almış; yeniden eklenirlerse satırlar çoğalır.
+        PersonColumnStore store = new PersonColumnStore(4, false);
+        store.insert(person(1, 1, "Ad1"));
+        store.insert(person(2, 2, "Ad2"));
+        assertEquals(3, journal(PersonJournal.Durability.WRITE).replay(store, 2));
+        assertEquals(3, store.size());
+        assertEquals("Ad3", store.get(3).orElseThrow().getFirstName());
+    }
+
+    @Test
+    void tornTailIsDroppedAndTheSegmentTruncated() throws Exception {
+        Path segment = writeThreeEqualRecords();
+        long size = Files.size(segment);
+        long recordBytes = size / 3;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        PersonColumnStore store = new PersonColumnStore(4, false);
+        assertEquals(2, journal(PersonJournal.Durability.WRITE).replay(store, 0));
+        assertEquals(2, store.size());
+        assertEquals(2 * recordBytes, Files.size(segment));
+    }
+
+    @Test
+    void corruptTailIsDroppedAndTheSegmentTruncated() throws Exception {
+        Path segment = writeThreeEqualRecords();
+        long size = Files.size(segment);
+        long recordBytes = size / 3;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            last.put(0, (byte) (last.get(0) ^ 0xFF)).rewind();
+            channel.write(last, size - 1);
+        }
+
+        PersonColumnStore store = new PersonColumnStore(4, false);
+        assertEquals(2, journal(PersonJournal.Durability.WRITE).replay(store, 0));
+        assertEquals(2, store.size());
+        assertFalse(store.contains(3));
+        assertEquals(2 * recordBytes, Files.size(segment));
+
+        // Kesilen segment ikinci replay'de aynı sonucu verir ve değişmez.
+        PersonColumnStore again = new PersonColumnStore(4, false);
+        assertEquals(2, journal(PersonJournal.Durability.WRITE).replay(again, 0));
+        assertEquals(2 * recordBytes, Files.size(segment));
+    }
+
+    @Test
+    void rotateStartsANewSegmentAndOlderOnesCanBeDeleted() throws Exception {
+        try (PersonJournal journal = start(PersonJournal.Durability.WRITE)) {
+            await(journal, journal.insert(person(1, 1, "Eski")));
+            assertEquals(2, journal.rotate());
+            await(journal, journal.insert(person(2, 2, "Yeni")));
+            assertTrue(Files.exists(segment(1)));
+            assertEquals(1, journal.deleteSegmentsBefore(2));
+            assertFalse(Files.exists(segment(1)));
+        }
+
+        // Snapshot ilk kaydı içeriyor; geriye kalan segment yalnızca sonrakini uygular.
+        PersonColumnStore store = new PersonColumnStore(4, false);
+        store.insert(person(1, 1, "Eski"));
+        assertEquals(2, journal(PersonJournal.Durability.WRITE).replay(store, 1));
+        assertEquals(2, store.size());
+        assertEquals("Yeni", store.get(2).orElseThrow().getFirstName());
+    }
+
+    @Test
+    void concurrentWritersShareFsyncsInWriteMode() throws Exception {
+        int writers = 8;
+        int writesPerWriter = 200;
+        try (PersonJournal journal = start(PersonJournal.Durability.WRITE)) {
+            ExecutorService executor = Executors.newFixedThreadPool(writers);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int writer = 0; writer < writers; writer++) {
+                int first = writer * writesPerWriter;
+                futures.add(executor.submit(() -> {
+                    for (int i = first + 1; i <= first + writesPerWriter; i++) {
+                        long position = appendSequenced(journal, i);
+                        journal.awaitDurable(position);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            long writes = (long) writers * writesPerWriter;
+            assertTrue(journal.syncCount() < writes, "fsync sayısı " + journal.syncCount() + ", yazma " + writes);
+            assertEquals(Files.size(segment(1)), journal.bytesWritten());
+        }
+
+        PersonColumnStore store = new PersonColumnStore(writers * writesPerWriter, false);
+        journal(PersonJournal.Durability.WRITE).replay(store, 0);
+        assertEquals(writers * writesPerWriter, store.size());
+    }
+
+    @Test
+    void batchModeCollectsRecordsIntoOneFsync() throws Exception {
+        try (PersonJournal journal = new PersonJournal(directory.resolve("j"), PersonJournal.Durability.BATCH,
+                Duration.ofMillis(500))) {
+            journal.start();
+            long position = 0;
+            for (int id = 1; id <= 10; id++) {
+                position = journal.insert(person(id, id, "Ad" + id));
+            }
+            journal.awaitDurable(position);
+            assertEquals(1, journal.syncCount());
+            assertEquals(position, journal.bytesWritten());
+        }
+    }
+
+    private long sequence;
+
+    /**
+     * Eşzamanlı yazarlar için numara verme ve ekleme, servisteki yazma kilidi
+     * gibi birlikte yapılır.
+     */
+    private synchronized long appendSequenced(PersonJournal journal, int id) {
+        return journal.insert(person(id, ++sequence, "Ad" + id));
+    }
+
+    private Path writeThreeEqualRecords() throws IOException {
+        try (PersonJournal journal = start(PersonJournal.Durability.WRITE)) {
+            for (int id = 1; id <= 3; id++) {
+                await(journal, journal.insert(person(id, id, "Ad" + id)));
+            }
+        }
+        return segment(1);
+    }
+
+    private PersonJournal start(PersonJournal.Durability durability) throws IOException {
+        PersonJournal journal = journal(durability);
+        journal.start();
+        return journal;
+    }
+
+    private PersonJournal journal(PersonJournal.Durability durability) {
+        return new PersonJournal(directory.resolve("j"), durability, Duration.ofMillis(1));
+    }
+
+    private Path segment(int number) {
+        return directory.resolve(String.format("j.%06d", number));
+    }
+
+    private static void await(PersonJournal journal, long position) {
+        journal.awaitDurable(position);
+    }
+
+    private static Person person(long id, long changeSeq, String firstName) {
+        Person person = new Person();
+        person.setId(id);
+        person.setChangeSeq(changeSeq);
+        person.setFirstName(firstName);
+        person.setLastName("Soyad");
+        person.setNationalNumber(String.valueOf(10_000_000_000L + id));
+        return person;
+    }
+}
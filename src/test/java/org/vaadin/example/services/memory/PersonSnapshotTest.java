@@ -0,0 +1,141 @@
+package org.vaadin.example.services.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.vaadin.example.domain.dto.PersonChange;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.PersonSorting;
+
+/**
+ * Dosyaya yazılan snapshot'tan kurulan deponun kaynak depoyla aynı kayıtları,
+ * sıraları, silme kayıtlarını ve değişiklik log'unu verdiğini; bozuk veya
+ * yarım dosyanın reddedildiğini doğrular.
+ */
+class PersonSnapshotTest {
+
+    private static final String[] NATIONAL_NUMBERS = { "10000000146", "09", "A123", "", "999999999999999999" };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restoredStoreMatchesTheOriginal() throws IOException {
+        PersonColumnStore original = store();
+        Path file = directory.resolve("person.snapshot");
+        original.snapshot(42).write(file);
+
+        PersonSnapshot snapshot = PersonSnapshot.read(file);
+        assertEquals(42, snapshot.lastChangeSeq());
+        assertEquals(original.size(), snapshot.size());
+        for (boolean offHeap : new boolean[] { false, true }) {
+            PersonColumnStore restored = PersonColumnStore.restore(snapshot, offHeap);
+            for (String property : PersonSorting.SORTABLE_PROPERTIES.keySet()) {
+                for (Sort.Direction direction : Sort.Direction.values()) {
+                    Pageable pageable = PageRequest.of(0, 100, Sort.by(direction, property));
+                    assertEquals(describe(original.list(pageable).getContent()),
+                            describe(restored.list(pageable).getContent()), pageable.toString());
+                }
+            }
+            for (String nationalNumber : NATIONAL_NUMBERS) {
+                assertEquals(original.findIdByNationalNumber(nationalNumber),
+                        restored.findIdByNationalNumber(nationalNumber), nationalNumber);
+            }
+            assertFalse(restored.contains(3));
+            assertEquals(original.deletedAt(3), restored.deletedAt(3));
+            assertEquals(describeChanges(original.changesSince(0, Long.MAX_VALUE, 100)),
+                    describeChanges(restored.changesSince(0, Long.MAX_VALUE, 100)));
+        }
+    }
+
+    @Test
+    void writeReplacesThePreviousSnapshot() throws IOException {
+        Path file = directory.resolve("person.snapshot");
+        store().snapshot(1).write(file);
+        new PersonColumnStore(4, false).snapshot(2).write(file);
+
+        PersonSnapshot snapshot = PersonSnapshot.read(file);
+        assertEquals(2, snapshot.lastChangeSeq());
+        assertEquals(0, snapshot.size());
+        assertFalse(Files.exists(directory.resolve("person.snapshot.tmp")));
+    }
+
+    @Test
+    void corruptedContentFailsTheChecksum() throws IOException {
+        Path file = directory.resolve("person.snapshot");
+        store().snapshot(42).write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(file, bytes);
+
+        IOException failure = assertThrows(IOException.class, () -> PersonSnapshot.read(file));
+        assertTrue(failure.getMessage().contains("sağlama toplamı"), failure.getMessage());
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path file = directory.resolve("person.snapshot");
+        store().snapshot(42).write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertThrows(IOException.class, () -> PersonSnapshot.read(file));
+        Files.write(file, new byte[4]);
+        assertThrows(IOException.class, () -> PersonSnapshot.read(file));
+    }
+
+    /**
+     * Sözlüğe giden ve paketlenen numaralar, güncellenen ve silinen bir
+     * kayıt içeren depo.
+     */
+    private static PersonColumnStore store() {
+        PersonColumnStore store = new PersonColumnStore(4, false);
+        for (int i = 0; i < NATIONAL_NUMBERS.length; i++) {
+            store.insert(person(i + 1, i + 1, i % 2 == 0 ? "Ayşe" : "İpek", NATIONAL_NUMBERS[i]));
+        }
+        Person updated = person(1, 6, "Ömer", NATIONAL_NUMBERS[0]);
+        updated.setVersion(1);
+        store.update(updated);
+        store.delete(3, 7);
+        return store;
+    }
+
+    private static List<String> describe(List<Person> people) {
+        return people.stream().map(PersonSnapshotTest::describe).toList();
+    }
+
+    private static List<String> describeChanges(List<PersonChange> changes) {
+        return changes.stream()
+                .map(change -> change.type() + " " + change.id() + " " + change.changeSeq() + " "
+                        + (change.person() != null ? describe(change.person()) : null))
+                .toList();
+    }
+
+    private static String describe(Person person) {
+        return person.getId() + "/" + person.getVersion() + "/" + person.getChangeSeq() + "/"
+                + person.getFirstName() + "/" + person.getLastName() + "/" + person.getNationalNumber();
+    }
+
+    private static Person person(long id, long changeSeq, String firstName, String nationalNumber) {
+        Person person = new Person();
+        person.setId(id);
+        person.setChangeSeq(changeSeq);
+        person.setFirstName(firstName);
+        person.setLastName("Yılmaz");
+        person.setNationalNumber(nationalNumber);
+        return person;
+    }
+}
@@ -0,0 +1,142 @@
+package org.vaadin.example.services.suggest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.vaadin.example.domain.dto.NameSuggestion;
+import org.vaadin.example.domain.dto.PersonChange;
+import org.vaadin.example.domain.dto.PersonChanges;
+import org.vaadin.example.domain.event.PersonChangeEvent;
+import org.vaadin.example.domain.model.Person;
+import org.vaadin.example.services.IPersonService;
+
+/**
+ * Yükleme sırasında gelen değişikliklerin bir kez sayıldığını ve öneklerin
+ * Türkçe büyük/küçük harf kurallarıyla eşleştiğini doğrular.
+ */
+class PersonNameIndexTest {
+
+    private final IPersonService personService = Mockito.mock(IPersonService.class);
+    private final PersonNameIndex index = new PersonNameIndex(personService);
+
+    @Test
+    void changeAlreadyInTheLoadedPageIsNotCountedTwice() {
+        Person before = person(1, 1, "Ayşe", "Yılmaz");
+        Person after = person(1, 2, "Ayşe", "Kaya");
+        // Güncelleme sayfa okunmadan commit edildi; olay yükleme sürerken gelir.
+        loadReturning(List.of(after), () -> index.onPersonChanged(PersonChangeEvent.updated(before, after)));
+
+        assertEquals(List.of(new NameSuggestion("Kaya", PersonNameIndex.LAST_NAME, 1)),
+                index.suggest("k", PersonNameIndex.LAST_NAME, 10));
+        assertEquals(List.of(), index.suggest("y", PersonNameIndex.LAST_NAME, 10));
+    }
+
+    @Test
+    void changeCommittedAfterThePageWasReadIsApplied() {
+        Person before = person(1, 1, "Ayşe", "Yılmaz");
+        Person after = person(1, 2, "Ayşe", "Kaya");
+        loadReturning(List.of(before), () -> {
+        });
+        // Sayfa eski hali okuduktan sonra gelen olay, yükleme bitince uygulanır.
+        index.onPersonChanged(PersonChangeEvent.updated(before, after));
+
+        assertEquals(List.of(new NameSuggestion("Kaya", PersonNameIndex.LAST_NAME, 1)),
+                index.suggest("k", PersonNameIndex.LAST_NAME, 10));
+        assertEquals(List.of(), index.suggest("y", PersonNameIndex.LAST_NAME, 10));
+    }
+
+    @Test
+    void eventsBeforeAndDuringTheLoadAreReplayedOnce() {
+        Person loaded = person(1, 1, "Ayşe", "Yılmaz");
+        Person insertedBefore = person(2, 2, "Ayşe", "Kaya");
+        Person insertedAndDeleted = person(3, 3, "Ayşe", "Demir");
+        Person deletedBeforeRead = person(4, 1, "Ayşe", "Çelik");
+        // Açılışta eklenen kayıt hem olay olarak hem sayfada gelir.
+        index.onPersonChanged(PersonChangeEvent.inserted(insertedBefore));
+        loadReturning(List.of(loaded, insertedBefore), () -> {
+            index.onPersonChanged(PersonChangeEvent.deleted(deletedBeforeRead));
+            index.onPersonChanged(PersonChangeEvent.inserted(insertedAndDeleted));
+            index.onPersonChanged(PersonChangeEvent.deleted(insertedAndDeleted));
+        });
+
+        assertEquals(List.of(new NameSuggestion("Ayşe", PersonNameIndex.FIRST_NAME, 2)),
+                index.suggest("a", PersonNameIndex.FIRST_NAME, 10));
+        assertEquals(List.of(new NameSuggestion("Kaya", PersonNameIndex.LAST_NAME, 1)),
+                index.suggest("k", PersonNameIndex.LAST_NAME, 10));
+        assertEquals(List.of(), index.suggest("d", PersonNameIndex.LAST_NAME, 10));
+        assertEquals(List.of(), index.suggest("ç", PersonNameIndex.LAST_NAME, 10));
+
+        // Yükleme bittikten sonra olaylar doğrudan uygulanır.
+        index.onPersonChanged(PersonChangeEvent.deleted(insertedBefore));
+        assertEquals(List.of(), index.suggest("k", PersonNameIndex.LAST_NAME, 10));
+        assertEquals(List.of("Yılmaz"), values(index.suggest("y", PersonNameIndex.LAST_NAME, 10)));
+    }
+
+    @Test
+    void loadReadsEveryPageFromTheLastWatermark() {
+        Person kept = person(1, 1, "Ayşe", "Yılmaz");
+        Person movedBefore = person(2, 2, "Ayşe", "Kaya");
+        Person deleted = person(3, 3, "Ayşe", "Demir");
+        Person movedAfter = person(2, 5, "Ayşe", "Çelik");
+        // Okuma sürerken 2 güncellendi ve 3 silindi; ikisi de sonraki sayfada gelir.
+        Mockito.when(personService.changesSince(0, 1_000)).thenReturn(new PersonChanges(
+                List.of(PersonChange.upsert(kept), PersonChange.upsert(movedBefore), PersonChange.upsert(deleted)),
+                3, true));
+        Mockito.when(personService.changesSince(3, 1_000)).thenReturn(new PersonChanges(
+                List.of(PersonChange.delete(3, 4), PersonChange.upsert(movedAfter)), 5, false));
+        index.load();
+
+        assertEquals(List.of(new NameSuggestion("Ayşe", PersonNameIndex.FIRST_NAME, 2)),
+                index.suggest("a", PersonNameIndex.FIRST_NAME, 10));
+        assertEquals(List.of("Çelik"), values(index.suggest("ç", PersonNameIndex.LAST_NAME, 10)));
+        assertEquals(List.of(), index.suggest("k", PersonNameIndex.LAST_NAME, 10));
+        assertEquals(List.of(), index.suggest("d", PersonNameIndex.LAST_NAME, 10));
+    }
+
+    @Test
+    void prefixesFollowTurkishCaseRules() {
+        loadReturning(List.of(person(1, 1, "İpek", "Işık"), person(2, 2, "ılgın", "İnce"),
+                person(3, 3, "Irmak", "ince")), () -> {
+                });
+
+        assertEquals(List.of("İpek"), values(index.suggest("i", PersonNameIndex.FIRST_NAME, 10)));
+        assertEquals(List.of("İpek"), values(index.suggest("İP", PersonNameIndex.FIRST_NAME, 10)));
+        assertEquals(List.of("ılgın", "Irmak"), values(index.suggest("ı", PersonNameIndex.FIRST_NAME, 10)));
+        assertEquals(List.of("ılgın", "Irmak"), values(index.suggest("I", PersonNameIndex.FIRST_NAME, 10)));
+        assertEquals(List.of(new NameSuggestion("İnce", PersonNameIndex.LAST_NAME, 2)),
+                index.suggest("İN", PersonNameIndex.LAST_NAME, 10));
+        assertEquals(List.of("Işık"), values(index.suggest("ış", PersonNameIndex.LAST_NAME, 10)));
+    }
+
+    /**
+     * Index'i servisin tek sayfalık değişiklik listesinden yükler; duringLoad
+     * servis çağrısının içinde, yükleme bitmeden çalışır.
+     */
+    private void loadReturning(List<Person> people, Runnable duringLoad) {
+        long watermark = people.stream().mapToLong(Person::getChangeSeq).max().orElse(0);
+        List<PersonChange> changes = people.stream().map(PersonChange::upsert).toList();
+        Mockito.when(personService.changesSince(anyLong(), anyInt())).thenAnswer(invocation -> {
+            duringLoad.run();
+            return new PersonChanges(changes, watermark, false);
+        });
+        index.load();
+    }
+
+    private static List<String> values(List<NameSuggestion> suggestions) {
+        return suggestions.stream().map(NameSuggestion::value).toList();
+    }
+
+    private static Person person(long id, long changeSeq, String firstName, String lastName) {
+        Person person = new Person();
+        person.setId(id);
+        person.setChangeSeq(changeSeq);
+        person.setFirstName(firstName);
+        person.setLastName(lastName);
+        return person;
+    }
+}
@@ -0,0 +1,54 @@
+package org.vaadin.example.services.unique;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.vaadin.example.domain.event.PersonChangeEvent;
+import org.vaadin.example.domain.model.Person;
+
+/**
+ * Yüklenmemiş filtrenin her numara için asıl kaynağa yönlendirdiğini,
+ * yüklenen ve sonradan eklenen numaraların kaçırılmadığını doğrular.
+ */
+class NationalNumberGuardTest {
+
+    private final NationalNumberGuard guard = new NationalNumberGuard();
+
+    @Test
+    void everyNumberMightExistUntilLoaded() {
+        assertTrue(guard.mightExist("10000000146"));
+        assertFalse(guard.mightExist(null));
+        assertEquals(1, guard.getProbes());
+        assertEquals(0, guard.getSkippedProbes());
+    }
+
+    @Test
+    void loadedNumbersAreNeverSkipped() {
+        List<String> loaded = Arrays.asList("10000000146", null, "20000000146", "A123");
+        guard.load(loaded.size(), loaded.iterator());
+
+        assertTrue(guard.mightExist("10000000146"));
+        assertTrue(guard.mightExist("20000000146"));
+        assertTrue(guard.mightExist("A123"));
+        assertFalse(guard.mightExist("30000000146"));
+        assertEquals(1, guard.getSkippedProbes());
+    }
+
+    @Test
+    void numbersFromChangeEventsAreAdded() {
+        guard.load(0, List.<String>of().iterator());
+        Person person = new Person();
+        person.setId(1L);
+        person.setNationalNumber("30000000146");
+        assertFalse(guard.mightExist("30000000146"));
+
+        guard.onPersonChanged(PersonChangeEvent.inserted(person));
+
+        assertTrue(guard.mightExist("30000000146"));
+    }
+}
@@ -0,0 +1,61 @@
+package org.vaadin.example.services.unique;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Filtrenin kapasitesini aşarak büyüdüğünde de yanlış negatif vermediğini ve
+ * yanlış pozitif oranının sınır içinde kaldığını doğrular.
+ */
+class ScalableBloomFilterTest {
+
+    private static final int ADDED = 50_000;
+    private static final int PROBED = 100_000;
+
+    @Test
+    void hasNoFalseNegativesAfterGrowing() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_024);
+        long initialBytes = filter.bitBytes();
+        for (int i = 0; i < ADDED; i++) {
+            filter.add(nationalNumber(i));
+        }
+
+        assertTrue(filter.bitBytes() > initialBytes);
+        for (int i = 0; i < ADDED; i++) {
+            assertTrue(filter.mightContain(nationalNumber(i)), nationalNumber(i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysWithinTwiceTheFirstStageRate() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_024);
+        for (int i = 0; i < ADDED; i++) {
+            filter.add(nationalNumber(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = ADDED; i < ADDED + PROBED; i++) {
+            if (filter.mightContain(nationalNumber(i))) {
+                falsePositives++;
+            }
+        }
+        // Aşamaların toplam oranı 0,02'yi geçmez; örnekleme payı bırakılır.
+        assertTrue(falsePositives < PROBED * 0.025, falsePositives + " yanlış pozitif");
+    }
+
+    @Test
+    void sizeCountsDistinctValues() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(10);
+        filter.add("10000000146");
+        filter.add("10000000146");
+        filter.add("20000000146");
+
+        assertEquals(2, filter.size());
+    }
+
+    private static String nationalNumber(int i) {
+        return Long.toString(10_000_000_000L + i * 7L);
+    }
+}